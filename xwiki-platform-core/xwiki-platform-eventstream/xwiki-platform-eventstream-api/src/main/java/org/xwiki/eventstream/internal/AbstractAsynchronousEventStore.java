@@ -23,12 +23,14 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -64,6 +66,12 @@ public abstract class AbstractAsynchronousEventStore implements EventStore, Init
 {
     private static final List<String> CONTEXT_ENTRIES = Arrays.asList("user", "author", "wiki");
 
+    /**
+     * The types of tasks which can be grouped and executed together.
+     */
+    private static final EnumSet<EventStoreTaskType> BATCH_TYPES = EnumSet.of(EventStoreTaskType.SAVE_EVENT,
+        EventStoreTaskType.SAVE_STATUS, EventStoreTaskType.SAVE_MAIL_ENTITY);
+
     /**
      * The type of task.
      * 
@@ -155,6 +163,18 @@ public EventStoreTaskType getType()
         }
     }
 
+    /**
+     * Execute the same kind of task for several inputs at once.
+     * 
+     * @param <O> the return type of the task
+     * @param <I> the input type of the task
+     */
+    @FunctionalInterface
+    private interface BatchOperation<O, I>
+    {
+        List<O> apply(List<I> inputs) throws EventStreamException;
+    }
+
     private static class DeleteStatusesData
     {
         private final String entityId;
@@ -193,6 +213,10 @@ public EventStoreTaskType getType()
 
     private boolean disposed;
 
+    private int batchSize;
+
+    private long flushInterval;
+
     private <O, I> CompletableFuture<O> addTask(I input, EventStoreTaskType type)
     {
         // Remember a few standard things from the context
@@ -301,17 +325,28 @@ private void processTasks(EventStoreTask<?, ?> firstTask)
 
         List<EventStoreTask<?, ?>> tasks = new ArrayList<>();
         try {
-            for (EventStoreTask<?, ?> task = firstTask; task != null; task = this.queue.poll()) {
+            // Consecutive tasks of the same type are grouped so that the store can save them all at once
+            List<EventStoreTask<?, ?>> batch = new ArrayList<>();
+            for (EventStoreTask<?, ?> task = firstTask; task != null; task = pollTask(!batch.isEmpty())) {
                 if (task != EventStoreTask.STOP) {
-                    try {
-                        processTask(task);
-                    } catch (Exception e) {
-                        task.future.completeExceptionally(e);
+                    if (!batch.isEmpty() && (batch.get(0).type != task.type || batch.size() >= this.batchSize)) {
+                        processBatch(batch);
+                        batch = new ArrayList<>();
+                    }
+
+                    if (this.batchSize > 1 && BATCH_TYPES.contains(task.type)) {
+                        batch.add(task);
+                    } else {
+                        processTaskSafely(task);
                     }
 
                     tasks.add(task);
                 }
             }
+
+            if (!batch.isEmpty()) {
+                processBatch(batch);
+            }
         } finally {
             afterTasks(tasks);
 
@@ -319,6 +354,82 @@ private void processTasks(EventStoreTask<?, ?> firstTask)
         }
     }
 
+    private EventStoreTask<?, ?> pollTask(boolean pendingBatch)
+    {
+        if (pendingBatch && this.flushInterval > 0) {
+            // Give a chance to more tasks to join the pending batch
+            try {
+                return this.queue.poll(this.flushInterval, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return null;
+            }
+        }
+
+        return this.queue.poll();
+    }
+
+    private void processTaskSafely(EventStoreTask<?, ?> task)
+    {
+        try {
+            processTask(task);
+        } catch (Exception e) {
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    private void processBatch(List<EventStoreTask<?, ?>> batch)
+    {
+        if (batch.size() == 1) {
+            processTaskSafely(batch.get(0));
+
+            return;
+        }
+
+        switch (batch.get(0).type) {
+            case SAVE_EVENT:
+                processBatch(batch, this::syncSaveEvents);
+                break;
+
+            case SAVE_STATUS:
+                processBatch(batch, this::syncSaveEventStatuses);
+                break;
+
+            case SAVE_MAIL_ENTITY:
+                processBatch(batch, this::syncSaveMailEntityEvents);
+                break;
+
+            default:
+                batch.forEach(this::processTaskSafely);
+                break;
+        }
+    }
+
+    private <O, I> void processBatch(List<EventStoreTask<?, ?>> batch, BatchOperation<O, I> operation)
+    {
+        List<I> inputs = new ArrayList<>(batch.size());
+        for (EventStoreTask<?, ?> task : batch) {
+            inputs.add((I) task.input);
+        }
+
+        List<O> outputs;
+        try {
+            outputs = operation.apply(inputs);
+        } catch (Exception e) {
+            // Don't fail all the tasks because of a single bad input: process them again one by one
+            this.logger.debug("Failed to process a batch of [{}] tasks, processing them one by one", batch.size(), e);
+
+            batch.forEach(this::processTaskSafely);
+
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); ++i) {
+            processTaskOutput((EventStoreTask<O, I>) batch.get(i), outputs.get(i));
+        }
+    }
+
     private boolean processTask(EventStoreTask<?, ?> task) throws EventStreamException
     {
         switch (task.type) {
@@ -457,6 +568,72 @@ private <O, I> void complete(EventStoreTask<O, I> task, O output)
      */
     protected abstract Event syncPrefilterEvent(Event event) throws EventStreamException;
 
+    /**
+     * Save several events at once. The default implementation saves them one by one, stores which can do better (for
+     * example in a single request or transaction) are expected to overwrite it.
+     * <p>
+     * If an exception is thrown, the events of the batch are saved again one by one so that only the invalid
+     * ones fail.
+     * 
+     * @param events the events to save
+     * @return the saved events, in the same order
+     * @throws EventStreamException when failing to save the events
+     * @since 12.6
+     */
+    protected List<Event> syncSaveEvents(List<Event> events) throws EventStreamException
+    {
+        List<Event> result = new ArrayList<>(events.size());
+        for (Event event : events) {
+            result.add(syncSaveEvent(event));
+        }
+
+        return result;
+    }
+
+    /**
+     * Save several event statuses at once. The default implementation saves them one by one, stores which can do
+     * better are expected to overwrite it.
+     * <p>
+     * If an exception is thrown, the statuses of the batch are saved again one by one so that only the invalid
+     * ones fail.
+     * 
+     * @param statuses the event statuses to save
+     * @return the saved event statuses, in the same order
+     * @throws EventStreamException when failing to save the statuses
+     * @since 12.6
+     */
+    protected List<EventStatus> syncSaveEventStatuses(List<EventStatus> statuses) throws EventStreamException
+    {
+        List<EventStatus> result = new ArrayList<>(statuses.size());
+        for (EventStatus status : statuses) {
+            result.add(syncSaveEventStatus(status));
+        }
+
+        return result;
+    }
+
+    /**
+     * Save several event/entity relations at once. The default implementation saves them one by one, stores which can
+     * do better are expected to overwrite it.
+     * <p>
+     * If an exception is thrown, the relations of the batch are saved again one by one so that only the invalid
+     * ones fail.
+     * 
+     * @param events the event/entity relations to save
+     * @return the saved event/entity relations, in the same order
+     * @throws EventStreamException when failing to save the relations
+     * @since 12.6
+     */
+    protected List<EntityEvent> syncSaveMailEntityEvents(List<EntityEvent> events) throws EventStreamException
+    {
+        List<EntityEvent> result = new ArrayList<>(events.size());
+        for (EntityEvent event : events) {
+            result.add(syncSaveMailEntityEvent(event));
+        }
+
+        return result;
+    }
+
     /**
      * @param status the event status to save
      */
@@ -496,6 +673,24 @@ protected void afterTasks(List<EventStoreTask<?, ?>> tasks)
 
     protected void initialize(int queueSize, boolean notifyEach, boolean notifyAll)
     {
+        initialize(queueSize, notifyEach, notifyAll, 1, 0);
+    }
+
+    /**
+     * @param queueSize the maximum number of tasks waiting to be executed
+     * @param notifyEach true if the tasks should be completed as soon as they are executed
+     * @param notifyAll true if the tasks should be completed once all the available tasks have been executed
+     * @param batchSize the maximum number of consecutive tasks of the same type to execute at once, 1 or less to
+     *            execute the tasks one by one
+     * @param flushInterval the maximum time in milliseconds to wait for more tasks to join a pending batch
+     * @since 12.6
+     */
+    protected void initialize(int queueSize, boolean notifyEach, boolean notifyAll, int batchSize,
+        long flushInterval)
+    {
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+
         this.notifyEach = notifyEach;
         this.notifyAll = !notifyEach && notifyAll;
 
@@ -54,4 +54,24 @@ public boolean isEventStoreEnabled()
     {
         return this.configuration.getProperty("eventstream.store.enabled", true);
     }
+
+    /**
+     * @return the maximum number of consecutive tasks of the same kind (saving events, statuses, etc.) the
+     *         {@link EventStore} should write at once
+     * @since 12.6
+     */
+    public int getStoreBatchSize()
+    {
+        return this.configuration.getProperty("eventstream.store.batchSize", 100);
+    }
+
+    /**
+     * @return the maximum time in milliseconds the {@link EventStore} should wait for more tasks to add to a batch
+     *         before writing it
+     * @since 12.6
+     */
+    public long getStoreFlushInterval()
+    {
+        return this.configuration.getProperty("eventstream.store.flushInterval", 0L);
+    }
 }
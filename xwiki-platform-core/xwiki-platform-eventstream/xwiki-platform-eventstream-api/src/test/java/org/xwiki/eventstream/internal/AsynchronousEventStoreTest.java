@@ -19,10 +19,14 @@
  */
 package org.xwiki.eventstream.internal;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 
 import org.junit.jupiter.api.Test;
@@ -38,9 +42,11 @@
 import org.xwiki.test.junit5.mockito.InjectMockComponents;
 import org.xwiki.test.mockito.MockitoComponentManager;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -184,12 +190,47 @@ protected Optional<Event> syncDeleteEvent(Event event) throws EventStreamExcepti
         }
     }
 
+    private static final String INVALID_ENTITY = "invalid";
+
+    public static class TestBatchAsynchronousEventStore extends TestAbstractAsynchronousEventStore
+    {
+        List<Integer> statusBatches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void initialize() throws InitializationException
+        {
+            // Wait long enough for all the tasks of the test to join the same batch
+            initialize(100, true, false, 10, 1000);
+        }
+
+        @Override
+        protected List<EventStatus> syncSaveEventStatuses(List<EventStatus> statuses) throws EventStreamException
+        {
+            this.statusBatches.add(statuses.size());
+
+            return super.syncSaveEventStatuses(statuses);
+        }
+
+        @Override
+        protected EventStatus syncSaveEventStatus(EventStatus status) throws EventStreamException
+        {
+            if (INVALID_ENTITY.equals(status.getEntityId())) {
+                throw new EventStreamException("Invalid status");
+            }
+
+            return super.syncSaveEventStatus(status);
+        }
+    }
+
     @InjectComponentManager
     private MockitoComponentManager componentManager;
 
     @InjectMockComponents
     private TestAbstractAsynchronousEventStore store;
 
+    @InjectMockComponents
+    private TestBatchAsynchronousEventStore batchStore;
+
     private DefaultEvent event(String id)
     {
         DefaultEvent event = new DefaultEvent();
@@ -274,6 +315,55 @@ void eventstatus() throws InterruptedException, ExecutionException, EventStreamE
         assertSame(status23, this.store.events.get(event2.getId()).statuses.get(status23.getEntityId()));
     }
 
+    @Test
+    void eventstatusBatch() throws InterruptedException, ExecutionException, EventStreamException
+    {
+        DefaultEvent event1 = event("id1");
+        DefaultEventStatus status11 = eventStatus(event1, "entity1", true);
+        DefaultEventStatus status12 = eventStatus(event1, "entity2", true);
+        DefaultEventStatus status13 = eventStatus(event1, "entity3", true);
+
+        this.batchStore.saveEvent(event1);
+        CompletableFuture<EventStatus> future11 = this.batchStore.saveEventStatus(status11);
+        CompletableFuture<EventStatus> future12 = this.batchStore.saveEventStatus(status12);
+        CompletableFuture<EventStatus> future13 = this.batchStore.saveEventStatus(status13);
+
+        // Each task is still completed with its own result
+        assertSame(status11, future11.get());
+        assertSame(status12, future12.get());
+        assertSame(status13, future13.get());
+
+        assertEquals(Arrays.asList(3), this.batchStore.statusBatches);
+        assertSame(status11, this.batchStore.events.get(event1.getId()).statuses.get(status11.getEntityId()));
+        assertSame(status12, this.batchStore.events.get(event1.getId()).statuses.get(status12.getEntityId()));
+        assertSame(status13, this.batchStore.events.get(event1.getId()).statuses.get(status13.getEntityId()));
+    }
+
+    @Test
+    void eventstatusBatchWithInvalidStatus() throws InterruptedException, ExecutionException, EventStreamException
+    {
+        DefaultEvent event1 = event("id1");
+        DefaultEventStatus status11 = eventStatus(event1, "entity1", true);
+        DefaultEventStatus status12 = eventStatus(event1, INVALID_ENTITY, true);
+        DefaultEventStatus status13 = eventStatus(event1, "entity3", true);
+
+        this.batchStore.saveEvent(event1);
+        CompletableFuture<EventStatus> future11 = this.batchStore.saveEventStatus(status11);
+        CompletableFuture<EventStatus> future12 = this.batchStore.saveEventStatus(status12);
+        CompletableFuture<EventStatus> future13 = this.batchStore.saveEventStatus(status13);
+
+        // Only the invalid status fails
+        assertSame(status11, future11.get());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future12.get());
+        assertEquals("Invalid status", exception.getCause().getMessage());
+        assertSame(status13, future13.get());
+
+        assertEquals(Arrays.asList(3), this.batchStore.statusBatches);
+        assertSame(status11, this.batchStore.events.get(event1.getId()).statuses.get(status11.getEntityId()));
+        assertNull(this.batchStore.events.get(event1.getId()).statuses.get(status12.getEntityId()));
+        assertSame(status13, this.batchStore.events.get(event1.getId()).statuses.get(status13.getEntityId()));
+    }
+
     @Test
     void mailentity() throws InterruptedException, ExecutionException, EventStreamException
     {
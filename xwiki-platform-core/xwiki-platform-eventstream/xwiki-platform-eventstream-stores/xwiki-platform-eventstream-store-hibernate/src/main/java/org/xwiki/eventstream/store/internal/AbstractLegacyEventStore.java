@@ -20,6 +20,7 @@
 package org.xwiki.eventstream.store.internal;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Inject;
@@ -35,6 +36,7 @@
 import org.xwiki.eventstream.EventStreamException;
 import org.xwiki.eventstream.internal.AbstractAsynchronousEventStore;
 import org.xwiki.eventstream.internal.EmptyEventSearchResult;
+import org.xwiki.eventstream.internal.EventStreamConfiguration;
 import org.xwiki.query.QueryException;
 
 /**
@@ -51,6 +53,16 @@ public abstract class AbstractLegacyEventStore extends AbstractAsynchronousEvent
     @Inject
     private EventStatusManager eventStatusManager;
 
+    @Inject
+    private EventStreamConfiguration configuration;
+
+    @Override
+    protected void initialize(int queueSize, boolean notifyEach, boolean notifyAll)
+    {
+        initialize(queueSize, notifyEach, notifyAll, this.configuration.getStoreBatchSize(),
+            this.configuration.getStoreFlushInterval());
+    }
+
     @Override
     protected Event syncSaveEvent(Event event) throws EventStreamException
     {
@@ -95,6 +107,23 @@ public EventStatus syncSaveEventStatus(EventStatus status) throws EventStreamExc
         return status;
     }
 
+    @Override
+    protected List<EventStatus> syncSaveEventStatuses(List<EventStatus> statuses) throws EventStreamException
+    {
+        if (this.eventStatusManager instanceof LegacyEventStatusManager) {
+            // Save all the statuses in the same transaction
+            try {
+                ((LegacyEventStatusManager) this.eventStatusManager).saveEventStatuses(statuses);
+            } catch (Exception e) {
+                throw new EventStreamException("Failed to save the statuses in the old event store", e);
+            }
+
+            return statuses;
+        }
+
+        return super.syncSaveEventStatuses(statuses);
+    }
+
     @Override
     public EntityEvent syncSaveMailEntityEvent(EntityEvent event) throws EventStreamException
     {
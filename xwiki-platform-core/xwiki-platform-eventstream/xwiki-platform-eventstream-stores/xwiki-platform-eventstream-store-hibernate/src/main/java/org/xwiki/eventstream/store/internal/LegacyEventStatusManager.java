@@ -22,13 +22,16 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hibernate.Session;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.namespace.NamespaceContextExecutor;
@@ -147,20 +150,42 @@ private boolean isPresent(Event event, String entityId, List<EventStatus> list)
     @Override
     public void saveEventStatus(EventStatus eventStatus) throws Exception
     {
-        LegacyEventStatus status = eventConverter.convertEventStatusToLegacyActivityStatus(eventStatus);
+        saveEventStatuses(Collections.singletonList(eventStatus));
+    }
+
+    /**
+     * Save several event statuses with a single transaction for each store.
+     *
+     * @param eventStatuses the event statuses to save
+     * @throws Exception when failing to save the statuses
+     * @since 12.6
+     */
+    public void saveEventStatuses(List<EventStatus> eventStatuses) throws Exception
+    {
+        // Hibernate does not accept several instances with the same identifier in the same session, so only keep the
+        // last status of each event/entity couple
+        Map<Pair<String, String>, LegacyEventStatus> statusMap = new LinkedHashMap<>(eventStatuses.size());
+        for (EventStatus eventStatus : eventStatuses) {
+            LegacyEventStatus status = eventConverter.convertEventStatusToLegacyActivityStatus(eventStatus);
+            Pair<String, String> key = Pair.of(status.getActivityEvent().getEventId(), status.getEntityId());
+            // Remove the previous status so that the new one takes its position in the batch
+            statusMap.remove(key);
+            statusMap.put(key, status);
+        }
+        List<LegacyEventStatus> statuses = new ArrayList<>(statusMap.values());
 
         boolean isSavedOnMainStore = false;
 
         if (configuration.useLocalStore()) {
             String currentWiki = wikiDescriptorManager.getCurrentWikiId();
-            saveEventStatusInStore(status, currentWiki);
+            saveEventStatusesInStore(statuses, currentWiki);
             isSavedOnMainStore = wikiDescriptorManager.isMainWiki(currentWiki);
         }
 
         if (configuration.useMainStore() && !isSavedOnMainStore) {
             // save event into the main database (if the event was not already be recorded on the main store,
             // otherwise we would duplicate the event)
-            saveEventStatusInStore(status, wikiDescriptorManager.getMainWikiId());
+            saveEventStatusesInStore(statuses, wikiDescriptorManager.getMainWikiId());
         }
     }
 
@@ -184,15 +209,17 @@ public void deleteEventStatus(EventStatus eventStatus) throws Exception
         }
     }
 
-    private void saveEventStatusInStore(LegacyEventStatus eventStatus, String wikiId) throws Exception
+    private void saveEventStatusesInStore(List<LegacyEventStatus> eventStatuses, String wikiId) throws Exception
     {
         namespaceContextExecutor.execute(new WikiNamespace(wikiId), () -> {
             XWikiContext context = contextProvider.get();
             XWikiHibernateStore hibernateStore = context.getWiki().getHibernateStore();
             try {
                 hibernateStore.executeWrite(context, session -> {
-                    // The event status may already exists, so we use saveOrUpdate
-                    session.saveOrUpdate(eventStatus);
+                    for (LegacyEventStatus eventStatus : eventStatuses) {
+                        // The event status may already exists, so we use saveOrUpdate
+                        session.saveOrUpdate(eventStatus);
+                    }
 
                     return null;
                 });
@@ -200,7 +227,9 @@ private void saveEventStatusInStore(LegacyEventStatus eventStatus, String wikiId
                 throw new EventStreamException(e);
             }
 
-            this.observation.notify(new EventStatusAddOrUpdatedEvent(), eventStatus);
+            for (LegacyEventStatus eventStatus : eventStatuses) {
+                this.observation.notify(new EventStatusAddOrUpdatedEvent(), eventStatus);
+            }
             return null;
         });
     }
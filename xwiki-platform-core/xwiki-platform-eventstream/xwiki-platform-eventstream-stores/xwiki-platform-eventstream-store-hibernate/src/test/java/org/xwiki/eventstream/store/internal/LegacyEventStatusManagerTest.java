@@ -0,0 +1,144 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.eventstream.store.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import javax.inject.Provider;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.component.namespace.Namespace;
+import org.xwiki.component.namespace.NamespaceContextExecutor;
+import org.xwiki.eventstream.EventStatus;
+import org.xwiki.eventstream.internal.events.EventStatusAddOrUpdatedEvent;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.wiki.descriptor.WikiDescriptorManager;
+
+import com.xpn.xwiki.XWiki;
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.store.XWikiHibernateBaseStore.HibernateCallback;
+import com.xpn.xwiki.store.XWikiHibernateStore;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link LegacyEventStatusManager}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+class LegacyEventStatusManagerTest
+{
+    @InjectMockComponents
+    private LegacyEventStatusManager statusManager;
+
+    @MockComponent
+    private LegacyEventConverter eventConverter;
+
+    @MockComponent
+    private LegacyEventStreamStoreConfiguration configuration;
+
+    @MockComponent
+    private Provider<XWikiContext> contextProvider;
+
+    @MockComponent
+    private WikiDescriptorManager wikiDescriptorManager;
+
+    @MockComponent
+    private ObservationManager observation;
+
+    @MockComponent
+    private NamespaceContextExecutor namespaceContextExecutor;
+
+    private XWikiHibernateStore hibernateStore;
+
+    private Session session;
+
+    @BeforeEach
+    void beforeEach() throws Exception
+    {
+        when(this.configuration.useLocalStore()).thenReturn(true);
+        when(this.wikiDescriptorManager.getCurrentWikiId()).thenReturn("xwiki");
+        when(this.wikiDescriptorManager.isMainWiki("xwiki")).thenReturn(true);
+
+        when(this.namespaceContextExecutor.execute(any(Namespace.class), any(Callable.class)))
+            .thenAnswer(invocationOnMock -> ((Callable) invocationOnMock.getArgument(1)).call());
+
+        XWikiContext context = mock(XWikiContext.class);
+        XWiki wiki = mock(XWiki.class);
+        this.hibernateStore = mock(XWikiHibernateStore.class);
+        this.session = mock(Session.class);
+        when(this.contextProvider.get()).thenReturn(context);
+        when(context.getWiki()).thenReturn(wiki);
+        when(wiki.getHibernateStore()).thenReturn(this.hibernateStore);
+        when(this.hibernateStore.executeWrite(same(context), any(HibernateCallback.class))).thenAnswer(
+            invocationOnMock -> ((HibernateCallback) invocationOnMock.getArgument(1)).doInHibernate(this.session));
+    }
+
+    private LegacyEventStatus legacyStatus(EventStatus eventStatus, String eventId, String entityId, boolean read)
+    {
+        LegacyEvent event = new LegacyEvent();
+        event.setEventId(eventId);
+
+        LegacyEventStatus status = new LegacyEventStatus();
+        status.setActivityEvent(event);
+        status.setEntityId(entityId);
+        status.setRead(read);
+
+        when(this.eventConverter.convertEventStatusToLegacyActivityStatus(eventStatus)).thenReturn(status);
+
+        return status;
+    }
+
+    @Test
+    void saveEventStatusesWithSameKey() throws Exception
+    {
+        EventStatus eventStatus1 = mock(EventStatus.class);
+        EventStatus eventStatus2 = mock(EventStatus.class);
+        EventStatus eventStatus3 = mock(EventStatus.class);
+        LegacyEventStatus status1 = legacyStatus(eventStatus1, "event1", "entity", false);
+        LegacyEventStatus status2 = legacyStatus(eventStatus2, "event2", "entity", false);
+        LegacyEventStatus status3 = legacyStatus(eventStatus3, "event1", "entity", true);
+
+        this.statusManager.saveEventStatuses(Arrays.asList(eventStatus1, eventStatus2, eventStatus3));
+
+        // Only the last status of a given event/entity couple is saved in the session
+        verify(this.hibernateStore, times(1)).executeWrite(any(XWikiContext.class), any(HibernateCallback.class));
+        verify(this.session, never()).saveOrUpdate(same(status1));
+        verify(this.session).saveOrUpdate(same(status2));
+        verify(this.session).saveOrUpdate(same(status3));
+
+        verify(this.observation, never()).notify(any(EventStatusAddOrUpdatedEvent.class), same(status1));
+        verify(this.observation).notify(any(EventStatusAddOrUpdatedEvent.class), same(status2));
+        verify(this.observation).notify(any(EventStatusAddOrUpdatedEvent.class), same(status3));
+    }
+}
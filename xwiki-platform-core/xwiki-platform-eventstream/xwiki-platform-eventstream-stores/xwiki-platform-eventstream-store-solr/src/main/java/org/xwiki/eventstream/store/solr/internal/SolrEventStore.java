@@ -21,6 +21,7 @@
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -53,6 +54,7 @@
 import org.xwiki.eventstream.EventStreamException;
 import org.xwiki.eventstream.internal.AbstractAsynchronousEventStore;
 import org.xwiki.eventstream.internal.DefaultEvent;
+import org.xwiki.eventstream.internal.EventStreamConfiguration;
 import org.xwiki.eventstream.internal.StreamEventSearchResult;
 import org.xwiki.eventstream.query.CompareQueryCondition;
 import org.xwiki.eventstream.query.CompareQueryCondition.CompareType;
@@ -72,6 +74,7 @@
 import org.xwiki.model.reference.SpaceReference;
 import org.xwiki.model.reference.WikiReference;
 import org.xwiki.search.solr.Solr;
+import org.xwiki.search.solr.SolrCommitPolicy;
 import org.xwiki.search.solr.SolrException;
 import org.xwiki.search.solr.SolrUtils;
 
@@ -99,6 +102,12 @@ public class SolrEventStore extends AbstractAsynchronousEventStore
     @Inject
     private SolrUtils utils;
 
+    @Inject
+    private SolrCommitPolicy commitPolicy;
+
+    @Inject
+    private EventStreamConfiguration configuration;
+
     @Inject
     private EntityReferenceSerializer<String> serializer;
 
@@ -111,7 +120,8 @@ public class SolrEventStore extends AbstractAsynchronousEventStore
     @Override
     public void initialize() throws InitializationException
     {
-        initialize(100, false, true);
+        initialize(100, false, true, this.configuration.getStoreBatchSize(),
+            this.configuration.getStoreFlushInterval());
 
         try {
             this.client = this.solr.getClient(EventsSolrCoreInitializer.NAME);
@@ -136,7 +146,7 @@ protected void afterTasks(List<EventStoreTask<?, ?>> tasks)
     protected Event syncSaveEvent(Event event) throws EventStreamException
     {
         try {
-            this.client.add(toSolrInputDocument(event));
+            this.client.add(toSolrInputDocument(event), this.commitPolicy.getCommitWithin());
         } catch (Exception e) {
             throw new EventStreamException("Failed to save event", e);
         }
@@ -144,6 +154,19 @@ protected Event syncSaveEvent(Event event) throws EventStreamException
         return event;
     }
 
+    @Override
+    protected List<Event> syncSaveEvents(List<Event> events) throws EventStreamException
+    {
+        List<SolrInputDocument> documents = new ArrayList<>(events.size());
+        for (Event event : events) {
+            documents.add(toSolrInputDocument(event));
+        }
+
+        add(documents, "Failed to save events");
+
+        return events;
+    }
+
     @Override
     protected EventStatus syncSaveEventStatus(EventStatus status) throws EventStreamException
     {
@@ -152,6 +175,20 @@ protected EventStatus syncSaveEventStatus(EventStatus status) throws EventStream
         return status;
     }
 
+    @Override
+    protected List<EventStatus> syncSaveEventStatuses(List<EventStatus> statuses) throws EventStreamException
+    {
+        List<SolrInputDocument> documents = new ArrayList<>(statuses.size());
+        for (EventStatus status : statuses) {
+            documents.add(toEventStatusDocument(status.getEvent().getId(), status.getEntityId(), status.isRead(),
+                !status.isRead()));
+        }
+
+        add(documents, "Failed to update event statuses");
+
+        return statuses;
+    }
+
     @Override
     protected EntityEvent syncSaveMailEntityEvent(EntityEvent event) throws EventStreamException
     {
@@ -160,6 +197,28 @@ protected EntityEvent syncSaveMailEntityEvent(EntityEvent event) throws EventStr
         return event;
     }
 
+    @Override
+    protected List<EntityEvent> syncSaveMailEntityEvents(List<EntityEvent> events) throws EventStreamException
+    {
+        List<SolrInputDocument> documents = new ArrayList<>(events.size());
+        for (EntityEvent event : events) {
+            documents.add(toMailEntityEventDocument(event.getEvent().getId(), event.getEntityId(), true));
+        }
+
+        add(documents, "Failed to update event mail statuses");
+
+        return events;
+    }
+
+    private void add(List<SolrInputDocument> documents, String message) throws EventStreamException
+    {
+        try {
+            this.client.add(documents, this.commitPolicy.getCommitWithin());
+        } catch (Exception e) {
+            throw new EventStreamException(message, e);
+        }
+    }
+
     @Override
     protected Optional<EventStatus> syncDeleteEventStatus(EventStatus status) throws EventStreamException
     {
@@ -180,7 +239,7 @@ protected Void syncDeleteEventStatuses(String entityId, Date date) throws EventS
         builder.append(serializeStatusCondition(new StatusQueryCondition(entityId, null, false)));
 
         try {
-            this.client.deleteByQuery(builder.toString());
+            this.client.deleteByQuery(builder.toString(), this.commitPolicy.getCommitWithin());
         } catch (Exception e) {
             throw new EventStreamException("Failed to delete the event", e);
         }
@@ -206,7 +265,7 @@ protected Event syncPrefilterEvent(Event event) throws EventStreamException
         this.utils.setAtomic(SolrUtils.ATOMIC_UPDATE_MODIFIER_SET, Event.FIELD_PREFILTERED, true, document);
 
         try {
-            this.client.add(document);
+            this.client.add(document, this.commitPolicy.getCommitWithin());
         } catch (Exception e) {
             throw new EventStreamException(
                 String.format("Failed to to set the event [%s] as prefiltered", event.getId()), e);
@@ -222,6 +281,19 @@ protected Event syncPrefilterEvent(Event event) throws EventStreamException
 
     private void saveEventStatus(String eventId, String entityId, boolean read, boolean unread)
         throws EventStreamException
+    {
+        SolrInputDocument document = toEventStatusDocument(eventId, entityId, read, unread);
+
+        try {
+            this.client.add(document, this.commitPolicy.getCommitWithin());
+        } catch (Exception e) {
+            throw new EventStreamException(
+                String.format("Failed to update the event status for event [%s] and entity id [%s]", eventId, entityId),
+                e);
+        }
+    }
+
+    private SolrInputDocument toEventStatusDocument(String eventId, String entityId, boolean read, boolean unread)
     {
         SolrInputDocument document = new SolrInputDocument();
 
@@ -234,16 +306,22 @@ private void saveEventStatus(String eventId, String entityId, boolean read, bool
             unread ? SolrUtils.ATOMIC_UPDATE_MODIFIER_ADD_DISTINCT : SolrUtils.ATOMIC_UPDATE_MODIFIER_REMOVE,
             EventsSolrCoreInitializer.SOLR_FIELD_UNREADLISTENERS, entityId, document);
 
+        return document;
+    }
+
+    private void saveMailEntityEvent(String eventId, String entityId, boolean add) throws EventStreamException
+    {
+        SolrInputDocument document = toMailEntityEventDocument(eventId, entityId, add);
+
         try {
-            this.client.add(document);
+            this.client.add(document, this.commitPolicy.getCommitWithin());
         } catch (Exception e) {
-            throw new EventStreamException(
-                String.format("Failed to update the event status for event [%s] and entity id [%s]", eventId, entityId),
-                e);
+            throw new EventStreamException(String.format(
+                "Failed to update the event mail status for event [%s] and entity id [%s]", eventId, entityId), e);
         }
     }
 
-    private void saveMailEntityEvent(String eventId, String entityId, boolean add) throws EventStreamException
+    private SolrInputDocument toMailEntityEventDocument(String eventId, String entityId, boolean add)
     {
         SolrInputDocument document = new SolrInputDocument();
 
@@ -253,12 +331,7 @@ private void saveMailEntityEvent(String eventId, String entityId, boolean add) t
             add ? SolrUtils.ATOMIC_UPDATE_MODIFIER_ADD_DISTINCT : SolrUtils.ATOMIC_UPDATE_MODIFIER_REMOVE,
             EventsSolrCoreInitializer.SOLR_FIELD_MAILLISTENERS, entityId, document);
 
-        try {
-            this.client.add(document);
-        } catch (Exception e) {
-            throw new EventStreamException(String.format(
-                "Failed to update the event mail status for event [%s] and entity id [%s]", eventId, entityId), e);
-        }
+        return document;
     }
 
     private SolrInputDocument toSolrInputDocument(Event event)
@@ -332,7 +405,7 @@ protected Optional<Event> syncDeleteEvent(Event event) throws EventStreamExcepti
     private void deleteById(String eventId) throws EventStreamException
     {
         try {
-            this.client.deleteById(eventId);
+            this.client.deleteById(eventId, this.commitPolicy.getCommitWithin());
         } catch (Exception e) {
             throw new EventStreamException("Failed to delete the event", e);
         }
@@ -341,7 +414,7 @@ private void deleteById(String eventId) throws EventStreamException
     private void commit() throws EventStreamException
     {
         try {
-            this.client.commit();
+            this.commitPolicy.commit(this.client);
         } catch (Exception e) {
             throw new EventStreamException("Failed to commit", e);
         }
@@ -24,6 +24,7 @@
 import org.xwiki.properties.annotation.PropertyDescription;
 import org.xwiki.properties.annotation.PropertyName;
 import org.xwiki.rendering.syntax.Syntax;
+import org.xwiki.stability.Unstable;
 
 /**
  * @version $Id$
@@ -76,6 +77,11 @@ public class DocumentInstanceOutputProperties extends InstanceOutputProperties
      */
     private boolean stoppedWhenSaveFail = true;
 
+    /**
+     * @see #getBatchSize()
+     */
+    private int batchSize = 1;
+
     /**
      * @return The base reference to use to resolve reference from events
      */
@@ -237,4 +243,28 @@ public void setStoppedWhenSaveFail(boolean stoppedWhenSaveFail)
     {
         this.stoppedWhenSaveFail = stoppedWhenSaveFail;
     }
+
+    /**
+     * @return the number of documents to save in the same database transaction. Listeners are notified about the
+     *         documents of a batch only once it's committed.
+     * @since 12.6
+     */
+    @PropertyName("Batch size")
+    @PropertyDescription("The number of documents to save in the same database transaction."
+        + " Listeners (indexing, links, notifications, etc.) are notified only when the batch is committed.")
+    @Unstable
+    public int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+    /**
+     * @param batchSize the number of documents to save in the same database transaction
+     * @since 12.6
+     */
+    @Unstable
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
 }
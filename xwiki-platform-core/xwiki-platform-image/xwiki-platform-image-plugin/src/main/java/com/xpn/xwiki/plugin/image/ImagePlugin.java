@@ -21,12 +21,21 @@
 
 import java.awt.Image;
 import java.awt.image.RenderedImage;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xwiki.cache.Cache;
@@ -34,6 +43,7 @@
 import org.xwiki.cache.CacheManager;
 import org.xwiki.cache.config.CacheConfiguration;
 import org.xwiki.cache.eviction.LRUEvictionConfiguration;
+import org.xwiki.environment.Environment;
 
 import com.xpn.xwiki.XWikiContext;
 import com.xpn.xwiki.XWikiException;
@@ -82,6 +92,24 @@ public class ImagePlugin extends XWikiDefaultPlugin
      */
     private ImageProcessor imageProcessor;
 
+    /**
+     * Store for the transformed images on the file system, {@code null} when disabled. The maximum total size of the
+     * stored files (in bytes) can be configured using the key {@code xwiki.plugin.image.cache.diskCapacity}.
+     */
+    private ThumbnailStore thumbnailStore;
+
+    /**
+     * Limit the number of images transformed at the same time. This limit can be configured using the key
+     * {@code xwiki.plugin.image.maxConcurrentResizes}.
+     */
+    private Semaphore resizePermits;
+
+    /**
+     * The transformations in progress, used to make concurrent requests for the same transformed image wait for the
+     * same transformation.
+     */
+    private final ConcurrentMap<String, CompletableFuture<XWikiAttachment>> resizing = new ConcurrentHashMap<>();
+
     /**
      * Creates a new instance of this plugin.
      *
@@ -115,6 +143,11 @@ public void init(XWikiContext context)
         super.init(context);
 
         initCache(context);
+        initThumbnailStore(context);
+
+        int maxConcurrentResizes = NumberUtils.toInt(context.getWiki().Param("xwiki.plugin.image.maxConcurrentResizes"),
+            Runtime.getRuntime().availableProcessors());
+        this.resizePermits = new Semaphore(Math.max(1, maxConcurrentResizes));
 
         String imageProcessorHint = context.getWiki().Param("xwiki.plugin.image.processorHint", "thumbnailator");
         this.imageProcessor = Utils.getComponent(ImageProcessor.class, imageProcessorHint);
@@ -166,6 +199,21 @@ private void initCache(XWikiContext context)
         }
     }
 
+    /**
+     * Initializes the store for the transformed images on the file system if it's enabled.
+     *
+     * @param context the XWiki context
+     */
+    private void initThumbnailStore(XWikiContext context)
+    {
+        long diskCapacity = NumberUtils.toLong(context.getWiki().Param("xwiki.plugin.image.cache.diskCapacity"), 0);
+        if (diskCapacity > 0) {
+            File directory = new File(Utils.getComponent(Environment.class).getPermanentDirectory(),
+                "cache/image/thumbnails");
+            this.thumbnailStore = new ThumbnailStore(directory, diskCapacity);
+        }
+    }
+
     @Override
     public void flushCache()
     {
@@ -284,13 +332,110 @@ private XWikiAttachment downloadImageFromCache(XWikiAttachment image, int width,
             width, height, keepAspectRatio, quality);
 
         XWikiAttachment thumbnail = this.imageCache.get(key);
-        if (thumbnail == null) {
-            thumbnail = shrinkImage(image, width, height, keepAspectRatio, quality, context);
+        if (thumbnail == null || !isAvailable(thumbnail)) {
+            thumbnail = shrinkImageOnce(key, image, width, height, keepAspectRatio, quality, context);
             this.imageCache.set(key, thumbnail);
         }
         return thumbnail;
     }
 
+    /**
+     * @param thumbnail a transformed image
+     * @return {@code true} if the content of the transformed image can still be read, {@code false} if it has been
+     *         evicted from the file system
+     */
+    private boolean isAvailable(XWikiAttachment thumbnail)
+    {
+        return !(thumbnail.getAttachment_content() instanceof ThumbnailAttachmentContent)
+            || ((ThumbnailAttachmentContent) thumbnail.getAttachment_content()).getFile().exists();
+    }
+
+    /**
+     * Transforms the given image, unless the same transformation is already in progress in which case its result is
+     * reused.
+     *
+     * @param key the key of the transformed image
+     * @param image the image to be downloaded
+     * @param width the desired image width
+     * @param height the desired image height
+     * @param keepAspectRatio {@code true} to preserve aspect ratio when resizing the image, {@code false} otherwise
+     * @param quality the desired compression quality
+     * @param context the XWiki context
+     * @return the transformed image
+     * @throws Exception if transforming the image fails
+     */
+    private XWikiAttachment shrinkImageOnce(String key, XWikiAttachment image, int width, int height,
+        boolean keepAspectRatio, float quality, XWikiContext context) throws Exception
+    {
+        CompletableFuture<XWikiAttachment> future = new CompletableFuture<>();
+        CompletableFuture<XWikiAttachment> currentFuture = this.resizing.putIfAbsent(key, future);
+        if (currentFuture != null) {
+            try {
+                return currentFuture.join();
+            } catch (CompletionException e) {
+                throw (Exception) e.getCause();
+            }
+        }
+
+        try {
+            XWikiAttachment thumbnail = this.thumbnailStore != null
+                ? shrinkImageToStore(key, image, width, height, keepAspectRatio, quality, context)
+                : shrinkImage(image, width, height, keepAspectRatio, quality, context);
+            future.complete(thumbnail);
+
+            return thumbnail;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+
+            throw e;
+        } finally {
+            this.resizing.remove(key);
+        }
+    }
+
+    /**
+     * Get the transformed image from the file system or transforms it and store the result on the file system.
+     *
+     * @param key the key of the transformed image
+     * @param image the image to be downloaded
+     * @param width the desired image width
+     * @param height the desired image height
+     * @param keepAspectRatio {@code true} to preserve aspect ratio when resizing the image, {@code false} otherwise
+     * @param quality the desired compression quality
+     * @param context the XWiki context
+     * @return the transformed image, with a content backed by a file
+     * @throws Exception if transforming the image fails
+     */
+    private XWikiAttachment shrinkImageToStore(String key, XWikiAttachment image, int width, int height,
+        boolean keepAspectRatio, float quality, XWikiContext context) throws Exception
+    {
+        File file = this.thumbnailStore.get(key);
+        if (file == null) {
+            File temporaryFile = this.thumbnailStore.createTemporaryFile();
+            try {
+                boolean shrunk;
+                try (OutputStream output = new FileOutputStream(temporaryFile)) {
+                    shrunk = shrinkImage(image, width, height, keepAspectRatio, quality, output, context);
+                }
+                if (!shrunk) {
+                    return image;
+                }
+                file = this.thumbnailStore.put(key, temporaryFile);
+            } finally {
+                FileUtils.deleteQuietly(temporaryFile);
+            }
+        }
+
+        XWikiAttachment thumbnail = new XWikiAttachment(image.getDoc(), image.getFilename());
+        thumbnail.setVersion(image.getVersion());
+        thumbnail.setDate(image.getDate());
+        thumbnail.setMimeType(image.getMimeType());
+        thumbnail.setAttachment_content(new ThumbnailAttachmentContent(file, thumbnail));
+        thumbnail.setLongSize(file.length());
+
+        return thumbnail;
+    }
+
     /**
      * Reduces the size (i.e. the number of bytes) of an image by scaling its width and height and by reducing its
      * compression quality. This helps decreasing the time needed to download the image attachment.
@@ -310,6 +455,48 @@ private XWikiAttachment downloadImageFromCache(XWikiAttachment image, int width,
      */
     private XWikiAttachment shrinkImage(XWikiAttachment attachment, int requestedWidth, int requestedHeight,
         boolean keepAspectRatio, float requestedQuality, XWikiContext context) throws Exception
+    {
+        // Create an image attachment for the shrunk image.
+        XWikiAttachment thumbnail = (XWikiAttachment) attachment.clone();
+        thumbnail.loadAttachmentContent(context);
+
+        OutputStream acos = thumbnail.getAttachment_content().getContentOutputStream();
+        try {
+            return shrinkImage(attachment, requestedWidth, requestedHeight, keepAspectRatio, requestedQuality, acos,
+                context) ? thumbnail : attachment;
+        } finally {
+            IOUtils.closeQuietly(acos);
+        }
+    }
+
+    /**
+     * Writes a reduced version of the given image to the given output.
+     *
+     * @param attachment the image to be shrunk
+     * @param requestedWidth the desired image width
+     * @param requestedHeight the desired image height
+     * @param keepAspectRatio {@code true} to preserve the image aspect ratio, {@code false} otherwise
+     * @param requestedQuality the desired compression quality
+     * @param output where to write the shrunk image
+     * @param context the XWiki context
+     * @return {@code false} if the image doesn't need to be transformed, in which case nothing is written
+     * @throws Exception if shrinking the image fails
+     */
+    private boolean shrinkImage(XWikiAttachment attachment, int requestedWidth, int requestedHeight,
+        boolean keepAspectRatio, float requestedQuality, OutputStream output, XWikiContext context) throws Exception
+    {
+        // Image processing uses a lot of memory and CPU so we don't want too many of them at the same time
+        this.resizePermits.acquire();
+        try {
+            return shrinkImageWithPermit(attachment, requestedWidth, requestedHeight, keepAspectRatio,
+                requestedQuality, output, context);
+        } finally {
+            this.resizePermits.release();
+        }
+    }
+
+    private boolean shrinkImageWithPermit(XWikiAttachment attachment, int requestedWidth, int requestedHeight,
+        boolean keepAspectRatio, float requestedQuality, OutputStream output, XWikiContext context) throws Exception
     {
         Image image = this.imageProcessor.readImage(attachment.getContentInputStream(context));
 
@@ -323,7 +510,7 @@ private XWikiAttachment shrinkImage(XWikiAttachment attachment, int requestedWid
         if (quality < 0) {
             // If no scaling is needed and the quality parameter is not specified, return the original image.
             if (dimensions[0] == currentWidth && dimensions[1] == currentHeight) {
-                return attachment;
+                return false;
             }
             quality = this.defaultQuality;
         }
@@ -331,19 +518,12 @@ private XWikiAttachment shrinkImage(XWikiAttachment attachment, int requestedWid
         // Scale the image to the new dimensions.
         RenderedImage shrunkImage = this.imageProcessor.scaleImage(image, dimensions[0], dimensions[1]);
 
-        // Create an image attachment for the shrunk image.
-        XWikiAttachment thumbnail = (XWikiAttachment) attachment.clone();
-        thumbnail.loadAttachmentContent(context);
-
-        OutputStream acos = thumbnail.getAttachment_content().getContentOutputStream();
         this.imageProcessor.writeImage(shrunkImage,
             attachment.getMimeType(context),
             quality,
-            acos);
+            output);
 
-        IOUtils.closeQuietly(acos);
-
-        return thumbnail;
+        return true;
     }
 
     /**
@@ -0,0 +1,113 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.plugin.image;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.AutoCloseInputStream;
+
+import com.xpn.xwiki.doc.XWikiAttachment;
+import com.xpn.xwiki.doc.XWikiAttachmentContent;
+
+/**
+ * The content of a transformed image stored by the {@link ThumbnailStore}.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+class ThumbnailAttachmentContent extends XWikiAttachmentContent
+{
+    private final File file;
+
+    /**
+     * @param file the file containing the transformed image
+     * @param attachment the attachment to associate this content with
+     */
+    ThumbnailAttachmentContent(File file, XWikiAttachment attachment)
+    {
+        super(attachment, null);
+
+        this.file = file;
+    }
+
+    /**
+     * @param content the content to copy
+     */
+    ThumbnailAttachmentContent(ThumbnailAttachmentContent content)
+    {
+        super(content);
+
+        this.file = content.file;
+    }
+
+    @Override
+    public ThumbnailAttachmentContent clone()
+    {
+        return new ThumbnailAttachmentContent(this);
+    }
+
+    /**
+     * @return the file containing the transformed image
+     */
+    File getFile()
+    {
+        return this.file;
+    }
+
+    @Override
+    @Deprecated
+    public byte[] getContent()
+    {
+        try {
+            return FileUtils.readFileToByteArray(this.file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read the thumbnail content", e);
+        }
+    }
+
+    @Override
+    public InputStream getContentInputStream()
+    {
+        try {
+            return new AutoCloseInputStream(new FileInputStream(this.file));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open the thumbnail content", e);
+        }
+    }
+
+    @Override
+    public SeekableByteChannel getContentChannel() throws IOException
+    {
+        return FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+    }
+
+    @Override
+    public long getLongSize()
+    {
+        return this.file.length();
+    }
+}
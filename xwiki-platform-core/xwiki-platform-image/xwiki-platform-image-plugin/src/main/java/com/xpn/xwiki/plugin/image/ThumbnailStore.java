@@ -0,0 +1,171 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.plugin.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Stores the transformed images on the file system so that they survive restarts and don't use the heap. The least
+ * recently used files are deleted when the total size of the stored files exceeds the configured capacity.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+class ThumbnailStore
+{
+    private static final String EXTENSION = ".img";
+
+    private final File directory;
+
+    private final long capacity;
+
+    /**
+     * The size of the stored files, indexed by file name, from the least recently used to the most recently used.
+     */
+    private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long size;
+
+    /**
+     * @param directory the directory where to store the files
+     * @param capacity the maximum total size of the stored files, in bytes
+     */
+    ThumbnailStore(File directory, long capacity)
+    {
+        this.directory = directory;
+        this.capacity = capacity;
+
+        load();
+    }
+
+    private void load()
+    {
+        File[] existingFiles = this.directory.listFiles();
+        if (existingFiles != null) {
+            // The last modified date is updated on each access
+            Arrays.sort(existingFiles, Comparator.comparingLong(File::lastModified));
+            for (File file : existingFiles) {
+                if (file.getName().endsWith(EXTENSION)) {
+                    this.files.put(file.getName(), file.length());
+                    this.size += file.length();
+                } else {
+                    // Left over by an interrupted write
+                    FileUtils.deleteQuietly(file);
+                }
+            }
+
+            evict();
+        }
+    }
+
+    /**
+     * @param key the key of the transformed image
+     * @return the file containing the transformed image or {@code null} if it's not stored
+     */
+    synchronized File get(String key)
+    {
+        String fileName = getFileName(key);
+        if (this.files.get(fileName) != null) {
+            File file = new File(this.directory, fileName);
+            if (file.exists()) {
+                // Remember the access across restarts
+                file.setLastModified(System.currentTimeMillis());
+
+                return file;
+            }
+
+            this.size -= this.files.remove(fileName);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return a new temporary file where to write a transformed image before calling {@link #put(String, File)}
+     * @throws IOException when failing to create the file
+     */
+    File createTemporaryFile() throws IOException
+    {
+        this.directory.mkdirs();
+
+        return File.createTempFile("thumbnail", ".tmp", this.directory);
+    }
+
+    /**
+     * @param key the key of the transformed image
+     * @param temporaryFile the temporary file containing the transformed image
+     * @return the file where the transformed image is stored
+     * @throws IOException when failing to move the temporary file
+     */
+    File put(String key, File temporaryFile) throws IOException
+    {
+        String fileName = getFileName(key);
+        File file = new File(this.directory, fileName);
+
+        // Make sure nobody can read a partially written file
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this) {
+            Long previousSize = this.files.put(fileName, file.length());
+            this.size += file.length() - (previousSize != null ? previousSize : 0);
+
+            evict();
+        }
+
+        return file;
+    }
+
+    private void evict()
+    {
+        Iterator<Map.Entry<String, Long>> iterator = this.files.entrySet().iterator();
+        // Always keep the most recent file, even when it's bigger than the capacity
+        while (this.size > this.capacity && this.files.size() > 1) {
+            Map.Entry<String, Long> entry = iterator.next();
+            FileUtils.deleteQuietly(new File(this.directory, entry.getKey()));
+            this.size -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @return the total size of the stored files, in bytes
+     */
+    synchronized long getSize()
+    {
+        return this.size;
+    }
+
+    private String getFileName(String key)
+    {
+        return DigestUtils.sha256Hex(key) + EXTENSION;
+    }
+}
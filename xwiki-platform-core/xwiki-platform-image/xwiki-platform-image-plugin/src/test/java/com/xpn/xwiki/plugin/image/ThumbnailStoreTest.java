@@ -0,0 +1,127 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.plugin.image;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.XWikiTempDirExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link ThumbnailStore}.
+ *
+ * @version $Id$
+ */
+@ExtendWith(XWikiTempDirExtension.class)
+public class ThumbnailStoreTest
+{
+    @XWikiTempDir
+    private File tmpDir;
+
+    private File directory;
+
+    @BeforeEach
+    public void setUp()
+    {
+        this.directory = new File(this.tmpDir, "thumbnails");
+    }
+
+    private File put(ThumbnailStore store, String key, String content) throws IOException
+    {
+        File temporaryFile = store.createTemporaryFile();
+        FileUtils.write(temporaryFile, content, "UTF-8");
+
+        File file = store.put(key, temporaryFile);
+
+        assertFalse(temporaryFile.exists());
+
+        return file;
+    }
+
+    @Test
+    public void putAndGet() throws IOException
+    {
+        ThumbnailStore store = new ThumbnailStore(this.directory, 100);
+
+        assertNull(store.get("key"));
+
+        File file = put(store, "key", "content");
+
+        assertEquals(file, store.get("key"));
+        assertEquals("content", FileUtils.readFileToString(file, "UTF-8"));
+        assertEquals(7, store.getSize());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws IOException
+    {
+        ThumbnailStore store = new ThumbnailStore(this.directory, 10);
+
+        File file1 = put(store, "key1", "1234");
+        File file2 = put(store, "key2", "1234");
+        // Access the first file to make the second one the least recently used
+        store.get("key1");
+        put(store, "key3", "1234");
+
+        assertNotNull(store.get("key1"));
+        assertNull(store.get("key2"));
+        assertFalse(file2.exists());
+        assertNotNull(store.get("key3"));
+        assertEquals(file1, store.get("key1"));
+        assertEquals(8, store.getSize());
+    }
+
+    @Test
+    public void keepBiggerThanCapacity() throws IOException
+    {
+        ThumbnailStore store = new ThumbnailStore(this.directory, 2);
+
+        put(store, "key1", "1234");
+        put(store, "key2", "1234");
+
+        assertNull(store.get("key1"));
+        assertNotNull(store.get("key2"));
+    }
+
+    @Test
+    public void reload() throws IOException
+    {
+        ThumbnailStore store = new ThumbnailStore(this.directory, 100);
+        put(store, "key", "content");
+        // Left over by an interrupted write
+        File temporaryFile = store.createTemporaryFile();
+
+        store = new ThumbnailStore(this.directory, 100);
+
+        assertNotNull(store.get("key"));
+        assertEquals(7, store.getSize());
+        assertFalse(temporaryFile.exists());
+    }
+}
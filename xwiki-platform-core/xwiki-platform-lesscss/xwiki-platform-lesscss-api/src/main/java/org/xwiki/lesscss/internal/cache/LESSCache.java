@@ -53,6 +53,21 @@
     void set(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorThemeName,
         T object);
 
+    /**
+     * Get the last object which was removed from the cache for the passed LESS source, skin and color theme.
+     *
+     * @param lessResourceReference reference of the code to compile
+     * @param skin reference of the skin
+     * @param colorTheme reference of the color theme
+     * @return the outdated object, or {@code null} if there is none
+     * @since 12.6
+     */
+    default T getStale(LESSResourceReference lessResourceReference, SkinReference skin,
+        ColorThemeReference colorTheme)
+    {
+        return null;
+    }
+
     /**
      * Clear the cache.
      */
@@ -56,4 +56,24 @@ public boolean isGenerateInlineSourceMaps()
     {
         return configurationSource.getProperty(CONFIGURATION_PREFIX + "generateInlineSourceMaps", false);
     }
+
+    /**
+     * @return whether the previous result of a compilation should be served while the resource is compiled again
+     *         instead of waiting for the end of the compilation
+     * @since 12.6
+     */
+    public boolean isServeStale()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "cache.serveStale", false);
+    }
+
+    /**
+     * @return whether the main style of the skin should be compiled for all the color themes of the main wiki at
+     *         startup
+     * @since 12.6
+     */
+    public boolean isPrecompileColorThemes()
+    {
+        return configurationSource.getProperty(CONFIGURATION_PREFIX + "precompileColorThemes", false);
+    }
 }
@@ -23,6 +23,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
@@ -78,6 +79,11 @@
 
     private Map<String, String> mutexList = new HashMap<>();
 
+    /**
+     * The last content removed from the cache for each cache key, when stale content is kept.
+     */
+    private Map<String, T> staleContent = new ConcurrentHashMap<>();
+
     @Override
     public T get(LESSResourceReference lessResourceReference, SkinReference skin, ColorThemeReference colorTheme)
     {
@@ -91,6 +97,8 @@ public void set(LESSResourceReference lessResourceReference, SkinReference skin,
         // Store the content in the cache
         String cacheKey = cacheKeyFactory.getCacheKey(lessResourceReference, skin, colorTheme, isContextHandled);
         cache.set(cacheKey, content);
+        staleContent.remove(cacheKey);
+        storeContent(cacheKey, content);
 
         // Add the new key to maps
         registerCacheKey(cachedFilesKeysMapPerSkin, cacheKey, skin);
@@ -119,9 +127,74 @@ private void registerCacheKey(Map<Object, List<String>> cachedFilesKeysMap, Stri
         }
     }
 
+    @Override
+    public T getStale(LESSResourceReference lessResourceReference, SkinReference skin,
+        ColorThemeReference colorTheme)
+    {
+        String cacheKey = cacheKeyFactory.getCacheKey(lessResourceReference, skin, colorTheme, isContextHandled);
+
+        T content = staleContent.get(cacheKey);
+        if (content == null) {
+            content = loadStoredContent(cacheKey);
+            if (content != null) {
+                staleContent.putIfAbsent(cacheKey, content);
+            }
+        }
+
+        return content;
+    }
+
+    /**
+     * @return {@code true} if the content removed from the cache should be kept to be served while it's computed again
+     * @since 12.6
+     */
+    protected boolean isStaleContentKept()
+    {
+        return false;
+    }
+
+    /**
+     * Save the content put in the cache to be able to use it as stale content after a restart.
+     *
+     * @param cacheKey the cache key
+     * @param content the content put in the cache
+     * @since 12.6
+     */
+    protected void storeContent(String cacheKey, T content)
+    {
+        // Not stored by default
+    }
+
+    /**
+     * @param cacheKey the cache key
+     * @return the content saved by {@link #storeContent(String, Object)} or {@code null} if there is none
+     * @since 12.6
+     */
+    protected T loadStoredContent(String cacheKey)
+    {
+        return null;
+    }
+
+    private void remove(String cacheKey)
+    {
+        if (isStaleContentKept()) {
+            T content = cache.get(cacheKey);
+            if (content != null) {
+                staleContent.put(cacheKey, content);
+            }
+        }
+
+        cache.remove(cacheKey);
+    }
+
     @Override
     public void clear()
     {
+        if (isStaleContentKept()) {
+            for (List<String> cachedFilesKeys : cachedFilesKeysMapPerLESSResource.values()) {
+                cachedFilesKeys.forEach(this::remove);
+            }
+        }
         cache.removeAll();
         cachedFilesKeysMapPerSkin.clear();
         cachedFilesKeysMapPerColorTheme.clear();
@@ -137,7 +210,7 @@ private void clearFromCriteria(Map<Object, List<String>> cachedFilesKeysMap, Obj
         }
         // Remove all the cached files corresponding to the cached keys
         for (String cachedFileKey : cachedFilesKeys) {
-            cache.remove(cachedFileKey);
+            remove(cachedFileKey);
         }
         // Remove the list of cached keys corresponding to the criteria
         cachedFilesKeysMap.remove(criteria);
@@ -19,11 +19,16 @@
  */
 package org.xwiki.lesscss.internal.cache;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
 import javax.inject.Inject;
 import javax.inject.Provider;
 
 import org.slf4j.Logger;
 import org.xwiki.lesscss.compiler.LESSCompilerException;
+import org.xwiki.lesscss.internal.LESSConfiguration;
 import org.xwiki.lesscss.internal.LESSContext;
 import org.xwiki.lesscss.internal.colortheme.ColorThemeReference;
 import org.xwiki.lesscss.internal.colortheme.ColorThemeReferenceFactory;
@@ -63,10 +68,15 @@
 
     @Inject
     protected LESSContext lessContext;
-    
+
+    @Inject
+    protected LESSConfiguration lessConfiguration;
+
     @Inject
     protected Logger logger;
 
+    private final Map<Object, ReentrantLock> locks = new ConcurrentHashMap<>();
+
     /**
      * Get the result of the compilation.
      * @param lessResourceReference reference to the LESS content
@@ -113,8 +123,24 @@ public T getResult(LESSResourceReference lessResourceReference, boolean includeS
         // Only one computation is allowed in the same time per color theme, then the waiting threads will be able to
         // use the last result stored in the cache.
         Object mutex = cache.getMutex(lessResourceReference, skinReference, colorThemeReference);
-        synchronized (mutex) {
+        ReentrantLock lock = locks.computeIfAbsent(mutex, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            // Serve the previous result instead of waiting for the running computation, when allowed (the HTML export
+            // needs the Velocity to be executed)
+            if (!force && !lessContext.isHtmlExport() && lessConfiguration.isServeStale()) {
+                result = cache.get(lessResourceReference, skinReference, colorThemeReference);
+                if (result == null) {
+                    result = cache.getStale(lessResourceReference, skinReference, colorThemeReference);
+                }
+                if (result != null) {
+                    return cloneResult(result);
+                }
+            }
+
+            lock.lock();
+        }
 
+        try {
             // Check if the result is in the cache
             if (!force) {
                 result = cache.get(lessResourceReference, skinReference, colorThemeReference);
@@ -144,6 +170,8 @@ public T getResult(LESSResourceReference lessResourceReference, boolean includeS
                 // Put the result in the cache
                 cache.set(lessResourceReference, skinReference, colorThemeReference, result);
             }
+        } finally {
+            lock.unlock();
         }
 
         return cloneResult(result);
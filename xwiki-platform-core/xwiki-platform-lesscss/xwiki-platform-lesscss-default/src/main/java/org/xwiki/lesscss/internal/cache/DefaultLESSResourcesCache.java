@@ -19,9 +19,20 @@
  */
 package org.xwiki.lesscss.internal.cache;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
 import org.xwiki.cache.CacheException;
 import org.xwiki.cache.CacheFactory;
 import org.xwiki.cache.CacheManager;
@@ -30,6 +41,8 @@
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.phase.Initializable;
 import org.xwiki.component.phase.InitializationException;
+import org.xwiki.environment.Environment;
+import org.xwiki.lesscss.internal.LESSConfiguration;
 
 /**
  * Default implementation for {@link org.xwiki.lesscss.internal.cache.LESSResourcesCache}.
@@ -46,9 +59,25 @@ public class DefaultLESSResourcesCache extends AbstractCache<String> implements
      */
     public static final String LESS_FILES_CACHE_ID = "lesscss.skinfiles.cache";
 
+    /**
+     * The stored content which was not written again for this long is removed at startup.
+     */
+    private static final long STORED_CONTENT_MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+    private static final String TMP_EXTENSION = ".tmp";
+
     @Inject
     private CacheManager cacheManager;
 
+    @Inject
+    private LESSConfiguration lessConfiguration;
+
+    @Inject
+    private Environment environment;
+
+    @Inject
+    private Logger logger;
+
     @Override
     public void initialize() throws InitializationException
     {
@@ -60,5 +89,86 @@ public void initialize() throws InitializationException
             throw new InitializationException(
                     String.format("Failed to initialize LESS skin files cache [%s].", LESS_FILES_CACHE_ID), e);
         }
+
+        cleanStoredContent();
+    }
+
+    private void cleanStoredContent()
+    {
+        File directory = getStoreDirectory();
+        if (!directory.exists()) {
+            return;
+        }
+
+        if (!isStaleContentKept()) {
+            // The stored content is only used as stale content
+            FileUtils.deleteQuietly(directory);
+        } else {
+            // Get rid of the content of the skins and color themes which are not used (or don't exist) anymore and of
+            // the interrupted writes
+            long limit = System.currentTimeMillis() - STORED_CONTENT_MAX_AGE;
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (file.getName().endsWith(TMP_EXTENSION) || file.lastModified() < limit) {
+                        FileUtils.deleteQuietly(file);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    protected boolean isStaleContentKept()
+    {
+        return this.lessConfiguration.isServeStale();
+    }
+
+    private File getStoreFile(String cacheKey)
+    {
+        // The cache key is too long and contains too many special characters to be used as file name
+        String name = UUID.nameUUIDFromBytes(cacheKey.getBytes(StandardCharsets.UTF_8)).toString();
+
+        return new File(getStoreDirectory(), name + ".css");
+    }
+
+    private File getStoreDirectory()
+    {
+        return new File(this.environment.getPermanentDirectory(), "cache/lesscss");
+    }
+
+    @Override
+    protected void storeContent(String cacheKey, String content)
+    {
+        if (isStaleContentKept()) {
+            File file = getStoreFile(cacheKey);
+            try {
+                // Write a temporary file first to not end up with a truncated CSS when interrupted
+                File tmpFile = new File(file.getPath() + TMP_EXTENSION);
+                FileUtils.writeStringToFile(tmpFile, content, StandardCharsets.UTF_8);
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                this.logger.warn("Failed to save the compiled LESS resource in [{}]: {}", file,
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+    }
+
+    @Override
+    protected String loadStoredContent(String cacheKey)
+    {
+        if (isStaleContentKept()) {
+            File file = getStoreFile(cacheKey);
+            if (file.exists()) {
+                try {
+                    return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    this.logger.warn("Failed to read the compiled LESS resource from [{}]: {}", file,
+                        ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+        }
+
+        return null;
     }
 }
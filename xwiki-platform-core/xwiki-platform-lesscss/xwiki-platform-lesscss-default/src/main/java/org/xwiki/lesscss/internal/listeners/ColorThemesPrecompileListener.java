@@ -0,0 +1,211 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.lesscss.internal.listeners;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.bridge.event.ApplicationReadyEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.lesscss.compiler.LESSCompiler;
+import org.xwiki.lesscss.internal.LESSConfiguration;
+import org.xwiki.lesscss.internal.compiler.CachedLESSCompiler;
+import org.xwiki.lesscss.resources.LESSResourceReference;
+import org.xwiki.lesscss.resources.LESSResourceReferenceFactory;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.event.Event;
+import org.xwiki.query.Query;
+import org.xwiki.query.QueryException;
+import org.xwiki.query.QueryManager;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.web.XWikiServletRequest;
+import com.xpn.xwiki.web.XWikiServletRequestStub;
+
+/**
+ * Compile the main style of the skin for all the color themes of the main wiki at startup so that the first users
+ * don't have to wait for it. When no request was received yet, the URLs are generated from the configured server URL
+ * of the main wiki.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Named(ColorThemesPrecompileListener.NAME)
+@Singleton
+public class ColorThemesPrecompileListener implements EventListener
+{
+    /**
+     * The name of the listener.
+     */
+    public static final String NAME = "lessColorThemesPrecompile";
+
+    private static final String COLOR_THEME_FIELD = "colorTheme";
+
+    private static final String COLOR_THEMES_QUERY = "select distinct doc.fullName from XWikiDocument doc, "
+        + "BaseObject obj where obj.name = doc.fullName and obj.className in (:colorThemeClass, :flamingoThemeClass)";
+
+    @Inject
+    private LESSConfiguration lessConfiguration;
+
+    @Inject
+    private LESSCompiler lessCompiler;
+
+    @Inject
+    private LESSResourceReferenceFactory lessResourceReferenceFactory;
+
+    @Inject
+    private QueryManager queryManager;
+
+    @Inject
+    private ExecutionContextManager executionContextManager;
+
+    @Inject
+    private Execution execution;
+
+    @Inject
+    private Provider<XWikiContext> xcontextProvider;
+
+    @Inject
+    private Logger logger;
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public List<Event> getEvents()
+    {
+        return Collections.<Event>singletonList(new ApplicationReadyEvent());
+    }
+
+    @Override
+    public void onEvent(Event event, Object source, Object data)
+    {
+        if (!this.lessConfiguration.isPrecompileColorThemes()) {
+            return;
+        }
+
+        List<String> colorThemes;
+        try {
+            colorThemes = this.queryManager.createQuery(COLOR_THEMES_QUERY, Query.HQL)
+                .bindValue("colorThemeClass", "ColorThemes.ColorThemeClass")
+                .bindValue("flamingoThemeClass", "FlamingoThemesCode.ThemeClass").execute();
+        } catch (QueryException e) {
+            this.logger.warn("Failed to get the color themes to precompile: {}", ExceptionUtils.getRootCauseMessage(e));
+
+            return;
+        }
+
+        // The number of simultaneous compilations is limited anyway
+        ExecutorService executor =
+            Executors.newFixedThreadPool(Math.max(1, this.lessConfiguration.getMaximumSimultaneousCompilations()),
+                new BasicThreadFactory.Builder().namingPattern("XWiki LESS precompiler thread %d").daemon(true)
+                    .priority(Thread.MIN_PRIORITY).build());
+        for (String colorTheme : colorThemes) {
+            executor.execute(() -> precompile(colorTheme));
+        }
+        executor.shutdown();
+    }
+
+    private void precompile(String colorTheme)
+    {
+        try {
+            this.executionContextManager.initialize(new ExecutionContext());
+
+            XWikiContext xcontext = this.xcontextProvider.get();
+
+            if (xcontext == null || xcontext.getWiki() == null) {
+                this.logger.debug("Skipping the precompilation of color theme [{}]: no XWiki context is available",
+                    colorTheme);
+
+                return;
+            }
+
+            // Make the color theme the current one
+            XWikiServletRequestStub request = createRequest(xcontext);
+            if (request == null) {
+                this.logger.debug("Skipping the precompilation of color theme [{}]: the server URL is unknown",
+                    colorTheme);
+
+                return;
+            }
+            request.put(COLOR_THEME_FIELD, colorTheme);
+            xcontext.setRequest(new XWikiServletRequest(request));
+
+            // The compilation result depends on the URL factory
+            if (xcontext.getURLFactory() == null) {
+                xcontext.setURLFactory(
+                    xcontext.getWiki().getURLFactoryService().createURLFactory(XWikiContext.MODE_SERVLET, xcontext));
+            }
+
+            LESSResourceReference style = this.lessResourceReferenceFactory
+                .createReferenceForSkinFile(CachedLESSCompiler.MAIN_SKIN_STYLE_FILENAME);
+            this.lessCompiler.compile(style, false, true, false);
+        } catch (Exception e) {
+            this.logger.warn("Failed to precompile the skin style for color theme [{}]: {}", colorTheme,
+                ExceptionUtils.getRootCauseMessage(e));
+        } finally {
+            this.execution.removeContext();
+        }
+    }
+
+    private XWikiServletRequestStub createRequest(XWikiContext xcontext) throws MalformedURLException
+    {
+        if (xcontext.getRequest() != null) {
+            return new XWikiServletRequestStub(xcontext.getRequest());
+        }
+
+        // No request was received yet (which is the usual case at startup) so we rely on the configured server URL
+        URL serverURL = xcontext.getWiki().getServerURL(xcontext.getMainXWiki(), xcontext);
+        if (serverURL == null) {
+            return null;
+        }
+
+        if (xcontext.getURL() == null) {
+            // Used to find the context path when it's not configured
+            xcontext.setURL(serverURL);
+        }
+        String contextPath = StringUtils.removeEnd(xcontext.getWiki().getWebAppPath(xcontext), "/");
+        if (!contextPath.isEmpty()) {
+            contextPath = '/' + contextPath;
+        }
+
+        return new XWikiServletRequestStub(new URL(serverURL, contextPath + '/'), contextPath, null);
+    }
+}
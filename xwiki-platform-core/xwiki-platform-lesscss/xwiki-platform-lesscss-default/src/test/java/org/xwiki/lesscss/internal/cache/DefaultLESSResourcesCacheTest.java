@@ -19,19 +19,32 @@
  */
 package org.xwiki.lesscss.internal.cache;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheFactory;
 import org.xwiki.cache.CacheManager;
 import org.xwiki.cache.config.CacheConfiguration;
+import org.xwiki.component.util.ReflectionUtils;
+import org.xwiki.environment.Environment;
+import org.xwiki.lesscss.internal.LESSConfiguration;
 import org.xwiki.lesscss.internal.colortheme.NamedColorThemeReference;
 import org.xwiki.lesscss.internal.resources.LESSSkinFileResourceReference;
 import org.xwiki.lesscss.internal.skin.FSSkinReference;
 import org.xwiki.test.mockito.MockitoComponentMockingRule;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -51,6 +64,9 @@
     public MockitoComponentMockingRule<DefaultLESSResourcesCache> mocker =
             new MockitoComponentMockingRule<>(DefaultLESSResourcesCache.class);
 
+    @Rule
+    public TemporaryFolder permanentDirectory = new TemporaryFolder();
+
     private CacheManager cacheManager;
 
     private Cache<String> cache;
@@ -218,4 +234,79 @@ public void clearFromLESSResource() throws Exception
         verify(cache, never()).remove("k3");
     }
 
+    @Test
+    public void getStale() throws Exception
+    {
+        // Mocks
+        LESSConfiguration lessConfiguration = mocker.getInstance(LESSConfiguration.class);
+        when(lessConfiguration.isServeStale()).thenReturn(true);
+        Environment environment = mocker.getInstance(Environment.class);
+        when(environment.getPermanentDirectory()).thenReturn(permanentDirectory.getRoot());
+        LESSSkinFileResourceReference file = createLESSSkinFileResourceReference("lessResource");
+        when(cache.get("12_lessResource_4_skin_10_colorTheme")).thenReturn("css");
+
+        mocker.getComponentUnderTest().set(file, new FSSkinReference("skin"),
+            new NamedColorThemeReference("colorTheme"), "css");
+        mocker.getComponentUnderTest().clearFromSkin(new FSSkinReference("skin"));
+
+        // Test
+        assertEquals("css", mocker.getComponentUnderTest().getStale(file, new FSSkinReference("skin"),
+            new NamedColorThemeReference("colorTheme")));
+        verify(cache).remove("12_lessResource_4_skin_10_colorTheme");
+
+        // The content saved on disk is used after a restart
+        ReflectionUtils.setFieldValue(mocker.getComponentUnderTest(), "staleContent", new ConcurrentHashMap<>());
+        assertEquals("css", mocker.getComponentUnderTest().getStale(file, new FSSkinReference("skin"),
+            new NamedColorThemeReference("colorTheme")));
+    }
+
+    @Test
+    public void getStaleWhenDisabled() throws Exception
+    {
+        LESSSkinFileResourceReference file = createLESSSkinFileResourceReference("lessResource");
+        when(cache.get("12_lessResource_4_skin_10_colorTheme")).thenReturn("css");
+
+        mocker.getComponentUnderTest().set(file, new FSSkinReference("skin"),
+            new NamedColorThemeReference("colorTheme"), "css");
+        mocker.getComponentUnderTest().clearFromSkin(new FSSkinReference("skin"));
+
+        assertNull(mocker.getComponentUnderTest().getStale(file, new FSSkinReference("skin"),
+            new NamedColorThemeReference("colorTheme")));
+    }
+
+    @Test
+    public void initializeRemovesOldStoredContent() throws Exception
+    {
+        LESSConfiguration lessConfiguration = mocker.getInstance(LESSConfiguration.class);
+        when(lessConfiguration.isServeStale()).thenReturn(true);
+        Environment environment = mocker.getInstance(Environment.class);
+        when(environment.getPermanentDirectory()).thenReturn(permanentDirectory.getRoot());
+        File directory = new File(permanentDirectory.getRoot(), "cache/lesscss");
+        File recentFile = new File(directory, "recent.css");
+        FileUtils.writeStringToFile(recentFile, "css", StandardCharsets.UTF_8);
+        File oldFile = new File(directory, "old.css");
+        FileUtils.writeStringToFile(oldFile, "css", StandardCharsets.UTF_8);
+        oldFile.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31));
+        File tmpFile = new File(directory, "recent.css.tmp");
+        FileUtils.writeStringToFile(tmpFile, "cs", StandardCharsets.UTF_8);
+
+        mocker.getComponentUnderTest();
+
+        assertTrue(recentFile.exists());
+        assertFalse(oldFile.exists());
+        assertFalse(tmpFile.exists());
+    }
+
+    @Test
+    public void initializeRemovesStoredContentWhenDisabled() throws Exception
+    {
+        Environment environment = mocker.getInstance(Environment.class);
+        when(environment.getPermanentDirectory()).thenReturn(permanentDirectory.getRoot());
+        File directory = new File(permanentDirectory.getRoot(), "cache/lesscss");
+        FileUtils.writeStringToFile(new File(directory, "recent.css"), "css", StandardCharsets.UTF_8);
+
+        mocker.getComponentUnderTest();
+
+        assertFalse(directory.exists());
+    }
 }
@@ -19,6 +19,11 @@
  */
 package org.xwiki.lesscss.internal.compiler;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import javax.inject.Provider;
 
 import org.apache.commons.lang3.StringUtils;
@@ -26,6 +31,7 @@
 import org.junit.Rule;
 import org.junit.Test;
 import org.xwiki.lesscss.compiler.LESSCompilerException;
+import org.xwiki.lesscss.internal.LESSConfiguration;
 import org.xwiki.lesscss.internal.LESSContext;
 import org.xwiki.lesscss.internal.cache.LESSResourcesCache;
 import org.xwiki.lesscss.internal.colortheme.ColorThemeReference;
@@ -217,4 +223,43 @@ public void compileWhenError() throws Exception
                 eq(lessResourceReference), eq(expectedException));
     }
 
+    @Test
+    public void compileWhenCompilingAndServeStale() throws Exception
+    {
+        // Mocks
+        LESSConfiguration lessConfiguration = mocker.getInstance(LESSConfiguration.class);
+        when(lessConfiguration.isServeStale()).thenReturn(true);
+        when(cache.getStale(eq(lessResourceReference), eq(skinReference), eq(colorThemeReference)))
+            .thenReturn("stale output");
+
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cachedLESSCompiler.compute(eq(lessResourceReference), eq(false), eq(false), eq(true), eq("skin")))
+            .then(invocation -> {
+                compiling.countDown();
+                release.await();
+                return "compiled output";
+            });
+
+        // Test
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> future = executor.submit(
+                () -> mocker.getComponentUnderTest().compile(lessResourceReference, false, false, false));
+            compiling.await();
+
+            // The previous result is served while the compilation is running
+            assertEquals("stale output",
+                mocker.getComponentUnderTest().compile(lessResourceReference, false, false, false));
+
+            release.countDown();
+            assertEquals("compiled output", future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Verify
+        verify(cachedLESSCompiler, times(1)).compute(any(LESSResourceReference.class), anyBoolean(), anyBoolean(),
+            anyBoolean(), any());
+    }
 }
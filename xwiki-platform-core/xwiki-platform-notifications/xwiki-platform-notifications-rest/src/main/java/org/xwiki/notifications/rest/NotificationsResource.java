@@ -38,7 +38,8 @@
 public interface NotificationsResource
 {
     /**
-     * Get notifications for the given parameters.
+     * Get notifications for the given parameters. The returned notifications come with a cursor which can be passed
+     * back with the {@code cursor} parameter to get the following page of notifications.
      * @return notifications
      * @throws Exception if an error occurs
      */
@@ -47,6 +48,7 @@ Response getNotifications(
             @QueryParam("useUserPreferences") String useUserPreferences,
             @QueryParam("userId") String userId,
             @QueryParam("untilDate") String untilDate,
+            @QueryParam("cursor") String cursor,
             @QueryParam("blackList") String blackList,
             @QueryParam("pages") String pages,
             @QueryParam("spaces") String spaces,
@@ -86,15 +86,15 @@ public class DefaultNotificationsResource extends XWikiResource implements Notif
     private DefaultNotificationParametersFactory notificationParametersFactory;
 
     @Override
-    public Response getNotifications(String useUserPreferences, String userId, String untilDate, String blackList,
-        String pages, String spaces, String wikis, String users, String maxCount, String displayOwnEvents,
-        String displayMinorEvents, String displaySystemEvents, String displayReadEvents, String displayReadStatus,
-        String tags, String currentWiki, String async, String asyncId) throws Exception
+    public Response getNotifications(String useUserPreferences, String userId, String untilDate, String cursor,
+        String blackList, String pages, String spaces, String wikis, String users, String maxCount,
+        String displayOwnEvents, String displayMinorEvents, String displaySystemEvents, String displayReadEvents,
+        String displayReadStatus, String tags, String currentWiki, String async, String asyncId) throws Exception
     {
         // Build the response
         Response.ResponseBuilder response;
-        Object result = getCompositeEvents(useUserPreferences, userId, untilDate, blackList, pages, spaces, wikis,
-            users, toMaxCount(maxCount, 21), displayOwnEvents, displayMinorEvents, displaySystemEvents,
+        Object result = getCompositeEvents(useUserPreferences, userId, untilDate, cursor, blackList, pages, spaces,
+            wikis, users, toMaxCount(maxCount, 21), displayOwnEvents, displayMinorEvents, displaySystemEvents,
             displayReadEvents, tags, currentWiki, async, asyncId, false, false);
 
         if (result instanceof String) {
@@ -106,8 +106,10 @@ users, toMaxCount(maxCount, 21), displayOwnEvents, displayMinorEvents, displaySy
             xcontext.setURLFactory(
                 xcontext.getWiki().getURLFactoryService().createURLFactory(XWikiContext.MODE_SERVLET, xcontext));
 
-            Notifications notifications = new Notifications(this.notificationsRenderer
-                .renderNotifications((List<CompositeEvent>) result, userId, TRUE.equals(displayReadStatus)));
+            List<CompositeEvent> events = (List<CompositeEvent>) result;
+            Notifications notifications = new Notifications(
+                this.notificationsRenderer.renderNotifications(events, userId, TRUE.equals(displayReadStatus)),
+                this.notificationParametersFactory.getCursor(events));
 
             response = Response.ok(notifications);
         }
@@ -125,15 +127,16 @@ private int toMaxCount(String maxCount, int defaultMaxCount)
         return NumberUtils.toInt(maxCount, defaultMaxCount);
     }
 
-    private Object getCompositeEvents(String useUserPreferences, String userId, String untilDate, String blackList,
-        String pages, String spaces, String wikis, String users, int maxCount, String displayOwnEvents,
-        String displayMinorEvents, String displaySystemEvents, String displayReadEvents, String tags,
-        String currentWiki, String async, String asyncId, boolean onlyUnread, boolean count) throws Exception
+    private Object getCompositeEvents(String useUserPreferences, String userId, String untilDate, String cursor,
+        String blackList, String pages, String spaces, String wikis, String users, int maxCount,
+        String displayOwnEvents, String displayMinorEvents, String displaySystemEvents, String displayReadEvents,
+        String tags, String currentWiki, String async, String asyncId, boolean onlyUnread, boolean count)
+        throws Exception
     {
         Object result = null;
         NotificationParameters notificationParameters =
-            getNotificationParameters(useUserPreferences, userId, untilDate, blackList, pages, spaces, wikis, users,
-                maxCount, displayOwnEvents, displayMinorEvents, displaySystemEvents, displayReadEvents, tags,
+            getNotificationParameters(useUserPreferences, userId, untilDate, cursor, blackList, pages, spaces, wikis,
+                users, maxCount, displayOwnEvents, displayMinorEvents, displaySystemEvents, displayReadEvents, tags,
                 currentWiki, onlyUnread);
 
         // 1. Check current asynchronous execution
@@ -177,9 +180,9 @@ public Response getNotificationsCount(String useUserPreferences, String userId,
         if (xWikiUser == null) {
             response = Response.status(Status.UNAUTHORIZED);
         } else {
-            Object result = getCompositeEvents(useUserPreferences, userId, null, null, pages, spaces, wikis, users,
-                toMaxCount(maxCount, 21), displayOwnEvents, displayMinorEvents, displaySystemEvents, displayReadEvents,
-                tags, currentWiki, async, asyncId, true, true);
+            Object result = getCompositeEvents(useUserPreferences, userId, null, null, null, pages, spaces, wikis,
+                users, toMaxCount(maxCount, 21), displayOwnEvents, displayMinorEvents, displaySystemEvents,
+                displayReadEvents, tags, currentWiki, async, asyncId, true, true);
 
             if (result instanceof String) {
                 response = Response.status(Status.ACCEPTED);
@@ -210,8 +213,8 @@ public String getNotificationsRSS(String useUserPreferences, String userId, Stri
             return null;
         } else {
             List<CompositeEvent> events =
-                (List<CompositeEvent>) getCompositeEvents(useUserPreferences, userId, untilDate, blackList, pages,
-                    spaces, wikis, users, toMaxCount(maxCount, 10), displayOwnEvents, displayMinorEvents,
+                (List<CompositeEvent>) getCompositeEvents(useUserPreferences, userId, untilDate, null, blackList,
+                    pages, spaces, wikis, users, toMaxCount(maxCount, 10), displayOwnEvents, displayMinorEvents,
                     displaySystemEvents, displayReadEvents, tags, currentWiki, null, null, false, false);
 
             SyndFeedOutput output = new SyndFeedOutput();
@@ -227,15 +230,15 @@ public Response postNotifications() throws Exception
         // That's why we need to use this workaround: manually getting the POST params in the request object.
         XWikiRequest request = getXWikiContext().getRequest();
         return getNotifications(request.get("useUserPreferences"), request.get("userId"), request.get("untilDate"),
-            request.get("blackList"), request.get("pages"), request.get("spaces"), request.get("wikis"),
-            request.get("users"), request.get("count"), request.get("displayOwnEvents"),
+            request.get("cursor"), request.get("blackList"), request.get("pages"), request.get("spaces"),
+            request.get("wikis"), request.get("users"), request.get("count"), request.get("displayOwnEvents"),
             request.get("displayMinorEvents"), request.get("displaySystemEvents"), request.get("displayReadEvents"),
             request.get("displayReadStatus"), request.get("tags"), request.get("currentWiki"), request.get("async"),
             request.get("asyncId"));
     }
 
     private NotificationParameters getNotificationParameters(String useUserPreferences, String userId, String untilDate,
-        String blackList, String pages, String spaces, String wikis, String users, int maxCount,
+        String cursor, String blackList, String pages, String spaces, String wikis, String users, int maxCount,
         String displayOwnEvents, String displayMinorEvents, String displaySystemEvents, String displayReadEvents,
         String tags, String currentWiki, boolean onlyUnread) throws NotificationException
     {
@@ -243,6 +246,7 @@ private NotificationParameters getNotificationParameters(String useUserPreferenc
         parametersMap.put(ParametersKey.USE_USER_PREFERENCES, useUserPreferences);
         parametersMap.put(ParametersKey.USER_ID, userId);
         parametersMap.put(ParametersKey.UNTIL_DATE, untilDate);
+        parametersMap.put(ParametersKey.CURSOR, cursor);
         parametersMap.put(ParametersKey.BLACKLIST, blackList);
         parametersMap.put(ParametersKey.PAGES, pages);
         parametersMap.put(ParametersKey.SPACES, spaces);
@@ -31,6 +31,8 @@
 {
     private Collection<Notification> notifications;
 
+    private String cursor;
+
     /**
      * Construct a Notifications.
      * @param notifications list of notifications
@@ -40,6 +42,18 @@ public Notifications(Collection<Notification> notifications)
         this.notifications = notifications;
     }
 
+    /**
+     * Construct a Notifications.
+     * @param notifications list of notifications
+     * @param cursor the cursor to use to get the following notifications
+     * @since 12.6
+     */
+    public Notifications(Collection<Notification> notifications, String cursor)
+    {
+        this.notifications = notifications;
+        this.cursor = cursor;
+    }
+
     /**
      * @return the list of the notifications
      */
@@ -47,4 +61,14 @@ public Collection<Notification> getNotifications()
     {
         return notifications;
     }
+
+    /**
+     * @return the cursor to pass to the next request to get the notifications which follow these ones, {@code null}
+     *         if there is no notification
+     * @since 12.6
+     */
+    public String getCursor()
+    {
+        return cursor;
+    }
 }
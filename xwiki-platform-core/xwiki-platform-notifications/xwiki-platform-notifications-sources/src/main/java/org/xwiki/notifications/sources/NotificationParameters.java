@@ -65,6 +65,22 @@
      */
     public Date fromDate;
 
+    /**
+     * The date of the last notification of the previous page: only the events that come after it in the (date, id)
+     * descending order are returned. Start from the most recent event when {@code null}.
+     *
+     * @since 12.6
+     */
+    public Date cursorDate;
+
+    /**
+     * The identifier of the last notification of the previous page, used with {@link #cursorDate} to distinguish
+     * events having the same date.
+     *
+     * @since 12.6
+     */
+    public String cursorId;
+
     /**
      * Display only unread notifications.
      */
@@ -109,6 +125,8 @@ public boolean equals(Object o)
             .append(format, that.format)
             .append(endDate, that.endDate)
             .append(fromDate, that.fromDate)
+            .append(cursorDate, that.cursorDate)
+            .append(cursorId, that.cursorId)
             .append(onlyUnread, that.onlyUnread)
             .append(blackList, that.blackList)
             .append(preferences, that.preferences)
@@ -126,6 +144,8 @@ public int hashCode()
             .append(expectedCount)
             .append(endDate)
             .append(fromDate)
+            .append(cursorDate)
+            .append(cursorId)
             .append(onlyUnread)
             .append(blackList)
             .append(preferences)
@@ -143,6 +163,8 @@ public String toString()
             .append("expectedCount", expectedCount)
             .append("endDate", endDate)
             .append("fromDate", fromDate)
+            .append("cursorDate", cursorDate)
+            .append("cursorId", cursorId)
             .append("onlyUnread", onlyUnread)
             .append("blackList", blackList)
             .append("preferences", preferences)
@@ -37,6 +37,7 @@
 import org.apache.commons.text.CaseUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
+import org.xwiki.eventstream.Event;
 import org.xwiki.eventstream.EventStreamException;
 import org.xwiki.eventstream.RecordableEventDescriptor;
 import org.xwiki.eventstream.RecordableEventDescriptorManager;
@@ -45,6 +46,7 @@
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceResolver;
 import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.notifications.CompositeEvent;
 import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationException;
 import org.xwiki.notifications.NotificationFormat;
@@ -78,6 +80,8 @@
 {
     private static final String FIELD_SEPARATOR = ",";
 
+    private static final String CURSOR_SEPARATOR = ":";
+
     @Inject
     private DocumentReferenceResolver<String> stringDocumentReferenceResolver;
 
@@ -145,6 +149,14 @@
          */
         UNTIL_DATE(true),
 
+        /**
+         * See {@link NotificationParameters#cursorDate} and {@link NotificationParameters#cursorId}: accepted values
+         * are cursors produced by {@link DefaultNotificationParametersFactory#getCursor(List)}.
+         *
+         * @since 12.6
+         */
+        CURSOR(true),
+
         /**
          * See {@link NotificationParameters#blackList}: accepted values are list represented as a String with commas
          * used as separators. .
@@ -332,6 +344,10 @@ public NotificationParameters createNotificationParameters(Map<ParametersKey, St
                         this.handleUntilDate(notificationParameters, parameterValue);
                         break;
 
+                    case CURSOR:
+                        this.handleCursor(notificationParameters, parameterValue);
+                        break;
+
                     case BLACKLIST:
                         this.handleBlacklist(notificationParameters, parameterValue);
                         break;
@@ -368,6 +384,42 @@ public NotificationParameters createNotificationParameters(Map<ParametersKey, St
         return notificationParameters;
     }
 
+    /**
+     * Produce the cursor to pass with the {@link ParametersKey#CURSOR} parameter to get the notifications which follow
+     * the passed ones.
+     *
+     * @param notifications the notifications of the current page
+     * @return the cursor pointing after the last event of the passed notifications or {@code null} if there is none
+     * @since 12.6
+     */
+    public String getCursor(List<CompositeEvent> notifications)
+    {
+        Event lastEvent = null;
+        for (CompositeEvent notification : notifications) {
+            for (Event event : notification.getEvents()) {
+                if (event.getDate() != null && (lastEvent == null || isBefore(event, lastEvent))) {
+                    lastEvent = event;
+                }
+            }
+        }
+
+        if (lastEvent == null) {
+            return null;
+        }
+
+        return lastEvent.getDate().getTime() + CURSOR_SEPARATOR + StringUtils.defaultString(lastEvent.getId());
+    }
+
+    private boolean isBefore(Event event, Event lastEvent)
+    {
+        int result = event.getDate().compareTo(lastEvent.getDate());
+        if (result == 0) {
+            result = StringUtils.compare(event.getId(), lastEvent.getId());
+        }
+
+        return result < 0;
+    }
+
     /**
      * Modify the passed parameters to take into account user preferences.
      * 
@@ -584,6 +636,16 @@ private void handleBlacklist(NotificationParameters notificationParameters, Stri
         }
     }
 
+    private void handleCursor(NotificationParameters notificationParameters, String cursor)
+    {
+        if (StringUtils.isNotBlank(cursor)) {
+            notificationParameters.cursorDate =
+                new Date(Long.parseLong(StringUtils.substringBefore(cursor, CURSOR_SEPARATOR)));
+            notificationParameters.cursorId =
+                StringUtils.defaultIfEmpty(StringUtils.substringAfter(cursor, CURSOR_SEPARATOR), null);
+        }
+    }
+
     private void handleUntilDate(NotificationParameters notificationParameters, String untilDate)
     {
         if (StringUtils.isNotBlank(untilDate)) {
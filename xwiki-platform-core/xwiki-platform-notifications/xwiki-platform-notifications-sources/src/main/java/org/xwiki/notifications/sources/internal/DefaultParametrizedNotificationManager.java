@@ -20,9 +20,11 @@
 package org.xwiki.notifications.sources.internal;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -117,22 +119,33 @@ private List<CompositeEvent> getEvents(List<CompositeEvent> results, Notificatio
         // Because the user might not be able to see all notifications because of the rights, we take from the database
         // more events than expected and we will filter afterwards.
         int batchSize = parameters.expectedCount * 2;
-        int offset = 0;
+
+        // Each batch starts right after the last event of the previous one (keyset pagination) instead of skipping an
+        // increasing number of events, which the store would have to read again for each batch
+        Date cursorDate = parameters.cursorDate;
+        String cursorId = parameters.cursorId;
+
+        // Prepare once what is needed to filter the events of all the batches
+        EventFilterPlan plan = new EventFilterPlan(parameters);
         try {
 
             boolean done = false;
             while (!done) {
                 // Get a batch of events
-                List<Event> batch = this.eventSearcher.searchEvents(offset, batchSize, parameters);
+                List<Event> batch = this.eventSearcher.searchEvents(0, batchSize, parameters);
 
-                done = addMatchingEventsToResults(batch, parameters, results);
+                done = addMatchingEventsToResults(batch, parameters, plan, results);
                 if (!done) {
-                    if (batch.size() < batchSize) {
-                        // there are no more results to expect. stop.
+                    if (batch.size() < batchSize || batch.get(batch.size() - 1).getDate() == null) {
+                        // there are no more results to expect (or no way to continue after the batch). stop.
                         done = true;
                     } else {
+                        // continue after the last event of the batch
+                        Event lastEvent = batch.get(batch.size() - 1);
+                        parameters.cursorDate = lastEvent.getDate();
+                        parameters.cursorId = lastEvent.getId();
+
                         // grab a larger batch size next time to get more possible results
-                        offset += batchSize;
                         if (batchSize < MAX_BATCH_SIZE) {
                             batchSize <<= 1;
                         }
@@ -143,11 +156,14 @@ private List<CompositeEvent> getEvents(List<CompositeEvent> results, Notificatio
             return results;
         } catch (Exception e) {
             throw new NotificationException("Fail to get the list of notifications.", e);
+        } finally {
+            parameters.cursorDate = cursorDate;
+            parameters.cursorId = cursorId;
         }
     }
 
     private boolean addMatchingEventsToResults(List<Event> batch, NotificationParameters parameters,
-        List<CompositeEvent> results) throws EventStreamException, NotificationException
+        EventFilterPlan plan, List<CompositeEvent> results) throws EventStreamException, NotificationException
     {
         boolean done = false;
         // Add to the results the events the user has the right to see
@@ -160,7 +176,7 @@ private boolean addMatchingEventsToResults(List<Event> batch, NotificationParame
                 continue;
             }
 
-            if (filterEvent(event, parameters)) {
+            if (filterEvent(event, parameters, plan)) {
                 continue;
             }
 
@@ -184,47 +200,11 @@ private boolean isAllowed(DocumentReference passedUser, DocumentReference docume
         return allowed;
     }
 
-    /**
-     * Determine if the given user reference is targeted by the event targets.
-     * 
-     * @param event the event that is tested
-     * @param userReference the user reference given by the parameters
-     * @return {@code true} iff the user is explicitely target, or through a group.
-     */
-    private boolean eventTargetUser(Event event, DocumentReference userReference)
-    {
-        boolean result = false;
-        if (event.getTarget() != null && !event.getTarget().isEmpty() && userReference != null) {
-            String serializedUserReference = this.serializer.serialize(userReference);
-
-            // if the target explicitely contains the user reference we're good
-            if (event.getTarget().contains(serializedUserReference)) {
-                result = true;
-                // else we need to check that the targets does not contain any group the user belongs to
-                // note that we do the check by starting from the user groups for better scalability
-                // compared to loading each targets individually
-            } else {
-                try {
-                    Collection<DocumentReference> groups = this.groupManager.getGroups(userReference, null, true);
-                    for (DocumentReference group : groups) {
-                        if (event.getTarget().contains(this.serializer.serialize(group))) {
-                            result = true;
-                            break;
-                        }
-                    }
-                } catch (GroupException e) {
-                    logger.error("Error while checking groups for user [{}]", userReference, e);
-                }
-            }
-        }
-        return result;
-    }
-
-    private boolean filterEvent(Event event, NotificationParameters parameters) throws EventStreamException
+    private boolean filterEvent(Event event, NotificationParameters parameters, EventFilterPlan plan)
+        throws EventStreamException
     {
         // Don't record events that have a target that don't include the current user
-        if (!event.getTarget().isEmpty()
-            && (parameters.user == null || !this.eventTargetUser(event, parameters.user))) {
+        if (!event.getTarget().isEmpty() && !plan.isTargeted(event)) {
             return true;
         }
 
@@ -236,9 +216,7 @@ private boolean filterEvent(Event event, NotificationParameters parameters) thro
             return true;
         }
 
-        List<NotificationFilter> filters = new ArrayList<>(parameters.filters);
-        Collections.sort(filters);
-        for (NotificationFilter filter : filters) {
+        for (NotificationFilter filter : plan.filters) {
             NotificationFilter.FilterPolicy policy =
                 filter.filterEvent(event, parameters.user, parameters.filterPreferences, parameters.format);
             switch (policy) {
@@ -259,6 +237,82 @@ private List<String> getEventsIds(List<Event> events)
         return events.stream().map(Event::getId).collect(Collectors.toList());
     }
 
+    /**
+     * What is needed to filter the events of a request, computed once for all the events.
+     */
+    private final class EventFilterPlan
+    {
+        private final DocumentReference user;
+
+        private final List<NotificationFilter> filters;
+
+        private String serializedUser;
+
+        /**
+         * The serialized references of all the groups the user belongs to.
+         */
+        private Set<String> groups;
+
+        EventFilterPlan(NotificationParameters parameters)
+        {
+            this.user = parameters.user;
+
+            List<NotificationFilter> sortedFilters = new ArrayList<>(parameters.filters);
+            Collections.sort(sortedFilters);
+            this.filters = sortedFilters;
+        }
+
+        /**
+         * Determine if the user is targeted by the event targets.
+         *
+         * @param event the event that is tested
+         * @return {@code true} iff the user is explicitely target, or through a group.
+         */
+        boolean isTargeted(Event event)
+        {
+            if (this.user == null) {
+                return false;
+            }
+
+            if (this.serializedUser == null) {
+                this.serializedUser = serializer.serialize(this.user);
+            }
+
+            // if the target explicitely contains the user reference we're good
+            if (event.getTarget().contains(this.serializedUser)) {
+                return true;
+            }
+
+            // else we need to check that the targets does not contain any group the user belongs to (the groups are
+            // resolved only the first time they are needed)
+            for (String group : getGroups()) {
+                if (event.getTarget().contains(group)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private Set<String> getGroups()
+        {
+            if (this.groups == null) {
+                this.groups = new HashSet<>();
+                // note that we do the check by starting from the user groups for better scalability compared to
+                // loading each targets individually
+                try {
+                    for (DocumentReference group : groupManager.getGroups(this.user, null, true)) {
+                        this.groups.add(serializer.serialize(group));
+                    }
+                } catch (GroupException e) {
+                    logger.error("Error while checking groups for user [{}]", this.user, e);
+                }
+            }
+
+            return this.groups;
+        }
+    }
+
     private class BestSimilarity
     {
         public int value;
@@ -284,7 +284,9 @@ private String parseOtherOperation(AbstractOperatorNode operator, HQLQuery resul
             result.getQueryParameters().putAll(inSubQueryOperator.getParameters());
         } else if (operator instanceof OrderByNode) {
             OrderByNode orderByNode = (OrderByNode) operator;
-            returnValue = String.format("%s ORDER BY %s %s", parseBlock(orderByNode.getQuery(), result),
+            // Secondary orders are appended to the ORDER BY clause of the ordered query
+            String format = orderByNode.getQuery() instanceof OrderByNode ? "%s, %s %s" : "%s ORDER BY %s %s";
+            returnValue = String.format(format, parseBlock(orderByNode.getQuery(), result),
                     parseBlock(orderByNode.getProperty(), result), orderByNode.getOrder().name());
         } else if (operator instanceof ForUserNode) {
             ForUserNode forUser = (ForUserNode) operator;
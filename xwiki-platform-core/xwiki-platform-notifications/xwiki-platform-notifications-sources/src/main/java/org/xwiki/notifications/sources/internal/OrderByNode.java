@@ -92,6 +92,7 @@ public Order getOrder()
     @Override
     public String toString()
     {
-        return String.format("%s ORDER BY %s %s", query, property, order.name());
+        return String.format(query instanceof OrderByNode ? "%s, %s %s" : "%s ORDER BY %s %s", query, property,
+            order.name());
     }
 }
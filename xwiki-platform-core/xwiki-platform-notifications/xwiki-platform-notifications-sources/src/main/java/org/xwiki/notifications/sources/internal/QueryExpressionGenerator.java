@@ -146,6 +146,7 @@ public ExpressionNode generateQueryExpression(NotificationParameters parameters)
         // Other basic filters
         topNode = handleBlackList(parameters, topNode);
         topNode = handleEndDate(parameters, topNode);
+        topNode = handleCursor(parameters, topNode);
         topNode = handleHiddenEvents(parameters, topNode);
         topNode = handleWiki(parameters, topNode);
         topNode = handleOrder(topNode);
@@ -262,6 +263,34 @@ private AbstractOperatorNode handleEndDate(NotificationParameters parameters, Ab
         return topNode;
     }
 
+    private AbstractOperatorNode handleCursor(NotificationParameters parameters, AbstractOperatorNode topNode)
+    {
+        if (parameters.cursorDate != null && topNode != null) {
+            // Only keep the events which come after the cursor in the (date, id) descending order:
+            // date < cursorDate OR (date = cursorDate AND id < cursorId)
+            PropertyValueNode date = new PropertyValueNode(EventProperty.DATE);
+            DateValueNode cursorDate = new DateValueNode(parameters.cursorDate);
+
+            AbstractOperatorNode sameDateNode;
+            if (parameters.cursorId != null) {
+                PropertyValueNode id = new PropertyValueNode(EventProperty.ID);
+                StringValueNode cursorId = new StringValueNode(parameters.cursorId);
+                sameDateNode = new LesserThanNode(id, cursorId).and(new NotEqualsNode(id, cursorId));
+            } else {
+                sameDateNode = null;
+            }
+
+            // The lesser than operator is inclusive
+            AbstractOperatorNode node = new NotEqualsNode(date, cursorDate);
+            if (sameDateNode != null) {
+                node = node.or(sameDateNode);
+            }
+
+            return topNode.and(new LesserThanNode(date, cursorDate).and(node));
+        }
+        return topNode;
+    }
+
     private AbstractOperatorNode handleBlackList(NotificationParameters parameters, AbstractOperatorNode topNode)
     {
         if (parameters.blackList != null && !parameters.blackList.isEmpty()) {
@@ -302,7 +331,10 @@ private AbstractOperatorNode handleWiki(NotificationParameters parameters, Abstr
     private AbstractOperatorNode handleOrder(AbstractOperatorNode topNode)
     {
         if (topNode != null) {
-            return new OrderByNode(topNode, new PropertyValueNode(EventProperty.DATE), OrderByNode.Order.DESC);
+            // Order on the id too so that the order is stable between several pages
+            return new OrderByNode(
+                new OrderByNode(topNode, new PropertyValueNode(EventProperty.DATE), OrderByNode.Order.DESC),
+                new PropertyValueNode(EventProperty.ID), OrderByNode.Order.DESC);
         } else {
             return null;
         }
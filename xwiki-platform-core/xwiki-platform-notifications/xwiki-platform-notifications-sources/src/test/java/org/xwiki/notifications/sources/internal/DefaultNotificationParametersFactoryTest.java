@@ -33,6 +33,7 @@
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.xwiki.eventstream.Event;
 import org.xwiki.eventstream.RecordableEventDescriptor;
 import org.xwiki.eventstream.RecordableEventDescriptorManager;
 import org.xwiki.model.EntityType;
@@ -41,6 +42,7 @@
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceResolver;
 import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.notifications.CompositeEvent;
 import org.xwiki.notifications.NotificationConfiguration;
 import org.xwiki.notifications.NotificationException;
 import org.xwiki.notifications.NotificationFormat;
@@ -229,6 +231,34 @@ public void valueOfIgnoreCase()
         assertNull(ParametersKey.valueOfIgnoreCase("foobar"));
     }
 
+    @Test
+    public void cursor() throws NotificationException
+    {
+        Event event1 = mock(Event.class);
+        when(event1.getDate()).thenReturn(new Date(42));
+        when(event1.getId()).thenReturn("event1");
+        Event event2 = mock(Event.class);
+        when(event2.getDate()).thenReturn(new Date(42));
+        when(event2.getId()).thenReturn("event:2");
+        Event event3 = mock(Event.class);
+        when(event3.getDate()).thenReturn(new Date(43));
+        when(event3.getId()).thenReturn("event0");
+
+        String cursor = this.parametersFactory.getCursor(
+            Arrays.asList(new CompositeEvent(event3), new CompositeEvent(event2), new CompositeEvent(event1)));
+        assertEquals("42:event1", cursor);
+        assertNull(this.parametersFactory.getCursor(Collections.emptyList()));
+
+        Map<ParametersKey, String> parametersMap = new HashMap<>();
+        parametersMap.put(ParametersKey.USE_USER_PREFERENCES, "true");
+        parametersMap.put(ParametersKey.CURSOR, "42:event:2");
+
+        NotificationParameters notificationParameters =
+            this.parametersFactory.createNotificationParameters(parametersMap);
+        assertEquals(new Date(42), notificationParameters.cursorDate);
+        assertEquals("event:2", notificationParameters.cursorId);
+    }
+
     @Test
     public void createNotificationParameters() throws NotificationException
     {
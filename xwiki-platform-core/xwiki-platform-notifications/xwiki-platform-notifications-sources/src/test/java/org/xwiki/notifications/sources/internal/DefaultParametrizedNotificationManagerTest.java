@@ -19,6 +19,7 @@
  */
 package org.xwiki.notifications.sources.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -54,6 +55,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
@@ -172,6 +174,50 @@ public void getEventsWith2Queries() throws Exception
         assertEquals(event5, results.get(1).getEvents().get(0));
     }
 
+    @Test
+    public void getEventsWithCursor() throws Exception
+    {
+        // Mocks
+        Event event1 = createMockedEvent();
+        Event event2 = createMockedEvent();
+        Event event3 = createMockedEvent();
+        Event event4 = createMockedEvent();
+        when(event4.getDate()).thenReturn(new Date(4L));
+        when(event4.getId()).thenReturn("event4");
+
+        DocumentReference doc = new DocumentReference("xwiki", "PrivateSpace", "WebHome");
+        when(event1.getDocument()).thenReturn(doc);
+        when(event2.getDocument()).thenReturn(doc);
+        when(event3.getDocument()).thenReturn(doc);
+        when(event4.getDocument()).thenReturn(doc);
+        when(authorizationManager.hasAccess(Right.VIEW, userReference, doc)).thenReturn(false);
+
+        List<Object> cursors = new ArrayList<>();
+        when(queryGenerator.generateQuery(any(NotificationParameters.class))).then(invocation -> {
+            NotificationParameters parameters = invocation.getArgument(0);
+            cursors.add(parameters.cursorDate);
+            cursors.add(parameters.cursorId);
+            return query;
+        });
+        when(eventStream.searchEvents(query)).thenReturn(Arrays.asList(event1, event2, event3, event4),
+            Collections.emptyList());
+
+        // Test
+        NotificationParameters parameters = new NotificationParameters();
+        parameters.user = new DocumentReference("xwiki", "XWiki", "UserA");
+        parameters.expectedCount = 2;
+        List<CompositeEvent> results = this.defaultParametrizedNotificationManager.getEvents(parameters);
+
+        // Verify
+        assertEquals(0, results.size());
+        // The second batch starts right after the last event of the first one
+        assertEquals(Arrays.asList(null, null, new Date(4L), "event4"), cursors);
+        verify(query, times(2)).setOffset(0);
+        // The parameters are left untouched
+        assertNull(parameters.cursorDate);
+        assertNull(parameters.cursorId);
+    }
+
     private Event createMockedEvent()
     {
         Event event = mock(Event.class);
@@ -886,4 +932,41 @@ public void getEventsFilterOnTarget() throws Exception
         assertEquals(1, results.size());
         verify(this.groupManager, times(2)).getGroups(this.userReference, null, true);
     }
+
+    @Test
+    public void getEventsFilterOnTargetResolveGroupsOnce() throws Exception
+    {
+        Event event1 = createMockedEvent();
+        when(event1.getType()).thenReturn("update");
+        when(event1.getTarget()).thenReturn(new HashSet<>(Arrays.asList("Foo.bar")));
+        Event event2 = createMockedEvent();
+        when(event2.getType()).thenReturn("create");
+        when(event2.getTarget()).thenReturn(new HashSet<>(Arrays.asList("Foo.other")));
+        Event event3 = createMockedEvent();
+        when(event3.getType()).thenReturn("delete");
+        when(event3.getTarget()).thenReturn(new HashSet<>(Arrays.asList("Foo.bar")));
+
+        when(authorizationManager.hasAccess(eq(Right.VIEW), eq(userReference), any())).thenReturn(true);
+        when(contextualAuthorizationManager.hasAccess(eq(Right.VIEW), any())).thenReturn(true);
+        when(eventStream.searchEvents(query)).thenReturn(Arrays.asList(event1, event2, event3));
+        when(serializer.serialize(this.userReference)).thenReturn("XWiki.UserA");
+
+        DocumentReference groupReference = mock(DocumentReference.class);
+        when(this.groupManager.getGroups(this.userReference, null, true)).thenReturn(Arrays.asList(groupReference));
+        when(this.serializer.serialize(groupReference)).thenReturn("Foo.bar");
+
+        NotificationParameters parameters = new NotificationParameters();
+        parameters.user = this.userReference;
+        parameters.expectedCount = 3;
+        List<CompositeEvent> results = this.defaultParametrizedNotificationManager.getEvents(parameters);
+
+        // Only the events targeting the group of the user are kept
+        assertEquals(2, results.size());
+        assertEquals(event1, results.get(0).getEvents().get(0));
+        assertEquals(event3, results.get(1).getEvents().get(0));
+
+        // The groups of the user and the user reference are resolved only once for all the events
+        verify(this.groupManager, times(1)).getGroups(this.userReference, null, true);
+        verify(this.serializer, times(1)).serialize(this.userReference);
+    }
 }
@@ -100,7 +100,8 @@ public void generateQueryExpression() throws Exception
 
         // Verify
         assertEquals("((DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
-            + this.pref1StartDate.toString() + "\")) AND HIDDEN <> true) " + "ORDER BY DATE DESC", node.toString());
+            + this.pref1StartDate.toString() + "\")) AND HIDDEN <> true) "
+            + "ORDER BY DATE DESC, ID DESC", node.toString());
 
         // Test 2
         this.queryGenerator.generateQuery(parameters);
@@ -108,7 +109,7 @@ public void generateQueryExpression() throws Exception
         verify(this.queryManager).createQuery("where ((" + "event.date >= :" + this.startDateParamName + ") "
             + "AND ((event.type = :value_fa8847b0c33183273f5945508b31c3208a9e4ece58ca47233a05628d8dba3799) "
             + "AND (event.date >= :" + this.pref1StartDateParamName + "))) " + "AND (event.hidden <> true) "
-            + "ORDER BY event.date DESC", Query.HQL);
+            + "ORDER BY event.date DESC, event.id DESC", Query.HQL);
         verify(this.query).bindValue(this.startDateParamName, this.startDate);
         verify(this.query).bindValue(this.pref1StartDateParamName, this.pref1StartDate);
         verify(this.query).bindValue(eq("value_fa8847b0c33183273f5945508b31c3208a9e4ece58ca47233a05628d8dba3799"),
@@ -135,7 +136,7 @@ public void generateQueryWhenHiddenDocsAreEnabled() throws Exception
 
         // Verify
         assertEquals("(DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
-            + this.pref1StartDate.toString() + "\")) " + "ORDER BY DATE DESC", node.toString());
+            + this.pref1StartDate.toString() + "\")) " + "ORDER BY DATE DESC, ID DESC", node.toString());
 
         // Test 2
         this.queryGenerator.generateQuery(parameters);
@@ -143,7 +144,8 @@ public void generateQueryWhenHiddenDocsAreEnabled() throws Exception
         verify(this.queryManager).createQuery(
             "where (" + "event.date >= :" + this.startDateParamName + ") "
                 + "AND ((event.type = :value_fa8847b0c33183273f5945508b31c3208a9e4ece58ca47233a05628d8dba3799) "
-                + "AND (event.date >= :" + this.pref1StartDateParamName + ")) " + "ORDER BY event.date DESC",
+                + "AND (event.date >= :" + this.pref1StartDateParamName + ")) "
+                + "ORDER BY event.date DESC, event.id DESC",
             Query.HQL);
         verify(this.query).bindValue(eq(this.startDateParamName), eq(this.startDate));
         verify(this.query).bindValue(eq("value_fa8847b0c33183273f5945508b31c3208a9e4ece58ca47233a05628d8dba3799"),
@@ -165,7 +167,8 @@ public void generateQueryWithNotOnlyUnread() throws Exception
 
         // Verify
         assertEquals("((DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
-            + this.pref1StartDate.toString() + "\")) AND HIDDEN <> true) " + "ORDER BY DATE DESC", node.toString());
+            + this.pref1StartDate.toString() + "\")) AND HIDDEN <> true) "
+            + "ORDER BY DATE DESC, ID DESC", node.toString());
 
         // Test 2
         this.queryGenerator.generateQuery(parameters);
@@ -173,7 +176,7 @@ public void generateQueryWithNotOnlyUnread() throws Exception
         verify(this.queryManager).createQuery("where ((" + "event.date >= :" + this.startDateParamName + ") "
             + "AND ((event.type = :value_fa8847b0c33183273f5945508b31c3208a9e4ece58ca47233a05628d8dba3799) "
             + "AND (event.date >= :" + this.pref1StartDateParamName + "))) " + "AND (event.hidden <> true) "
-            + "ORDER BY event.date DESC", Query.HQL);
+            + "ORDER BY event.date DESC, event.id DESC", Query.HQL);
     }
 
     @Test
@@ -195,7 +198,7 @@ public void generateQueryWithUntilDate() throws Exception
         // Verify
         assertEquals("(((DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
             + this.pref1StartDate.toString() + "\")) " + "AND DATE <= \"" + untilDate.toString()
-            + "\") AND HIDDEN <> true) " + "ORDER BY DATE DESC", node.toString());
+            + "\") AND HIDDEN <> true) " + "ORDER BY DATE DESC, ID DESC", node.toString());
 
         // Test 2
         this.queryGenerator.generateQuery(parameters);
@@ -203,13 +206,37 @@ public void generateQueryWithUntilDate() throws Exception
         verify(this.queryManager).createQuery("where (((" + "event.date >= :" + this.startDateParamName + ") "
             + "AND ((event.type = :value_fa8847b0c33183273f5945508b31c3208a9e4ece58ca47233a05628d8dba3799) "
             + "AND (event.date >= :" + this.pref1StartDateParamName + "))) " + "AND (event.date <= :"
-            + untilDateParamName + ")) " + "AND (event.hidden <> true) " + "ORDER BY event.date DESC", Query.HQL);
+            + untilDateParamName + ")) " + "AND (event.hidden <> true) "
+            + "ORDER BY event.date DESC, event.id DESC", Query.HQL);
         verify(this.query).bindValue(this.startDateParamName, this.startDate);
         verify(this.query).bindValue(this.pref1StartDateParamName, this.pref1StartDate);
         verify(this.query).bindValue(untilDateParamName, untilDate);
 
     }
 
+    @Test
+    public void generateQueryWithCursor() throws Exception
+    {
+        Date cursorDate = new Date(1000000000000L);
+
+        // Test
+        NotificationParameters parameters = new NotificationParameters();
+        parameters.user = USER_REFERENCE;
+        parameters.format = NotificationFormat.ALERT;
+        parameters.fromDate = startDate;
+        parameters.cursorDate = cursorDate;
+        parameters.cursorId = "event42";
+        parameters.preferences = Arrays.asList(pref1);
+        parameters.filterPreferences = Arrays.asList(fakeFilterPreference);
+        ExpressionNode node = this.queryGenerator.generateQueryExpression(parameters);
+
+        // Verify
+        assertEquals("(((DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
+            + this.pref1StartDate.toString() + "\")) " + "AND (DATE <= \"" + cursorDate.toString()
+            + "\" AND (DATE <> \"" + cursorDate.toString() + "\" OR (ID <= \"event42\" AND ID <> \"event42\")))) "
+            + "AND HIDDEN <> true) ORDER BY DATE DESC, ID DESC", node.toString());
+    }
+
     @Test
     public void generateQueryWithUntilDateAndBlackList() throws Exception
     {
@@ -228,7 +255,7 @@ public void generateQueryWithUntilDateAndBlackList() throws Exception
         // Verify
         assertEquals("((((TYPE = \"create\" " + "AND DATE >= \"" + this.pref1StartDate.toString() + "\") "
             + "AND NOT (ID IN (\"event1\", \"event2\"))) " + "AND DATE <= \"" + untilDate.toString() + "\") "
-            + "AND HIDDEN <> true) " + "ORDER BY DATE DESC", node.toString());
+            + "AND HIDDEN <> true) " + "ORDER BY DATE DESC, ID DESC", node.toString());
     }
 
     @Test
@@ -247,7 +274,7 @@ public void generateQueryWithLocalUser() throws Exception
         // Verify
         assertEquals("(((DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
             + this.pref1StartDate.toString() + "\")) AND HIDDEN <> true) " + "AND WIKI = \"Wiki xwiki\") "
-            + "ORDER BY DATE DESC", node.toString());
+            + "ORDER BY DATE DESC, ID DESC", node.toString());
     }
 
     @Test
@@ -285,7 +312,7 @@ public void generateQueryWithFilters() throws Exception
         assertEquals("(((DATE >= \"" + this.startDate.toString() + "\" " + "AND (((TYPE = \"create\" AND DATE >= \""
             + this.pref1StartDate.toString() + "\") " + "AND (PAGE = \"someValue1\" AND \"1\" = \"1\")) "
             + "AND (TYPE = \"someValue2\" AND \"2\" = \"2\"))) " + "AND NOT (ID IN (\"event1\", \"event2\"))) "
-            + "AND HIDDEN <> true) " + "ORDER BY DATE DESC", node.toString());
+            + "AND HIDDEN <> true) " + "ORDER BY DATE DESC, ID DESC", node.toString());
     }
 
     @Test
@@ -313,7 +340,7 @@ public void generateQueryWithNoRelevantFilters() throws Exception
 
         assertEquals("(((DATE >= \"" + this.startDate.toString() + "\" " + "AND (TYPE = \"create\" AND DATE >= \""
             + this.pref1StartDate.toString() + "\")) " + "AND NOT (ID IN (\"event1\", \"event2\"))) "
-            + "AND HIDDEN <> true) " + "ORDER BY DATE DESC", node.toString());
+            + "AND HIDDEN <> true) " + "ORDER BY DATE DESC, ID DESC", node.toString());
     }
 
     @Test
@@ -345,7 +372,7 @@ public void generateQueryWithEventTypesThatHasNoDescriptor() throws Exception
         ExpressionNode node = this.queryGenerator.generateQueryExpression(parameters);
 
         // Expectation: no filters on "create" event type because it has no descriptor
-        assertEquals("(DATE >= \"" + this.startDate.toString() + "\" AND HIDDEN <> true) ORDER BY DATE DESC",
+        assertEquals("(DATE >= \"" + this.startDate.toString() + "\" AND HIDDEN <> true) ORDER BY DATE DESC, ID DESC",
             node.toString());
     }
 
@@ -22,6 +22,7 @@
 import java.util.List;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
 
 /**
  * Provide configuration for remote observation manager.
@@ -46,4 +47,36 @@
      * @return the identifier of the network adapter implementation to use to actually send and receive network messages
      */
     String getNetworkAdapter();
+
+    /**
+     * @return the time in milliseconds during which the events to send are accumulated to be sent together, 0 to send
+     *         each event in its own message
+     * @since 12.6
+     */
+    @Unstable
+    default int getBatchWindow()
+    {
+        return 0;
+    }
+
+    /**
+     * @return the maximum number of events to send together
+     * @since 12.6
+     */
+    @Unstable
+    default int getBatchMaxSize()
+    {
+        return 1;
+    }
+
+    /**
+     * @return the maximum number of received messages waiting to be dispatched to the listeners, after which the
+     *         reception of new messages is blocked until the listeners catch up
+     * @since 12.6
+     */
+    @Unstable
+    default int getReceiveQueueSize()
+    {
+        return 10000;
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.IOException;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Compact binary encoding of some remote events, used instead of Java serialization when sending them to the network.
+ * <p>
+ * The hint of the component is written before the encoded event so it must stay the same between versions. The events
+ * which are not supported by any codec are sent using Java serialization.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Role
+@Unstable
+public interface RemoteEventDataCodec
+{
+    /**
+     * @param remoteEvent the remote event to encode
+     * @return true if this codec can encode the passed event
+     */
+    boolean canEncode(RemoteEventData remoteEvent);
+
+    /**
+     * @param remoteEvent the remote event to encode
+     * @param output the stream to write the event to
+     * @throws IOException when failing to write the event
+     */
+    void encode(RemoteEventData remoteEvent, RemoteEventDataOutput output) throws IOException;
+
+    /**
+     * @param input the stream to read the event from
+     * @return the decoded remote event
+     * @throws IOException when failing to read the event
+     */
+    RemoteEventData decode(RemoteEventDataInput input) throws IOException;
+}
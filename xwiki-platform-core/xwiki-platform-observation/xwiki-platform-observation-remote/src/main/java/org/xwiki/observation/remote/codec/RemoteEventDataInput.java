@@ -0,0 +1,128 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * The stream a {@link RemoteEventDataCodec} reads an event from.
+ *
+ * @version $Id$
+ * @see RemoteEventDataOutput
+ * @since 12.6
+ */
+@Unstable
+public class RemoteEventDataInput
+{
+    private static final int VARINT_MASK = 0x7F;
+
+    private static final int VARINT_CONTINUE = 0x80;
+
+    private static final int VARINT_SHIFT = 7;
+
+    private static final int VARINT_MAX_SHIFT = 63;
+
+    private final DataInput input;
+
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * @param input the stream to read from
+     */
+    public RemoteEventDataInput(DataInput input)
+    {
+        this.input = input;
+    }
+
+    /**
+     * @return the read byte
+     * @throws IOException when failing to read
+     */
+    public byte readByte() throws IOException
+    {
+        return this.input.readByte();
+    }
+
+    /**
+     * @return the read boolean
+     * @throws IOException when failing to read
+     */
+    public boolean readBoolean() throws IOException
+    {
+        return this.input.readBoolean();
+    }
+
+    /**
+     * @return the read integer
+     * @throws IOException when failing to read
+     */
+    public int readInt() throws IOException
+    {
+        return (int) readLong();
+    }
+
+    /**
+     * @return the read long
+     * @throws IOException when failing to read
+     */
+    public long readLong() throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift <= VARINT_MAX_SHIFT; shift += VARINT_SHIFT) {
+            int b = this.input.readUnsignedByte();
+            value |= (long) (b & VARINT_MASK) << shift;
+            if ((b & VARINT_CONTINUE) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable length number");
+    }
+
+    /**
+     * @return the read string, can be null
+     * @throws IOException when failing to read
+     */
+    public String readString() throws IOException
+    {
+        int marker = readInt();
+
+        if (marker == RemoteEventDataOutput.NULL_STRING) {
+            return null;
+        } else if (marker == RemoteEventDataOutput.NEW_STRING) {
+            String value = this.input.readUTF();
+            this.strings.add(value);
+
+            return value;
+        }
+
+        int index = marker - RemoteEventDataOutput.INTERNED_STRING;
+        if (index >= this.strings.size()) {
+            throw new IOException("Unknown string index [" + index + "]");
+        }
+
+        return this.strings.get(index);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * The stream a {@link RemoteEventDataCodec} writes an event to.
+ * <p>
+ * Numbers are written using a variable length encoding and a string which was already written in the same event is
+ * replaced by its index, so that the names repeated in the references of an event (wiki, spaces, etc.) are only
+ * written once.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Unstable
+public class RemoteEventDataOutput
+{
+    static final int NULL_STRING = 0;
+
+    static final int NEW_STRING = 1;
+
+    static final int INTERNED_STRING = 2;
+
+    private static final int VARINT_MASK = 0x7F;
+
+    private static final int VARINT_CONTINUE = 0x80;
+
+    private static final int VARINT_SHIFT = 7;
+
+    private final DataOutput output;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    /**
+     * @param output the stream to write to
+     */
+    public RemoteEventDataOutput(DataOutput output)
+    {
+        this.output = output;
+    }
+
+    /**
+     * @param value the byte to write
+     * @throws IOException when failing to write
+     */
+    public void writeByte(int value) throws IOException
+    {
+        this.output.writeByte(value);
+    }
+
+    /**
+     * @param value the boolean to write
+     * @throws IOException when failing to write
+     */
+    public void writeBoolean(boolean value) throws IOException
+    {
+        this.output.writeBoolean(value);
+    }
+
+    /**
+     * @param value the positive integer to write
+     * @throws IOException when failing to write
+     */
+    public void writeInt(int value) throws IOException
+    {
+        writeLong(value);
+    }
+
+    /**
+     * @param value the positive long to write
+     * @throws IOException when failing to write
+     */
+    public void writeLong(long value) throws IOException
+    {
+        long remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            this.output.writeByte((int) (remaining & VARINT_MASK) | VARINT_CONTINUE);
+            remaining >>>= VARINT_SHIFT;
+        }
+        this.output.writeByte((int) remaining);
+    }
+
+    /**
+     * @param value the string to write, can be null
+     * @throws IOException when failing to write
+     */
+    public void writeString(String value) throws IOException
+    {
+        if (value == null) {
+            writeInt(NULL_STRING);
+        } else {
+            Integer index = this.strings.get(value);
+            if (index != null) {
+                writeInt(INTERNED_STRING + index);
+            } else {
+                this.strings.put(value, this.strings.size());
+                writeInt(NEW_STRING);
+                this.output.writeUTF(value);
+            }
+        }
+    }
+}
@@ -40,6 +40,12 @@
 @Singleton
 public class DefaultRemoteObservationManagerConfiguration implements RemoteObservationManagerConfiguration
 {
+    private static final int DEFAULT_BATCH_WINDOW = 10;
+
+    private static final int DEFAULT_BATCH_MAXSIZE = 1000;
+
+    private static final int DEFAULT_RECEIVE_QUEUESIZE = 10000;
+
     /**
      * USed to access configuration storage.
      */
@@ -69,4 +75,23 @@ public String getNetworkAdapter()
     {
         return this.configurationSource.getProperty("observation.remote.networkadapter", "jgroups");
     }
+
+    @Override
+    public int getBatchWindow()
+    {
+        return this.configurationSource.getProperty("observation.remote.batch.window", DEFAULT_BATCH_WINDOW);
+    }
+
+    @Override
+    public int getBatchMaxSize()
+    {
+        return this.configurationSource.getProperty("observation.remote.batch.maxSize", DEFAULT_BATCH_MAXSIZE);
+    }
+
+    @Override
+    public int getReceiveQueueSize()
+    {
+        return this.configurationSource.getProperty("observation.remote.receive.queueSize",
+            DEFAULT_RECEIVE_QUEUESIZE);
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jgroups.util.Util;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLookupException;
+import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.codec.RemoteEventDataCodec;
+import org.xwiki.observation.remote.codec.RemoteEventDataInput;
+import org.xwiki.observation.remote.codec.RemoteEventDataOutput;
+
+/**
+ * Default implementation of {@link RemoteEventDataSerializer}.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Singleton
+public class DefaultRemoteEventDataSerializer implements RemoteEventDataSerializer
+{
+    private static final byte FORMAT_SERIALIZABLE = 0;
+
+    private static final byte FORMAT_CODEC = 1;
+
+    /**
+     * Used to lookup the codecs, which can be provided by extensions.
+     */
+    @Inject
+    private ComponentManager componentManager;
+
+    @Inject
+    private Logger logger;
+
+    @Override
+    public byte[] serialize(RemoteEventData remoteEvent) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(bytes);
+
+        for (Map.Entry<String, RemoteEventDataCodec> entry : getCodecs().entrySet()) {
+            if (entry.getValue().canEncode(remoteEvent)) {
+                stream.writeByte(FORMAT_CODEC);
+                stream.writeUTF(entry.getKey());
+                entry.getValue().encode(remoteEvent, new RemoteEventDataOutput(stream));
+
+                return bytes.toByteArray();
+            }
+        }
+
+        // Fallback on Java serialization
+        stream.writeByte(FORMAT_SERIALIZABLE);
+        try {
+            stream.write(Util.objectToByteBuffer(remoteEvent));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to serialize remote event [" + remoteEvent + "]", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public RemoteEventData unserialize(byte[] bytes) throws IOException
+    {
+        if (bytes[0] == FORMAT_CODEC) {
+            DataInputStream stream = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            String hint = stream.readUTF();
+
+            RemoteEventDataCodec codec;
+            try {
+                codec = this.componentManager.getInstance(RemoteEventDataCodec.class, hint);
+            } catch (ComponentLookupException e) {
+                throw new IOException("Unknown remote event codec [" + hint + "]", e);
+            }
+
+            return codec.decode(new RemoteEventDataInput(stream));
+        }
+
+        try {
+            return (RemoteEventData) Util.objectFromByteBuffer(bytes, 1, bytes.length - 1);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to unserialize remote event", e);
+        }
+    }
+
+    private Map<String, RemoteEventDataCodec> getCodecs()
+    {
+        try {
+            return this.componentManager.getInstanceMap(RemoteEventDataCodec.class);
+        } catch (ComponentLookupException e) {
+            this.logger.error("Failed to lookup the remote event codecs", e);
+
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.codec;
+
+import java.io.IOException;
+
+import org.xwiki.component.annotation.Role;
+import org.xwiki.observation.remote.RemoteEventData;
+
+/**
+ * Convert remote events to and from bytes, using the compact encoding of a
+ * {@link org.xwiki.observation.remote.codec.RemoteEventDataCodec} when one supports the event and Java serialization
+ * otherwise.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Role
+public interface RemoteEventDataSerializer
+{
+    /**
+     * @param remoteEvent the remote event to serialize
+     * @return the serialized event
+     * @throws IOException when failing to serialize the event
+     */
+    byte[] serialize(RemoteEventData remoteEvent) throws IOException;
+
+    /**
+     * @param bytes the serialized event
+     * @return the remote event
+     * @throws IOException when failing to unserialize the event
+     */
+    RemoteEventData unserialize(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,213 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.jgroups;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.Address;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.jgroups.View;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.internal.codec.RemoteEventDataSerializer;
+import org.xwiki.observation.remote.jgroups.JGroupsReceiver;
+
+/**
+ * Receive the messages of a channel and dispatch them to the actual channel {@link JGroupsReceiver} in a dedicated
+ * thread so that the JGroups thread is not blocked by the listeners. Batches of events are split and each event is
+ * passed to {@link JGroupsReceiver#receive(RemoteEventData)}.
+ * <p>
+ * The number of messages waiting to be dispatched is bounded: when the listeners can't keep up the JGroups thread waits
+ * for some room in the queue, which slows down the reception of new messages instead of exhausting the memory.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class JGroupsChannelReceiver extends ReceiverAdapter
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(JGroupsChannelReceiver.class);
+
+    private final String channelId;
+
+    private final JGroupsReceiver receiver;
+
+    private final RemoteEventDataSerializer serializer;
+
+    private final ThreadPoolExecutor executor;
+
+    private final JGroupsChannelStatistics statistics;
+
+    /**
+     * @param channelId the identifier of the channel
+     * @param receiver the receiver to dispatch the messages to
+     * @param serializer the serializer used to read the events of a batch
+     * @param queueSize the maximum number of received messages waiting to be dispatched
+     */
+    public JGroupsChannelReceiver(String channelId, JGroupsReceiver receiver, RemoteEventDataSerializer serializer,
+        int queueSize)
+    {
+        this.channelId = channelId;
+        this.receiver = receiver;
+        this.serializer = serializer;
+
+        // A single thread to keep the events in the order they were sent (which is also why the rejected messages are
+        // not run by the caller)
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueSize),
+            r -> {
+                Thread thread = new Thread(r, "XWiki remote events dispatcher [" + channelId + "]");
+                thread.setDaemon(true);
+                return thread;
+            }, createBackpressureHandler());
+
+        this.statistics = new JGroupsChannelStatistics(() -> this.executor.getQueue().size());
+    }
+
+    private RejectedExecutionHandler createBackpressureHandler()
+    {
+        return (runnable, pool) -> {
+            if (pool.isShutdown()) {
+                LOGGER.warn("Message received from the channel [{}] after it was closed", this.channelId);
+
+                return;
+            }
+
+            try {
+                // Wait for the listeners to catch up
+                pool.getQueue().put(runnable);
+            } catch (InterruptedException e) {
+                LOGGER.warn("Interrupted while waiting to dispatch a message received from the channel [{}]",
+                    this.channelId);
+
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    /**
+     * @return the statistics of the channel
+     */
+    public JGroupsChannelStatistics getStatistics()
+    {
+        return this.statistics;
+    }
+
+    /**
+     * Dispatch the messages which were already received and stop the dispatching thread.
+     */
+    public void close()
+    {
+        this.executor.shutdown();
+    }
+
+    @Override
+    public void receive(Message msg)
+    {
+        long received = System.nanoTime();
+
+        this.executor.execute(() -> dispatch(msg, received));
+    }
+
+    private void dispatch(Message msg, long received)
+    {
+        long lag = System.nanoTime() - received;
+
+        Object payload;
+        try {
+            payload = msg.getObject();
+        } catch (Exception e) {
+            LOGGER.error("Failed to read message received from the channel [{}]", this.channelId, e);
+
+            return;
+        }
+
+        if (payload instanceof JGroupsEventBatch) {
+            JGroupsEventBatch batch = (JGroupsEventBatch) payload;
+            this.statistics.recordReceived(batch.size(), msg.getLength(), lag);
+
+            try {
+                for (byte[] event : batch.getEvents()) {
+                    dispatchEvent(this.serializer.unserialize(event));
+                }
+            } catch (Exception e) {
+                LOGGER.error("Failed to read events batch received from the channel [{}]", this.channelId, e);
+            }
+        } else {
+            this.statistics.recordReceived(1, msg.getLength(), lag);
+
+            try {
+                this.receiver.receive(msg);
+            } catch (Exception e) {
+                LOGGER.error("Failed to handle message received from the channel [{}]", this.channelId, e);
+            }
+        }
+    }
+
+    private void dispatchEvent(RemoteEventData remoteEvent)
+    {
+        try {
+            this.receiver.receive(remoteEvent);
+        } catch (Exception e) {
+            LOGGER.error("Failed to handle event [{}] received from the channel [{}]", remoteEvent, this.channelId, e);
+        }
+    }
+
+    @Override
+    public void getState(OutputStream output) throws Exception
+    {
+        this.receiver.getState(output);
+    }
+
+    @Override
+    public void setState(InputStream input) throws Exception
+    {
+        this.receiver.setState(input);
+    }
+
+    @Override
+    public void viewAccepted(View view)
+    {
+        this.receiver.viewAccepted(view);
+    }
+
+    @Override
+    public void suspect(Address member)
+    {
+        this.receiver.suspect(member);
+    }
+
+    @Override
+    public void block()
+    {
+        this.receiver.block();
+    }
+
+    @Override
+    public void unblock()
+    {
+        this.receiver.unblock();
+    }
+}
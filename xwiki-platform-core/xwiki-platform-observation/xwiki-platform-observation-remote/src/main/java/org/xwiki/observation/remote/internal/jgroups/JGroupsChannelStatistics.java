@@ -0,0 +1,178 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.jgroups;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Counters collected for each remote events channel.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class JGroupsChannelStatistics implements JGroupsChannelStatisticsMBean
+{
+    private static final double NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LongAdder sentMessages = new LongAdder();
+
+    private final LongAdder sentEvents = new LongAdder();
+
+    private final LongAdder sentBytes = new LongAdder();
+
+    private final LongAdder coalescedEvents = new LongAdder();
+
+    private final LongAdder sendLag = new LongAdder();
+
+    private final LongAdder receivedMessages = new LongAdder();
+
+    private final LongAdder receivedEvents = new LongAdder();
+
+    private final LongAdder receivedBytes = new LongAdder();
+
+    private final LongAdder dispatchLag = new LongAdder();
+
+    private final IntSupplier dispatchQueueSize;
+
+    /**
+     * @param dispatchQueueSize the number of received messages waiting to be dispatched
+     */
+    public JGroupsChannelStatistics(IntSupplier dispatchQueueSize)
+    {
+        this.dispatchQueueSize = dispatchQueueSize;
+    }
+
+    /**
+     * @param events the number of events in the sent message
+     * @param bytes the size of the sent message
+     * @param lag the sum of the time each event waited before being sent, in nanoseconds
+     */
+    public void recordSent(int events, int bytes, long lag)
+    {
+        this.sentMessages.increment();
+        this.sentEvents.add(events);
+        this.sentBytes.add(bytes);
+        this.sendLag.add(lag);
+    }
+
+    /**
+     * @param events the number of events which were merged with an identical event waiting to be sent
+     */
+    public void recordCoalesced(int events)
+    {
+        this.coalescedEvents.add(events);
+    }
+
+    /**
+     * @param events the number of events in the received message
+     * @param bytes the size of the received message
+     * @param lag the time the message waited before being dispatched, in nanoseconds
+     */
+    public void recordReceived(int events, int bytes, long lag)
+    {
+        this.receivedMessages.increment();
+        this.receivedEvents.add(events);
+        this.receivedBytes.add(bytes);
+        this.dispatchLag.add(lag);
+    }
+
+    @Override
+    public long getSentMessageCount()
+    {
+        return this.sentMessages.sum();
+    }
+
+    @Override
+    public long getSentEventCount()
+    {
+        return this.sentEvents.sum();
+    }
+
+    @Override
+    public long getSentByteCount()
+    {
+        return this.sentBytes.sum();
+    }
+
+    @Override
+    public long getCoalescedEventCount()
+    {
+        return this.coalescedEvents.sum();
+    }
+
+    @Override
+    public double getAverageSendLag()
+    {
+        return average(this.sendLag, this.sentEvents);
+    }
+
+    @Override
+    public long getReceivedMessageCount()
+    {
+        return this.receivedMessages.sum();
+    }
+
+    @Override
+    public long getReceivedEventCount()
+    {
+        return this.receivedEvents.sum();
+    }
+
+    @Override
+    public long getReceivedByteCount()
+    {
+        return this.receivedBytes.sum();
+    }
+
+    @Override
+    public double getAverageDispatchLag()
+    {
+        return average(this.dispatchLag, this.receivedMessages);
+    }
+
+    @Override
+    public int getDispatchQueueSize()
+    {
+        return this.dispatchQueueSize.getAsInt();
+    }
+
+    @Override
+    public void resetStatistics()
+    {
+        this.sentMessages.reset();
+        this.sentEvents.reset();
+        this.sentBytes.reset();
+        this.coalescedEvents.reset();
+        this.sendLag.reset();
+        this.receivedMessages.reset();
+        this.receivedEvents.reset();
+        this.receivedBytes.reset();
+        this.dispatchLag.reset();
+    }
+
+    private double average(LongAdder time, LongAdder count)
+    {
+        long currentCount = count.sum();
+
+        return currentCount > 0 ? time.sum() / NANOS_PER_MILLISECOND / currentCount : 0;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.jgroups;
+
+/**
+ * Interface of the JMX MBean exposing the activity of a remote events channel.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public interface JGroupsChannelStatisticsMBean
+{
+    /**
+     * @return the number of messages sent to the channel
+     */
+    long getSentMessageCount();
+
+    /**
+     * @return the number of events sent to the channel
+     */
+    long getSentEventCount();
+
+    /**
+     * @return the number of bytes sent to the channel
+     */
+    long getSentByteCount();
+
+    /**
+     * @return the number of events which were not sent because an identical event was waiting to be sent
+     */
+    long getCoalescedEventCount();
+
+    /**
+     * @return the average time in milliseconds an event waited before being sent
+     */
+    double getAverageSendLag();
+
+    /**
+     * @return the number of messages received from the channel
+     */
+    long getReceivedMessageCount();
+
+    /**
+     * @return the number of events received from the channel
+     */
+    long getReceivedEventCount();
+
+    /**
+     * @return the number of bytes received from the channel
+     */
+    long getReceivedByteCount();
+
+    /**
+     * @return the average time in milliseconds a received message waited before being dispatched
+     */
+    double getAverageDispatchLag();
+
+    /**
+     * @return the number of received messages waiting to be dispatched
+     */
+    int getDispatchQueueSize();
+
+    /**
+     * Reset the counters.
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,97 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.internal.jgroups;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Several serialized remote events sent in a single compressed JGroups message.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class JGroupsEventBatch implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final int size;
+
+    private final byte[] events;
+
+    /**
+     * @param events the serialized events to send together
+     * @throws IOException when failing to compress the events
+     */
+    public JGroupsEventBatch(Collection<byte[]> events) throws IOException
+    {
+        this.size = events.size();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream stream = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            for (byte[] event : events) {
+                stream.writeInt(event.length);
+                stream.write(event);
+            }
+        } finally {
+            deflater.end();
+        }
+        this.events = bytes.toByteArray();
+    }
+
+    /**
+     * @return the number of events in the batch
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @return the serialized events, in the order in which they were sent
+     * @throws IOException when failing to uncompress the events
+     */
+    public List<byte[]> getEvents() throws IOException
+    {
+        List<byte[]> result = new ArrayList<>(this.size);
+
+        try (DataInputStream stream =
+            new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(this.events)))) {
+            for (int i = 0; i < this.size; ++i) {
+                byte[] event = new byte[stream.readInt()];
+                stream.readFully(event);
+                result.add(event);
+            }
+        }
+
+        return result;
+    }
+}
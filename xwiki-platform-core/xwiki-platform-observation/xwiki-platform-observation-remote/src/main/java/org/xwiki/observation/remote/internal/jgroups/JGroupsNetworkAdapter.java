@@ -22,14 +22,24 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 
 import org.jgroups.Global;
 import org.jgroups.JChannel;
@@ -38,18 +48,25 @@
 import org.jgroups.conf.ProtocolStackConfigurator;
 import org.jgroups.conf.XmlConfigurator;
 import org.jgroups.jmx.JmxConfigurator;
+import org.jgroups.util.Util;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.component.phase.Disposable;
 import org.xwiki.environment.Environment;
 import org.xwiki.observation.remote.NetworkAdapter;
 import org.xwiki.observation.remote.RemoteEventData;
 import org.xwiki.observation.remote.RemoteEventException;
+import org.xwiki.observation.remote.RemoteObservationManagerConfiguration;
+import org.xwiki.observation.remote.internal.codec.RemoteEventDataSerializer;
 import org.xwiki.observation.remote.jgroups.JGroupsReceiver;
 
 /**
  * JGroups based implementation of {@link NetworkAdapter}.
+ * <p>
+ * The events to send are accumulated during a short window and sent together in a single compressed message, an event
+ * identical to one still waiting to be sent to a channel replacing it.
  *
  * @version $Id$
  * @since 2.0RC1
@@ -57,13 +74,15 @@
 @Component
 @Named("jgroups")
 @Singleton
-public class JGroupsNetworkAdapter implements NetworkAdapter
+public class JGroupsNetworkAdapter implements NetworkAdapter, Disposable
 {
     /**
      * Relative path where to find jgroups channels configurations.
      */
     public static final String CONFIGURATION_PATH = "observation/remote/jgroups/";
 
+    private static final String MBEAN_NAME_PREFIX = "org.xwiki:type=RemoteObservation,channel=";
+
     /**
      * Used to lookup the receiver corresponding to the channel identifier.
      */
@@ -76,27 +95,168 @@ public class JGroupsNetworkAdapter implements NetworkAdapter
     @Inject
     private Logger logger;
 
+    @Inject
+    private RemoteObservationManagerConfiguration configuration;
+
+    @Inject
+    private RemoteEventDataSerializer serializer;
+
     /**
      * The network channels.
      */
     private Map<String, JChannel> channels = new ConcurrentHashMap<String, JChannel>();
 
+    /**
+     * The receivers dispatching the messages of each channel.
+     */
+    private Map<String, JGroupsChannelReceiver> receivers = new ConcurrentHashMap<>();
+
+    /**
+     * The serialized events waiting to be sent to each channel, associated with the time at which they were queued.
+     */
+    private Map<String, Map<ByteBuffer, Long>> pendingEvents = new HashMap<>();
+
+    private final Object pendingLock = new Object();
+
+    private final Object flushLock = new Object();
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "XWiki remote events sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @Override
     public void send(RemoteEventData remoteEvent)
     {
         this.logger.debug("Send JGroups remote event [" + remoteEvent + "]");
 
-        // Send the message to the whole group
-        Message message = new Message(null, remoteEvent);
+        int window = this.configuration.getBatchWindow();
+        if (window <= 0) {
+            // Send the message to the whole group
+            send(new Message(null, remoteEvent), 1, 0);
+
+            return;
+        }
+
+        byte[] serializedEvent;
+        try {
+            serializedEvent = this.serializer.serialize(remoteEvent);
+        } catch (IOException e) {
+            this.logger.error("Failed to serialize message [" + remoteEvent + "]", e);
+
+            return;
+        }
+
+        ByteBuffer key = ByteBuffer.wrap(serializedEvent);
+        boolean wasEmpty;
+        int pendingSize = 0;
+        synchronized (this.pendingLock) {
+            wasEmpty = this.pendingEvents.isEmpty();
+
+            for (String channelId : this.channels.keySet()) {
+                pendingSize = Math.max(pendingSize, queue(channelId, key));
+            }
+        }
+
+        if (pendingSize >= this.configuration.getBatchMaxSize()) {
+            // Slow down the producer when the network can't keep up
+            flush();
+        } else if (wasEmpty && pendingSize > 0) {
+            this.flushExecutor.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Must be called while holding the pending lock.
+     *
+     * @return the number of events waiting to be sent to the channel
+     */
+    private int queue(String channelId, ByteBuffer serializedEvent)
+    {
+        Map<ByteBuffer, Long> channelEvents =
+            this.pendingEvents.computeIfAbsent(channelId, key -> new LinkedHashMap<>());
+
+        // Move the identical event waiting to be sent to the end of the batch instead of sending it twice
+        Long queued = channelEvents.remove(serializedEvent);
+        if (queued != null) {
+            JGroupsChannelReceiver receiver = this.receivers.get(channelId);
+            if (receiver != null) {
+                receiver.getStatistics().recordCoalesced(1);
+            }
+        }
+        channelEvents.put(serializedEvent, queued != null ? queued : System.nanoTime());
+
+        return channelEvents.size();
+    }
+
+    /**
+     * Send the events waiting to be sent.
+     */
+    private void flush()
+    {
+        // Make sure the batches are sent in the order in which they were created
+        synchronized (this.flushLock) {
+            Map<String, Map<ByteBuffer, Long>> events;
+            synchronized (this.pendingLock) {
+                if (this.pendingEvents.isEmpty()) {
+                    return;
+                }
+
+                events = this.pendingEvents;
+                this.pendingEvents = new HashMap<>();
+            }
+
+            long now = System.nanoTime();
+            for (Map.Entry<String, Map<ByteBuffer, Long>> entry : events.entrySet()) {
+                flush(entry.getKey(), entry.getValue(), now);
+            }
+        }
+    }
+
+    private void flush(String channelId, Map<ByteBuffer, Long> events, long now)
+    {
+        JChannel channel = this.channels.get(channelId);
+        if (channel == null) {
+            // The channel has been stopped in the meantime
+            return;
+        }
+
+        long lag = events.values().stream().mapToLong(queued -> now - queued).sum();
+
+        List<byte[]> serializedEvents = events.keySet().stream().map(ByteBuffer::array).collect(Collectors.toList());
 
+        byte[] buffer;
+        try {
+            buffer = Util.objectToByteBuffer(new JGroupsEventBatch(serializedEvents));
+        } catch (Exception e) {
+            this.logger.error("Failed to serialize a batch of [{}] events", serializedEvents.size(), e);
+
+            return;
+        }
+
+        send(channelId, channel, new Message(null, buffer), serializedEvents.size(), lag);
+    }
+
+    private void send(Message message, int eventCount, long lag)
+    {
         // Send message to JGroups channels
         for (Map.Entry<String, JChannel> entry : this.channels.entrySet()) {
-            try {
-                entry.getValue().send(message);
-            } catch (Exception e) {
-                this.logger
-                    .error("Failed to send message [" + remoteEvent + "] to the channel [" + entry.getKey() + "]", e);
+            send(entry.getKey(), entry.getValue(), message, eventCount, lag);
+        }
+    }
+
+    private void send(String channelId, JChannel channel, Message message, int eventCount, long lag)
+    {
+        try {
+            channel.send(message);
+
+            JGroupsChannelReceiver receiver = this.receivers.get(channelId);
+            if (receiver != null) {
+                receiver.getStatistics().recordSent(eventCount, message.getLength(), lag);
             }
+        } catch (Exception e) {
+            this.logger.error("Failed to send [{}] events to the channel [{}]", eventCount, channelId, e);
         }
     }
 
@@ -108,11 +268,15 @@ public void startChannel(String channelId) throws RemoteEventException
         }
 
         JChannel channel;
+        JGroupsChannelReceiver receiver;
         try {
-            channel = createChannel(channelId);
+            receiver = new JGroupsChannelReceiver(channelId, getReceiver(channelId), this.serializer,
+                this.configuration.getReceiveQueueSize());
+            channel = createChannel(channelId, receiver);
             channel.connect("event");
 
             this.channels.put(channelId, channel);
+            this.receivers.put(channelId, receiver);
         } catch (Exception e) {
             throw new RemoteEventException("Failed to create channel [" + channelId + "]", e);
         }
@@ -121,6 +285,7 @@ public void startChannel(String channelId) throws RemoteEventException
         try {
             MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
             JmxConfigurator.registerChannel(channel, mbs, channel.getClusterName());
+            mbs.registerMBean(receiver.getStatistics(), getStatisticsName(channelId));
         } catch (Exception e) {
             this.logger.warn("Failed to register channel [" + channelId + "] against the JMX Server", e);
         }
@@ -137,14 +302,19 @@ public void stopChannel(String channelId) throws RemoteEventException
             throw new RemoteEventException(MessageFormat.format("Channel [{0}] is not started", channelId));
         }
 
+        // Don't lose the events waiting to be sent
+        flush();
+
         channel.close();
 
         this.channels.remove(channelId);
+        this.receivers.remove(channelId).close();
 
         // Unregister the channel from the JMX Server
         try {
             MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
             JmxConfigurator.unregister(channel, mbs, channel.getClusterName());
+            mbs.unregisterMBean(getStatisticsName(channelId));
         } catch (Exception e) {
             this.logger.warn("Failed to unregister channel [" + channelId + "] from the JMX Server", e);
         }
@@ -152,30 +322,42 @@ public void stopChannel(String channelId) throws RemoteEventException
         this.logger.info("Channel [{}] stopped", channelId);
     }
 
+    private ObjectName getStatisticsName(String channelId) throws MalformedObjectNameException
+    {
+        return new ObjectName(MBEAN_NAME_PREFIX + ObjectName.quote(channelId));
+    }
+
+    /**
+     * @param channelId the identifier of the channel
+     * @return the receiver to use for the channel
+     * @throws ComponentLookupException failed to lookup the receiver
+     */
+    private JGroupsReceiver getReceiver(String channelId) throws ComponentLookupException
+    {
+        try {
+            return this.componentManager.getInstance(JGroupsReceiver.class, channelId);
+        } catch (ComponentLookupException e) {
+            return this.componentManager.getInstance(JGroupsReceiver.class);
+        }
+    }
+
     /**
      * Create a new channel.
      *
      * @param channelId the identifier of the channel to create
+     * @param receiver the receiver of the channel messages
      * @return the new channel
      * @throws Exception failed to create new channel
      */
-    private JChannel createChannel(String channelId) throws Exception
+    private JChannel createChannel(String channelId, JGroupsChannelReceiver receiver) throws Exception
     {
         // load configuration
         ProtocolStackConfigurator channelConf = loadChannelConfiguration(channelId);
 
-        // get Receiver
-        JGroupsReceiver channelReceiver;
-        try {
-            channelReceiver = this.componentManager.getInstance(JGroupsReceiver.class, channelId);
-        } catch (ComponentLookupException e) {
-            channelReceiver = this.componentManager.getInstance(JGroupsReceiver.class);
-        }
-
         // create channel
         JChannel channel = new JChannel(channelConf);
 
-        channel.setReceiver(channelReceiver);
+        channel.setReceiver(receiver);
         channel.setDiscardOwnMessages(true);
 
         return channel;
@@ -218,12 +400,27 @@ private ProtocolStackConfigurator loadChannelConfiguration(String channelId) thr
     @Override
     public void stopAllChannels() throws RemoteEventException
     {
+        // Don't lose the events waiting to be sent
+        flush();
+
         for (Map.Entry<String, JChannel> channelEntry : this.channels.entrySet()) {
             channelEntry.getValue().close();
         }
 
         this.channels.clear();
 
+        for (JGroupsChannelReceiver receiver : this.receivers.values()) {
+            receiver.close();
+        }
+
+        this.receivers.clear();
+
         this.logger.info("All channels stopped");
     }
+
+    @Override
+    public void dispose()
+    {
+        this.flushExecutor.shutdownNow();
+    }
 }
@@ -19,8 +19,11 @@
  */
 package org.xwiki.observation.remote.jgroups;
 
+import org.jgroups.Message;
 import org.jgroups.Receiver;
 import org.xwiki.component.annotation.Role;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.stability.Unstable;
 
 /**
  * Provide a @Role for JGRoups {@link Receiver} interface. Can be implemented using channel name as hint to provide a
@@ -32,4 +35,17 @@
 @Role
 public interface JGroupsReceiver extends Receiver
 {
+    /**
+     * Receive an event which was sent in a batch of events.
+     * <p>
+     * The default implementation wraps the event in a {@link Message} and calls {@link #receive(Message)}.
+     *
+     * @param remoteEvent the received event
+     * @since 12.6
+     */
+    @Unstable
+    default void receive(RemoteEventData remoteEvent)
+    {
+        receive(new Message(null, remoteEvent));
+    }
 }
@@ -23,15 +23,19 @@
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.xwiki.logging.event.LogEvent;
 import org.xwiki.observation.EventListener;
 import org.xwiki.observation.remote.test.AbstractROMTestCase;
 import org.xwiki.observation.remote.test.TestEvent;
 import org.xwiki.test.annotation.AllComponents;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -92,4 +96,34 @@ public void testSerializableEvent() throws InterruptedException
         verify(localListener).onEvent(same(event), same(unserializable), same(unserializable));
         verify(remoteListener).onEvent(eq(event), eq("some source"), eq("some data"));
     }
+
+    /**
+     * Validate that identical events sent during the same batch window are only sent once.
+     */
+    @Test
+    public void testCoalescedEvents() throws InterruptedException
+    {
+        getConfigurationSource1().setProperty("observation.remote.batch.window", 500);
+
+        EventListener remoteListener = mock(EventListener.class, "remote");
+
+        TestEvent event = new TestEvent();
+
+        when(remoteListener.getName()).thenReturn("mylistener");
+        when(remoteListener.getEvents()).thenReturn(Arrays.asList(event));
+
+        getObservationManager2().addListener(remoteListener);
+
+        getObservationManager1().notify(event, "some source", "data1");
+        getObservationManager1().notify(event, "some source", "data2");
+        getObservationManager1().notify(event, "some source", "data1");
+
+        // Make sure the batch window is over and JGroups has enough time to send the message
+        Thread.sleep(1500);
+
+        InOrder inOrder = inOrder(remoteListener);
+        inOrder.verify(remoteListener).onEvent(eq(event), eq("some source"), eq("data2"));
+        inOrder.verify(remoteListener).onEvent(eq(event), eq("some source"), eq("data1"));
+        verify(remoteListener, times(2)).onEvent(any(), any(), any());
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.observation.remote.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link RemoteEventDataOutput} and {@link RemoteEventDataInput}.
+ *
+ * @version $Id$
+ */
+public class RemoteEventDataOutputTest
+{
+    @Test
+    public void writeRead() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RemoteEventDataOutput output = new RemoteEventDataOutput(new DataOutputStream(bytes));
+
+        output.writeString("xwiki");
+        output.writeInt(0);
+        output.writeInt(300);
+        output.writeLong(Long.MAX_VALUE);
+        output.writeString(null);
+        output.writeString("xwiki");
+        output.writeBoolean(true);
+        output.writeString("other");
+        output.writeByte(42);
+
+        RemoteEventDataInput input =
+            new RemoteEventDataInput(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals("xwiki", input.readString());
+        assertEquals(0, input.readInt());
+        assertEquals(300, input.readInt());
+        assertEquals(Long.MAX_VALUE, input.readLong());
+        assertNull(input.readString());
+        assertEquals("xwiki", input.readString());
+        assertTrue(input.readBoolean());
+        assertEquals("other", input.readString());
+        assertEquals(42, input.readByte());
+    }
+
+    @Test
+    public void writeStringInterned() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RemoteEventDataOutput output = new RemoteEventDataOutput(new DataOutputStream(bytes));
+
+        output.writeString("some long wiki identifier");
+        int size = bytes.size();
+        output.writeString("some long wiki identifier");
+
+        // Only the index of the string is written the second time
+        assertEquals(1, bytes.size() - size);
+        assertTrue(size > 1);
+    }
+}
@@ -201,6 +201,7 @@
 import com.xpn.xwiki.internal.XWikiCfgConfigurationSource;
 import com.xpn.xwiki.internal.XWikiConfigDelegate;
 import com.xpn.xwiki.internal.XWikiInitializerJob;
+import com.xpn.xwiki.internal.event.DeferredDocumentEvents;
 import com.xpn.xwiki.internal.event.MandatoryDocumentsInitializedEvent;
 import com.xpn.xwiki.internal.event.MandatoryDocumentsInitializingEvent;
 import com.xpn.xwiki.internal.event.UserCreatingDocumentEvent;
@@ -2053,7 +2054,11 @@ public void saveDocument(XWikiDocument document, String comment, boolean isMinor
                 // an XWikiDocument as source and an XWikiContext as data.
                 // The old version is made available using doc.getOriginalDocument()
 
-                if (om != null) {
+                // The notification is delayed when the save is part of a batch which is not yet committed
+                DeferredDocumentEvents deferredEvents = DeferredDocumentEvents.getCurrent(context);
+                if (deferredEvents != null) {
+                    deferredEvents.add(document, originalDocument);
+                } else if (om != null) {
                     if (originalDocument.isNew()) {
                         om.notify(new DocumentCreatedEvent(document.getDocumentReference()), document, context);
                     } else {
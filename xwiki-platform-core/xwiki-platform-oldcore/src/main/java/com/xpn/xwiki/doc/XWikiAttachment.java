@@ -23,6 +23,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
@@ -59,6 +60,7 @@
 import org.xwiki.model.reference.EntityReferenceResolver;
 import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.model.reference.WikiReference;
+import org.xwiki.stability.Unstable;
 import org.xwiki.text.XWikiToStringBuilder;
 import org.xwiki.tika.internal.TikaUtils;
 
@@ -910,6 +912,27 @@ private InputStream getContentInputStream()
         return this.content != null ? this.content.getContentInputStream() : null;
     }
 
+    /**
+     * Retrieve the content of this attachment as a channel which allows reading it from any position.
+     *
+     * @param xcontext current XWikiContext
+     * @return a channel to read the content of this attachment or {@code null} if the content store does not support
+     *         it, in which case {@link #getContentInputStream(XWikiContext)} should be used instead
+     * @throws XWikiException when failing to load the attachment content
+     * @throws IOException when failing to open the channel
+     * @since 12.6
+     * @see XWikiAttachmentContent#getContentChannel()
+     */
+    @Unstable
+    public SeekableByteChannel getContentChannel(XWikiContext xcontext) throws XWikiException, IOException
+    {
+        if (this.content == null && xcontext != null) {
+            reloadAttachmentContent(xcontext);
+        }
+
+        return this.content != null ? this.content.getContentChannel() : null;
+    }
+
     private void reloadAttachmentContent(XWikiContext xcontext) throws XWikiException
     {
         if (Objects.equals(getVersion(), getLatestStoredVersion(xcontext))) {
@@ -24,6 +24,9 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.disk.DiskFileItem;
@@ -32,6 +35,7 @@
 import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.io.output.ProxyOutputStream;
 import org.xwiki.environment.Environment;
+import org.xwiki.stability.Unstable;
 import org.xwiki.store.UnexpectedException;
 
 import com.xpn.xwiki.web.Utils;
@@ -250,6 +254,25 @@ public InputStream getContentInputStream()
         }
     }
 
+    /**
+     * Give access to the content from any position without reading what comes before. Stores keeping the content in a
+     * file can simply return a {@link FileChannel}.
+     *
+     * @return a channel to read the binary content of this attachment, or {@code null} if this content does not
+     *         support it, in which case {@link #getContentInputStream()} should be used instead
+     * @throws IOException when failing to open the channel
+     * @since 12.6
+     */
+    @Unstable
+    public SeekableByteChannel getContentChannel() throws IOException
+    {
+        if (this.file instanceof DiskFileItem && !this.file.isInMemory()) {
+            return FileChannel.open(((DiskFileItem) this.file).getStoreLocation().toPath(), StandardOpenOption.READ);
+        }
+
+        return null;
+    }
+
     /**
      * Set the content of the attachment by writing to a provided OutputStream. Content is *not* appended, this method
      * clears the content and creates new content. If you want to append content, you can call
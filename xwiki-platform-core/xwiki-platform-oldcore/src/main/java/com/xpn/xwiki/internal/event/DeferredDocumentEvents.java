@@ -0,0 +1,194 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.ObservationManager;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+
+/**
+ * Collect the {@link DocumentCreatedEvent} and {@link DocumentUpdatedEvent} events produced by
+ * {@link com.xpn.xwiki.XWiki#saveDocument(XWikiDocument, String, boolean, XWikiContext)} instead of sending them right
+ * away, so that they can be sent only once the database transaction containing the saves has been committed.
+ * <p>
+ * Several saves of the same document (and locale) are coalesced into a single event: the document is associated to
+ * its state before the first save (which decides between a creation and an update) and to its state after the last
+ * save.
+ * <p>
+ * The events are only collected in the thread which attached the instance to the {@link XWikiContext}.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class DeferredDocumentEvents
+{
+    private static final String CONTEXT_KEY = DeferredDocumentEvents.class.getName();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeferredDocumentEvents.class);
+
+    private final Map<DocumentReference, DeferredSave> saves = new LinkedHashMap<>();
+
+    private Thread thread;
+
+    private static final class DeferredSave
+    {
+        private final XWikiDocument originalDocument;
+
+        private XWikiDocument document;
+
+        DeferredSave(XWikiDocument document, XWikiDocument originalDocument)
+        {
+            this.document = document;
+            this.originalDocument = originalDocument;
+        }
+    }
+
+    /**
+     * @param xcontext the XWiki context
+     * @return the instance currently collecting events for the current thread, {@code null} if events should be sent
+     *         right away
+     */
+    public static DeferredDocumentEvents getCurrent(XWikiContext xcontext)
+    {
+        Object current = xcontext.get(CONTEXT_KEY);
+
+        if (current instanceof DeferredDocumentEvents
+            && ((DeferredDocumentEvents) current).thread == Thread.currentThread()) {
+            return (DeferredDocumentEvents) current;
+        }
+
+        return null;
+    }
+
+    /**
+     * Start collecting the events produced in the current thread.
+     *
+     * @param xcontext the XWiki context
+     */
+    public void attach(XWikiContext xcontext)
+    {
+        this.thread = Thread.currentThread();
+
+        xcontext.put(CONTEXT_KEY, this);
+    }
+
+    /**
+     * Stop collecting events. The already collected events are kept until {@link #send(ObservationManager,
+     * XWikiContext)} or {@link #clear()} is called.
+     *
+     * @param xcontext the XWiki context
+     */
+    public void detach(XWikiContext xcontext)
+    {
+        if (xcontext.get(CONTEXT_KEY) == this) {
+            xcontext.remove(CONTEXT_KEY);
+        }
+
+        this.thread = null;
+    }
+
+    /**
+     * Remember that a document has been saved.
+     *
+     * @param document the saved document
+     * @param originalDocument the document as it was before the save
+     */
+    public void add(XWikiDocument document, XWikiDocument originalDocument)
+    {
+        DeferredSave save = this.saves.get(document.getDocumentReferenceWithLocale());
+
+        if (save != null) {
+            save.document = document;
+        } else {
+            this.saves.put(document.getDocumentReferenceWithLocale(), new DeferredSave(document, originalDocument));
+        }
+    }
+
+    /**
+     * @return the number of events waiting to be sent
+     */
+    public int size()
+    {
+        return this.saves.size();
+    }
+
+    /**
+     * Forget all the collected events.
+     */
+    public void clear()
+    {
+        this.saves.clear();
+    }
+
+    /**
+     * Send the collected events in the order of the first save of each document and forget them.
+     *
+     * @param observation the observation manager used to send the events
+     * @param xcontext the XWiki context
+     */
+    public void send(ObservationManager observation, XWikiContext xcontext)
+    {
+        String currentWiki = xcontext.getWikiId();
+
+        try {
+            for (DeferredSave save : this.saves.values()) {
+                send(save, observation, xcontext);
+            }
+        } finally {
+            xcontext.setWikiId(currentWiki);
+
+            clear();
+        }
+    }
+
+    private void send(DeferredSave save, ObservationManager observation, XWikiContext xcontext)
+    {
+        XWikiDocument document = save.document;
+
+        // Same as what XWiki#saveDocument does: put back the state before the save to send the notification
+        XWikiDocument newOriginal = document.getOriginalDocument();
+
+        try {
+            xcontext.setWikiId(document.getDocumentReference().getWikiReference().getName());
+
+            document.setOriginalDocument(save.originalDocument);
+
+            if (save.originalDocument.isNew()) {
+                observation.notify(new DocumentCreatedEvent(document.getDocumentReference()), document, xcontext);
+            } else {
+                observation.notify(new DocumentUpdatedEvent(document.getDocumentReference()), document, xcontext);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to send document save notification for document [{}]",
+                document.getDocumentReferenceWithLocale(), e);
+        } finally {
+            document.setOriginalDocument(newOriginal);
+        }
+    }
+}
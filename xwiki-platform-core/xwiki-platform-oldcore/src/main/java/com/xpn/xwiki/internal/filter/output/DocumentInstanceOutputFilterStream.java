@@ -20,12 +20,15 @@
 package com.xpn.xwiki.internal.filter.output;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.annotation.InstantiationStrategy;
@@ -42,11 +45,17 @@
 import org.xwiki.model.reference.DocumentReferenceResolver;
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceResolver;
+import org.xwiki.observation.ObservationManager;
 
 import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.doc.XWikiAttachment;
 import com.xpn.xwiki.doc.XWikiDocument;
 import com.xpn.xwiki.doc.XWikiDocumentArchive;
+import com.xpn.xwiki.internal.event.DeferredDocumentEvents;
+import com.xpn.xwiki.store.XWikiCacheStoreInterface;
+import com.xpn.xwiki.store.XWikiHibernateStore;
+import com.xpn.xwiki.store.XWikiStoreInterface;
 import com.xpn.xwiki.store.XWikiVersioningStoreInterface;
 
 /**
@@ -68,6 +77,9 @@ public class DocumentInstanceOutputFilterStream extends AbstractBeanOutputFilter
     private static final TranslationMarker LOG_DOCUMENT_FAILSAVE =
         new TranslationMarker("filter.instance.log.document.failsave", WikiDocumentFilter.LOG_DOCUMENT_ERROR);
 
+    private static final TranslationMarker LOG_DOCUMENT_BATCH =
+        new TranslationMarker("filter.instance.log.document.batch");
+
     @Inject
     private FilterDescriptorManager filterManager;
 
@@ -89,6 +101,9 @@ public class DocumentInstanceOutputFilterStream extends AbstractBeanOutputFilter
     @Inject
     private EntityOutputFilterStream<XWikiDocument> documentListener;
 
+    @Inject
+    private Provider<ObservationManager> observationProvider;
+
     @Inject
     private Logger logger;
 
@@ -98,6 +113,41 @@ public class DocumentInstanceOutputFilterStream extends AbstractBeanOutputFilter
 
     private FilterEventParameters currentRevisionParameters;
 
+    /**
+     * The wiki of the currently opened batch transaction, {@code null} if no batch is in progress.
+     */
+    private String batchWiki;
+
+    private final List<BatchedSave> batchSaves = new ArrayList<>();
+
+    private final DeferredDocumentEvents batchEvents = new DeferredDocumentEvents();
+
+    private long batchedDocuments;
+
+    private long batchedTime;
+
+    private long batchStart;
+
+    private int batches;
+
+    private static final class BatchedSave
+    {
+        private final XWikiDocument inputDocument;
+
+        private final boolean firstVersion;
+
+        private final boolean hasJRCSHistory;
+
+        private boolean isnew;
+
+        BatchedSave(XWikiDocument inputDocument, boolean firstVersion, boolean hasJRCSHistory)
+        {
+            this.inputDocument = inputDocument;
+            this.firstVersion = firstVersion;
+            this.hasJRCSHistory = hasJRCSHistory;
+        }
+    }
+
     private XWikiDocumentOutputFilterStream getXWikiDocumentOutputFilterStream()
     {
         return (XWikiDocumentOutputFilterStream) this.documentListener;
@@ -112,7 +162,17 @@ protected Object createFilter() throws FilterException
     @Override
     public void close() throws IOException
     {
-        // Nothing to close
+        try {
+            commitBatch();
+        } catch (FilterException e) {
+            throw new IOException("Failed to save the last batch of documents", e);
+        }
+
+        if (this.batches > 0) {
+            this.logger.info(LOG_DOCUMENT_BATCH,
+                "Saved [{}] documents in [{}] batches and [{}] ms ([{}] documents per second)", this.batchedDocuments,
+                this.batches, this.batchedTime, this.batchedDocuments * 1000 / Math.max(this.batchedTime, 1));
+        }
     }
 
     @Override
@@ -194,109 +254,309 @@ private void maybeSaveDocument() throws FilterException
 
         boolean hasJRCSHistory = inputDocument.getDocumentArchive() != null;
 
-        XWikiContext xcontext = this.xcontextProvider.get();
+        if (this.properties.getBatchSize() > 1) {
+            saveDocumentInBatch(inputDocument, this.firstVersion, hasJRCSHistory);
+        } else {
+            saveDocument(inputDocument, this.firstVersion, hasJRCSHistory);
+        }
+    }
 
+    private void saveDocument(XWikiDocument inputDocument, boolean firstVersion, boolean hasJRCSHistory)
+        throws FilterException
+    {
         try {
-            XWikiDocument databaseDocument =
-                xcontext.getWiki().getDocument(inputDocument.getDocumentReferenceWithLocale(), xcontext);
+            boolean isnew = storeDocument(inputDocument, firstVersion, hasJRCSHistory, false);
+
+            logSavedDocument(inputDocument, isnew);
+        } catch (Exception e) {
+            logFailedDocument(inputDocument, e);
+        }
+    }
+
+    private void logSavedDocument(XWikiDocument inputDocument, boolean isnew)
+    {
+        if (this.properties.isVerbose()) {
+            if (isnew) {
+                this.logger.info(LOG_DOCUMENT_CREATED, "Created document [{}]",
+                    inputDocument.getDocumentReferenceWithLocale());
+            } else {
+                this.logger.info(LOG_DOCUMENT_UPDATED, "Updated document [{}]",
+                    inputDocument.getDocumentReferenceWithLocale());
+            }
+        }
+    }
 
-            // Remember if it's a creation or an update
-            boolean isnew = databaseDocument.isNew();
+    private void logFailedDocument(XWikiDocument inputDocument, Exception e) throws FilterException
+    {
+        this.logger.error(LOG_DOCUMENT_FAILSAVE, "Failed to save document [{}]",
+            inputDocument.getDocumentReferenceWithLocale(), e);
 
-            // Make sure document's attachments content are loaded from the store
-            databaseDocument.loadAttachmentsContentSafe(xcontext);
+        if (this.properties.isStoppedWhenSaveFail()) {
+            throw new FilterException("Failed to save document", e);
+        }
+    }
 
-            XWikiDocument document;
-            if (this.firstVersion && this.properties.isPreviousDeleted()) {
-                // We want to replace the existing document
-                document = inputDocument;
+    /**
+     * @return true if the document did not exist before
+     */
+    private boolean storeDocument(XWikiDocument inputDocument, boolean firstVersion, boolean hasJRCSHistory,
+        boolean batched) throws XWikiException
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
 
-                // But it's still an update from outside world point of view
-                document.setOriginalDocument(databaseDocument);
-            } else {
-                // Safer to clone for thread safety and in case the save fail
-                document = databaseDocument.clone();
+        XWikiDocument databaseDocument =
+            xcontext.getWiki().getDocument(inputDocument.getDocumentReferenceWithLocale(), xcontext);
 
-                // We want to update the existing document
-                document.apply(inputDocument);
+        // Remember if it's a creation or an update
+        boolean isnew = databaseDocument.isNew();
 
-                // Get the version from the input document
-                document.setMinorEdit(inputDocument.isMinorEdit());
+        // Make sure document's attachments content are loaded from the store
+        databaseDocument.loadAttachmentsContentSafe(xcontext);
 
-                // Copy input document authors if they should be preserved
-                if (this.properties.isAuthorPreserved()) {
-                    setAuthors(document, inputDocument);
-                }
-            }
+        XWikiDocument document;
+        if (firstVersion && this.properties.isPreviousDeleted()) {
+            // We want to replace the existing document (keep the input untouched in case the batch has to be
+            // replayed)
+            document = batched ? inputDocument.clone() : inputDocument;
 
-            // Authors
+            // But it's still an update from outside world point of view
+            document.setOriginalDocument(databaseDocument);
+        } else {
+            // Safer to clone for thread safety and in case the save fail
+            document = databaseDocument.clone();
 
-            if (!this.properties.isAuthorPreserved()) {
-                if (this.properties.isAuthorSet()) {
-                    setAuthorReference(document, this.properties.getAuthor());
-                } else {
-                    setAuthorReference(document, xcontext.getUserReference());
-                }
-                document.setContentAuthorReference(document.getAuthorReference());
-                if (document.isNew()) {
-                    document.setCreatorReference(document.getAuthorReference());
-                }
-            }
+            // We want to update the existing document
+            document.apply(inputDocument);
 
-            // Version related information and save
+            // Get the version from the input document
+            document.setMinorEdit(inputDocument.isMinorEdit());
 
-            if (this.properties.isVersionPreserved()) {
-                // Make sure to use metadata coming from the input document
-                document.setVersion(inputDocument.getVersion());
-                document.setDate(inputDocument.getDate());
-                document.setContentUpdateDate(inputDocument.getContentUpdateDate());
-                for (XWikiAttachment attachment : document.getAttachmentList()) {
-                    attachment.setVersion(inputDocument.getAttachment(attachment.getFilename()).getVersion());
-                }
-                if (document.isNew()) {
-                    document.setCreationDate(inputDocument.getCreationDate());
-                    document.setDocumentArchive(inputDocument.getDocumentArchive());
-                }
+            // Copy input document authors if they should be preserved
+            if (this.properties.isAuthorPreserved()) {
+                setAuthors(document, inputDocument);
+            }
+        }
 
-                // Make sure the document is stored exactly as is (don't increment version, etc.)
-                document.setMetaDataDirty(false);
-                document.setContentDirty(false);
-                document.getAttachmentList().forEach(a -> a.setMetaDataDirty(false));
-
-                xcontext.getWiki().saveDocument(document, inputDocument.getComment(), inputDocument.isMinorEdit(),
-                    xcontext);
-
-                if (!hasJRCSHistory) {
-                    // Not a JRCS based history document
-                    // Explicitly update the history because the store won't do it automatically (because
-                    // metadata/content dirty is false)
-                    XWikiVersioningStoreInterface versioningStore = document.getVersioningStore(xcontext);
-                    if (versioningStore != null) {
-                        versioningStore.updateXWikiDocArchive(document, true, xcontext);
-                    }
-                }
+        // Authors
+
+        if (!this.properties.isAuthorPreserved()) {
+            if (this.properties.isAuthorSet()) {
+                setAuthorReference(document, this.properties.getAuthor());
             } else {
-                // Forget the input history to let the store do its standard job
-                document.setDocumentArchive((XWikiDocumentArchive) null);
+                setAuthorReference(document, xcontext.getUserReference());
+            }
+            document.setContentAuthorReference(document.getAuthorReference());
+            if (document.isNew()) {
+                document.setCreatorReference(document.getAuthorReference());
+            }
+        }
 
-                xcontext.getWiki().saveDocument(document, this.properties.getSaveComment(), xcontext);
+        // Version related information and save
+
+        if (this.properties.isVersionPreserved()) {
+            // Make sure to use metadata coming from the input document
+            document.setVersion(inputDocument.getVersion());
+            document.setDate(inputDocument.getDate());
+            document.setContentUpdateDate(inputDocument.getContentUpdateDate());
+            for (XWikiAttachment attachment : document.getAttachmentList()) {
+                attachment.setVersion(inputDocument.getAttachment(attachment.getFilename()).getVersion());
+            }
+            if (document.isNew()) {
+                document.setCreationDate(inputDocument.getCreationDate());
+                document.setDocumentArchive(inputDocument.getDocumentArchive());
             }
 
-            if (this.properties.isVerbose()) {
-                if (isnew) {
-                    this.logger.info(LOG_DOCUMENT_CREATED, "Created document [{}]",
-                        document.getDocumentReferenceWithLocale());
-                } else {
-                    this.logger.info(LOG_DOCUMENT_UPDATED, "Updated document [{}]",
-                        document.getDocumentReferenceWithLocale());
+            // Make sure the document is stored exactly as is (don't increment version, etc.)
+            document.setMetaDataDirty(false);
+            document.setContentDirty(false);
+            document.getAttachmentList().forEach(a -> a.setMetaDataDirty(false));
+
+            xcontext.getWiki().saveDocument(document, inputDocument.getComment(), inputDocument.isMinorEdit(),
+                xcontext);
+
+            if (!hasJRCSHistory) {
+                // Not a JRCS based history document
+                // Explicitly update the history because the store won't do it automatically (because
+                // metadata/content dirty is false)
+                XWikiVersioningStoreInterface versioningStore = document.getVersioningStore(xcontext);
+                if (versioningStore != null) {
+                    versioningStore.updateXWikiDocArchive(document, true, xcontext);
                 }
             }
+        } else {
+            // Forget the input history to let the store do its standard job
+            document.setDocumentArchive((XWikiDocumentArchive) null);
+
+            xcontext.getWiki().saveDocument(document, this.properties.getSaveComment(), xcontext);
+        }
+
+        return isnew;
+    }
+
+    // Batch
+
+    private void saveDocumentInBatch(XWikiDocument inputDocument, boolean firstVersion, boolean hasJRCSHistory)
+        throws FilterException
+    {
+        String wiki = inputDocument.getDocumentReference().getWikiReference().getName();
+
+        // A Hibernate session is bound to a single wiki
+        if (this.batchWiki != null && !this.batchWiki.equals(wiki)) {
+            commitBatch();
+        }
+
+        if (this.batchWiki == null && !beginBatch(wiki)) {
+            // Could not start a dedicated transaction (for example because the caller already started one)
+            saveDocument(inputDocument, firstVersion, hasJRCSHistory);
+
+            return;
+        }
+
+        BatchedSave save = new BatchedSave(inputDocument, firstVersion, hasJRCSHistory);
+        this.batchSaves.add(save);
+
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        try {
+            save.isnew = storeDocument(inputDocument, firstVersion, hasJRCSHistory, true);
+
+            // Make sure the next documents of the batch are validated against (and can read) this one
+            xcontext.getWiki().getHibernateStore().getSession(xcontext).flush();
         } catch (Exception e) {
-            this.logger.error(LOG_DOCUMENT_FAILSAVE, "Failed to save document [{}]",
+            // The transaction cannot be trusted anymore: cancel the batch and save its documents one by one to
+            // isolate the failing one
+            this.logger.debug("Failed to save document [{}] in batch, saving the batch documents one by one",
                 inputDocument.getDocumentReferenceWithLocale(), e);
 
-            if (this.properties.isStoppedWhenSaveFail()) {
-                throw new FilterException("Failed to save document", e);
+            replayBatch();
+
+            return;
+        }
+
+        if (this.batchSaves.size() >= this.properties.getBatchSize()) {
+            commitBatch();
+        }
+    }
+
+    private boolean beginBatch(String wiki) throws FilterException
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        XWikiHibernateStore store = xcontext.getWiki().getHibernateStore();
+        if (store == null) {
+            return false;
+        }
+
+        String currentWiki = xcontext.getWikiId();
+        try {
+            // The transaction targets the current wiki
+            xcontext.setWikiId(wiki);
+
+            if (!store.beginTransaction(xcontext)) {
+                return false;
+            }
+        } catch (XWikiException e) {
+            throw new FilterException("Failed to start a transaction", e);
+        } finally {
+            xcontext.setWikiId(currentWiki);
+        }
+
+        this.batchWiki = wiki;
+        this.batchStart = System.currentTimeMillis();
+
+        this.batchEvents.attach(xcontext);
+
+        return true;
+    }
+
+    private void endBatch(boolean commit)
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        this.batchEvents.detach(xcontext);
+
+        String currentWiki = xcontext.getWikiId();
+        try {
+            xcontext.setWikiId(this.batchWiki);
+
+            xcontext.getWiki().getHibernateStore().endTransaction(xcontext, commit);
+        } finally {
+            xcontext.setWikiId(currentWiki);
+
+            this.batchWiki = null;
+        }
+    }
+
+    private void commitBatch() throws FilterException
+    {
+        if (this.batchWiki == null) {
+            return;
+        }
+
+        String wiki = this.batchWiki;
+
+        try {
+            endBatch(true);
+        } catch (Exception e) {
+            this.logger.debug("Failed to commit batch, saving the batch documents one by one", e);
+
+            replayBatch();
+
+            return;
+        }
+
+        // A reader might have put back in the cache the previous version of a document while the transaction was
+        // still open
+        evictBatchDocuments();
+
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        // Now that the documents are really there, let listeners do their job
+        this.batchEvents.send(this.observationProvider.get(), xcontext);
+
+        for (BatchedSave save : this.batchSaves) {
+            logSavedDocument(save.inputDocument, save.isnew);
+        }
+
+        long time = System.currentTimeMillis() - this.batchStart;
+        this.batchedTime += time;
+        this.batchedDocuments += this.batchSaves.size();
+        ++this.batches;
+
+        this.logger.debug("Saved batch of [{}] documents in wiki [{}] in [{}] ms", this.batchSaves.size(), wiki, time);
+
+        this.batchSaves.clear();
+    }
+
+    private void replayBatch() throws FilterException
+    {
+        if (this.batchWiki != null) {
+            try {
+                endBatch(false);
+            } catch (Exception e) {
+                this.logger.warn("Failed to rollback batch transaction: {}", ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        // Forget what has been done in the canceled transaction
+        this.batchEvents.clear();
+        evictBatchDocuments();
+
+        List<BatchedSave> saves = new ArrayList<>(this.batchSaves);
+        this.batchSaves.clear();
+
+        for (BatchedSave save : saves) {
+            saveDocument(save.inputDocument, save.firstVersion, save.hasJRCSHistory);
+        }
+    }
+
+    private void evictBatchDocuments()
+    {
+        XWikiStoreInterface store = this.xcontextProvider.get().getWiki().getStore();
+        if (store instanceof XWikiCacheStoreInterface) {
+            for (BatchedSave save : this.batchSaves) {
+                ((XWikiCacheStoreInterface) store)
+                    .flushCache(save.inputDocument.getDocumentReferenceWithLocale());
             }
         }
     }
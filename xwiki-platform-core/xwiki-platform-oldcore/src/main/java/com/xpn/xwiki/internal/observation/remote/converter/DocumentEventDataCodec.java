@@ -0,0 +1,214 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.observation.remote.converter;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.bridge.event.AbstractDocumentEvent;
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentDeletedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.localization.LocaleUtils;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.observation.event.filter.AlwaysMatchingEventFilter;
+import org.xwiki.observation.event.filter.EventFilter;
+import org.xwiki.observation.event.filter.FixedNameEventFilter;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.codec.RemoteEventDataCodec;
+import org.xwiki.observation.remote.codec.RemoteEventDataInput;
+import org.xwiki.observation.remote.codec.RemoteEventDataOutput;
+
+/**
+ * Compact encoding of the document events produced by {@link DocumentEventConverter}, which are the most common events
+ * sent to the cluster since they are used to invalidate the caches of the other members.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Singleton
+@Named("document")
+public class DocumentEventDataCodec implements RemoteEventDataCodec
+{
+    /**
+     * The supported events, the index of the event class being used to encode it so the order must not change.
+     */
+    private static final List<Class<? extends AbstractDocumentEvent>> EVENTS =
+        Arrays.asList(DocumentCreatedEvent.class, DocumentUpdatedEvent.class, DocumentDeletedEvent.class);
+
+    private static final List<String> SOURCE_VERSION_KEYS = Arrays.asList(AbstractXWikiEventConverter.DOC_VERSION,
+        AbstractXWikiEventConverter.DOC_LANGUAGE, AbstractXWikiEventConverter.ORIGDOC_VERSION,
+        AbstractXWikiEventConverter.ORIGDOC_LANGUAGE);
+
+    private static final List<String> DATA_KEYS =
+        Arrays.asList(AbstractXWikiEventConverter.CONTEXT_WIKI, AbstractXWikiEventConverter.CONTEXT_USER);
+
+    @Override
+    public boolean canEncode(RemoteEventData remoteEvent)
+    {
+        return remoteEvent.getEvent() != null && EVENTS.contains(remoteEvent.getEvent().getClass())
+            && canEncodeEvent((AbstractDocumentEvent) remoteEvent.getEvent()) && canEncodeSource(remoteEvent.getSource())
+            && canEncodeMap(remoteEvent.getData(), DATA_KEYS);
+    }
+
+    private boolean canEncodeEvent(AbstractDocumentEvent event)
+    {
+        EventFilter filter = event.getEventFilter();
+
+        return !event.isCanceled()
+            && (filter.getClass() == FixedNameEventFilter.class || filter.getClass() == AlwaysMatchingEventFilter.class);
+    }
+
+    private boolean canEncodeSource(Serializable source)
+    {
+        if (source instanceof Map) {
+            Map<?, ?> map = new HashMap<>((Map<?, ?>) source);
+
+            Object reference = map.remove(AbstractXWikiEventConverter.DOC_NAME);
+
+            return reference != null && reference.getClass() == DocumentReference.class
+                && canEncodeMap((Serializable) map, SOURCE_VERSION_KEYS);
+        }
+
+        return false;
+    }
+
+    private boolean canEncodeMap(Serializable data, List<String> keys)
+    {
+        if (data instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) data).entrySet()) {
+                if (!keys.contains(entry.getKey())
+                    || (entry.getValue() != null && !(entry.getValue() instanceof String))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public void encode(RemoteEventData remoteEvent, RemoteEventDataOutput output) throws IOException
+    {
+        AbstractDocumentEvent event = (AbstractDocumentEvent) remoteEvent.getEvent();
+        output.writeByte(EVENTS.indexOf(event.getClass()));
+        EventFilter filter = event.getEventFilter();
+        output.writeString(filter instanceof FixedNameEventFilter ? filter.getFilter() : null);
+
+        Map<?, ?> source = (Map<?, ?>) remoteEvent.getSource();
+        writeDocumentReference((DocumentReference) source.get(AbstractXWikiEventConverter.DOC_NAME), output);
+        writeMap(source, SOURCE_VERSION_KEYS, output);
+
+        writeMap((Map<?, ?>) remoteEvent.getData(), DATA_KEYS, output);
+    }
+
+    private void writeDocumentReference(DocumentReference reference, RemoteEventDataOutput output) throws IOException
+    {
+        output.writeString(reference.getWikiReference().getName());
+
+        List<EntityReference> spaces = reference.getLastSpaceReference().getReversedReferenceChain();
+        // The chain starts with the wiki
+        output.writeInt(spaces.size() - 1);
+        for (EntityReference space : spaces.subList(1, spaces.size())) {
+            output.writeString(space.getName());
+        }
+
+        output.writeString(reference.getName());
+        output.writeString(reference.getLocale() != null ? reference.getLocale().toString() : null);
+    }
+
+    private void writeMap(Map<?, ?> map, List<String> keys, RemoteEventDataOutput output) throws IOException
+    {
+        for (String key : keys) {
+            output.writeString((String) map.get(key));
+        }
+    }
+
+    @Override
+    public RemoteEventData decode(RemoteEventDataInput input) throws IOException
+    {
+        int eventIndex = input.readByte();
+        if (eventIndex < 0 || eventIndex >= EVENTS.size()) {
+            throw new IOException("Unknown document event [" + eventIndex + "]");
+        }
+        String filter = input.readString();
+
+        Serializable event;
+        try {
+            Class<? extends AbstractDocumentEvent> eventClass = EVENTS.get(eventIndex);
+            if (filter != null) {
+                event = eventClass.getConstructor(EventFilter.class).newInstance(new FixedNameEventFilter(filter));
+            } else {
+                event = eventClass.getConstructor().newInstance();
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed to create document event", e);
+        }
+
+        HashMap<String, Serializable> source = new HashMap<>();
+        source.put(AbstractXWikiEventConverter.DOC_NAME, readDocumentReference(input));
+        readMap(source, SOURCE_VERSION_KEYS, input);
+
+        HashMap<String, Serializable> data = new HashMap<>();
+        readMap(data, DATA_KEYS, input);
+
+        return new RemoteEventData(event, source, data);
+    }
+
+    private DocumentReference readDocumentReference(RemoteEventDataInput input) throws IOException
+    {
+        String wiki = input.readString();
+
+        int spaceCount = input.readInt();
+        List<String> spaces = new ArrayList<>(spaceCount);
+        for (int i = 0; i < spaceCount; ++i) {
+            spaces.add(input.readString());
+        }
+
+        String name = input.readString();
+        String locale = input.readString();
+
+        return new DocumentReference(wiki, spaces, name, locale != null ? LocaleUtils.toLocale(locale) : null);
+    }
+
+    private void readMap(Map<String, Serializable> map, List<String> keys, RemoteEventDataInput input)
+        throws IOException
+    {
+        for (String key : keys) {
+            String value = input.readString();
+            if (value != null) {
+                map.put(key, value);
+            }
+        }
+    }
+}
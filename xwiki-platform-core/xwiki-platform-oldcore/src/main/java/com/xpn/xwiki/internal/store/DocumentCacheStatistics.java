@@ -0,0 +1,121 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Count the accesses to the document cache to help sizing it.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class DocumentCacheStatistics implements DocumentCacheStatisticsMBean
+{
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder notExistHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final IntSupplier loading;
+
+    /**
+     * @param loading the number of documents and existence checks currently being loaded
+     */
+    public DocumentCacheStatistics(IntSupplier loading)
+    {
+        this.loading = loading;
+    }
+
+    /**
+     * Indicate that a document was found in the document cache.
+     */
+    public void hit()
+    {
+        this.hits.increment();
+    }
+
+    /**
+     * Indicate that a document was known to not exist thanks to the page exist cache.
+     */
+    public void notExistHit()
+    {
+        this.notExistHits.increment();
+    }
+
+    /**
+     * Indicate that a document or an existence check was loaded from the storage.
+     */
+    public void miss()
+    {
+        this.misses.increment();
+    }
+
+    /**
+     * Indicate that a document or an existence check was loaded by another thread at the same time.
+     */
+    public void coalesced()
+    {
+        this.coalesced.increment();
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getNotExistHitCount()
+    {
+        return this.notExistHits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public long getCoalescedCount()
+    {
+        return this.coalesced.sum();
+    }
+
+    @Override
+    public int getLoadingCount()
+    {
+        return this.loading.getAsInt();
+    }
+
+    @Override
+    public void resetStatistics()
+    {
+        this.hits.reset();
+        this.notExistHits.reset();
+        this.misses.reset();
+        this.coalesced.reset();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store;
+
+/**
+ * Interface of the JMX MBean exposing the statistics of the document cache.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public interface DocumentCacheStatisticsMBean
+{
+    /**
+     * @return the number of documents found in the document cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of documents known to not exist thanks to the page exist cache
+     */
+    long getNotExistHitCount();
+
+    /**
+     * @return the number of documents and existence checks which had to be loaded from the storage
+     */
+    long getMissCount();
+
+    /**
+     * @return the number of documents and existence checks which were loaded by another thread at the same time
+     */
+    long getCoalescedCount();
+
+    /**
+     * @return the number of documents and existence checks currently being loaded from the storage
+     */
+    int getLoadingCount();
+
+    /**
+     * Reset all counters.
+     */
+    void resetStatistics();
+}
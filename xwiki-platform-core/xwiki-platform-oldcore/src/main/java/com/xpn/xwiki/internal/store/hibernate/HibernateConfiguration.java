@@ -64,6 +64,16 @@ public boolean hasDynamicCustomMappings()
         return "1".equals(this.xwikiConfiguration.getProperty("xwiki.store.hibernate.custommapping.dynamic", "0"));
     }
 
+    /**
+     * @return true if the properties of all the objects of a document should be loaded with a small fixed number of
+     *         queries instead of a few queries for each object
+     * @since 12.6
+     */
+    public boolean isBatchObjectLoading()
+    {
+        return "1".equals(this.xwikiConfiguration.getProperty("xwiki.store.hibernate.batchObjectLoading", "0"));
+    }
+
     /**
      * @return the path to the hibernate configuration file
      */
@@ -0,0 +1,189 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store.hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import com.xpn.xwiki.objects.BaseProperty;
+import com.xpn.xwiki.objects.BaseStringProperty;
+import com.xpn.xwiki.objects.DBStringListProperty;
+import com.xpn.xwiki.objects.ListProperty;
+
+/**
+ * Load the properties of several objects with a fixed number of queries: one query to find the name and type of all
+ * the properties and then one query for each property type.
+ * <p>
+ * Since several property types share the same table, each typed query is filtered on the type stored with the
+ * property. A property which cannot be found that way (for example because of a mismatch between the stored type and
+ * the actual table) is left to the caller which is expected to fallback on the property by property loading.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class HibernateObjectPropertiesLoader
+{
+    /**
+     * The maximum number of identifiers to put in a single {@code in} clause (Oracle does not support more).
+     */
+    public static final int MAX_IDS = 1000;
+
+    private static final String PARAMETER_IDS = "ids";
+
+    private static final String PARAMETER_CLASSTYPE = "classType";
+
+    private final Session session;
+
+    /**
+     * The type of each property indexed by object identifier and property name.
+     */
+    private final Map<Long, Map<String, String>> classTypes = new HashMap<>();
+
+    /**
+     * The loaded properties indexed by object identifier and property name.
+     */
+    private final Map<Long, Map<String, BaseProperty>> properties = new HashMap<>();
+
+    private int queryCount;
+
+    /**
+     * @param session the session to use to execute the queries
+     */
+    public HibernateObjectPropertiesLoader(Session session)
+    {
+        this.session = session;
+    }
+
+    /**
+     * Load all the properties of the passed objects.
+     *
+     * @param objectIds the identifiers of the objects for which to load the properties
+     */
+    public void load(Collection<Long> objectIds)
+    {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(objectIds));
+
+        // Find the name and type of all the properties
+        Map<String, Set<Long>> idsByClassType = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i += MAX_IDS) {
+            Query<Object[]> query = this.session.createQuery(
+                "select prop.id.id, prop.name, prop.classType from BaseProperty as prop where prop.id.id in (:ids)",
+                Object[].class);
+            query.setParameterList(PARAMETER_IDS, ids.subList(i, Math.min(i + MAX_IDS, ids.size())));
+            ++this.queryCount;
+
+            for (Object[] result : query.list()) {
+                Long id = (Long) result[0];
+                String classType = (String) result[2];
+
+                this.classTypes.computeIfAbsent(id, k -> new LinkedHashMap<>()).put((String) result[1], classType);
+                idsByClassType.computeIfAbsent(classType, k -> new LinkedHashSet<>()).add(id);
+            }
+        }
+
+        // Load the properties of each type
+        for (Map.Entry<String, Set<Long>> entry : idsByClassType.entrySet()) {
+            loadProperties(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+    }
+
+    private void loadProperties(String classType, List<Long> ids)
+    {
+        String hql;
+        if (DBStringListProperty.class.getName().equals(classType)) {
+            // Get the list items in the same query
+            hql = "select distinct prop from DBStringListProperty as prop left join fetch prop.list"
+                + " where prop.id.id in (:ids) and prop.classType = :classType";
+        } else {
+            hql = "select prop from " + classType
+                + " as prop where prop.id.id in (:ids) and prop.classType = :classType";
+        }
+
+        for (int i = 0; i < ids.size(); i += MAX_IDS) {
+            Query<BaseProperty> query;
+            try {
+                query = this.session.createQuery(hql, BaseProperty.class);
+            } catch (IllegalArgumentException e) {
+                // The type is not mapped: leave those properties to the property by property loading
+                return;
+            }
+            query.setParameterList(PARAMETER_IDS, ids.subList(i, Math.min(i + MAX_IDS, ids.size())));
+            query.setParameter(PARAMETER_CLASSTYPE, classType);
+            ++this.queryCount;
+
+            for (BaseProperty property : query.list()) {
+                // In Oracle, empty string are converted to NULL. Since an undefined property is not found at all, it is
+                // safe to assume that a retrieved NULL value should actually be an empty string.
+                if (property instanceof BaseStringProperty) {
+                    BaseStringProperty stringProperty = (BaseStringProperty) property;
+                    if (stringProperty.getValue() == null) {
+                        stringProperty.setValue("");
+                    }
+                }
+                property.setValueDirty(false);
+
+                // Make sure the list is loaded
+                if (property instanceof ListProperty) {
+                    ((ListProperty) property).getList();
+                }
+
+                this.properties.computeIfAbsent(property.getId(), k -> new HashMap<>()).put(property.getName(),
+                    property);
+            }
+        }
+    }
+
+    /**
+     * @param objectId the identifier of the object
+     * @return the names and types of the properties stored for the passed object
+     */
+    public Map<String, String> getClassTypes(long objectId)
+    {
+        return this.classTypes.getOrDefault(objectId, Collections.emptyMap());
+    }
+
+    /**
+     * @param objectId the identifier of the object
+     * @param name the name of the property
+     * @return the loaded property or null if it could not be loaded with the type stored for it
+     */
+    public BaseProperty getProperty(long objectId, String name)
+    {
+        return this.properties.getOrDefault(objectId, Collections.emptyMap()).get(name);
+    }
+
+    /**
+     * @return the number of queries executed so far
+     */
+    public int getQueryCount()
+    {
+        return this.queryCount;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store.hibernate.query;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.apache.commons.collections4.map.LRUMap;
+
+/**
+ * Remember which HQL statements are safe to execute without programming right, so that the statements coming from
+ * scripts are not parsed again at each execution.
+ * <p>
+ * Only the verdict is cached: the statement rewritten by the query filters depends on the current context (current
+ * user preferences, current locale, etc.) and the translation of the final statement is already cached by Hibernate
+ * query plan cache.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class HqlStatementCache implements HqlStatementCacheMBean
+{
+    private static final class Verdict
+    {
+        private final boolean safe;
+
+        private final long parseTime;
+
+        Verdict(boolean safe, long parseTime)
+        {
+            this.safe = safe;
+            this.parseTime = parseTime;
+        }
+    }
+
+    private final Map<String, Verdict> verdicts;
+
+    private final Predicate<String> analyzer;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder parseTime = new LongAdder();
+
+    private final LongAdder parseTimeAvoided = new LongAdder();
+
+    /**
+     * @param size the maximum number of statements to remember
+     * @param analyzer decide if a statement is safe
+     */
+    public HqlStatementCache(int size, Predicate<String> analyzer)
+    {
+        this.verdicts = Collections.synchronizedMap(new LRUMap<>(size));
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * @param statement the statement to check
+     * @return true if the statement is safe to execute without programming right
+     */
+    public boolean isSafe(String statement)
+    {
+        Verdict verdict = this.verdicts.get(statement);
+
+        if (verdict != null) {
+            this.hits.increment();
+            this.parseTimeAvoided.add(verdict.parseTime);
+        } else {
+            // Two threads might analyze the same statement at the same time but it's cheaper than locking
+            long start = System.nanoTime();
+            boolean safe = this.analyzer.test(statement);
+            long time = System.nanoTime() - start;
+
+            verdict = new Verdict(safe, time);
+            this.verdicts.put(statement, verdict);
+
+            this.misses.increment();
+            this.parseTime.add(time);
+        }
+
+        return verdict.safe;
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.verdicts.size();
+    }
+
+    @Override
+    public long getParseTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(this.parseTime.sum());
+    }
+
+    @Override
+    public long getParseTimeAvoided()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(this.parseTimeAvoided.sum());
+    }
+
+    @Override
+    public void clear()
+    {
+        this.verdicts.clear();
+    }
+
+    @Override
+    public void resetStatistics()
+    {
+        this.hits.reset();
+        this.misses.reset();
+        this.parseTime.reset();
+        this.parseTimeAvoided.reset();
+    }
+}
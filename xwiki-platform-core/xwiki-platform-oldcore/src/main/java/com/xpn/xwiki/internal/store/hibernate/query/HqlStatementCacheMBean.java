@@ -0,0 +1,64 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store.hibernate.query;
+
+/**
+ * Interface of the JMX MBean exposing the statistics of the HQL statement analysis cache.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public interface HqlStatementCacheMBean
+{
+    /**
+     * @return the number of statements whose safety verdict was found in the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of statements which had to be parsed to decide if they are safe
+     */
+    long getMissCount();
+
+    /**
+     * @return the number of statements currently in the cache
+     */
+    int getSize();
+
+    /**
+     * @return the time spent parsing the statements which were not in the cache, in milliseconds
+     */
+    long getParseTime();
+
+    /**
+     * @return the parsing time saved by the cache hits, in milliseconds
+     */
+    long getParseTimeAvoided();
+
+    /**
+     * Empty the cache.
+     */
+    void clear();
+
+    /**
+     * Reset all counters.
+     */
+    void resetStatistics();
+}
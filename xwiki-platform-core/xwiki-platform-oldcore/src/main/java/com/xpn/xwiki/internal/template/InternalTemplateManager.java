@@ -72,7 +72,6 @@
 import org.xwiki.rendering.block.VerbatimBlock;
 import org.xwiki.rendering.block.WordBlock;
 import org.xwiki.rendering.block.XDOM;
-import org.xwiki.rendering.parser.ContentParser;
 import org.xwiki.rendering.renderer.BlockRenderer;
 import org.xwiki.rendering.renderer.printer.WikiPrinter;
 import org.xwiki.rendering.renderer.printer.WriterWikiPrinter;
@@ -113,9 +112,6 @@ public class InternalTemplateManager implements Initializable
     @Inject
     private Environment environment;
 
-    @Inject
-    private ContentParser parser;
-
     @Inject
     @Named("context")
     private Provider<ComponentManager> componentManagerProvider;
@@ -163,6 +159,9 @@ public class InternalTemplateManager implements Initializable
     @Inject
     private VelocityTemplateEvaluator evaluator;
 
+    @Inject
+    private TemplateXDOMCache xdomCache;
+
     @Inject
     private Logger logger;
 
@@ -651,7 +650,7 @@ private XDOM getXDOM(Template template, TemplateContent content) throws Exceptio
         XDOM xdom;
 
         if (content.getSourceSyntax() != null) {
-            xdom = this.parser.parse(content.getContent(), content.getSourceSyntax());
+            xdom = this.xdomCache.parse(template, content);
         } else {
             String result = evaluateContent(template, content);
             if (StringUtils.isEmpty(result)) {
@@ -0,0 +1,244 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.template;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.observation.AbstractEventListener;
+import org.xwiki.observation.ObservationManager;
+import org.xwiki.observation.event.Event;
+import org.xwiki.rendering.block.XDOM;
+import org.xwiki.rendering.parser.ContentParser;
+import org.xwiki.rendering.syntax.Syntax;
+import org.xwiki.template.Template;
+import org.xwiki.template.TemplateContent;
+import org.xwiki.template.event.TemplateDeletedEvent;
+import org.xwiki.template.event.TemplateEvent;
+import org.xwiki.template.event.TemplateUpdatedEvent;
+
+/**
+ * Keep the result of the parsing of the templates which are not evaluated with Velocity to avoid parsing heavy layout
+ * templates on each request.
+ * <p>
+ * The entries are indexed by template id and remember the syntax and a digest of the content they were parsed from,
+ * so a template which changed since it was parsed is never taken from the cache, even for resources which don't send
+ * any event when they are modified (filesystem skins for example).
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component(roles = TemplateXDOMCache.class)
+@Singleton
+public class TemplateXDOMCache implements TemplateXDOMCacheMBean, Initializable, Disposable
+{
+    private static final String LISTENER_NAME = "templates.xdomcache";
+
+    private static final String PROPNAME_SIZE = "core.templatecache.size";
+
+    private static final int PROPVALUE_SIZE = 500;
+
+    private static final String MBEAN_NAME = "type=Template,name=xdomcache";
+
+    private static final class Entry
+    {
+        private final Syntax syntax;
+
+        private final String digest;
+
+        private final XDOM xdom;
+
+        private final long parseTime;
+
+        Entry(Syntax syntax, String digest, XDOM xdom, long parseTime)
+        {
+            this.syntax = syntax;
+            this.digest = digest;
+            this.xdom = xdom;
+            this.parseTime = parseTime;
+        }
+
+        boolean matches(Syntax syntax, String digest)
+        {
+            return this.syntax.equals(syntax) && this.digest.equals(digest);
+        }
+    }
+
+    @Inject
+    private ContentParser parser;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private ObservationManager observation;
+
+    @Inject
+    @Named("xwikiproperties")
+    private ConfigurationSource configuration;
+
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
+    @Inject
+    private Logger logger;
+
+    private Cache<Entry> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder parseTime = new LongAdder();
+
+    private final LongAdder savedParseTime = new LongAdder();
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        int size = this.configuration.getProperty(PROPNAME_SIZE, PROPVALUE_SIZE);
+
+        if (size > 0) {
+            try {
+                this.cache = this.cacheManager.createNewCache(new LRUCacheConfiguration("templates.xdom", size));
+            } catch (CacheException e) {
+                throw new InitializationException("Failed to initialize the templates XDOM cache", e);
+            }
+
+            this.observation.addListener(new AbstractEventListener(LISTENER_NAME, new TemplateUpdatedEvent(),
+                new TemplateDeletedEvent())
+            {
+                @Override
+                public void onEvent(Event event, Object source, Object data)
+                {
+                    String id = ((TemplateEvent) event).getId();
+                    if (id != null) {
+                        TemplateXDOMCache.this.cache.remove(id);
+                    }
+                }
+            });
+
+            this.jmxRegistration.registerMBean(this, MBEAN_NAME);
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (this.cache != null) {
+            this.jmxRegistration.unregisterMBean(MBEAN_NAME);
+            this.observation.removeListener(LISTENER_NAME);
+            this.cache.dispose();
+
+            this.logger.debug("Templates XDOM cache statistics: [{}] hits, [{}] misses, [{}] ms saved", getHitCount(),
+                getMissCount(), getSavedParseTime());
+        }
+    }
+
+    /**
+     * Parse the content of the passed template or return a copy of the result of a previous parsing of the same
+     * content.
+     *
+     * @param template the template
+     * @param content the content of the template
+     * @return the parsed content, which can be freely modified by the caller
+     * @throws Exception when failing to parse the template
+     */
+    public XDOM parse(Template template, TemplateContent content) throws Exception
+    {
+        String id = template.getId();
+
+        // Templates created from a String don't have any id
+        if (this.cache == null || id == null) {
+            return this.parser.parse(content.getContent(), content.getSourceSyntax());
+        }
+
+        String digest = DigestUtils.sha256Hex(content.getContent());
+
+        Entry entry = this.cache.get(id);
+        if (entry != null && entry.matches(content.getSourceSyntax(), digest)) {
+            this.hits.increment();
+            this.savedParseTime.add(entry.parseTime);
+
+            // Transformations modify the XDOM, the cached one must never be exposed
+            return entry.xdom.clone();
+        }
+
+        this.misses.increment();
+
+        long start = System.nanoTime();
+        XDOM xdom = this.parser.parse(content.getContent(), content.getSourceSyntax());
+        long time = System.nanoTime() - start;
+        this.parseTime.add(time);
+
+        this.cache.set(id, new Entry(content.getSourceSyntax(), digest, xdom.clone(), time));
+
+        return xdom;
+    }
+
+    @Override
+    public long getHitCount()
+    {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public double getHitRatio()
+    {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    @Override
+    public long getParseTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(this.parseTime.sum());
+    }
+
+    @Override
+    public long getSavedParseTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(this.savedParseTime.sum());
+    }
+}
@@ -19,8 +19,21 @@
  */
 package com.xpn.xwiki.store;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -38,9 +51,11 @@
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.annotation.InstantiationStrategy;
 import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.component.phase.Disposable;
 import org.xwiki.component.phase.Initializable;
 import org.xwiki.component.phase.InitializationException;
 import org.xwiki.configuration.ConfigurationSource;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.model.reference.WikiReference;
@@ -57,12 +72,16 @@
 import com.xpn.xwiki.doc.XWikiLink;
 import com.xpn.xwiki.doc.XWikiLock;
 import com.xpn.xwiki.internal.store.AbstractXWikiStore;
+import com.xpn.xwiki.internal.store.DocumentCacheStatistics;
 import com.xpn.xwiki.objects.classes.BaseClass;
 import com.xpn.xwiki.web.Utils;
 
 /**
  * A proxy store implementation that caches Documents when they are first fetched and subsequently return them from a
  * cache. It delegates all write and search operations to an underlying store without doing any caching on them.
+ * <p>
+ * When several threads ask for the same missing document (or existence check) at the same time, only one of them loads
+ * it from the underlying store and the others wait for its result.
  *
  * @version $Id$
  */
@@ -71,10 +90,29 @@
 @Named("cache")
 @InstantiationStrategy(ComponentInstantiationStrategy.PER_LOOKUP)
 public class XWikiCacheStore extends AbstractXWikiStore
-    implements XWikiCacheStoreInterface, EventListener, Initializable
+    implements XWikiCacheStoreInterface, EventListener, Initializable, Disposable
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(XWikiCacheStore.class);
 
+    private static final String MBEAN_NAME = "type=Store,name=documentcache";
+
+    /**
+     * Used to give a distinct MBean name to each instance (the component is instantiated for each lookup).
+     */
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    /**
+     * Load a value from the underlying store.
+     * 
+     * @param <T> the type of the loaded value
+     * @version $Id$
+     */
+    @FunctionalInterface
+    private interface StoreLoader<T>
+    {
+        T load() throws XWikiException;
+    }
+
     /**
      * Used to know if a received event is a local or remote one.
      */
@@ -98,6 +136,9 @@ public class XWikiCacheStore extends AbstractXWikiStore
     @Named("xwikicfg")
     private ConfigurationSource configuration;
 
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
     private XWikiStoreInterface store;
 
     private Cache<XWikiDocument> cache;
@@ -109,6 +150,29 @@ public class XWikiCacheStore extends AbstractXWikiStore
      */
     private Cache<Integer> limitSizePropertyCache;
 
+    /**
+     * The documents currently being loaded from the underlying store.
+     */
+    private final ConcurrentMap<String, CompletableFuture<XWikiDocument>> documentLoads = new ConcurrentHashMap<>();
+
+    /**
+     * The existence checks currently being executed on the underlying store.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> existLoads = new ConcurrentHashMap<>();
+
+    private final DocumentCacheStatistics statistics =
+        new DocumentCacheStatistics(() -> this.documentLoads.size() + this.existLoads.size());
+
+    /**
+     * The name under which the statistics of this instance are registered, {@code null} if they are not registered.
+     */
+    private String mbeanName;
+
+    /**
+     * The maximum time in milliseconds to wait for a value being loaded by another thread.
+     */
+    private long loadWaitTimeout;
+
     /**
      * Default constructor generally used by the Component Manager.
      */
@@ -145,6 +209,17 @@ public void initialize() throws InitializationException
         }
 
         initListener();
+
+        this.mbeanName = MBEAN_NAME + ",instance=" + INSTANCES.incrementAndGet();
+        this.jmxRegistration.registerMBean(this.statistics, this.mbeanName);
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (this.mbeanName != null) {
+            this.jmxRegistration.unregisterMBean(this.mbeanName);
+        }
     }
 
     @Override
@@ -180,6 +255,8 @@ private void initCache() throws CacheException
         int limitSizePropertyCacheCapacity = 10;
         this.limitSizePropertyCache = this.cacheManager.createNewCache(
             new LRUCacheConfiguration("xwiki.store.limitsizepropertycache", limitSizePropertyCacheCapacity));
+
+        this.loadWaitTimeout = this.configuration.getProperty("xwiki.store.cache.loadWaitTimeout", 30000L);
     }
 
     @Deprecated
@@ -229,8 +306,7 @@ public void renameXWikiDoc(XWikiDocument doc, DocumentReference newReference, XW
         } finally {
             // Flushing the cache for old document
             String key = getKey(doc, context);
-            getCache().remove(key);
-            getPageExistCache().remove(key);
+            invalidate(key);
 
             WikiReference originalWikiReference = doc.getDocumentReference().getWikiReference();
             // Flushing the cache for new document
@@ -239,8 +315,7 @@ public void renameXWikiDoc(XWikiDocument doc, DocumentReference newReference, XW
             }
             XWikiDocument newDoc = new XWikiDocument(newReference);
             key = getKey(newDoc, context);
-            getCache().remove(key);
-            getPageExistCache().remove(key);
+            invalidate(key);
             context.setWikiReference(originalWikiReference);
 
             // Restore the previous XWikiContext
@@ -261,8 +336,7 @@ public void saveXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext, boolean
         } finally {
             // Flushing the cache
             String key = getKey(doc, context);
-            getCache().remove(key);
-            getPageExistCache().remove(key);
+            invalidate(key);
 
             /*
              * We do not want to save the document in the cache at this time. If we did, this would introduce the
@@ -274,14 +348,33 @@ public void saveXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext, boolean
         }
     }
 
+    private void invalidate(String key)
+    {
+        // Make sure a load started before the modification does not end up in the cache
+        this.documentLoads.remove(key);
+        this.existLoads.remove(key);
+
+        getCache().remove(key);
+        getPageExistCache().remove(key);
+    }
+
     @Override
     public void flushCache()
     {
+        this.documentLoads.clear();
+        this.existLoads.clear();
+
         getCache().removeAll();
         getPageExistCache().removeAll();
         getLimitSizePropertyCache().removeAll();
     }
 
+    @Override
+    public void flushCache(DocumentReference documentReference)
+    {
+        invalidate(getKey(documentReference));
+    }
+
     @Override
     public void onEvent(Event event, Object source, Object data)
     {
@@ -294,6 +387,9 @@ public void onEvent(Event event, Object source, Object data)
 
                 String key = doc.getKey();
 
+                this.documentLoads.remove(key);
+                this.existLoads.remove(key);
+
                 if (getCache() != null) {
                     getCache().remove(key);
                 }
@@ -322,8 +418,13 @@ public String getKey(XWikiDocument doc, XWikiContext context)
             reference = reference.setWikiReference(context.getWikiReference());
         }
 
+        return getKey(reference);
+    }
+
+    private String getKey(DocumentReference referenceWithLocale)
+    {
         // Calculate the cache key
-        return this.uidStringEntityReferenceSerializer.serialize(reference, reference);
+        return this.uidStringEntityReferenceSerializer.serialize(referenceWithLocale, referenceWithLocale);
     }
 
     /**
@@ -362,61 +463,295 @@ public XWikiDocument loadXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext)
 
             LOGGER.debug("Cache: Trying to get doc {} from cache", key);
 
-            XWikiDocument cachedoc;
-            try {
-                cachedoc = getCache().get(key);
-            } catch (Exception e) {
-                LOGGER.error("Failed to get document from the cache", e);
+            XWikiDocument cachedoc = getCachedDocument(key, doc);
+
+            if (cachedoc == null) {
+                LOGGER.debug("Cache: Trying to get doc {} from persistent storage", key);
+
+                cachedoc = loadOnce(this.documentLoads, key, () -> this.store.loadXWikiDoc(doc, context),
+                    loadedDoc -> cacheDocument(key, loadedDoc));
+
+                LOGGER.debug("Cache: Got doc {} from storage", key);
 
-                cachedoc = null;
+                if (cachedoc != doc) {
+                    // The document was loaded by another thread
+                    cachedoc = getCoalescedDocument(doc, cachedoc);
+                }
             }
 
-            if (cachedoc != null) {
-                cachedoc.setFromCache(true);
+            cachedoc.setStore(this);
+            LOGGER.debug("Cache: end for doc {} in cache", key);
 
-                LOGGER.debug("Cache: got doc {} from cache", key);
-            } else {
-                Boolean result = getPageExistCache().get(key);
+            return cachedoc;
+        } finally {
+            restoreExecutionXContext();
+        }
+    }
 
-                if (result == Boolean.FALSE) {
-                    LOGGER.debug("Cache: The document {} does not exist, return an empty one", key);
+    @Override
+    public List<XWikiDocument> loadXWikiDocs(Collection<DocumentReference> references, XWikiContext inputxcontext)
+        throws XWikiException
+    {
+        // Make sure to use the right XWikiContext instance to avoid issues
+        XWikiContext context = getExecutionXContext(inputxcontext, true);
 
-                    cachedoc = doc;
-                    cachedoc.setNew(true);
+        try {
+            List<XWikiDocument> documents = new ArrayList<>(references.size());
+            List<String> keys = new ArrayList<>(references.size());
+            List<CompletableFuture<XWikiDocument>> pendingLoads = new ArrayList<>(references.size());
+
+            // The loads started by this thread
+            Map<String, CompletableFuture<XWikiDocument>> loads = new LinkedHashMap<>();
+            List<DocumentReference> missingReferences = new ArrayList<>();
+
+            for (DocumentReference reference : references) {
+                XWikiDocument doc = new XWikiDocument(reference, reference.getLocale());
+                String key = getKey(doc.getDocumentReferenceWithLocale());
+
+                XWikiDocument cachedoc = getCachedDocument(key, doc);
+
+                CompletableFuture<XWikiDocument> pendingLoad = null;
+                if (cachedoc == null) {
+                    pendingLoad = loads.get(key);
+                    if (pendingLoad == null) {
+                        CompletableFuture<XWikiDocument> load = new CompletableFuture<>();
+                        pendingLoad = this.documentLoads.putIfAbsent(key, load);
+                        if (pendingLoad == null) {
+                            this.statistics.miss();
+
+                            pendingLoad = load;
+                            loads.put(key, load);
+                            missingReferences.add(reference);
+                        }
+                    }
+                }
 
-                    // Make sure to always return a document with an original version, even for one that does not exist.
-                    // Allow writing more generic code.
-                    cachedoc
-                        .setOriginalDocument(new XWikiDocument(cachedoc.getDocumentReference(), cachedoc.getLocale()));
-                } else {
-                    LOGGER.debug("Cache: Trying to get doc {} from persistent storage", key);
+                documents.add(cachedoc != null ? cachedoc : doc);
+                keys.add(key);
+                pendingLoads.add(pendingLoad);
+            }
 
-                    cachedoc = this.store.loadXWikiDoc(doc, context);
+            // Load all the missing documents at once
+            if (!loads.isEmpty()) {
+                LOGGER.debug("Cache: Trying to get docs {} from persistent storage", loads.keySet());
 
-                    LOGGER.debug("Cache: Got doc {} from storage", key);
+                loadXWikiDocs(missingReferences, loads, context);
+            }
 
-                    if (cachedoc.isNew()) {
-                        getPageExistCache().set(key, Boolean.FALSE);
+            for (int i = 0; i < documents.size(); ++i) {
+                CompletableFuture<XWikiDocument> pendingLoad = pendingLoads.get(i);
+                if (pendingLoad != null) {
+                    String key = keys.get(i);
+                    if (loads.get(key) == pendingLoad) {
+                        documents.set(i, pendingLoad.join());
                     } else {
-                        getCache().set(key, cachedoc);
-
-                        // Also update exist cache
-                        getPageExistCache().set(key, Boolean.TRUE);
+                        // The document is being loaded by another thread
+                        XWikiDocument doc = documents.get(i);
+                        XWikiDocument loadedDoc = join(pendingLoad, key, () -> this.store.loadXWikiDoc(doc, context));
+                        documents.set(i, loadedDoc != doc ? getCoalescedDocument(doc, loadedDoc) : doc);
                     }
-
-                    LOGGER.debug("Cache: put doc {} in cache", key);
                 }
-            }
 
-            cachedoc.setStore(this);
-            LOGGER.debug("Cache: end for doc {} in cache", key);
+                documents.get(i).setStore(this);
+            }
 
-            return cachedoc;
+            return documents;
         } finally {
             restoreExecutionXContext();
         }
     }
 
+    private void loadXWikiDocs(List<DocumentReference> references, Map<String, CompletableFuture<XWikiDocument>> loads,
+        XWikiContext context) throws XWikiException
+    {
+        List<XWikiDocument> loadedDocuments;
+        try {
+            loadedDocuments = this.store.loadXWikiDocs(references, context);
+        } catch (Throwable e) {
+            loads.forEach((key, load) -> {
+                this.documentLoads.remove(key, load);
+                load.completeExceptionally(e);
+            });
+
+            throw e;
+        }
+
+        Iterator<XWikiDocument> it = loadedDocuments.iterator();
+        for (Map.Entry<String, CompletableFuture<XWikiDocument>> entry : loads.entrySet()) {
+            XWikiDocument loadedDoc = it.next();
+
+            // Only cache the document if it was not invalidated in the meantime
+            if (this.documentLoads.remove(entry.getKey(), entry.getValue())) {
+                cacheDocument(entry.getKey(), loadedDoc);
+            }
+
+            entry.getValue().complete(loadedDoc);
+        }
+    }
+
+    /**
+     * @return the document found in the cache, the passed document marked as new if it's known to not exist, null if
+     *         the document should be loaded from the underlying store
+     */
+    private XWikiDocument getCachedDocument(String key, XWikiDocument doc)
+    {
+        XWikiDocument cachedoc;
+        try {
+            cachedoc = getCache().get(key);
+        } catch (Exception e) {
+            LOGGER.error("Failed to get document from the cache", e);
+
+            cachedoc = null;
+        }
+
+        if (cachedoc != null) {
+            cachedoc.setFromCache(true);
+
+            this.statistics.hit();
+
+            LOGGER.debug("Cache: got doc {} from cache", key);
+        } else {
+            Boolean result = getPageExistCache().get(key);
+
+            if (result == Boolean.FALSE) {
+                LOGGER.debug("Cache: The document {} does not exist, return an empty one", key);
+
+                this.statistics.notExistHit();
+
+                cachedoc = setNew(doc);
+            }
+        }
+
+        return cachedoc;
+    }
+
+    private void cacheDocument(String key, XWikiDocument loadedDoc)
+    {
+        if (loadedDoc.isNew()) {
+            getPageExistCache().set(key, Boolean.FALSE);
+        } else {
+            getCache().set(key, loadedDoc);
+
+            // Also update exist cache
+            getPageExistCache().set(key, Boolean.TRUE);
+        }
+
+        LOGGER.debug("Cache: put doc {} in cache", key);
+    }
+
+    /**
+     * @param doc the document asked by this thread
+     * @param loadedDoc the document loaded by another thread
+     * @return the document to return to this thread
+     */
+    private XWikiDocument getCoalescedDocument(XWikiDocument doc, XWikiDocument loadedDoc)
+    {
+        if (loadedDoc.isNew()) {
+            // Don't share the other thread empty document instance
+            return setNew(doc);
+        }
+
+        loadedDoc.setFromCache(true);
+
+        return loadedDoc;
+    }
+
+    private XWikiDocument setNew(XWikiDocument doc)
+    {
+        doc.setNew(true);
+
+        // Make sure to always return a document with an original version, even for one that does not exist.
+        // Allow writing more generic code.
+        doc.setOriginalDocument(new XWikiDocument(doc.getDocumentReference(), doc.getLocale()));
+
+        return doc;
+    }
+
+    /**
+     * Make sure only one thread at a time loads the value associated with the passed key from the underlying store,
+     * the other threads asking for the same key wait for the result.
+     * 
+     * @param <T> the type of the loaded value
+     * @param loads the values currently being loaded
+     * @param key the cache key of the value to load
+     * @param loader load the value from the underlying store
+     * @param cacher store the loaded value in the cache (only called if the key was not invalidated during the load)
+     * @return the loaded value
+     * @throws XWikiException when failing to load the value
+     */
+    private <T> T loadOnce(ConcurrentMap<String, CompletableFuture<T>> loads, String key, StoreLoader<T> loader,
+        Consumer<T> cacher) throws XWikiException
+    {
+        CompletableFuture<T> load = new CompletableFuture<>();
+        CompletableFuture<T> currentLoad = loads.putIfAbsent(key, load);
+
+        if (currentLoad != null) {
+            return join(currentLoad, key, loader);
+        }
+
+        this.statistics.miss();
+
+        try {
+            T value = loader.load();
+
+            // Only cache the value if it was not invalidated in the meantime
+            if (loads.remove(key, load)) {
+                cacher.accept(value);
+            }
+
+            load.complete(value);
+
+            return value;
+        } catch (Throwable e) {
+            loads.remove(key, load);
+            load.completeExceptionally(e);
+
+            throw e;
+        }
+    }
+
+    /**
+     * Wait (at most the configured time) for a value being loaded by another thread.
+     * 
+     * @param <T> the type of the loaded value
+     * @param load the load started by another thread
+     * @param key the cache key of the value to load
+     * @param loader load the value from the underlying store if the other thread failed to load it
+     * @return the loaded value
+     * @throws XWikiException when failing to load the value
+     */
+    private <T> T join(CompletableFuture<T> load, String key, StoreLoader<T> loader) throws XWikiException
+    {
+        try {
+            T value = load.get(this.loadWaitTimeout, TimeUnit.MILLISECONDS);
+
+            this.statistics.coalesced();
+
+            return value;
+        } catch (TimeoutException e) {
+            // Don't let a slow load block all the threads asking for the same value, load it in this one (without
+            // caching anything)
+            LOGGER.warn("Gave up waiting for [{}] to be loaded by another thread after [{}] milliseconds", key,
+                this.loadWaitTimeout);
+
+            this.statistics.miss();
+
+            return loader.load();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new XWikiException(XWikiException.MODULE_XWIKI_CACHE, XWikiException.ERROR_XWIKI_UNKNOWN,
+                "Interrupted while waiting for [" + key + "] to be loaded by another thread", e);
+        } catch (ExecutionException e) {
+            // The load failed in the other thread, try again in this one (without caching anything)
+            LOGGER.debug("Failed to load [{}] in another thread", key, e);
+
+            this.statistics.miss();
+
+            return loader.load();
+        }
+    }
+
     @Override
     public void deleteXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext) throws XWikiException
     {
@@ -429,8 +764,7 @@ public void deleteXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext) throws
 
             this.store.deleteXWikiDoc(doc, context);
 
-            getCache().remove(key);
-            getPageExistCache().remove(key);
+            invalidate(key);
             getPageExistCache().set(key, Boolean.FALSE);
         } finally {
             restoreExecutionXContext();
@@ -754,10 +1088,8 @@ public boolean exists(XWikiDocument doc, XWikiContext inputxcontext) throws XWik
             } catch (Exception e) {
             }
 
-            boolean result = this.store.exists(doc, context);
-            getPageExistCache().set(key, Boolean.valueOf(result));
-
-            return result;
+            return loadOnce(this.existLoads, key, () -> this.store.exists(doc, context),
+                result -> getPageExistCache().set(key, result));
         } finally {
             restoreExecutionXContext();
         }
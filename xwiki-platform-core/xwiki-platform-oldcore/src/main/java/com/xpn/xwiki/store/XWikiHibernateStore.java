@@ -31,13 +31,16 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.ListIterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -45,8 +48,10 @@
 import javax.persistence.criteria.CriteriaUpdate;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hibernate.FlushMode;
 import org.hibernate.HibernateException;
 import org.hibernate.ObjectNotFoundException;
@@ -89,6 +94,7 @@
 import com.xpn.xwiki.doc.XWikiLink;
 import com.xpn.xwiki.doc.XWikiLock;
 import com.xpn.xwiki.doc.XWikiSpace;
+import com.xpn.xwiki.internal.store.hibernate.HibernateObjectPropertiesLoader;
 import com.xpn.xwiki.internal.store.hibernate.legacy.LegacySessionImplementor;
 import com.xpn.xwiki.monitor.api.MonitorPlugin;
 import com.xpn.xwiki.objects.BaseCollection;
@@ -117,6 +123,8 @@
 @Singleton
 public class XWikiHibernateStore extends XWikiHibernateBaseStore implements XWikiStoreInterface, Initializable
 {
+    private static final String PARAMETER_IDS = "ids";
+
     @Inject
     private Logger logger;
 
@@ -966,18 +974,9 @@ public XWikiDocument loadXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext)
 
                 try {
                     session.load(doc, Long.valueOf(doc.getId()));
-                    doc.setNew(false);
-                    doc.setMostRecent(true);
-                    // Fix for XWIKI-1651
-                    doc.setDate(new Date(doc.getDate().getTime()));
-                    doc.setCreationDate(new Date(doc.getCreationDate().getTime()));
-                    doc.setContentUpdateDate(new Date(doc.getContentUpdateDate().getTime()));
+                    setLoaded(doc);
                 } catch (ObjectNotFoundException e) { // No document
-                    doc.setNew(true);
-
-                    // Make sure to always return a document with an original version, even for one that does not exist.
-                    // Allow writing more generic code.
-                    doc.setOriginalDocument(new XWikiDocument(doc.getDocumentReference(), doc.getLocale()));
+                    setNew(doc);
 
                     return doc;
                 }
@@ -987,18 +986,7 @@ public XWikiDocument loadXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext)
                     loadAttachmentList(doc, context, false);
                 }
 
-                // TODO: handle the case where there are no xWikiClass and xWikiObject in the Database
-                BaseClass bclass = new BaseClass();
-                String cxml = doc.getXClassXML();
-                if (cxml != null) {
-                    bclass.fromXML(cxml);
-                    doc.setXClass(bclass);
-                    bclass.setDirty(false);
-                }
-
-                // Store this XWikiClass in the context so that we can use it in case of recursive usage
-                // of classes
-                context.addBaseClass(bclass);
+                BaseClass bclass = loadXClass(doc, context);
 
                 if (doc.hasElement(XWikiDocument.HAS_OBJECTS)) {
                     Query<BaseObject> query = session.createQuery(
@@ -1006,84 +994,17 @@ public XWikiDocument loadXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext)
                         BaseObject.class);
                     query.setParameter("name", doc.getFullName());
 
-                    Iterator<BaseObject> it = query.list().iterator();
-
-                    EntityReference localGroupEntityReference = new EntityReference("XWikiGroups", EntityType.DOCUMENT,
-                        new EntityReference("XWiki", EntityType.SPACE));
-                    DocumentReference groupsDocumentReference = new DocumentReference(context.getWikiId(),
-                        localGroupEntityReference.getParent().getName(), localGroupEntityReference.getName());
-
-                    boolean hasGroups = false;
-                    while (it.hasNext()) {
-                        BaseObject object = it.next();
-                        DocumentReference classReference = object.getXClassReference();
+                    List<Pair<BaseObject, XWikiDocument>> batchedObjects =
+                        this.hibernateConfiguration.isBatchObjectLoading() ? new ArrayList<>() : null;
 
-                        if (classReference == null) {
-                            continue;
-                        }
-
-                        // It seems to search before is case insensitive. And this would break the loading if we get an
-                        // object which doesn't really belong to this document
-                        if (!object.getDocumentReference().equals(doc.getDocumentReference())) {
-                            continue;
-                        }
+                    loadXObjects(doc, bclass, query.list(), batchedObjects, session, context);
 
-                        BaseObject newobject;
-                        if (classReference.equals(doc.getDocumentReference())) {
-                            newobject = bclass.newCustomClassInstance(true);
-                        } else {
-                            newobject = BaseClass.newCustomClassInstance(classReference, true, context);
-                        }
-                        if (newobject != null) {
-                            newobject.setId(object.getId());
-                            newobject.setXClassReference(object.getRelativeXClassReference());
-                            newobject.setDocumentReference(object.getDocumentReference());
-                            newobject.setNumber(object.getNumber());
-                            newobject.setGuid(object.getGuid());
-                            object = newobject;
-                        }
-
-                        if (classReference.equals(groupsDocumentReference)) {
-                            // Groups objects are handled differently.
-                            hasGroups = true;
-                        } else {
-                            loadXWikiCollectionInternal(object, doc, context, false, true);
-                        }
-                        doc.setXObject(object.getNumber(), object);
-                    }
-
-                    // AFAICT this was added as an emergency patch because loading of objects has proven
-                    // too slow and the objects which cause the most overhead are the XWikiGroups objects
-                    // as each group object (each group member) would otherwise cost 2 database queries.
-                    // This will do every group member in a single query.
-                    if (hasGroups) {
-                        Query<Object[]> query2 = session.createQuery(
-                            "select bobject.number, prop.value from StringProperty as prop,"
-                                + "BaseObject as bobject where bobject.name = :name and bobject.className='XWiki.XWikiGroups' "
-                                + "and bobject.id=prop.id.id and prop.id.name='member' order by bobject.number",
-                            Object[].class);
-                        query2.setParameter("name", doc.getFullName());
-
-                        Iterator<Object[]> it2 = query2.list().iterator();
-                        while (it2.hasNext()) {
-                            Object[] result = it2.next();
-                            Integer number = (Integer) result[0];
-                            String member = (String) result[1];
-                            BaseObject obj = BaseClass.newCustomClassInstance(groupsDocumentReference, true, context);
-                            obj.setDocumentReference(doc.getDocumentReference());
-                            obj.setXClassReference(localGroupEntityReference);
-                            obj.setNumber(number.intValue());
-                            obj.setStringValue("member", member);
-                            doc.setXObject(obj.getNumber(), obj);
-                        }
+                    if (batchedObjects != null && !batchedObjects.isEmpty()) {
+                        loadXWikiCollections(batchedObjects, session, context);
                     }
                 }
 
-                doc.setContentDirty(false);
-                doc.setMetaDataDirty(false);
-
-                // We need to ensure that the loaded document becomes the original document
-                doc.setOriginalDocument(doc.clone());
+                setOriginal(doc);
 
                 if (bTransaction) {
                     endTransaction(context, false);
@@ -1115,6 +1036,291 @@ public XWikiDocument loadXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext)
         }
     }
 
+    @Override
+    public List<XWikiDocument> loadXWikiDocs(Collection<DocumentReference> references, XWikiContext inputxcontext)
+        throws XWikiException
+    {
+        XWikiContext context = getExecutionXContext(inputxcontext, true);
+
+        try {
+            // Dynamic custom mappings are injected document by document
+            if (context.getWiki().hasDynamicCustomMappings()) {
+                return XWikiStoreInterface.super.loadXWikiDocs(references, context);
+            }
+
+            List<XWikiDocument> documents = new ArrayList<>(references.size());
+            for (DocumentReference reference : references) {
+                documents.add(new XWikiDocument(reference, reference.getLocale()));
+            }
+
+            // Each wiki has its own database
+            Map<WikiReference, List<XWikiDocument>> wikis = documents.stream().collect(Collectors.groupingBy(
+                doc -> doc.getDocumentReference().getWikiReference(), LinkedHashMap::new, Collectors.toList()));
+
+            Map<Long, XWikiDocument> loadedDocuments = new HashMap<>();
+            WikiReference currentWiki = context.getWikiReference();
+            try {
+                for (Map.Entry<WikiReference, List<XWikiDocument>> entry : wikis.entrySet()) {
+                    context.setWikiReference(entry.getKey());
+
+                    loadedDocuments.putAll(loadXWikiDocs(entry.getValue(), context));
+                }
+            } finally {
+                context.setWikiReference(currentWiki);
+            }
+
+            for (ListIterator<XWikiDocument> it = documents.listIterator(); it.hasNext();) {
+                XWikiDocument doc = it.next();
+                XWikiDocument loadedDocument = loadedDocuments.get(doc.getId());
+                if (loadedDocument != null) {
+                    it.set(loadedDocument);
+                } else {
+                    doc.setStore(this);
+                    setNew(doc);
+                }
+            }
+
+            return documents;
+        } finally {
+            restoreExecutionXContext();
+        }
+    }
+
+    /**
+     * Load the passed documents of the current wiki in a single transaction and with a fixed number of queries.
+     *
+     * @return the loaded documents indexed by identifier
+     */
+    private Map<Long, XWikiDocument> loadXWikiDocs(List<XWikiDocument> documents, XWikiContext context)
+        throws XWikiException
+    {
+        boolean bTransaction = true;
+        MonitorPlugin monitor = Util.getMonitorPlugin(context);
+        try {
+            // Start monitoring timer
+            if (monitor != null) {
+                monitor.startTimer(HINT);
+            }
+            checkHibernate(context);
+
+            bTransaction = bTransaction && beginTransaction(context);
+            Session session = getSession(context);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+
+            List<Long> ids = documents.stream().map(XWikiDocument::getId).distinct().collect(Collectors.toList());
+
+            Map<Long, XWikiDocument> loadedDocuments = new LinkedHashMap<>();
+            for (List<Long> chunk : ListUtils.partition(ids, HibernateObjectPropertiesLoader.MAX_IDS)) {
+                Query<XWikiDocument> query =
+                    session.createQuery("from XWikiDocument as doc where doc.id in (:ids)", XWikiDocument.class);
+                query.setParameterList(PARAMETER_IDS, chunk);
+                for (XWikiDocument doc : query.list()) {
+                    setLoaded(doc);
+                    loadedDocuments.put(doc.getId(), doc);
+                }
+            }
+
+            // Load the attachments of all the documents at once
+            List<Long> attachmentDocuments = loadedDocuments.values().stream()
+                .filter(doc -> doc.hasElement(XWikiDocument.HAS_ATTACHMENTS)).map(XWikiDocument::getId)
+                .collect(Collectors.toList());
+            for (List<Long> chunk : ListUtils.partition(attachmentDocuments, HibernateObjectPropertiesLoader.MAX_IDS)) {
+                // XWikiAttachment#getDocId() needs the document so the identifier is selected separately
+                Query<Object[]> query = session.createQuery(
+                    "select attach.docId, attach from XWikiAttachment as attach where attach.docId in (:ids)",
+                    Object[].class);
+                query.setParameterList(PARAMETER_IDS, chunk);
+                for (Object[] result : query.list()) {
+                    loadedDocuments.get(result[0]).setAttachment((XWikiAttachment) result[1]);
+                }
+            }
+
+            // Load the objects of all the documents at once
+            List<XWikiDocument> objectDocuments = loadedDocuments.values().stream()
+                .filter(doc -> doc.hasElement(XWikiDocument.HAS_OBJECTS)).collect(Collectors.toList());
+            Map<DocumentReference, List<BaseObject>> objects = new HashMap<>();
+            for (List<XWikiDocument> chunk : ListUtils.partition(objectDocuments,
+                HibernateObjectPropertiesLoader.MAX_IDS)) {
+                Query<BaseObject> query = session.createQuery(
+                    "from BaseObject as bobject where bobject.name in (:names) order by bobject.number",
+                    BaseObject.class);
+                query.setParameterList("names",
+                    chunk.stream().map(XWikiDocument::getFullName).collect(Collectors.toList()));
+                for (BaseObject object : query.list()) {
+                    objects.computeIfAbsent(object.getDocumentReference(), k -> new ArrayList<>()).add(object);
+                }
+            }
+
+            // Same loading options as #loadXWikiDoc
+            List<Pair<BaseObject, XWikiDocument>> batchedObjects =
+                this.hibernateConfiguration.isBatchObjectLoading() ? new ArrayList<>() : null;
+            for (XWikiDocument doc : loadedDocuments.values()) {
+                BaseClass bclass = loadXClass(doc, context);
+
+                if (doc.hasElement(XWikiDocument.HAS_OBJECTS)) {
+                    loadXObjects(doc, bclass, objects.getOrDefault(doc.getDocumentReference(), Collections.emptyList()),
+                        batchedObjects, session, context);
+                }
+            }
+
+            // Load the properties of all the objects at once
+            if (batchedObjects != null && !batchedObjects.isEmpty()) {
+                loadXWikiCollections(batchedObjects, session, context);
+            }
+
+            for (XWikiDocument doc : loadedDocuments.values()) {
+                setOriginal(doc);
+            }
+
+            return loadedDocuments;
+        } catch (Exception e) {
+            throw new XWikiException(XWikiException.MODULE_XWIKI_STORE,
+                XWikiException.ERROR_XWIKI_STORE_HIBERNATE_READING_DOC, "Exception while reading documents", e);
+        } finally {
+            try {
+                if (bTransaction) {
+                    endTransaction(context, false);
+                }
+            } catch (Exception e) {
+            }
+
+            // End monitoring timer
+            if (monitor != null) {
+                monitor.endTimer(HINT);
+            }
+        }
+    }
+
+    private void setLoaded(XWikiDocument doc)
+    {
+        doc.setStore(this);
+        doc.setNew(false);
+        doc.setMostRecent(true);
+        // Fix for XWIKI-1651
+        doc.setDate(new Date(doc.getDate().getTime()));
+        doc.setCreationDate(new Date(doc.getCreationDate().getTime()));
+        doc.setContentUpdateDate(new Date(doc.getContentUpdateDate().getTime()));
+    }
+
+    private void setNew(XWikiDocument doc)
+    {
+        doc.setNew(true);
+
+        // Make sure to always return a document with an original version, even for one that does not exist.
+        // Allow writing more generic code.
+        doc.setOriginalDocument(new XWikiDocument(doc.getDocumentReference(), doc.getLocale()));
+    }
+
+    private void setOriginal(XWikiDocument doc)
+    {
+        doc.setContentDirty(false);
+        doc.setMetaDataDirty(false);
+
+        // We need to ensure that the loaded document becomes the original document
+        doc.setOriginalDocument(doc.clone());
+    }
+
+    private BaseClass loadXClass(XWikiDocument doc, XWikiContext context) throws XWikiException
+    {
+        // TODO: handle the case where there are no xWikiClass and xWikiObject in the Database
+        BaseClass bclass = new BaseClass();
+        String cxml = doc.getXClassXML();
+        if (cxml != null) {
+            bclass.fromXML(cxml);
+            doc.setXClass(bclass);
+            bclass.setDirty(false);
+        }
+
+        // Store this XWikiClass in the context so that we can use it in case of recursive usage
+        // of classes
+        context.addBaseClass(bclass);
+
+        return bclass;
+    }
+
+    /**
+     * Add the passed objects to the document.
+     *
+     * @param batchedObjects where to put the objects for which the properties should be loaded later, if null they are
+     *            loaded right away
+     */
+    private void loadXObjects(XWikiDocument doc, BaseClass bclass, List<BaseObject> objects,
+        List<Pair<BaseObject, XWikiDocument>> batchedObjects, Session session, XWikiContext context)
+        throws XWikiException
+    {
+        EntityReference localGroupEntityReference = new EntityReference("XWikiGroups", EntityType.DOCUMENT,
+            new EntityReference("XWiki", EntityType.SPACE));
+        DocumentReference groupsDocumentReference = new DocumentReference(context.getWikiId(),
+            localGroupEntityReference.getParent().getName(), localGroupEntityReference.getName());
+
+        boolean hasGroups = false;
+        for (BaseObject loadedObject : objects) {
+            BaseObject object = loadedObject;
+            DocumentReference classReference = object.getXClassReference();
+
+            if (classReference == null) {
+                continue;
+            }
+
+            // It seems to search before is case insensitive. And this would break the loading if we get an
+            // object which doesn't really belong to this document
+            if (!object.getDocumentReference().equals(doc.getDocumentReference())) {
+                continue;
+            }
+
+            BaseObject newobject;
+            if (classReference.equals(doc.getDocumentReference())) {
+                newobject = bclass.newCustomClassInstance(true);
+            } else {
+                newobject = BaseClass.newCustomClassInstance(classReference, true, context);
+            }
+            if (newobject != null) {
+                newobject.setId(object.getId());
+                newobject.setXClassReference(object.getRelativeXClassReference());
+                newobject.setDocumentReference(object.getDocumentReference());
+                newobject.setNumber(object.getNumber());
+                newobject.setGuid(object.getGuid());
+                object = newobject;
+            }
+
+            if (classReference.equals(groupsDocumentReference)) {
+                // Groups objects are handled differently.
+                hasGroups = true;
+            } else if (batchedObjects != null) {
+                batchedObjects.add(Pair.of(object, doc));
+            } else {
+                loadXWikiCollectionInternal(object, doc, context, false, true);
+            }
+            doc.setXObject(object.getNumber(), object);
+        }
+
+        // AFAICT this was added as an emergency patch because loading of objects has proven
+        // too slow and the objects which cause the most overhead are the XWikiGroups objects
+        // as each group object (each group member) would otherwise cost 2 database queries.
+        // This will do every group member in a single query.
+        if (hasGroups) {
+            Query<Object[]> query2 = session.createQuery(
+                "select bobject.number, prop.value from StringProperty as prop,"
+                    + "BaseObject as bobject where bobject.name = :name and bobject.className='XWiki.XWikiGroups' "
+                    + "and bobject.id=prop.id.id and prop.id.name='member' order by bobject.number",
+                Object[].class);
+            query2.setParameter("name", doc.getFullName());
+
+            Iterator<Object[]> it2 = query2.list().iterator();
+            while (it2.hasNext()) {
+                Object[] result = it2.next();
+                Integer number = (Integer) result[0];
+                String member = (String) result[1];
+                BaseObject obj = BaseClass.newCustomClassInstance(groupsDocumentReference, true, context);
+                obj.setDocumentReference(doc.getDocumentReference());
+                obj.setXClassReference(localGroupEntityReference);
+                obj.setNumber(number.intValue());
+                obj.setStringValue("member", member);
+                doc.setXObject(obj.getNumber(), obj);
+            }
+        }
+    }
+
     @Override
     public void deleteXWikiDoc(XWikiDocument doc, XWikiContext inputxcontext) throws XWikiException
     {
@@ -1397,6 +1603,42 @@ public void saveXWikiCollection(BaseCollection object, XWikiContext inputxcontex
         }
     }
 
+    /**
+     * Load the properties of all the passed objects with a fixed number of queries instead of loading them object by
+     * object.
+     */
+    private void loadXWikiCollections(List<Pair<BaseObject, XWikiDocument>> objects, Session session,
+        XWikiContext context) throws XWikiException
+    {
+        HibernateObjectPropertiesLoader loader = new HibernateObjectPropertiesLoader(session);
+        loader.load(objects.stream().map(pair -> pair.getLeft().getId()).collect(Collectors.toList()));
+
+        for (Pair<BaseObject, XWikiDocument> pair : objects) {
+            BaseObject object = pair.getLeft();
+            BaseClass bclass = getXClass(object, pair.getRight(), context);
+
+            List<String> handledProps = loadCustomMapping(object, bclass, session, context);
+
+            for (Map.Entry<String, String> entry : loader.getClassTypes(object.getId()).entrySet()) {
+                String name = entry.getKey();
+                // No need to load fields already loaded from custom mapping
+                if (handledProps.contains(name)) {
+                    continue;
+                }
+
+                BaseProperty property = loader.getProperty(object.getId(), name);
+                if (property != null) {
+                    property.setObject(object);
+                } else {
+                    // Could not be loaded with the stored type, fallback on the property by property loading
+                    property = loadXWikiProperty(object, bclass, name, entry.getValue(), context);
+                }
+
+                object.addField(name, property);
+            }
+        }
+    }
+
     /**
      * @deprecated This is internal to XWikiHibernateStore and may be removed in the future.
      */
@@ -1436,41 +1678,11 @@ private void loadXWikiCollectionInternal(BaseCollection object1, XWikiDocument d
                 }
             }
 
-            DocumentReference classReference = object.getXClassReference();
-
             // If the class reference is null in the loaded object then skip loading properties
-            if (classReference != null) {
-
-                BaseClass bclass = null;
-                if (!classReference.equals(object.getDocumentReference())) {
-                    // Let's check if the class has a custom mapping
-                    bclass = object.getXClass(context);
-                } else {
-                    // We need to get it from the document otherwise
-                    // we will go in an endless loop
-                    if (doc != null) {
-                        bclass = doc.getXClass();
-                    }
-                }
+            if (object.getXClassReference() != null) {
+                BaseClass bclass = getXClass(object, doc, context);
 
-                List<String> handledProps = new ArrayList<>();
-                try {
-                    if ((bclass != null) && (bclass.hasCustomMapping()) && context.getWiki().hasCustomMappings()) {
-                        String className = this.localEntityReferenceSerializer.serialize(bclass.getDocumentReference());
-                        @SuppressWarnings("unchecked")
-                        Map<String, ?> map = (Map<String, ?>) session.load(className, object.getId());
-                        // Let's make sure to look for null fields in the dynamic mapping
-                        bclass.fromValueMap(map, object);
-                        for (String prop : bclass.getCustomMappingPropertyList(context)) {
-                            if (map.get(prop) != null) {
-                                handledProps.add(prop);
-                            }
-                        }
-                    }
-                } catch (HibernateException e) {
-                    this.logger.error("Failed loading custom mapping for doc [{}], class [{}], nb [{}]",
-                        object.getDocumentReference(), object.getXClassReference(), object.getNumber(), e);
-                }
+                List<String> handledProps = loadCustomMapping(object, bclass, session, context);
 
                 // Load strings, integers, dates all at once
 
@@ -1486,55 +1698,8 @@ private void loadXWikiCollectionInternal(BaseCollection object1, XWikiDocument d
                         continue;
                     }
                     String classType = (String) result[1];
-                    BaseProperty property = null;
-
-                    try {
-                        property = (BaseProperty) Class.forName(classType).newInstance();
-                        property.setObject(object);
-                        property.setName(name);
-                        loadXWikiProperty(property, context, false);
-                    } catch (Exception e) {
-                        // WORKAROUND IN CASE OF MIXMATCH BETWEEN STRING AND LARGESTRING
-                        try {
-                            if (property instanceof StringProperty) {
-                                LargeStringProperty property2 = new LargeStringProperty();
-                                property2.setObject(object);
-                                property2.setName(name);
-                                loadXWikiProperty(property2, context, false);
-                                property.setValue(property2.getValue());
-
-                                if (bclass != null) {
-                                    if (bclass.get(name) instanceof TextAreaClass) {
-                                        property = property2;
-                                    }
-                                }
 
-                            } else if (property instanceof LargeStringProperty) {
-                                StringProperty property2 = new StringProperty();
-                                property2.setObject(object);
-                                property2.setName(name);
-                                loadXWikiProperty(property2, context, false);
-                                property.setValue(property2.getValue());
-
-                                if (bclass != null) {
-                                    if (bclass.get(name) instanceof StringClass) {
-                                        property = property2;
-                                    }
-                                }
-                            } else {
-                                throw e;
-                            }
-                        } catch (Throwable e2) {
-                            Object[] args =
-                                { object.getName(), object.getClass(), Integer.valueOf(object.getNumber() + ""), name };
-                            throw new XWikiException(XWikiException.MODULE_XWIKI_STORE,
-                                XWikiException.ERROR_XWIKI_STORE_HIBERNATE_LOADING_OBJECT,
-                                "Exception while loading object '{0}' of class '{1}', number '{2}' and property '{3}'",
-                                e, args);
-                        }
-                    }
-
-                    object.addField(name, property);
+                    object.addField(name, loadXWikiProperty(object, bclass, name, classType, context));
                 }
             }
 
@@ -1560,6 +1725,102 @@ private void loadXWikiCollectionInternal(BaseCollection object1, XWikiDocument d
 
     }
 
+    private BaseClass getXClass(BaseCollection object, XWikiDocument doc, XWikiContext context)
+        throws XWikiException
+    {
+        BaseClass bclass = null;
+        if (!object.getXClassReference().equals(object.getDocumentReference())) {
+            // Let's check if the class has a custom mapping
+            bclass = object.getXClass(context);
+        } else {
+            // We need to get it from the document otherwise
+            // we will go in an endless loop
+            if (doc != null) {
+                bclass = doc.getXClass();
+            }
+        }
+
+        return bclass;
+    }
+
+    private List<String> loadCustomMapping(BaseCollection object, BaseClass bclass, Session session,
+        XWikiContext context)
+    {
+        List<String> handledProps = new ArrayList<>();
+        try {
+            if ((bclass != null) && (bclass.hasCustomMapping()) && context.getWiki().hasCustomMappings()) {
+                String className = this.localEntityReferenceSerializer.serialize(bclass.getDocumentReference());
+                @SuppressWarnings("unchecked")
+                Map<String, ?> map = (Map<String, ?>) session.load(className, object.getId());
+                // Let's make sure to look for null fields in the dynamic mapping
+                bclass.fromValueMap(map, object);
+                for (String prop : bclass.getCustomMappingPropertyList(context)) {
+                    if (map.get(prop) != null) {
+                        handledProps.add(prop);
+                    }
+                }
+            }
+        } catch (HibernateException e) {
+            this.logger.error("Failed loading custom mapping for doc [{}], class [{}], nb [{}]",
+                object.getDocumentReference(), object.getXClassReference(), object.getNumber(), e);
+        }
+
+        return handledProps;
+    }
+
+    private BaseProperty loadXWikiProperty(BaseCollection object, BaseClass bclass, String name, String classType,
+        XWikiContext context) throws XWikiException
+    {
+        BaseProperty property = null;
+
+        try {
+            property = (BaseProperty) Class.forName(classType).newInstance();
+            property.setObject(object);
+            property.setName(name);
+            loadXWikiProperty(property, context, false);
+        } catch (Exception e) {
+            // WORKAROUND IN CASE OF MIXMATCH BETWEEN STRING AND LARGESTRING
+            try {
+                if (property instanceof StringProperty) {
+                    LargeStringProperty property2 = new LargeStringProperty();
+                    property2.setObject(object);
+                    property2.setName(name);
+                    loadXWikiProperty(property2, context, false);
+                    property.setValue(property2.getValue());
+
+                    if (bclass != null) {
+                        if (bclass.get(name) instanceof TextAreaClass) {
+                            property = property2;
+                        }
+                    }
+
+                } else if (property instanceof LargeStringProperty) {
+                    StringProperty property2 = new StringProperty();
+                    property2.setObject(object);
+                    property2.setName(name);
+                    loadXWikiProperty(property2, context, false);
+                    property.setValue(property2.getValue());
+
+                    if (bclass != null) {
+                        if (bclass.get(name) instanceof StringClass) {
+                            property = property2;
+                        }
+                    }
+                } else {
+                    throw e;
+                }
+            } catch (Throwable e2) {
+                Object[] args =
+                    { object.getName(), object.getClass(), Integer.valueOf(object.getNumber() + ""), name };
+                throw new XWikiException(XWikiException.MODULE_XWIKI_STORE,
+                    XWikiException.ERROR_XWIKI_STORE_HIBERNATE_LOADING_OBJECT,
+                    "Exception while loading object '{0}' of class '{1}', number '{2}' and property '{3}'", e, args);
+            }
+        }
+
+        return property;
+    }
+
     /**
      * @deprecated This is internal to XWikiHibernateStore and may be removed in the future.
      */
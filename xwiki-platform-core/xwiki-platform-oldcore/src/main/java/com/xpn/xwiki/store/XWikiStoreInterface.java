@@ -19,6 +19,8 @@
  */
 package com.xpn.xwiki.store;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.xwiki.component.annotation.Role;
@@ -60,6 +62,29 @@ default void renameXWikiDoc(XWikiDocument doc, DocumentReference newReference, X
 
     XWikiDocument loadXWikiDoc(XWikiDocument doc, XWikiContext context) throws XWikiException;
 
+    /**
+     * Load several documents at once. Stores are encouraged to load them with as few database round-trips as
+     * possible, the default implementation loads them one by one.
+     *
+     * @param references the references of the documents to load (including the locale when loading a translation)
+     * @param context the XWiki context
+     * @return the documents in the same order as the passed references, documents which do not exist are returned as
+     *         new documents
+     * @throws XWikiException when failing to load the documents
+     * @since 12.6
+     */
+    @Unstable
+    default List<XWikiDocument> loadXWikiDocs(Collection<DocumentReference> references, XWikiContext context)
+        throws XWikiException
+    {
+        List<XWikiDocument> documents = new ArrayList<>(references.size());
+        for (DocumentReference reference : references) {
+            documents.add(loadXWikiDoc(new XWikiDocument(reference, reference.getLocale()), context));
+        }
+
+        return documents;
+    }
+
     void deleteXWikiDoc(XWikiDocument doc, XWikiContext context) throws XWikiException;
 
     List<String> getClassList(XWikiContext context) throws XWikiException;
@@ -40,10 +40,12 @@
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.component.manager.ComponentManager;
+import org.xwiki.component.phase.Disposable;
 import org.xwiki.component.phase.Initializable;
 import org.xwiki.component.phase.InitializationException;
 import org.xwiki.context.Execution;
 import org.xwiki.job.event.status.JobProgressManager;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.query.Query;
 import org.xwiki.query.QueryException;
 import org.xwiki.query.QueryExecutor;
@@ -58,6 +60,7 @@
 import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.internal.store.hibernate.HibernateStore;
 import com.xpn.xwiki.internal.store.hibernate.query.HqlQueryUtils;
+import com.xpn.xwiki.internal.store.hibernate.query.HqlStatementCache;
 import com.xpn.xwiki.store.XWikiHibernateStore;
 import com.xpn.xwiki.util.Util;
 
@@ -70,7 +73,7 @@
 @Component
 @Named("hql")
 @Singleton
-public class HqlQueryExecutor implements QueryExecutor, Initializable
+public class HqlQueryExecutor implements QueryExecutor, Initializable, Disposable
 {
     /**
      * Path to Hibernate mapping with named queries. Configured via component manager.
@@ -79,6 +82,13 @@ public class HqlQueryExecutor implements QueryExecutor, Initializable
 
     private static final String ESCAPE_LIKE_PARAMETERS_FILTER = "escapeLikeParameters";
 
+    private static final String MBEAN_NAME = "type=Query,name=hqlstatementcache";
+
+    /**
+     * The maximum number of statements for which the safety verdict is remembered.
+     */
+    private static final int STATEMENT_CACHE_SIZE = 1000;
+
     @Inject
     private HibernateStore hibernate;
 
@@ -98,14 +108,31 @@ public class HqlQueryExecutor implements QueryExecutor, Initializable
     @Named("context")
     private Provider<ComponentManager> componentManagerProvider;
 
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
     private volatile Set<String> allowedNamedQueries;
 
+    /**
+     * Avoid parsing again the statements coming from scripts at each execution.
+     */
+    private final HqlStatementCache safeStatements =
+        new HqlStatementCache(STATEMENT_CACHE_SIZE, HqlQueryExecutor::isSafeSelect);
+
     @Override
     public void initialize() throws InitializationException
     {
         Configuration configuration = this.hibernate.getConfiguration();
 
         configuration.addInputStream(Util.getResourceAsStream(MAPPING_PATH));
+
+        this.jmxRegistration.registerMBean(this.safeStatements, MBEAN_NAME);
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.jmxRegistration.unregisterMBean(MBEAN_NAME);
     }
 
     private Set<String> getAllowedNamedQueries()
@@ -147,7 +174,7 @@ protected void checkAllowed(final Query query) throws QueryException
                     throw new QueryException("Named queries requires programming right", query, null);
                 }
 
-                if (!isSafeSelect(query.getStatement())) {
+                if (!this.safeStatements.isSafe(query.getStatement())) {
                     throw new QueryException("The query requires programming right", query, null);
                 }
             }
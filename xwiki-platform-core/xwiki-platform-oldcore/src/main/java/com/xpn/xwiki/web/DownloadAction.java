@@ -21,19 +21,25 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -88,8 +94,20 @@ public class DownloadAction extends XWikiAction
     /** The name of the HTTP Header that signals a byte-range request. */
     private static final String RANGE_HEADER_NAME = "Range";
 
-    /** The format of a valid range header. */
-    private static final Pattern RANGE_HEADER_PATTERN = Pattern.compile("bytes=([0-9]+)?-([0-9]+)?");
+    /** The name of the HTTP Header that indicates the range sent in a partial response. */
+    private static final String CONTENT_RANGE_HEADER_NAME = "Content-Range";
+
+    /** The prefix of a valid range header. */
+    private static final String RANGE_UNIT_PREFIX = "bytes=";
+
+    /** The format of a valid range in a range header. */
+    private static final Pattern RANGE_SPECIFICATION_PATTERN = Pattern.compile("([0-9]+)?-([0-9]+)?");
+
+    /** The maximum number of ranges accepted in a range header, more ranges are ignored. */
+    private static final int MAX_RANGES = 32;
+
+    /** The size of the buffer used to copy the content which is not stored in a file. */
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     /**
      * Default constructor.
@@ -197,9 +215,11 @@ private void throwNotFoundException(String filename) throws XWikiException
 
     /**
      * Respond to a range request, either with the requested bytes, or with a {@code 416 REQUESTED RANGE NOT
-     * SATISFIABLE} response if the requested byte range falls outside the length of the attachment. If the range
-     * request header is syntactically invalid, nothing is written, and instead {@code false} is returned, letting the
-     * action handler ignore the Range header and treat this as a normal (full) download request.
+     * SATISFIABLE} response if the requested byte ranges fall outside the length of the attachment. Several ranges can
+     * be requested at once, in which case they are sorted, merged when they overlap, and sent in a
+     * {@code multipart/byteranges} response. If the range request header is syntactically invalid, nothing is written,
+     * and instead {@code false} is returned, letting the action handler ignore the Range header and treat this as a
+     * normal (full) download request.
      *
      * @param attachment the attachment to get content from
      * @param request the current client request
@@ -214,33 +234,84 @@ private boolean sendPartialContent(final XWikiAttachment attachment, final XWiki
         final XWikiResponse response, final XWikiContext context) throws XWikiException, IOException
     {
         String range = request.getHeader(RANGE_HEADER_NAME);
-        Matcher m = RANGE_HEADER_PATTERN.matcher(range);
-        if (m.matches()) {
-            String startStr = m.group(1);
-            String endStr = m.group(2);
-            Long start = NumberUtils.createLong(startStr);
-            Long end = NumberUtils.createLong(endStr);
+        if (!range.startsWith(RANGE_UNIT_PREFIX)) {
+            return false;
+        }
+
+        String[] specifications = StringUtils.split(range.substring(RANGE_UNIT_PREFIX.length()), ',');
+        if (specifications.length == 0 || specifications.length > MAX_RANGES) {
+            return false;
+        }
+
+        long size = attachment.getContentLongSize(context);
+        List<Pair<Long, Long>> ranges = new ArrayList<>(specifications.length);
+        for (String specification : specifications) {
+            Matcher m = RANGE_SPECIFICATION_PATTERN.matcher(specification.trim());
+            if (!m.matches()) {
+                return false;
+            }
+            Long start = NumberUtils.createLong(m.group(1));
+            Long end = NumberUtils.createLong(m.group(2));
             if (start == null && end != null && end > 0) {
                 // Tail request, output the last <end> bytes
-                start = Math.max(attachment.getContentLongSize(context) - end, 0L);
-                end = attachment.getContentLongSize(context) - 1L;
+                start = Math.max(size - end, 0L);
+                end = size - 1L;
             }
             if (!isValidRange(start, end)) {
                 return false;
             }
             if (end == null) {
-                end = attachment.getContentLongSize(context) - 1L;
+                end = size - 1L;
+            }
+            end = Math.min(end, size - 1L);
+            // Ranges falling outside the file limits are ignored
+            if (start != null && start >= 0 && start < size) {
+                ranges.add(new ImmutablePair<>(start, end));
             }
-            end = Math.min(end, attachment.getContentLongSize(context) - 1L);
-            writeByteRange(attachment, start, end, request, response, context);
-            return true;
         }
-        return false;
+
+        // Don't send the same bytes several times (see RFC 7233, section 6.1)
+        ranges = coalesceRanges(ranges);
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        } else if (ranges.size() == 1) {
+            writeByteRange(attachment, ranges.get(0).getLeft(), ranges.get(0).getRight(), request, response, context);
+        } else {
+            writeByteRanges(attachment, ranges, request, response, context);
+        }
+
+        return true;
     }
 
     /**
-     * Write a byte range from the attachment to the response, if the requested range is valid and falls within the file
-     * limits.
+     * Sort the passed byte ranges and merge the ones which overlap or are adjacent.
+     *
+     * @param ranges the first and last bytes of each requested range
+     * @return the sorted ranges, without any overlap
+     */
+    private List<Pair<Long, Long>> coalesceRanges(List<Pair<Long, Long>> ranges)
+    {
+        List<Pair<Long, Long>> sortedRanges = new ArrayList<>(ranges);
+        sortedRanges.sort(Comparator.comparing(Pair::getLeft));
+
+        List<Pair<Long, Long>> coalescedRanges = new ArrayList<>(sortedRanges.size());
+        for (Pair<Long, Long> range : sortedRanges) {
+            int last = coalescedRanges.size() - 1;
+            if (last >= 0 && range.getLeft() <= coalescedRanges.get(last).getRight() + 1L) {
+                Pair<Long, Long> previous = coalescedRanges.get(last);
+                coalescedRanges.set(last,
+                    new ImmutablePair<>(previous.getLeft(), Math.max(previous.getRight(), range.getRight())));
+            } else {
+                coalescedRanges.add(range);
+            }
+        }
+
+        return coalescedRanges;
+    }
+
+    /**
+     * Write a byte range from the attachment to the response.
      *
      * @param attachment the attachment to get content from
      * @param start the first byte to write
@@ -254,21 +325,51 @@ private boolean sendPartialContent(final XWikiAttachment attachment, final XWiki
     private void writeByteRange(final XWikiAttachment attachment, Long start, Long end, final XWikiRequest request,
         final XWikiResponse response, final XWikiContext context) throws XWikiException, IOException
     {
-        if (start >= 0 && start < attachment.getContentLongSize(context)) {
-            InputStream data = attachment.getContentInputStream(context);
-            data = new BoundedInputStream(data, end + 1);
-            data.skip(start);
-            setCommonHeaders(attachment, request, response, context);
-            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-            if ((end - start + 1L) < Integer.MAX_VALUE) {
-                setContentLength(response, end - start + 1);
-            }
-            response.setHeader("Content-Range",
-                "bytes " + start + "-" + end + SEPARATOR + attachment.getContentLongSize(context));
-            IOUtils.copyLarge(data, response.getOutputStream());
-        } else {
-            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        setCommonHeaders(attachment, request, response, context);
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if ((end - start + 1L) < Integer.MAX_VALUE) {
+            setContentLength(response, end - start + 1);
         }
+        response.setHeader(CONTENT_RANGE_HEADER_NAME, getContentRange(start, end, attachment, context));
+        writeContent(attachment, start, end - start + 1, response.getOutputStream(), context);
+    }
+
+    /**
+     * Write several byte ranges from the attachment to the response, as a {@code multipart/byteranges} content.
+     *
+     * @param attachment the attachment to get content from
+     * @param ranges the first and last bytes of each range to write
+     * @param request the current client request
+     * @param response the response to write to.
+     * @param context the current request context
+     * @throws XWikiException if the attachment content cannot be retrieved
+     * @throws IOException if the response cannot be written
+     */
+    private void writeByteRanges(final XWikiAttachment attachment, List<Pair<Long, Long>> ranges,
+        final XWikiRequest request, final XWikiResponse response, final XWikiContext context)
+        throws XWikiException, IOException
+    {
+        String boundary = UUID.randomUUID().toString();
+        String mimetype = attachment.getMimeType(context);
+
+        setCommonHeaders(attachment, request, response, context);
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+
+        OutputStream output = response.getOutputStream();
+        for (Pair<Long, Long> range : ranges) {
+            String partHeaders = String.format("\r\n--%s\r\nContent-Type: %s\r\n%s: %s\r\n\r\n", boundary, mimetype,
+                CONTENT_RANGE_HEADER_NAME, getContentRange(range.getLeft(), range.getRight(), attachment, context));
+            output.write(partHeaders.getBytes(StandardCharsets.US_ASCII));
+            writeContent(attachment, range.getLeft(), range.getRight() - range.getLeft() + 1, output, context);
+        }
+        output.write(String.format("\r\n--%s--\r\n", boundary).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String getContentRange(long start, long end, XWikiAttachment attachment, XWikiContext context)
+        throws XWikiException
+    {
+        return "bytes " + start + "-" + end + SEPARATOR + attachment.getContentLongSize(context);
     }
 
     /**
@@ -283,19 +384,58 @@ private void writeByteRange(final XWikiAttachment attachment, Long start, Long e
     protected void sendContent(final XWikiAttachment attachment, final XWikiRequest request,
         final XWikiResponse response, final XWikiContext context) throws XWikiException
     {
-        InputStream stream = null;
         try {
             setCommonHeaders(attachment, request, response, context);
             setContentLength(response, attachment.getContentLongSize(context));
-            stream = attachment.getContentInputStream(context);
-            IOUtils.copy(stream, response.getOutputStream());
+            writeContent(attachment, 0, -1, response.getOutputStream(), context);
         } catch (IOException e) {
             throw new XWikiException(XWikiException.MODULE_XWIKI_APP,
                 XWikiException.ERROR_XWIKI_APP_SEND_RESPONSE_EXCEPTION, "Exception while sending response", e);
-        } finally {
-            if (stream != null) {
-                IOUtils.closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Write part of the attachment content to the output. The content is read directly from the requested position
+     * when the attachment store supports it.
+     *
+     * @param attachment the attachment to get content from
+     * @param start the first byte to write
+     * @param length the number of bytes to write, or -1 to write everything after the first byte
+     * @param output where to write the content
+     * @param context the current request context
+     * @throws XWikiException if the attachment content cannot be retrieved
+     * @throws IOException if the content cannot be written
+     */
+    private void writeContent(XWikiAttachment attachment, long start, long length, OutputStream output,
+        XWikiContext context) throws XWikiException, IOException
+    {
+        try (SeekableByteChannel channel = attachment.getContentChannel(context)) {
+            if (channel != null) {
+                channel.position(start);
+                copyContent(channel, length < 0 ? channel.size() - start : length, output);
+            } else {
+                // The stream has to be read from the beginning
+                try (InputStream stream = attachment.getContentInputStream(context)) {
+                    IOUtils.copyLarge(stream, output, start, length);
+                }
+            }
+        }
+    }
+
+    private void copyContent(ReadableByteChannel channel, long count, OutputStream output) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(count, 1)));
+        for (long remaining = count; remaining > 0;) {
+            buffer.clear();
+            if (remaining < buffer.capacity()) {
+                buffer.limit((int) remaining);
+            }
+            int read = channel.read(buffer);
+            if (read < 0) {
+                break;
             }
+            output.write(buffer.array(), 0, read);
+            remaining -= read;
         }
     }
 
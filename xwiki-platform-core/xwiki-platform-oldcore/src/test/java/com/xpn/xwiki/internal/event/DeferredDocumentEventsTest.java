@@ -0,0 +1,143 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.ObservationManager;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+import com.xpn.xwiki.test.MockitoOldcore;
+import com.xpn.xwiki.test.junit5.mockito.InjectMockitoOldcore;
+import com.xpn.xwiki.test.junit5.mockito.OldcoreTest;
+import com.xpn.xwiki.test.reference.ReferenceComponentList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Validate {@link DeferredDocumentEvents}.
+ * 
+ * @version $Id$
+ */
+@OldcoreTest
+@ReferenceComponentList
+public class DeferredDocumentEventsTest
+{
+    private static final DocumentReference REFERENCE_A = new DocumentReference("wiki", "space", "a");
+
+    private static final DocumentReference REFERENCE_B = new DocumentReference("otherwiki", "space", "b");
+
+    @InjectMockitoOldcore
+    private MockitoOldcore oldcore;
+
+    private XWikiContext xcontext;
+
+    private DeferredDocumentEvents events = new DeferredDocumentEvents();
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        this.xcontext = this.oldcore.getXWikiContext();
+        this.xcontext.setWikiId("wiki");
+    }
+
+    @Test
+    public void getCurrent() throws InterruptedException
+    {
+        assertNull(DeferredDocumentEvents.getCurrent(this.xcontext));
+
+        this.events.attach(this.xcontext);
+
+        assertSame(this.events, DeferredDocumentEvents.getCurrent(this.xcontext));
+
+        // Only the thread which attached the instance collects events
+        DeferredDocumentEvents[] otherThread = new DeferredDocumentEvents[] {this.events};
+        Thread thread = new Thread(() -> otherThread[0] = DeferredDocumentEvents.getCurrent(this.xcontext));
+        thread.start();
+        thread.join();
+        assertNull(otherThread[0]);
+
+        this.events.detach(this.xcontext);
+
+        assertNull(DeferredDocumentEvents.getCurrent(this.xcontext));
+    }
+
+    @Test
+    public void sendCoalescedEvents()
+    {
+        XWikiDocument originalA = new XWikiDocument(REFERENCE_A);
+        XWikiDocument firstA = new XWikiDocument(REFERENCE_A);
+        XWikiDocument lastA = new XWikiDocument(REFERENCE_A);
+        XWikiDocument originalB = new XWikiDocument(REFERENCE_B);
+        originalB.setNew(false);
+        XWikiDocument b = new XWikiDocument(REFERENCE_B);
+        XWikiDocument secondOriginalA = new XWikiDocument(REFERENCE_A);
+        secondOriginalA.setNew(false);
+
+        this.events.add(firstA, originalA);
+        this.events.add(b, originalB);
+        this.events.add(lastA, secondOriginalA);
+
+        assertEquals(2, this.events.size());
+
+        List<XWikiDocument> notifiedOriginals = new ArrayList<>();
+        List<String> notifiedWikis = new ArrayList<>();
+        ObservationManager observation = mock(ObservationManager.class);
+        doAnswer(invocation -> {
+            notifiedOriginals.add(invocation.<XWikiDocument>getArgument(1).getOriginalDocument());
+            notifiedWikis.add(invocation.<XWikiContext>getArgument(2).getWikiId());
+
+            return null;
+        }).when(observation).notify(any(), any(), any());
+
+        this.events.send(observation, this.xcontext);
+
+        InOrder order = inOrder(observation);
+        order.verify(observation).notify(any(DocumentCreatedEvent.class), same(lastA), same(this.xcontext));
+        order.verify(observation).notify(any(DocumentUpdatedEvent.class), same(b), same(this.xcontext));
+        verify(observation, never()).notify(any(), same(firstA), any());
+
+        // Listeners get the state before the first save and are executed in the document wiki
+        assertEquals(Arrays.asList(originalA, originalB), notifiedOriginals);
+        assertEquals(Arrays.asList("wiki", "otherwiki"), notifiedWikis);
+
+        assertEquals(0, this.events.size());
+        assertEquals("wiki", this.xcontext.getWikiId());
+        assertNull(lastA.getOriginalDocument());
+    }
+}
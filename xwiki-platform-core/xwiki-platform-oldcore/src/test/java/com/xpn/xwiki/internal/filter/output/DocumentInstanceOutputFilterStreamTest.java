@@ -23,6 +23,7 @@
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
@@ -31,12 +32,20 @@
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.suigeneris.jrcs.rcs.Version;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.xwiki.bridge.event.DocumentCreatedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.component.manager.ComponentLookupException;
 import org.xwiki.filter.FilterException;
 import org.xwiki.filter.instance.output.DocumentInstanceOutputProperties;
 import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.event.Event;
 import org.xwiki.rendering.syntax.Syntax;
 import org.xwiki.rendering.syntax.SyntaxType;
 
+import com.xpn.xwiki.XWikiContext;
 import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.doc.XWikiAttachment;
 import com.xpn.xwiki.doc.XWikiDocument;
@@ -45,11 +54,21 @@
 import com.xpn.xwiki.objects.BaseObject;
 import com.xpn.xwiki.objects.classes.BaseClass;
 import com.xpn.xwiki.objects.classes.NumberClass;
+import com.xpn.xwiki.store.XWikiHibernateStore;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Validate {@link DocumentInstanceOutputFilterStream}.
@@ -555,4 +574,131 @@ public void importDocumentWithRevisionsAndPreserveVersion() throws FilterExcepti
 
         assertEquals("42.3", document3.getVersion());
     }
+
+    private Session mockBatchTransaction(XWikiHibernateStore store) throws XWikiException
+    {
+        when(store.beginTransaction(any(XWikiContext.class))).thenReturn(true);
+        Session session = mock(Session.class);
+        when(store.getSession(any(XWikiContext.class))).thenReturn(session);
+
+        return session;
+    }
+
+    private EventListener registerSaveListener() throws ComponentLookupException
+    {
+        EventListener listener = mock(EventListener.class);
+        when(listener.getName()).thenReturn("batchlistener");
+        when(listener.getEvents())
+            .thenReturn(Arrays.<Event>asList(new DocumentCreatedEvent(), new DocumentUpdatedEvent()));
+        this.oldcore.getObservationManager().addListener(listener);
+
+        return listener;
+    }
+
+    private List<String> recordCommittedWikis(XWikiHibernateStore store, boolean commit)
+    {
+        List<String> wikis = new ArrayList<>();
+        doAnswer(invocation -> wikis.add(invocation.<XWikiContext>getArgument(0).getWikiId())).when(store)
+            .endTransaction(any(XWikiContext.class), eq(commit));
+
+        return wikis;
+    }
+
+    private void assertDocumentExists(DocumentReference reference) throws XWikiException
+    {
+        assertFalse(this.oldcore.getSpyXWiki().getDocument(reference, this.oldcore.getXWikiContext()).isNew());
+    }
+
+    @Test
+    public void importDocumentWithRevisionsInBatch() throws Exception
+    {
+        XWikiHibernateStore store = (XWikiHibernateStore) this.oldcore.getMockStore();
+        Session session = mockBatchTransaction(store);
+        EventListener listener = registerSaveListener();
+
+        DocumentInstanceOutputProperties outputProperties = new DocumentInstanceOutputProperties();
+
+        outputProperties.setVersionPreserved(true);
+        outputProperties.setVerbose(false);
+        outputProperties.setBatchSize(10);
+
+        importFromXML("documentwithrevisions", outputProperties);
+
+        XWikiDocument document = this.oldcore.getSpyXWiki().getDocument(new DocumentReference("wiki", "space", "page"),
+            this.oldcore.getXWikiContext());
+
+        assertFalse(document.isNew());
+        assertEquals("42.3", document.getVersion());
+        assertEquals(3, document.getRevisions(this.oldcore.getXWikiContext()).length);
+
+        // The 3 revisions are saved in a single transaction
+        verify(store).beginTransaction(any(XWikiContext.class));
+        verify(store).endTransaction(any(XWikiContext.class), eq(true));
+        verify(session, times(3)).flush();
+
+        // Listeners are notified once, after the commit
+        verify(listener).onEvent(any(DocumentCreatedEvent.class), any(), any());
+        verify(listener, never()).onEvent(any(DocumentUpdatedEvent.class), any(), any());
+    }
+
+    @Test
+    public void importDocumentsInBatch() throws Exception
+    {
+        XWikiHibernateStore store = (XWikiHibernateStore) this.oldcore.getMockStore();
+        Session session = mockBatchTransaction(store);
+        EventListener listener = registerSaveListener();
+        List<String> committedWikis = recordCommittedWikis(store, true);
+
+        DocumentInstanceOutputProperties outputProperties = new DocumentInstanceOutputProperties();
+
+        outputProperties.setVerbose(false);
+        outputProperties.setBatchSize(2);
+
+        importFromXML("documentsinbatch", outputProperties);
+
+        assertDocumentExists(new DocumentReference("wiki", "space", "page1"));
+        assertDocumentExists(new DocumentReference("wiki", "space", "page2"));
+        assertDocumentExists(new DocumentReference("wiki", "space", "page3"));
+        assertDocumentExists(new DocumentReference("otherwiki", "space", "page4"));
+
+        // A full batch, a batch committed because the next document is in another wiki and the last batch committed
+        // when closing the stream
+        assertEquals(Arrays.asList("wiki", "wiki", "otherwiki"), committedWikis);
+        verify(store, times(3)).beginTransaction(any(XWikiContext.class));
+        verify(store, never()).endTransaction(any(XWikiContext.class), eq(false));
+        verify(session, times(4)).flush();
+
+        verify(listener, times(4)).onEvent(any(DocumentCreatedEvent.class), any(), any());
+    }
+
+    @Test
+    public void importDocumentsInBatchWithFailingSave() throws Exception
+    {
+        XWikiHibernateStore store = (XWikiHibernateStore) this.oldcore.getMockStore();
+        Session session = mockBatchTransaction(store);
+        // The second document of the first batch cannot be saved in the transaction
+        doNothing().doThrow(new HibernateException("flush failed")).doNothing().when(session).flush();
+        EventListener listener = registerSaveListener();
+        List<String> committedWikis = recordCommittedWikis(store, true);
+        List<String> rolledbackWikis = recordCommittedWikis(store, false);
+
+        DocumentInstanceOutputProperties outputProperties = new DocumentInstanceOutputProperties();
+
+        outputProperties.setVerbose(false);
+        outputProperties.setBatchSize(10);
+
+        importFromXML("documentsinbatch", outputProperties);
+
+        assertDocumentExists(new DocumentReference("wiki", "space", "page1"));
+        assertDocumentExists(new DocumentReference("wiki", "space", "page2"));
+        assertDocumentExists(new DocumentReference("wiki", "space", "page3"));
+        assertDocumentExists(new DocumentReference("otherwiki", "space", "page4"));
+
+        // The first batch is canceled and its documents saved one by one, then a new batch is started
+        assertEquals(Arrays.asList("wiki"), rolledbackWikis);
+        assertEquals(Arrays.asList("wiki", "otherwiki"), committedWikis);
+
+        // The events of the canceled batch are forgotten, only the replayed saves and the committed batches notify
+        verify(listener, times(4)).onEvent(any(), any(), any());
+    }
 }
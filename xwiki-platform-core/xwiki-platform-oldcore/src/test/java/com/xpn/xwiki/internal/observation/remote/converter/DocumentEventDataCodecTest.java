@@ -0,0 +1,153 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.observation.remote.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.bridge.event.DocumentDeletedEvent;
+import org.xwiki.bridge.event.DocumentUpdatedEvent;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.observation.remote.RemoteEventData;
+import org.xwiki.observation.remote.codec.RemoteEventDataInput;
+import org.xwiki.observation.remote.codec.RemoteEventDataOutput;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link DocumentEventDataCodec}.
+ *
+ * @version $Id$
+ */
+public class DocumentEventDataCodecTest
+{
+    private static final DocumentReference DOCUMENT_REFERENCE =
+        new DocumentReference("wiki", Arrays.asList("space1", "space2"), "page", Locale.FRENCH);
+
+    private DocumentEventDataCodec codec = new DocumentEventDataCodec();
+
+    private RemoteEventData createRemoteEvent(Serializable event)
+    {
+        HashMap<String, Serializable> source = new HashMap<>();
+        source.put(AbstractXWikiEventConverter.DOC_NAME, DOCUMENT_REFERENCE);
+        source.put(AbstractXWikiEventConverter.DOC_VERSION, "2.1");
+        source.put(AbstractXWikiEventConverter.DOC_LANGUAGE, "fr");
+        source.put(AbstractXWikiEventConverter.ORIGDOC_VERSION, "1.1");
+        source.put(AbstractXWikiEventConverter.ORIGDOC_LANGUAGE, "fr");
+
+        HashMap<String, Serializable> data = new HashMap<>();
+        data.put(AbstractXWikiEventConverter.CONTEXT_WIKI, "wiki");
+        data.put(AbstractXWikiEventConverter.CONTEXT_USER, "wiki:XWiki.User");
+
+        return new RemoteEventData(event, source, data);
+    }
+
+    private byte[] encode(RemoteEventData remoteEvent) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        this.codec.encode(remoteEvent, new RemoteEventDataOutput(new DataOutputStream(bytes)));
+
+        return bytes.toByteArray();
+    }
+
+    private RemoteEventData decode(byte[] bytes) throws IOException
+    {
+        return this.codec
+            .decode(new RemoteEventDataInput(new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+
+    @Test
+    public void encodeDecode() throws IOException
+    {
+        RemoteEventData remoteEvent = createRemoteEvent(new DocumentUpdatedEvent(DOCUMENT_REFERENCE));
+
+        assertTrue(this.codec.canEncode(remoteEvent));
+
+        RemoteEventData decodedEvent = decode(encode(remoteEvent));
+
+        assertSame(DocumentUpdatedEvent.class, decodedEvent.getEvent().getClass());
+        assertEquals(((DocumentUpdatedEvent) remoteEvent.getEvent()).getEventFilter().getFilter(),
+            ((DocumentUpdatedEvent) decodedEvent.getEvent()).getEventFilter().getFilter());
+        assertEquals(remoteEvent.getSource(), decodedEvent.getSource());
+        assertEquals(remoteEvent.getData(), decodedEvent.getData());
+    }
+
+    @Test
+    public void encodeDecodeNewDocumentWithoutFilter() throws IOException
+    {
+        RemoteEventData remoteEvent = createRemoteEvent(new DocumentDeletedEvent());
+        ((HashMap<?, ?>) remoteEvent.getSource()).remove(AbstractXWikiEventConverter.DOC_VERSION);
+        ((HashMap<?, ?>) remoteEvent.getSource()).remove(AbstractXWikiEventConverter.DOC_LANGUAGE);
+
+        RemoteEventData decodedEvent = decode(encode(remoteEvent));
+
+        assertSame(DocumentDeletedEvent.class, decodedEvent.getEvent().getClass());
+        assertTrue(((DocumentDeletedEvent) decodedEvent.getEvent()).matches(new DocumentDeletedEvent(
+            new DocumentReference("otherwiki", "otherspace", "otherpage"))));
+        assertEquals(remoteEvent.getSource(), decodedEvent.getSource());
+        assertNull(((HashMap<?, ?>) decodedEvent.getSource()).get(AbstractXWikiEventConverter.DOC_VERSION));
+    }
+
+    @Test
+    public void canEncode()
+    {
+        assertFalse(this.codec.canEncode(new RemoteEventData(new DocumentUpdatedEvent(), "source", null)));
+
+        RemoteEventData remoteEvent = createRemoteEvent(new DocumentUpdatedEvent());
+        ((HashMap<String, Serializable>) remoteEvent.getData()).put("other", "value");
+        assertFalse(this.codec.canEncode(remoteEvent));
+
+        DocumentUpdatedEvent canceledEvent = new DocumentUpdatedEvent();
+        canceledEvent.cancel();
+        assertFalse(this.codec.canEncode(createRemoteEvent(canceledEvent)));
+    }
+
+    /**
+     * Compare the size of the encoded event with its Java serialization.
+     */
+    @Test
+    public void encodedSize() throws IOException
+    {
+        RemoteEventData remoteEvent = createRemoteEvent(new DocumentUpdatedEvent(DOCUMENT_REFERENCE));
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(serialized)) {
+            stream.writeObject(remoteEvent);
+        }
+
+        int encodedSize = encode(remoteEvent).length;
+
+        assertTrue(encodedSize * 5 < serialized.size(),
+            "Encoded size [" + encodedSize + "] is not 5 times smaller than [" + serialized.size() + "]");
+    }
+}
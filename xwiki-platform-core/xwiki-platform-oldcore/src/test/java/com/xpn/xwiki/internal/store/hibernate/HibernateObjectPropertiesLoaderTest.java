@@ -0,0 +1,175 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store.hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.xpn.xwiki.objects.BaseProperty;
+import com.xpn.xwiki.objects.IntegerProperty;
+import com.xpn.xwiki.objects.LargeStringProperty;
+import com.xpn.xwiki.objects.StringProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link HibernateObjectPropertiesLoader}.
+ *
+ * @version $Id$
+ */
+public class HibernateObjectPropertiesLoaderTest
+{
+    private Session session;
+
+    private List<Object[]> rows = new ArrayList<>();
+
+    private List<BaseProperty> stored = new ArrayList<>();
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        this.session = mock(Session.class);
+
+        Query<Object[]> metadataQuery = mockQuery(ids -> this.rows.stream()
+            .filter(row -> ids.contains(row[0])).collect(Collectors.toList()));
+        when(this.session.createQuery(contains("from BaseProperty as prop"), same(Object[].class)))
+            .thenReturn(metadataQuery);
+
+        mockTypedQuery(StringProperty.class);
+        mockTypedQuery(IntegerProperty.class);
+        mockTypedQuery(LargeStringProperty.class);
+    }
+
+    private void mockTypedQuery(Class<? extends BaseProperty> type)
+    {
+        Query<BaseProperty> query = mockQuery(ids -> this.stored.stream()
+            .filter(property -> property.getClass() == type && ids.contains(property.getId()))
+            .collect(Collectors.toList()));
+        when(this.session.createQuery(eq("select prop from " + type.getName()
+            + " as prop where prop.id.id in (:ids) and prop.classType = :classType"), same(BaseProperty.class)))
+                .thenReturn(query);
+    }
+
+    private <T> Query<T> mockQuery(Function<Collection<?>, List<T>> result)
+    {
+        Query<T> query = mock(Query.class);
+
+        List<Collection<?>> ids = new ArrayList<>();
+        doAnswer(invocation -> {
+            ids.add(invocation.getArgument(1));
+            return query;
+        }).when(query).setParameterList(anyString(), any(Collection.class));
+        when(query.list()).then(invocation -> result.apply(ids.get(ids.size() - 1)));
+
+        return query;
+    }
+
+    private void addProperty(long id, String name, BaseProperty property, boolean stored)
+    {
+        property.setId(id);
+        property.setName(name);
+
+        this.rows.add(new Object[] { id, name, property.getClass().getName() });
+        if (stored) {
+            this.stored.add(property);
+        }
+    }
+
+    private List<Long> addObjects(int count)
+    {
+        List<Long> ids = LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+
+        for (long id : ids) {
+            StringProperty title = new StringProperty();
+            title.setValue("title" + id);
+            addProperty(id, "title", title, true);
+            IntegerProperty number = new IntegerProperty();
+            number.setValue((int) id);
+            addProperty(id, "number", number, true);
+        }
+
+        return ids;
+    }
+
+    @Test
+    public void load()
+    {
+        List<Long> ids = addObjects(200);
+
+        // Stored as NULL by Oracle
+        addProperty(1, "empty", new StringProperty(), true);
+        // Stored type does not match the table
+        addProperty(2, "text", new LargeStringProperty(), false);
+
+        HibernateObjectPropertiesLoader loader = new HibernateObjectPropertiesLoader(this.session);
+        loader.load(ids);
+
+        // One query for the metadata and one for each type, while loading them object by object would cost at least
+        // one query for the metadata of each object and one query for each property
+        assertEquals(4, loader.getQueryCount());
+
+        assertEquals(3, loader.getClassTypes(1).size());
+        assertEquals("title1", ((StringProperty) loader.getProperty(1, "title")).getValue());
+        assertEquals(1, ((IntegerProperty) loader.getProperty(1, "number")).getValue());
+        assertEquals("", ((StringProperty) loader.getProperty(1, "empty")).getValue());
+        assertFalse(loader.getProperty(1, "empty").isValueDirty());
+
+        assertEquals(LargeStringProperty.class.getName(), loader.getClassTypes(2).get("text"));
+        assertNull(loader.getProperty(2, "text"));
+
+        assertEquals("title200", ((StringProperty) loader.getProperty(200, "title")).getValue());
+        assertTrue(loader.getClassTypes(201).isEmpty());
+    }
+
+    @Test
+    public void loadManyObjects()
+    {
+        List<Long> ids = addObjects(2500);
+
+        HibernateObjectPropertiesLoader loader = new HibernateObjectPropertiesLoader(this.session);
+        loader.load(ids);
+
+        // The identifiers are split in chunks of 1000
+        assertEquals(9, loader.getQueryCount());
+
+        assertEquals("title2500", ((StringProperty) loader.getProperty(2500, "title")).getValue());
+        assertEquals(1001, ((IntegerProperty) loader.getProperty(1001, "number")).getValue());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.internal.store.hibernate.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validate {@link HqlStatementCache}.
+ * 
+ * @version $Id$
+ */
+public class HqlStatementCacheTest
+{
+    private final List<String> analyzed = new ArrayList<>();
+
+    private final HqlStatementCache cache = new HqlStatementCache(2, statement -> {
+        this.analyzed.add(statement);
+
+        return HqlQueryUtils.isSafe(statement);
+    });
+
+    @Test
+    public void isSafe()
+    {
+        assertTrue(this.cache.isSafe("select name from XWikiDocument"));
+        assertFalse(this.cache.isSafe("select name from OtherTable"));
+        assertTrue(this.cache.isSafe("select name from XWikiDocument"));
+        assertFalse(this.cache.isSafe("select name from OtherTable"));
+
+        assertEquals(Arrays.asList("select name from XWikiDocument", "select name from OtherTable"),
+            this.analyzed);
+        assertEquals(2, this.cache.getHitCount());
+        assertEquals(2, this.cache.getMissCount());
+        assertEquals(2, this.cache.getSize());
+
+        this.cache.resetStatistics();
+
+        assertEquals(0, this.cache.getHitCount());
+        assertEquals(0, this.cache.getMissCount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed()
+    {
+        this.cache.isSafe("select name from XWikiDocument");
+        this.cache.isSafe("select title from XWikiDocument");
+        this.cache.isSafe("select name from XWikiDocument");
+        this.cache.isSafe("select count(*) from XWikiSpace");
+        this.cache.isSafe("select name from XWikiDocument");
+        this.cache.isSafe("select title from XWikiDocument");
+
+        assertEquals(Arrays.asList("select name from XWikiDocument", "select title from XWikiDocument",
+            "select count(*) from XWikiSpace", "select title from XWikiDocument"), this.analyzed);
+        assertEquals(2, this.cache.getSize());
+
+        this.cache.clear();
+
+        assertEquals(0, this.cache.getSize());
+    }
+}
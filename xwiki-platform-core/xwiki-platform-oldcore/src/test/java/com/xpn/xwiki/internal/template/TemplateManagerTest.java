@@ -34,6 +34,7 @@
 import org.xwiki.configuration.ConfigurationSource;
 import org.xwiki.configuration.internal.MemoryConfigurationSource;
 import org.xwiki.environment.Environment;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.observation.ObservationManager;
 import org.xwiki.rendering.RenderingException;
@@ -61,6 +62,7 @@
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -78,6 +80,8 @@
 
     private VelocityManager velocityManagerMock;
 
+    private JMXBeanRegistration jmxRegistrationMock;
+
     @InjectMockComponents
     private DefaultTemplateManager templateManager;
 
@@ -95,9 +99,12 @@ public void afterComponent() throws Exception
         this.authorizationMock = this.componentManager.registerMockComponent(AuthorizationManager.class);
         this.environmentMock = this.componentManager.registerMockComponent(Environment.class);
         this.velocityManagerMock = this.componentManager.registerMockComponent(VelocityManager.class);
+        this.jmxRegistrationMock = this.componentManager.registerMockComponent(JMXBeanRegistration.class);
 
         MemoryConfigurationSource configuration = this.componentManager.registerMemoryConfigurationSource();
         this.componentManager.registerComponent(MockConfigurationSource.getDescriptor("all"), configuration);
+        this.componentManager.registerComponent(MockConfigurationSource.getDescriptor("xwikiproperties"),
+            configuration);
     }
 
     @BeforeEach
@@ -177,6 +184,32 @@ public void testRenderWiki() throws Exception
         assertEquals("<p>first line<br/>second line</p>", this.templateManager.render("template"));
     }
 
+    @Test
+    public void testRenderWikiFromCache() throws Exception
+    {
+        TemplateXDOMCache cache = this.componentManager.getInstance(TemplateXDOMCache.class);
+
+        verify(this.jmxRegistrationMock).registerMBean(cache, "type=Template,name=xdomcache");
+
+        setTemplateContent("##!source.syntax=xwiki/2.1\nfirst line\\\\second line");
+
+        assertEquals("<p>first line<br/>second line</p>", this.templateManager.render("template"));
+        assertEquals(0, cache.getHitCount());
+
+        setTemplateContent("##!source.syntax=xwiki/2.1\nfirst line\\\\second line");
+
+        assertEquals("<p>first line<br/>second line</p>", this.templateManager.render("template"));
+        assertEquals(1, cache.getHitCount());
+
+        // A modified template is parsed again
+        setTemplateContent("##!source.syntax=xwiki/2.1\nother line");
+
+        assertEquals("<p>other line</p>", this.templateManager.render("template"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0 / 3, cache.getHitRatio(), 0);
+    }
+
     @Test
     public void testRenderClassloaderTemplate() throws Exception
     {
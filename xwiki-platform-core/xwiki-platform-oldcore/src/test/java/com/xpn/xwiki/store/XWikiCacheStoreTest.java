@@ -19,10 +19,22 @@
  */
 package com.xpn.xwiki.store;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.xwiki.cache.Cache;
 import org.xwiki.cache.CacheManager;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.internal.reference.UidStringEntityReferenceSerializer;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.EntityReferenceSerializer;
@@ -39,11 +51,16 @@
 import static com.xpn.xwiki.test.mockito.OldcoreMatchers.isCacheConfiguration;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -55,7 +72,7 @@
  * @version $Id$
  */
 @OldcoreTest
-@ComponentList(UidStringEntityReferenceSerializer.class)
+@ComponentList({ UidStringEntityReferenceSerializer.class, XWikiCacheStore.class })
 public class XWikiCacheStoreTest
 {    
     @InjectMockitoOldcore
@@ -143,4 +160,243 @@ public void saveXWikiDocumentFailing() throws XWikiException
         verify(this.cache).remove("4:wiki5:space4:page0:");
         verify(this.existCache).remove("4:wiki5:space4:page0:");
     }
+
+    @Test
+    public void loadXWikiDocConcurrently() throws Exception
+    {
+        // Set current wiki
+        this.oldcore.getXWikiContext().setWikiId("wiki");
+
+        DocumentReference reference = new DocumentReference("wiki", "space", "page");
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        XWikiStoreInterface backend = mock(XWikiStoreInterface.class);
+        when(backend.loadXWikiDoc(any(), any())).then(invocation -> {
+            loading.countDown();
+            release.await();
+
+            XWikiDocument document = invocation.getArgument(0);
+            document.setNew(false);
+
+            return document;
+        });
+        when(this.existCache.get("4:wiki5:space4:page0:")).then(invocation -> {
+            if (loading.getCount() == 0) {
+                // The second thread is about to wait for the first one
+                waiting.countDown();
+            }
+
+            return null;
+        });
+
+        XWikiCacheStore store = new XWikiCacheStore(backend, this.oldcore.getXWikiContext());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<XWikiDocument> first = executor
+                .submit(() -> store.loadXWikiDoc(new XWikiDocument(reference), this.oldcore.getXWikiContext()));
+            loading.await(10, TimeUnit.SECONDS);
+
+            Future<XWikiDocument> second = executor
+                .submit(() -> store.loadXWikiDoc(new XWikiDocument(reference), this.oldcore.getXWikiContext()));
+            waiting.await(10, TimeUnit.SECONDS);
+
+            // Give some time to the second thread to start waiting
+            Thread.sleep(100);
+            release.countDown();
+
+            XWikiDocument firstDocument = first.get(10, TimeUnit.SECONDS);
+            XWikiDocument secondDocument = second.get(10, TimeUnit.SECONDS);
+
+            assertFalse(firstDocument.isNew());
+            assertSame(firstDocument, secondDocument);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(backend).loadXWikiDoc(any(), any());
+        verify(this.cache).set(eq("4:wiki5:space4:page0:"), any(XWikiDocument.class));
+    }
+
+    @Test
+    public void existsConcurrently() throws Exception
+    {
+        // Set current wiki
+        this.oldcore.getXWikiContext().setWikiId("wiki");
+
+        DocumentReference reference = new DocumentReference("wiki", "space", "page");
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        XWikiStoreInterface backend = mock(XWikiStoreInterface.class);
+        when(backend.exists(any(), any())).then(invocation -> {
+            loading.countDown();
+            release.await();
+
+            return false;
+        });
+        when(this.existCache.get("4:wiki5:space4:page0:")).then(invocation -> {
+            if (loading.getCount() == 0) {
+                waiting.countDown();
+            }
+
+            return null;
+        });
+
+        XWikiCacheStore store = new XWikiCacheStore(backend, this.oldcore.getXWikiContext());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first =
+                executor.submit(() -> store.exists(new XWikiDocument(reference), this.oldcore.getXWikiContext()));
+            loading.await(10, TimeUnit.SECONDS);
+
+            Future<Boolean> second =
+                executor.submit(() -> store.exists(new XWikiDocument(reference), this.oldcore.getXWikiContext()));
+            waiting.await(10, TimeUnit.SECONDS);
+
+            // Give some time to the second thread to start waiting
+            Thread.sleep(100);
+            release.countDown();
+
+            assertFalse(first.get(10, TimeUnit.SECONDS));
+            assertFalse(second.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(backend).exists(any(), any());
+        verify(this.existCache).set("4:wiki5:space4:page0:", Boolean.FALSE);
+    }
+
+    @Test
+    public void loadXWikiDocs() throws Exception
+    {
+        // Set current wiki
+        this.oldcore.getXWikiContext().setWikiId("wiki");
+
+        DocumentReference cachedReference = new DocumentReference("wiki", "space", "cached");
+        DocumentReference notExistingReference = new DocumentReference("wiki", "space", "notexisting");
+        DocumentReference existingReference = new DocumentReference("wiki", "space", "existing");
+        DocumentReference newReference = new DocumentReference("wiki", "space", "new");
+
+        XWikiDocument cachedDocument = new XWikiDocument(cachedReference);
+        when(this.cache.get("4:wiki5:space6:cached0:")).thenReturn(cachedDocument);
+        when(this.existCache.get("4:wiki5:space11:notexisting0:")).thenReturn(Boolean.FALSE);
+
+        XWikiStoreInterface backend = mock(XWikiStoreInterface.class);
+        when(backend.loadXWikiDocs(any(), any())).then(invocation -> {
+            List<XWikiDocument> documents = new ArrayList<>();
+            for (DocumentReference reference : invocation.<Collection<DocumentReference>>getArgument(0)) {
+                XWikiDocument document = new XWikiDocument(reference);
+                document.setNew(!reference.equals(existingReference));
+                documents.add(document);
+            }
+
+            return documents;
+        });
+
+        XWikiCacheStore store = new XWikiCacheStore(backend, this.oldcore.getXWikiContext());
+
+        List<XWikiDocument> documents = store.loadXWikiDocs(
+            Arrays.asList(cachedReference, notExistingReference, existingReference, newReference),
+            this.oldcore.getXWikiContext());
+
+        assertEquals(4, documents.size());
+        assertSame(cachedDocument, documents.get(0));
+        assertTrue(documents.get(1).isNew());
+        assertEquals(notExistingReference, documents.get(1).getDocumentReference());
+        assertFalse(documents.get(2).isNew());
+        assertEquals(existingReference, documents.get(2).getDocumentReference());
+        assertTrue(documents.get(3).isNew());
+        assertEquals(newReference, documents.get(3).getDocumentReference());
+
+        // Only the missing documents are loaded and they are loaded all at once
+        verify(backend).loadXWikiDocs(Arrays.asList(existingReference, newReference), this.oldcore.getXWikiContext());
+        verify(backend, never()).loadXWikiDoc(any(), any());
+
+        verify(this.cache).set("4:wiki5:space8:existing0:", documents.get(2));
+        verify(this.existCache).set("4:wiki5:space8:existing0:", Boolean.TRUE);
+        verify(this.existCache).set("4:wiki5:space3:new0:", Boolean.FALSE);
+    }
+
+    @Test
+    public void loadXWikiDocWhenWaitingTooLong() throws Exception
+    {
+        // Set current wiki
+        this.oldcore.getXWikiContext().setWikiId("wiki");
+        this.oldcore.getMockXWikiCfg().setProperty("xwiki.store.cache.loadWaitTimeout", 100L);
+
+        DocumentReference reference = new DocumentReference("wiki", "space", "page");
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        XWikiStoreInterface backend = mock(XWikiStoreInterface.class);
+        when(backend.loadXWikiDoc(any(), any())).then(invocation -> {
+            if (loading.getCount() > 0) {
+                // The first load is stuck
+                loading.countDown();
+                release.await();
+            }
+
+            XWikiDocument document = invocation.getArgument(0);
+            document.setNew(false);
+
+            return document;
+        });
+
+        XWikiCacheStore store = new XWikiCacheStore(backend, this.oldcore.getXWikiContext());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<XWikiDocument> first = executor
+                .submit(() -> store.loadXWikiDoc(new XWikiDocument(reference), this.oldcore.getXWikiContext()));
+            loading.await(10, TimeUnit.SECONDS);
+
+            // The second thread stops waiting for the first one and loads the document itself
+            XWikiDocument secondDocument = executor
+                .submit(() -> store.loadXWikiDoc(new XWikiDocument(reference), this.oldcore.getXWikiContext()))
+                .get(10, TimeUnit.SECONDS);
+
+            assertFalse(secondDocument.isNew());
+            verify(backend, times(2)).loadXWikiDoc(any(), any());
+            verify(this.cache, never()).set(any(), any());
+
+            release.countDown();
+
+            assertFalse(first.get(10, TimeUnit.SECONDS).isNew());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Only the first load is cached
+        verify(this.cache).set(eq("4:wiki5:space4:page0:"), any(XWikiDocument.class));
+    }
+
+    @Test
+    public void registerMBeanForEachInstance() throws Exception
+    {
+        JMXBeanRegistration jmxRegistration =
+            this.oldcore.getMocker().registerMockComponent(JMXBeanRegistration.class);
+
+        XWikiCacheStore store1 = this.oldcore.getMocker().getInstance(XWikiStoreInterface.class, "cache");
+        XWikiCacheStore store2 = this.oldcore.getMocker().getInstance(XWikiStoreInterface.class, "cache");
+
+        assertNotSame(store1, store2);
+
+        ArgumentCaptor<String> names = ArgumentCaptor.forClass(String.class);
+        verify(jmxRegistration, times(2)).registerMBean(any(), names.capture());
+        assertNotEquals(names.getAllValues().get(0), names.getAllValues().get(1));
+
+        store1.dispose();
+
+        verify(jmxRegistration).unregisterMBean(names.getAllValues().get(0));
+        verify(jmxRegistration, never()).unregisterMBean(names.getAllValues().get(1));
+    }
 }
@@ -0,0 +1,321 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.xpn.xwiki.store;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.ObjectNotFoundException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.LocalDocumentReference;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiAttachment;
+import com.xpn.xwiki.doc.XWikiDocument;
+import com.xpn.xwiki.internal.store.hibernate.HibernateConfiguration;
+import com.xpn.xwiki.internal.store.hibernate.HibernateStore;
+import com.xpn.xwiki.objects.BaseObject;
+import com.xpn.xwiki.objects.BaseProperty;
+import com.xpn.xwiki.objects.IntegerProperty;
+import com.xpn.xwiki.objects.StringProperty;
+import com.xpn.xwiki.test.MockitoOldcore;
+import com.xpn.xwiki.test.junit5.mockito.InjectMockitoOldcore;
+import com.xpn.xwiki.test.junit5.mockito.OldcoreTest;
+import com.xpn.xwiki.test.reference.ReferenceComponentList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate that {@link XWikiHibernateStore#loadXWikiDocs(Collection, XWikiContext)} loads the same documents as
+ * {@link XWikiHibernateStore#loadXWikiDoc(XWikiDocument, XWikiContext)}.
+ *
+ * @version $Id$
+ */
+@OldcoreTest
+@ReferenceComponentList
+public class XWikiHibernateStoreLoadTest
+{
+    private static final DocumentReference DOCUMENT_REFERENCE = new DocumentReference("xwiki", "Space", "Page");
+
+    private static final DocumentReference MISSING_REFERENCE = new DocumentReference("xwiki", "Space", "Missing");
+
+    private static final LocalDocumentReference CLASS_REFERENCE = new LocalDocumentReference("Space", "Class");
+
+    @InjectMockitoOldcore
+    private MockitoOldcore oldcore;
+
+    @InjectMockComponents
+    private XWikiHibernateStore store;
+
+    @MockComponent
+    private HibernateStore hibernateStore;
+
+    @MockComponent
+    private HibernateConfiguration hibernateConfiguration;
+
+    @Mock
+    private Session session;
+
+    private final List<Long> objectIds = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach()
+    {
+        when(this.hibernateStore.getSessionFactory()).thenReturn(mock(SessionFactory.class));
+        when(this.hibernateStore.getCurrentSession()).thenReturn(this.session);
+
+        // The database rows
+        long documentId = new XWikiDocument(DOCUMENT_REFERENCE).getId();
+        doAnswer(invocation -> {
+            XWikiDocument document = invocation.getArgument(0);
+            if (!invocation.getArgument(1).equals(documentId)) {
+                throw new ObjectNotFoundException(invocation.getArgument(1), XWikiDocument.class.getName());
+            }
+            fillDocument(document);
+            return null;
+        }).when(this.session).load(any(XWikiDocument.class), any(Serializable.class));
+        doAnswer(invocation -> {
+            BaseProperty property = invocation.getArgument(0);
+            property.setValue(getProperty(property.getId(), property.getName()).getValue());
+            return null;
+        }).when(this.session).load(any(BaseProperty.class), any(Serializable.class));
+
+        this.objectIds.add(newObject(0).getId());
+        this.objectIds.add(newObject(1).getId());
+
+        when(this.session.createQuery(anyString(), any(Class.class)))
+            .then(invocation -> mockQuery(invocation.getArgument(0)));
+    }
+
+    private void fillDocument(XWikiDocument document)
+    {
+        document.setContent("content");
+        document.setTitle("title");
+        document.setVersion("2.1");
+        document.setDate(new Date(1000L));
+        document.setCreationDate(new Date(2000L));
+        document.setContentUpdateDate(new Date(3000L));
+        document.setElements(XWikiDocument.HAS_ATTACHMENTS | XWikiDocument.HAS_OBJECTS);
+    }
+
+    private XWikiAttachment newAttachment()
+    {
+        XWikiAttachment attachment = new XWikiAttachment();
+        attachment.setFilename("file.txt");
+        attachment.setLongSize(42);
+        attachment.setDate(new Date(4000L));
+
+        return attachment;
+    }
+
+    private BaseObject newObject(int number)
+    {
+        BaseObject object = new BaseObject();
+        object.setDocumentReference(DOCUMENT_REFERENCE);
+        object.setXClassReference(CLASS_REFERENCE);
+        object.setNumber(number);
+        object.setGuid("guid" + number);
+
+        return object;
+    }
+
+    private List<BaseProperty> getProperties(long objectId)
+    {
+        StringProperty title = new StringProperty();
+        title.setId(objectId);
+        title.setName("title");
+        title.setValue("title" + objectId);
+        IntegerProperty count = new IntegerProperty();
+        count.setId(objectId);
+        count.setName("count");
+        count.setValue(42);
+
+        return Arrays.asList(title, count);
+    }
+
+    private BaseProperty getProperty(long objectId, String name)
+    {
+        return getProperties(objectId).stream().filter(property -> property.getName().equals(name)).findFirst()
+            .orElse(null);
+    }
+
+    private Query<?> mockQuery(String statement)
+    {
+        Query<Object> query = mock(Query.class);
+
+        Map<String, Object> parameters = new HashMap<>();
+        doAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        }).when(query).setParameter(anyString(), any());
+        doAnswer(invocation -> {
+            parameters.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        }).when(query).setParameterList(anyString(), any(Collection.class));
+        when(query.list()).then(invocation -> select(statement, parameters));
+
+        return query;
+    }
+
+    private List<?> select(String statement, Map<String, Object> parameters)
+    {
+        if (statement.startsWith("from XWikiDocument as doc where doc.id in")) {
+            XWikiDocument document = new XWikiDocument(DOCUMENT_REFERENCE);
+            fillDocument(document);
+            return ((Collection<?>) parameters.get("ids")).contains(document.getId())
+                ? Collections.singletonList(document) : Collections.emptyList();
+        } else if (statement.startsWith("from XWikiAttachment")) {
+            return Collections.singletonList(newAttachment());
+        } else if (statement.startsWith("select attach.docId, attach from XWikiAttachment")) {
+            return Collections.singletonList(new Object[] { new XWikiDocument(DOCUMENT_REFERENCE).getId(),
+                newAttachment() });
+        } else if (statement.startsWith("from BaseObject")) {
+            return Arrays.asList(newObject(0), newObject(1));
+        } else if (statement.startsWith("select prop.name, prop.classType from BaseProperty")) {
+            return getProperties((Long) parameters.get("id")).stream()
+                .map(property -> new Object[] { property.getName(), property.getClass().getName() })
+                .collect(Collectors.toList());
+        } else if (statement.startsWith("select prop.id.id, prop.name, prop.classType from BaseProperty")) {
+            return ((Collection<Long>) parameters.get("ids")).stream().flatMap(id -> getProperties(id).stream())
+                .map(property -> new Object[] { property.getId(), property.getName(), property.getClass().getName() })
+                .collect(Collectors.toList());
+        } else if (statement.startsWith("select prop from ")) {
+            return ((Collection<Long>) parameters.get("ids")).stream().flatMap(id -> getProperties(id).stream())
+                .filter(property -> property.getClass().getName().equals(parameters.get("classType")))
+                .collect(Collectors.toList());
+        }
+
+        return Collections.emptyList();
+    }
+
+    private void assertSameDocuments() throws Exception
+    {
+        XWikiContext xcontext = this.oldcore.getXWikiContext();
+
+        List<XWikiDocument> documents =
+            this.store.loadXWikiDocs(Arrays.asList(DOCUMENT_REFERENCE, MISSING_REFERENCE), xcontext);
+
+        assertEquals(2, documents.size());
+        assertSameDocument(this.store.loadXWikiDoc(new XWikiDocument(DOCUMENT_REFERENCE), xcontext),
+            documents.get(0));
+        assertSameDocument(this.store.loadXWikiDoc(new XWikiDocument(MISSING_REFERENCE), xcontext),
+            documents.get(1));
+
+        assertFalse(documents.get(0).isNew());
+        assertEquals(2, documents.get(0).getXObjects(CLASS_REFERENCE).size());
+        assertTrue(documents.get(1).isNew());
+    }
+
+    private void assertSameDocument(XWikiDocument expected, XWikiDocument actual)
+    {
+        assertEquals(expected.getDocumentReferenceWithLocale(), actual.getDocumentReferenceWithLocale());
+        assertEquals(expected.isNew(), actual.isNew());
+        assertEquals(expected.isMostRecent(), actual.isMostRecent());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getDate(), actual.getDate());
+        assertEquals(expected.getCreationDate(), actual.getCreationDate());
+        assertEquals(expected.getContentUpdateDate(), actual.getContentUpdateDate());
+        assertEquals(expected.isContentDirty(), actual.isContentDirty());
+        assertEquals(expected.isMetaDataDirty(), actual.isMetaDataDirty());
+        assertSame(this.store, actual.getStore());
+        assertNotNull(actual.getOriginalDocument());
+
+        assertEquals(expected.getAttachmentList().size(), actual.getAttachmentList().size());
+        for (XWikiAttachment expectedAttachment : expected.getAttachmentList()) {
+            XWikiAttachment actualAttachment = actual.getAttachment(expectedAttachment.getFilename());
+            assertNotNull(actualAttachment);
+            assertSame(actual, actualAttachment.getDoc());
+            assertEquals(expectedAttachment.getLongSize(), actualAttachment.getLongSize());
+            assertEquals(expectedAttachment.getDate(), actualAttachment.getDate());
+        }
+
+        assertEquals(expected.getXObjects().keySet(), actual.getXObjects().keySet());
+        for (Map.Entry<DocumentReference, List<BaseObject>> entry : expected.getXObjects().entrySet()) {
+            List<BaseObject> actualObjects = actual.getXObjects(entry.getKey());
+            assertEquals(entry.getValue().size(), actualObjects.size());
+            for (int i = 0; i < actualObjects.size(); ++i) {
+                BaseObject expectedObject = entry.getValue().get(i);
+                BaseObject actualObject = actualObjects.get(i);
+                assertEquals(expectedObject.getId(), actualObject.getId());
+                assertEquals(expectedObject.getNumber(), actualObject.getNumber());
+                assertEquals(expectedObject.getGuid(), actualObject.getGuid());
+                assertEquals(expectedObject.getXClassReference(), actualObject.getXClassReference());
+                assertSame(actual, actualObject.getOwnerDocument());
+                assertEquals(expectedObject.getPropertyList(), actualObject.getPropertyList());
+                for (String name : expectedObject.getPropertyList()) {
+                    assertEquals(((BaseProperty) expectedObject.get(name)).getValue(),
+                        ((BaseProperty) actualObject.get(name)).getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    void loadXWikiDocsWithBatchObjectLoading() throws Exception
+    {
+        when(this.hibernateConfiguration.isBatchObjectLoading()).thenReturn(true);
+
+        assertSameDocuments();
+
+        verify(this.session, atLeastOnce()).createQuery(startsWith("select prop.id.id, prop.name, prop.classType"),
+            any());
+    }
+
+    @Test
+    void loadXWikiDocsWithoutBatchObjectLoading() throws Exception
+    {
+        when(this.hibernateConfiguration.isBatchObjectLoading()).thenReturn(false);
+
+        assertSameDocuments();
+
+        verify(this.session, never()).createQuery(startsWith("select prop.id.id, prop.name, prop.classType"), any());
+    }
+}
@@ -20,8 +20,13 @@
 package com.xpn.xwiki.web;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Date;
 
 import javax.servlet.ServletOutputStream;
@@ -29,8 +34,11 @@
 
 import org.junit.Before;
 import org.junit.Rule;
+import org.apache.commons.io.FileUtils;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
 import org.xwiki.model.reference.AttachmentReference;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.resource.ResourceReference;
@@ -49,12 +57,14 @@
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -613,6 +623,111 @@ public void downloadWhenEmptyRange() throws XWikiException, IOException
         verifyResponseExpectations(d.getTime(), this.fileContent.length);
     }
 
+    @Test
+    public void downloadWhenMultipleRanges() throws XWikiException, IOException
+    {
+        Date d = new Date();
+        createAttachment(d, DEFAULT_FILE_NAME);
+        setRequestExpectations(DEFAULT_URI, null, null, "bytes=0-1, 5-6, 129-145", -1L, DEFAULT_FILE_NAME);
+
+        assertNull(this.action.render(this.oldcore.getXWikiContext()));
+
+        verify(this.response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        ArgumentCaptor<String> contentTypeCaptor = ArgumentCaptor.forClass(String.class);
+        verify(this.response, times(2)).setContentType(contentTypeCaptor.capture());
+        assertTrue(contentTypeCaptor.getValue().startsWith("multipart/byteranges; boundary="));
+        verify(this.out).write(argThat(new ArgumentMatcher<byte[]>()
+        {
+            @Override
+            public boolean matches(byte[] argument)
+            {
+                return new String(argument, StandardCharsets.US_ASCII)
+                    .endsWith("Content-Type: text/plain\r\nContent-Range: bytes 5-6/14\r\n\r\n");
+            }
+        }));
+        verifyOutputExpectations(0, 2);
+        verifyOutputExpectations(5, 7);
+    }
+
+    @Test
+    public void downloadWhenOverlappingRanges() throws XWikiException, IOException
+    {
+        Date d = new Date();
+        createAttachment(d, DEFAULT_FILE_NAME);
+        setRequestExpectations(DEFAULT_URI, null, null, "bytes=5-6, 0-3, 2-4, 1-2", -1L, DEFAULT_FILE_NAME);
+
+        assertNull(this.action.render(this.oldcore.getXWikiContext()));
+
+        // The ranges are merged in a single range instead of sending the same bytes several times
+        verify(this.response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(this.response).setHeader("Content-Range", "bytes 0-6/" + this.fileContent.length);
+        verifyResponseExpectations(d.getTime(), 7);
+        verifyOutputExpectations(0, 7);
+    }
+
+    @Test
+    public void downloadWhenUnsortedRanges() throws XWikiException, IOException
+    {
+        Date d = new Date();
+        createAttachment(d, DEFAULT_FILE_NAME);
+        setRequestExpectations(DEFAULT_URI, null, null, "bytes=9-10, 0-1, 1-1", -1L, DEFAULT_FILE_NAME);
+
+        assertNull(this.action.render(this.oldcore.getXWikiContext()));
+
+        verify(this.response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        InOrder inOrder = inOrder(this.out);
+        inOrder.verify(this.out).write(argThat(partHeader("bytes 0-1/14")));
+        inOrder.verify(this.out).write(argThat(partHeader("bytes 9-10/14")));
+        verifyOutputExpectations(0, 2);
+        verifyOutputExpectations(9, 11);
+    }
+
+    @Test
+    public void downloadWhenMultipleRangesOutside() throws XWikiException, IOException
+    {
+        Date d = new Date();
+        createAttachment(d, DEFAULT_FILE_NAME);
+        setRequestExpectations(DEFAULT_URI, null, null, "bytes=129-145,200-", -1L, DEFAULT_FILE_NAME);
+
+        assertNull(this.action.render(this.oldcore.getXWikiContext()));
+
+        verify(this.response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    @Test
+    public void downloadWhenRangeFromChannel() throws XWikiException, IOException
+    {
+        File file = new File(this.oldcore.getTemporaryDirectory(), DEFAULT_FILE_NAME);
+        FileUtils.writeByteArrayToFile(file, this.fileContent);
+
+        Date d = new Date();
+        XWikiAttachment filetxt = new XWikiAttachment(this.document, DEFAULT_FILE_NAME);
+        filetxt.setAttachment_content(new XWikiAttachmentContent(filetxt)
+        {
+            @Override
+            public SeekableByteChannel getContentChannel() throws IOException
+            {
+                return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+
+            @Override
+            public long getLongSize()
+            {
+                return file.length();
+            }
+        });
+        filetxt.setDate(d);
+        this.document.getAttachmentList().add(filetxt);
+        setRequestExpectations(DEFAULT_URI, null, null, "bytes=9-", -1L, DEFAULT_FILE_NAME);
+
+        assertNull(this.action.render(this.oldcore.getXWikiContext()));
+
+        verify(this.response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(this.response).setHeader("Content-Range", "bytes 9-13/" + this.fileContent.length);
+        verifyResponseExpectations(d.getTime(), 5);
+        verifyOutputExpectations(9, 14);
+    }
+
     private void createAttachment(Date d, String name) throws IOException
     {
         XWikiAttachment filetxt = new XWikiAttachment(this.document, name);
@@ -653,6 +768,12 @@ private void verifyResponseExpectations(long modified, long length, String mime,
         }
     }
 
+    private ArgumentMatcher<byte[]> partHeader(String contentRange)
+    {
+        return argument -> new String(argument, StandardCharsets.US_ASCII)
+            .endsWith("Content-Range: " + contentRange + "\r\n\r\n");
+    }
+
     private void verifyOutputExpectations(final int start, final int end) throws IOException
     {
         verify(this.out).write(argThat(new ArgumentMatcher<byte[]>()
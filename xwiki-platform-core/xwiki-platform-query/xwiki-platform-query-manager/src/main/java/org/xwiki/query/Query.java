@@ -195,4 +195,30 @@ default QueryParameter bindValue(String var)
      * @throws QueryException if something goes wrong.
      */
     <T> List<T> execute() throws QueryException;
+
+    /**
+     * Execute the query and return a full page of results viewable by the current user.
+     * <p>
+     * When the query has the "viewable" filter, the results the current user is not allowed to view are removed after
+     * the database applied the limit and offset so {@link #execute()} can return less results than the limit. This
+     * method instead fetches the results in chunks, adapting their size to the proportion of viewable results, until
+     * {@link #getLimit()} viewable results are found or there are no more results. The offset of the returned page
+     * must be used to get the next page since it's generally not {@code getOffset() + getLimit()}.
+     * <p>
+     * The default implementation simply calls {@link #execute()}.
+     *
+     * @param <T> expected type of elements in the result list
+     * @return the page of results
+     * @throws QueryException if something goes wrong
+     * @since 12.6
+     */
+    @Unstable
+    default <T> QueryPage<T> executeViewable() throws QueryException
+    {
+        List<T> results = execute();
+
+        int nextOffset = getLimit() > 0 && results.size() >= getLimit() ? getOffset() + getLimit() : -1;
+
+        return new QueryPage<>(results, nextOffset);
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.query;
+
+import java.util.List;
+
+import org.xwiki.stability.Unstable;
+
+/**
+ * A page of query results, with the offset to use to get the next page.
+ *
+ * @param <T> the type of the results
+ * @version $Id$
+ * @since 12.6
+ */
+@Unstable
+public class QueryPage<T>
+{
+    private final List<T> results;
+
+    private final int nextOffset;
+
+    /**
+     * @param results the results of the page
+     * @param nextOffset the offset to use to get the next page, -1 if there are no more results
+     */
+    public QueryPage(List<T> results, int nextOffset)
+    {
+        this.results = results;
+        this.nextOffset = nextOffset;
+    }
+
+    /**
+     * @return the results of the page
+     */
+    public List<T> getResults()
+    {
+        return this.results;
+    }
+
+    /**
+     * @return the offset to pass to {@link Query#setOffset(int)} to get the next page, -1 if there are no more results
+     */
+    public int getNextOffset()
+    {
+        return this.nextOffset;
+    }
+
+    /**
+     * @return true if there might be more results after this page
+     */
+    public boolean hasNext()
+    {
+        return this.nextOffset >= 0;
+    }
+}
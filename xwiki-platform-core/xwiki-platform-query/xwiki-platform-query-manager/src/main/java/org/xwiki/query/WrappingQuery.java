@@ -163,4 +163,10 @@ public <T> List<T> execute() throws QueryException
     {
         return getWrappedQuery().execute();
     }
+
+    @Override
+    public <T> QueryPage<T> executeViewable() throws QueryException
+    {
+        return getWrappedQuery().executeViewable();
+    }
 }
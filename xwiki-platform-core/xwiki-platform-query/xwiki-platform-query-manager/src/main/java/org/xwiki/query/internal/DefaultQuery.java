@@ -20,6 +20,7 @@
 package org.xwiki.query.internal;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +32,7 @@
 import org.xwiki.query.QueryException;
 import org.xwiki.query.QueryExecutor;
 import org.xwiki.query.QueryFilter;
+import org.xwiki.query.QueryPage;
 import org.xwiki.query.QueryParameter;
 import org.xwiki.query.SecureQuery;
 
@@ -49,6 +51,11 @@ public class DefaultQuery implements SecureQuery
 
     private static final Pattern LEGACY_HQL_MATCHER = Pattern.compile("\\?($|[^\\d])");
 
+    /**
+     * The maximum number of results fetched at once by {@link #executeViewable()}.
+     */
+    private static final int VIEWABLE_MAX_CHUNK_SIZE = 1000;
+
     /**
      * field for {@link #isNamed()}.
      */
@@ -306,6 +313,152 @@ public <T> List<T> execute() throws QueryException
         return getExecuter().execute(this);
     }
 
+    @Override
+    public <T> QueryPage<T> executeViewable() throws QueryException
+    {
+        ViewableQueryFilter viewableFilter = (ViewableQueryFilter) this.filters.stream()
+            .filter(ViewableQueryFilter.class::isInstance).findFirst().orElse(null);
+
+        if (viewableFilter == null) {
+            return SecureQuery.super.executeViewable();
+        } else if (this.limit <= 0) {
+            // All the viewable results are returned
+            return new QueryPage<>(execute(), -1);
+        }
+
+        int pageOffset = this.offset;
+        int pageLimit = this.limit;
+        List<QueryFilter> pageFilters = this.filters;
+
+        // The viewable filter is replaced for each chunk, in a copy of the filters
+        this.filters = new ArrayList<>(pageFilters);
+
+        try {
+            return executeViewable(viewableFilter, pageFilters.indexOf(viewableFilter), pageOffset, pageLimit);
+        } finally {
+            this.offset = pageOffset;
+            this.limit = pageLimit;
+            this.filters = pageFilters;
+        }
+    }
+
+    private <T> QueryPage<T> executeViewable(ViewableQueryFilter viewableFilter, int filterIndex, int pageOffset,
+        int pageLimit) throws QueryException
+    {
+        List<T> results = new ArrayList<>(pageLimit);
+
+        int nextOffset = pageOffset;
+        int chunkSize = pageLimit;
+        while (true) {
+            // Check the rights at the position of the viewable filter so that the other filters see the same results
+            ViewablePageFilter pageFilter = new ViewablePageFilter(viewableFilter, pageLimit - results.size());
+            this.filters.set(filterIndex, pageFilter);
+
+            this.offset = nextOffset;
+            this.limit = chunkSize;
+            List<T> chunk = getExecuter().execute(this);
+            if (!pageFilter.isApplied()) {
+                // The executor does not filter the results
+                chunk = pageFilter.filterResults(chunk);
+            }
+
+            results.addAll(chunk);
+            nextOffset += pageFilter.getConsumed();
+
+            if (results.size() >= pageLimit) {
+                return new QueryPage<>(results, nextOffset);
+            } else if (pageFilter.getRowCount() < chunkSize) {
+                // No more results
+                return new QueryPage<>(results, -1);
+            }
+
+            chunkSize = getNextChunkSize(pageLimit - results.size(), nextOffset - pageOffset, results.size(),
+                chunkSize);
+        }
+    }
+
+    private int getNextChunkSize(int missing, int consumed, int viewable, int previousChunkSize)
+    {
+        long chunkSize;
+        if (viewable > 0) {
+            // Assume the proportion of viewable results stays the same
+            chunkSize = (long) Math.ceil((double) missing * consumed / viewable);
+        } else {
+            chunkSize = previousChunkSize * 2L;
+        }
+
+        return (int) Math.min(Math.max(chunkSize, missing), VIEWABLE_MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Takes the place of the "viewable" filter while a page of viewable results is filled, to keep only the missing
+     * results of the page and remember how many rows were consumed to find them.
+     */
+    private static final class ViewablePageFilter implements QueryFilter
+    {
+        private final ViewableQueryFilter viewableFilter;
+
+        private final int missing;
+
+        private int rowCount = -1;
+
+        private int consumed;
+
+        ViewablePageFilter(ViewableQueryFilter viewableFilter, int missing)
+        {
+            this.viewableFilter = viewableFilter;
+            this.missing = missing;
+        }
+
+        @Override
+        public String filterStatement(String statement, String language)
+        {
+            return this.viewableFilter.filterStatement(statement, language);
+        }
+
+        @Override
+        public Query filterQuery(Query query)
+        {
+            return this.viewableFilter.filterQuery(query);
+        }
+
+        @Override
+        public List filterResults(List results)
+        {
+            this.rowCount = results.size();
+            this.consumed = this.rowCount;
+
+            // Check the rights of the whole chunk at once
+            BitSet viewable = this.viewableFilter.getViewable(results);
+
+            List<Object> filteredResults = new ArrayList<>(Math.min(viewable.cardinality(), this.missing));
+            for (int index = viewable.nextSetBit(0); index >= 0; index = viewable.nextSetBit(index + 1)) {
+                filteredResults.add(results.get(index));
+                if (filteredResults.size() >= this.missing) {
+                    this.consumed = index + 1;
+                    break;
+                }
+            }
+
+            return filteredResults;
+        }
+
+        boolean isApplied()
+        {
+            return this.rowCount >= 0;
+        }
+
+        int getRowCount()
+        {
+            return this.rowCount;
+        }
+
+        int getConsumed()
+        {
+            return this.consumed;
+        }
+    }
+
     /**
      * @return QueryExecutor interface for execute the query.
      */
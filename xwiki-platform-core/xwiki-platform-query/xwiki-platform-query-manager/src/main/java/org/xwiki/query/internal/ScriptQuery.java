@@ -29,6 +29,7 @@
 import org.xwiki.query.QueryException;
 import org.xwiki.query.QueryFilter;
 import org.xwiki.query.QueryManager;
+import org.xwiki.query.QueryPage;
 import org.xwiki.query.QueryParameter;
 import org.xwiki.query.SecureQuery;
 
@@ -254,6 +255,12 @@ public <T> List<T> execute() throws QueryException
         return this.query.execute();
     }
 
+    @Override
+    public <T> QueryPage<T> executeViewable() throws QueryException
+    {
+        return this.query.executeViewable();
+    }
+
     @Override
     public boolean isCurrentAuthorChecked()
     {
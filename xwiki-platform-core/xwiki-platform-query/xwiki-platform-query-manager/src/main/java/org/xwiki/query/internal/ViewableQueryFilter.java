@@ -19,8 +19,12 @@
  */
 package org.xwiki.query.internal;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -58,18 +62,59 @@ public String filterStatement(String statement, String language)
     @Override
     public List filterResults(List results)
     {
-        List<Object> filteredResults = new LinkedList<>();
-        for (Object result : results) {
-            EntityReference entityReference = null;
-            if (result instanceof EntityReference) {
-                entityReference = (EntityReference) result;
-            } else if (result instanceof Object[] && ((Object[]) result)[0] instanceof EntityReference) {
-                entityReference = (EntityReference) ((Object[]) result)[0];
-            }
-            if (entityReference != null && this.authorization.hasAccess(Right.VIEW, entityReference)) {
+        BitSet viewable = getViewable(results);
+
+        List<Object> filteredResults = new ArrayList<>(viewable.cardinality());
+        Iterator<?> iterator = results.iterator();
+        for (int index = 0; iterator.hasNext(); ++index) {
+            Object result = iterator.next();
+            if (viewable.get(index)) {
                 filteredResults.add(result);
             }
         }
         return filteredResults;
     }
+
+    /**
+     * Check the view right of all the passed results at once.
+     *
+     * @param results query results
+     * @return the positions of the results whose entity the current user is allowed to view
+     * @since 12.6
+     */
+    BitSet getViewable(List<?> results)
+    {
+        List<EntityReference> entityReferences = new ArrayList<>(results.size());
+        for (Object result : results) {
+            EntityReference entityReference = getEntityReference(result);
+            if (entityReference != null) {
+                entityReferences.add(entityReference);
+            }
+        }
+
+        Set<EntityReference> viewableReferences =
+            new HashSet<>(this.authorization.filterAccess(Right.VIEW, entityReferences));
+
+        BitSet viewable = new BitSet(results.size());
+        Iterator<?> iterator = results.iterator();
+        for (int index = 0; iterator.hasNext(); ++index) {
+            EntityReference entityReference = getEntityReference(iterator.next());
+            if (entityReference != null && viewableReferences.contains(entityReference)) {
+                viewable.set(index);
+            }
+        }
+
+        return viewable;
+    }
+
+    private EntityReference getEntityReference(Object result)
+    {
+        if (result instanceof EntityReference) {
+            return (EntityReference) result;
+        } else if (result instanceof Object[] && ((Object[]) result)[0] instanceof EntityReference) {
+            return (EntityReference) ((Object[]) result)[0];
+        }
+
+        return null;
+    }
 }
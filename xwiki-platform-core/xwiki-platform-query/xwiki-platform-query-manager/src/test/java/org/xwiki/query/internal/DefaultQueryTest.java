@@ -19,11 +19,28 @@
  */
 package org.xwiki.query.internal;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.junit.jupiter.api.Test;
 import org.xwiki.query.Query;
+import org.xwiki.query.QueryException;
+import org.xwiki.query.QueryExecutor;
 import org.xwiki.query.QueryFilter;
+import org.xwiki.query.QueryPage;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for {@link DefaultQuery}.
@@ -45,4 +62,68 @@ public void addSameFilterMultipleTimes()
         // QueryFilter#getName() or QueryFilter#getID() in order to forbid the addition of multiple identical filters.
         assertTrue(query.getFilters().size() == 1);
     }
+
+    @Test
+    public void executeViewable() throws QueryException
+    {
+        List<String> database = Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+        List<Integer> executedLimits = new ArrayList<>();
+        QueryExecutor executor = new QueryExecutor()
+        {
+            @Override
+            public <T> List<T> execute(Query query)
+            {
+                executedLimits.add(query.getLimit());
+                int end = Math.min(query.getOffset() + query.getLimit(), database.size());
+
+                List results = new ArrayList<>(database.subList(query.getOffset(), end));
+                for (QueryFilter filter : query.getFilters()) {
+                    results = filter.filterResults(results);
+                }
+                return results;
+            }
+        };
+
+        // Only even results are viewable
+        ViewableQueryFilter viewableFilter = mock(ViewableQueryFilter.class);
+        when(viewableFilter.getViewable(any())).then(invocation -> {
+            List<String> results = invocation.getArgument(0);
+            BitSet viewable = new BitSet();
+            for (int i = 0; i < results.size(); ++i) {
+                viewable.set(i, Integer.parseInt(results.get(i)) % 2 == 0);
+            }
+            return viewable;
+        });
+
+        // A filter which transforms the results after the viewable filter
+        QueryFilter transformFilter = mock(QueryFilter.class);
+        when(transformFilter.filterResults(any())).then(invocation -> ((List<String>) invocation.getArgument(0))
+            .stream().map(result -> "result" + result).collect(Collectors.toList()));
+
+        Query query = new DefaultQuery("", Query.XWQL, executor);
+        query.addFilter(viewableFilter);
+        query.addFilter(transformFilter);
+        query.setLimit(3);
+
+        QueryPage<String> page = query.executeViewable();
+
+        assertEquals(Arrays.asList("result0", "result2", "result4"), page.getResults());
+        assertEquals(5, page.getNextOffset());
+        // The second chunk is sized according to the proportion of viewable results
+        assertEquals(Arrays.asList(3, 2), executedLimits);
+        // The rights are checked for each chunk, before the filters which follow the viewable filter
+        verify(viewableFilter, times(2)).getViewable(any());
+
+        // The query is left unchanged
+        assertEquals(3, query.getLimit());
+        assertEquals(0, query.getOffset());
+        assertEquals(Arrays.asList(viewableFilter, transformFilter), query.getFilters());
+
+        page = query.setOffset(page.getNextOffset()).executeViewable();
+
+        assertEquals(Arrays.asList("result6", "result8"), page.getResults());
+        assertFalse(page.hasNext());
+
+        verify(viewableFilter, never()).filterResults(any());
+    }
 }
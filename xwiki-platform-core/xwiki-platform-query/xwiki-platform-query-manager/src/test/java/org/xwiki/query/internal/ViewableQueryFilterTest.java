@@ -37,6 +37,9 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -63,6 +66,7 @@ public void configure() throws Exception
     {
         when(this.authorization.hasAccess(Right.VIEW, authorized)).thenReturn(true);
         when(this.authorization.hasAccess(Right.VIEW, unauthorized)).thenReturn(false);
+        doCallRealMethod().when(this.authorization).filterAccess(any(), any());
     }
 
     @Test
@@ -96,6 +100,16 @@ public void filterResultsWithTwoColumnsAndEntityReference()
         assertArrayEquals(new Object[]{ this.authorized, 17 }, (Object[]) filteredResults.get(0));
     }
 
+    @Test
+    public void filterResultsChecksTheRightsAtOnce()
+    {
+        List<Object> results = Arrays.asList(this.unauthorized, "Path.To.Page", this.authorized, this.authorized);
+        assertEquals(Arrays.asList(this.authorized, this.authorized), this.filter.filterResults(results));
+
+        verify(this.authorization).filterAccess(Right.VIEW,
+            Arrays.asList(this.unauthorized, this.authorized, this.authorized));
+    }
+
     @Test
     public void filterResultsWithOneColumnNotEntityReference()
     {
@@ -0,0 +1,145 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.restlet.Request;
+import org.restlet.data.Status;
+import org.restlet.data.Tag;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.model.reference.DocumentReference;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.api.Document;
+import com.xpn.xwiki.doc.XWikiDocument;
+
+/**
+ * Handle the conditional GET requests ({@code If-None-Match}, {@code If-Modified-Since}, etc.) targeting the
+ * representation of a document, before the representation is actually built.
+ * <p>
+ * The entity tag is strong and derived from the document version, locale and modification date, the requested URI
+ * (which contains the representation parameters), the accepted media types and the current user and locale. It's only
+ * valid for representations which depend exclusively on the document: the callers should not use it when the
+ * representation includes information coming from other documents (pretty names, class definitions, etc.).
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+@Component(roles = ConditionalRequestHandler.class)
+@Singleton
+public class ConditionalRequestHandler
+{
+    /**
+     * The name of the request attribute holding the entity tag to send with the response.
+     */
+    public static final String TAG_ATTRIBUTE = "rest.entityTag";
+
+    /**
+     * The name of the request attribute holding the modification date to send with the response.
+     */
+    public static final String MODIFICATION_DATE_ATTRIBUTE = "rest.modificationDate";
+
+    private static final char SEPARATOR = '/';
+
+    @Inject
+    private Provider<XWikiContext> xcontextProvider;
+
+    /**
+     * Answer the current request with a "304 Not Modified" (or a "412 Precondition Failed") status when its conditions
+     * match the passed document, otherwise remember the entity tag and modification date to send with the response.
+     * 
+     * @param document the document represented by the response
+     * @param variant any additional information the representation depends on
+     * @throws WebApplicationException when the representation doesn't need to be sent
+     */
+    public void evaluate(Document document, Object... variant) throws WebApplicationException
+    {
+        evaluate(document.getDocumentReference(), document.getRealLocale(), document.getVersion(), document.getDate(),
+            variant);
+    }
+
+    /**
+     * Answer the current request with a "304 Not Modified" (or a "412 Precondition Failed") status when its conditions
+     * match the passed document, otherwise remember the entity tag and modification date to send with the response.
+     * 
+     * @param document the document represented by the response
+     * @param variant any additional information the representation depends on
+     * @throws WebApplicationException when the representation doesn't need to be sent
+     */
+    public void evaluate(XWikiDocument document, Object... variant) throws WebApplicationException
+    {
+        evaluate(document.getDocumentReference(), document.getRealLocale(), document.getVersion(), document.getDate(),
+            variant);
+    }
+
+    private void evaluate(DocumentReference reference, Locale locale, String version, Date date, Object... variant)
+    {
+        Request request = Request.getCurrent();
+        if (request == null || date == null) {
+            return;
+        }
+
+        // HTTP dates have a precision of one second
+        Date modificationDate = new Date(date.getTime() / 1000 * 1000);
+        Tag tag = new Tag(getTag(request, reference, locale, version, modificationDate, variant), false);
+
+        Status status = request.getConditions().getStatus(request.getMethod(), true, tag, modificationDate);
+        if (Status.REDIRECTION_NOT_MODIFIED.equals(status)) {
+            throw new WebApplicationException(
+                Response.notModified(new EntityTag(tag.getName())).lastModified(modificationDate).build());
+        } else if (Status.CLIENT_ERROR_PRECONDITION_FAILED.equals(status)) {
+            throw new WebApplicationException(Response.Status.PRECONDITION_FAILED);
+        }
+
+        request.getAttributes().put(TAG_ATTRIBUTE, tag);
+        request.getAttributes().put(MODIFICATION_DATE_ATTRIBUTE, modificationDate);
+    }
+
+    private String getTag(Request request, DocumentReference reference, Locale locale, String version,
+        Date modificationDate, Object... variant)
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(reference).append(SEPARATOR).append(locale);
+        builder.append(SEPARATOR).append(version).append(SEPARATOR).append(modificationDate.getTime());
+        builder.append(SEPARATOR).append(request.getResourceRef());
+        builder.append(SEPARATOR).append(request.getClientInfo().getAcceptedMediaTypes().stream()
+            .map(preference -> preference.getMetadata() + ";q=" + preference.getQuality())
+            .collect(Collectors.joining(",")));
+        builder.append(SEPARATOR).append(xcontext.getUserReference()).append(SEPARATOR).append(xcontext.getLocale());
+        for (Object value : variant) {
+            builder.append(SEPARATOR).append(value);
+        }
+
+        return DigestUtils.md5Hex(builder.toString());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.xwiki.query.Query;
+import org.xwiki.query.QueryException;
+
+import com.xpn.xwiki.XWikiContext;
+
+/**
+ * Iterate over the results of a query by executing it again for each chunk of results, so that only one chunk of
+ * results is kept in memory while a large collection is being written.
+ * <p>
+ * The query is executed, and its results are converted, with the passed wiki as current wiki since the iterator is
+ * generally consumed after the resource already restored the context.
+ * <p>
+ * The query must order its results on a unique key (or end with a unique key as tiebreaker), otherwise the database
+ * is free to return them in a different order for each chunk and some results would be skipped or repeated.
+ * 
+ * @param <E> the type of the produced elements
+ * @version $Id$
+ * @since 12.6
+ */
+public class QueryResultIterator<E> implements Iterator<E>
+{
+    /**
+     * The default number of results fetched by each execution of the query.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    /**
+     * Convert a query result into the produced element.
+     * 
+     * @param <E> the type of the produced elements
+     * @version $Id$
+     */
+    @FunctionalInterface
+    public interface ResultConverter<E>
+    {
+        /**
+         * @param result the query result
+         * @return the element to produce, or {@code null} to skip the result (e.g. when not viewable)
+         * @throws Exception when failing to convert the result
+         */
+        E convert(Object result) throws Exception;
+    }
+
+    private final Query query;
+
+    private final String wiki;
+
+    private final XWikiContext xcontext;
+
+    private final ResultConverter<E> converter;
+
+    private final int chunkSize;
+
+    private final Deque<E> chunk = new ArrayDeque<>();
+
+    private int offset;
+
+    private int remaining;
+
+    private boolean done;
+
+    /**
+     * @param query the query to execute
+     * @param start the offset of the first result
+     * @param number the maximum number of results, all the results when negative or zero
+     * @param wiki the wiki in which to execute the query
+     * @param xcontext the XWiki context
+     * @param converter convert the query results
+     */
+    public QueryResultIterator(Query query, int start, int number, String wiki, XWikiContext xcontext,
+        ResultConverter<E> converter)
+    {
+        this(query, start, number, wiki, xcontext, converter, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param query the query to execute
+     * @param start the offset of the first result
+     * @param number the maximum number of results, all the results when negative or zero
+     * @param wiki the wiki in which to execute the query
+     * @param xcontext the XWiki context
+     * @param converter convert the query results
+     * @param chunkSize the number of results fetched by each execution of the query
+     */
+    public QueryResultIterator(Query query, int start, int number, String wiki, XWikiContext xcontext,
+        ResultConverter<E> converter, int chunkSize)
+    {
+        this.query = query;
+        this.offset = Math.max(start, 0);
+        this.remaining = number > 0 ? number : Integer.MAX_VALUE;
+        this.wiki = wiki;
+        this.xcontext = xcontext;
+        this.converter = converter;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while (this.chunk.isEmpty() && !this.done) {
+            fetch();
+        }
+
+        return !this.chunk.isEmpty();
+    }
+
+    @Override
+    public E next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.chunk.poll();
+    }
+
+    private void fetch()
+    {
+        int limit = Math.min(this.chunkSize, this.remaining);
+
+        String currentWiki = this.xcontext.getWikiId();
+        try {
+            this.xcontext.setWikiId(this.wiki);
+
+            List<Object> results = this.query.setOffset(this.offset).setLimit(limit).execute();
+
+            for (Object result : results) {
+                E element = this.converter.convert(result);
+                if (element != null) {
+                    this.chunk.add(element);
+                }
+            }
+
+            this.offset += results.size();
+            this.remaining -= results.size();
+            this.done = results.size() < limit || this.remaining <= 0;
+        } catch (QueryException e) {
+            this.done = true;
+
+            throw new RuntimeException(String.format("Failed to execute query [%s]", this.query.getStatement()), e);
+        } catch (Exception e) {
+            this.done = true;
+
+            throw new RuntimeException("Failed to convert a query result", e);
+        } finally {
+            this.xcontext.setWikiId(currentWiki);
+        }
+    }
+}
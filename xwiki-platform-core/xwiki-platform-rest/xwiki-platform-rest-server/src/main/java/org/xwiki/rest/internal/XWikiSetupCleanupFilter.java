@@ -20,6 +20,7 @@
 package org.xwiki.rest.internal;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -28,6 +29,7 @@
 import org.restlet.Request;
 import org.restlet.Response;
 import org.restlet.data.MediaType;
+import org.restlet.data.Tag;
 import org.restlet.ext.servlet.ServletUtils;
 import org.restlet.representation.Representation;
 import org.restlet.routing.Filter;
@@ -86,6 +88,16 @@ protected void afterHandle(Request request, Response response)
             }
         }
 
+        // Send the entity tag and modification date computed by the resource, if any
+        if (response.getEntity() != null && response.getStatus().isSuccess()) {
+            Tag tag = (Tag) request.getAttributes().get(ConditionalRequestHandler.TAG_ATTRIBUTE);
+            if (tag != null) {
+                response.getEntity().setTag(tag);
+                response.getEntity().setModificationDate(
+                    (Date) request.getAttributes().get(ConditionalRequestHandler.MODIFICATION_DATE_ATTRIBUTE));
+            }
+        }
+
         /* Avoid that empty entities make the engine forward the response creation to the XWiki servlet. */
         if (response.getEntity() != null) {
             if (!response.getEntity().isAvailable()) {
@@ -0,0 +1,66 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal.representations;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.xwiki.rest.model.jaxb.Link;
+
+/**
+ * A collection representation whose elements are produced while the response is being written instead of being
+ * gathered in memory first. See {@link StreamingCollectionWriter}.
+ * 
+ * @param <E> the type of the elements
+ * @version $Id$
+ * @since 12.6
+ */
+public interface StreamingCollection<E>
+{
+    /**
+     * @return the name of the XML root element (e.g. "pages")
+     */
+    String getRootElementName();
+
+    /**
+     * @return the name of the XML element of each element (e.g. "pageSummary")
+     */
+    String getElementName();
+
+    /**
+     * @return the name of the JSON property holding the elements (e.g. "pageSummaries")
+     */
+    String getElementsPropertyName();
+
+    /**
+     * @return the type of the elements
+     */
+    Class<E> getElementType();
+
+    /**
+     * @return the links of the collection itself
+     */
+    List<Link> getLinks();
+
+    /**
+     * @return the elements, can be consumed only once
+     */
+    Iterator<E> getElements();
+}
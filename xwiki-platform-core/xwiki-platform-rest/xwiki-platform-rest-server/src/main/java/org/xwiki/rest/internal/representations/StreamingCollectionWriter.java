@@ -0,0 +1,185 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal.representations;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.restlet.ext.jackson.JacksonRepresentation;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.rest.XWikiRestComponent;
+import org.xwiki.rest.model.jaxb.Link;
+import org.xwiki.rest.model.jaxb.ObjectFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Write a {@link StreamingCollection} element by element, so that the memory used to write a large collection stays
+ * bounded and the first bytes are sent as soon as the first elements are produced. The produced XML and JSON are the
+ * same as the ones of the corresponding JAXB model.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Named("org.xwiki.rest.internal.representations.StreamingCollectionWriter")
+@Provider
+@Produces({ MediaType.APPLICATION_XML, MediaType.TEXT_XML, MediaType.APPLICATION_JSON })
+@Singleton
+public class StreamingCollectionWriter
+    implements MessageBodyWriter<StreamingCollection<?>>, XWikiRestComponent, Initializable
+{
+    private static final String NAMESPACE = "http://www.xwiki.org";
+
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * The number of elements written between two flushes of the output.
+     */
+    private static final int FLUSH_INTERVAL = 100;
+
+    private JAXBContext context;
+
+    private ObjectMapper mapper;
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        try {
+            this.context = JAXBContext.newInstance(ObjectFactory.class.getPackage().getName());
+        } catch (JAXBException e) {
+            throw new InitializationException("Failed to create the JAXB context of the REST model", e);
+        }
+
+        // Use the same configuration as the standard JSON representation
+        this.mapper = new JacksonRepresentation<>(new Object()).getObjectMapper();
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return StreamingCollection.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(StreamingCollection<?> collection, Class<?> type, Type genericType, Annotation[] annotations,
+        MediaType mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(StreamingCollection<?> collection, Class<?> type, Type genericType, Annotation[] annotations,
+        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+        throws IOException, WebApplicationException
+    {
+        if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
+            writeJSON(collection, entityStream);
+        } else {
+            try {
+                writeXML(collection, entityStream);
+            } catch (JAXBException | XMLStreamException e) {
+                throw new IOException("Failed to write the XML representation", e);
+            }
+        }
+    }
+
+    private <E> void writeXML(StreamingCollection<E> collection, OutputStream stream)
+        throws JAXBException, XMLStreamException
+    {
+        XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(stream, ENCODING);
+
+        Marshaller marshaller = this.context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+
+        writer.writeStartDocument(ENCODING, "1.0");
+        writer.setDefaultNamespace(NAMESPACE);
+        writer.writeStartElement(NAMESPACE, collection.getRootElementName());
+        writer.writeDefaultNamespace(NAMESPACE);
+
+        QName linkName = new QName(NAMESPACE, "link");
+        for (Link link : collection.getLinks()) {
+            marshaller.marshal(new JAXBElement<>(linkName, Link.class, link), writer);
+        }
+
+        QName elementName = new QName(NAMESPACE, collection.getElementName());
+        Iterator<E> elements = collection.getElements();
+        for (int count = 1; elements.hasNext(); ++count) {
+            marshaller.marshal(new JAXBElement<>(elementName, collection.getElementType(), elements.next()), writer);
+
+            if (count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    private void writeJSON(StreamingCollection<?> collection, OutputStream stream) throws IOException
+    {
+        // Don't close the generator since it would close the entity stream
+        JsonGenerator generator = this.mapper.getFactory().createGenerator(stream, JsonEncoding.UTF8);
+
+        generator.writeStartObject();
+
+        generator.writeFieldName("links");
+        generator.writeObject(collection.getLinks());
+
+        generator.writeArrayFieldStart(collection.getElementsPropertyName());
+        Iterator<?> elements = collection.getElements();
+        for (int count = 1; elements.hasNext(); ++count) {
+            generator.writeObject(elements.next());
+
+            if (count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.flush();
+    }
+}
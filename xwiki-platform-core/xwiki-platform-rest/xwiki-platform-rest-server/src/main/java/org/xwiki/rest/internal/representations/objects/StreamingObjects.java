@@ -0,0 +1,96 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal.representations.objects;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.xwiki.rest.internal.representations.StreamingCollection;
+import org.xwiki.rest.model.jaxb.ObjectSummary;
+import org.xwiki.rest.model.jaxb.Objects;
+
+/**
+ * {@link Objects} whose object summaries are produced while the response is being written.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+public class StreamingObjects extends Objects implements StreamingCollection<ObjectSummary>
+{
+    private Iterator<ObjectSummary> elements;
+
+    /**
+     * @param elements the object summaries
+     */
+    public StreamingObjects(Iterator<ObjectSummary> elements)
+    {
+        this.elements = elements;
+    }
+
+    @Override
+    public String getRootElementName()
+    {
+        return "objects";
+    }
+
+    @Override
+    public String getElementName()
+    {
+        return "objectSummary";
+    }
+
+    @Override
+    public String getElementsPropertyName()
+    {
+        return "objectSummaries";
+    }
+
+    @Override
+    public Class<ObjectSummary> getElementType()
+    {
+        return ObjectSummary.class;
+    }
+
+    @Override
+    public Iterator<ObjectSummary> getElements()
+    {
+        if (this.elements != null) {
+            Iterator<ObjectSummary> iterator = this.elements;
+            this.elements = null;
+
+            return iterator;
+        }
+
+        return super.getObjectSummaries().iterator();
+    }
+
+    @Override
+    public List<ObjectSummary> getObjectSummaries()
+    {
+        // Java callers expect the complete list
+        if (this.elements != null) {
+            List<ObjectSummary> objectSummaries = super.getObjectSummaries();
+            this.elements.forEachRemaining(objectSummaries::add);
+            this.elements = null;
+        }
+
+        return super.getObjectSummaries();
+    }
+}
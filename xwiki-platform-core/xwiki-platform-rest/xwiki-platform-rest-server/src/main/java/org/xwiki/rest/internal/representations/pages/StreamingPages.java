@@ -0,0 +1,96 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal.representations.pages;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.xwiki.rest.internal.representations.StreamingCollection;
+import org.xwiki.rest.model.jaxb.PageSummary;
+import org.xwiki.rest.model.jaxb.Pages;
+
+/**
+ * {@link Pages} whose page summaries are produced while the response is being written.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+public class StreamingPages extends Pages implements StreamingCollection<PageSummary>
+{
+    private Iterator<PageSummary> elements;
+
+    /**
+     * @param elements the page summaries
+     */
+    public StreamingPages(Iterator<PageSummary> elements)
+    {
+        this.elements = elements;
+    }
+
+    @Override
+    public String getRootElementName()
+    {
+        return "pages";
+    }
+
+    @Override
+    public String getElementName()
+    {
+        return "pageSummary";
+    }
+
+    @Override
+    public String getElementsPropertyName()
+    {
+        return "pageSummaries";
+    }
+
+    @Override
+    public Class<PageSummary> getElementType()
+    {
+        return PageSummary.class;
+    }
+
+    @Override
+    public Iterator<PageSummary> getElements()
+    {
+        if (this.elements != null) {
+            Iterator<PageSummary> iterator = this.elements;
+            this.elements = null;
+
+            return iterator;
+        }
+
+        return super.getPageSummaries().iterator();
+    }
+
+    @Override
+    public List<PageSummary> getPageSummaries()
+    {
+        // Java callers expect the complete list
+        if (this.elements != null) {
+            List<PageSummary> pageSummaries = super.getPageSummaries();
+            this.elements.forEachRemaining(pageSummaries::add);
+            this.elements = null;
+        }
+
+        return super.getPageSummaries();
+    }
+}
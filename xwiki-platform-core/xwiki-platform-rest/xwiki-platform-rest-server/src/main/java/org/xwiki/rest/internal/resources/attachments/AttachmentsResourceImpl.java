@@ -41,6 +41,7 @@
 import org.xwiki.component.annotation.Component;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.rest.XWikiRestException;
+import org.xwiki.rest.internal.ConditionalRequestHandler;
 import org.xwiki.rest.internal.Utils;
 import org.xwiki.rest.internal.resources.BaseAttachmentsResource;
 import org.xwiki.rest.model.jaxb.Attachments;
@@ -49,7 +50,10 @@
 import org.xwiki.security.authorization.ContextualAuthorizationManager;
 import org.xwiki.security.authorization.Right;
 
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.api.Document;
+import com.xpn.xwiki.doc.XWikiDocument;
 
 /**
  * @version $Id$
@@ -63,6 +67,9 @@ public class AttachmentsResourceImpl extends BaseAttachmentsResource implements
     @Inject
     private ContextualAuthorizationManager authorization;
 
+    @Inject
+    private ConditionalRequestHandler conditionalRequests;
+
     @Override
     public Attachments getAttachments(String wiki, String spaces, String page, Integer offset, Integer limit,
         Boolean withPrettyNames, String name, String author, String fileTypes) throws XWikiRestException
@@ -72,8 +79,22 @@ public Attachments getAttachments(String wiki, String spaces, String page, Integ
         filters.put("author", author);
         filters.put("fileTypes", fileTypes);
 
-        return super.getAttachments(new DocumentReference(wiki, parseSpaceSegments(spaces), page), filters, offset,
-            limit, withPrettyNames);
+        DocumentReference documentReference = new DocumentReference(wiki, parseSpaceSegments(spaces), page);
+
+        // The attachments are stored with the document (but their pretty names depend on other documents)
+        if (!withPrettyNames) {
+            XWikiContext xcontext = this.xcontextProvider.get();
+            try {
+                XWikiDocument document = xcontext.getWiki().getDocument(documentReference, xcontext);
+                if (!document.isNew()) {
+                    this.conditionalRequests.evaluate(document);
+                }
+            } catch (XWikiException e) {
+                throw new XWikiRestException(e);
+            }
+        }
+
+        return super.getAttachments(documentReference, filters, offset, limit, withPrettyNames);
     }
 
     @Override
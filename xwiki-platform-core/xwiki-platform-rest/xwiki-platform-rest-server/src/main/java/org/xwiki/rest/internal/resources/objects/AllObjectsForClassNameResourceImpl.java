@@ -19,7 +19,7 @@
  */
 package org.xwiki.rest.internal.resources.objects;
 
-import java.util.List;
+import java.net.URI;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -29,13 +29,17 @@
 import org.xwiki.rest.XWikiResource;
 import org.xwiki.rest.XWikiRestException;
 import org.xwiki.rest.internal.DomainObjectFactory;
+import org.xwiki.rest.internal.QueryResultIterator;
 import org.xwiki.rest.internal.Utils;
+import org.xwiki.rest.internal.representations.objects.StreamingObjects;
 import org.xwiki.rest.model.jaxb.ObjectSummary;
 import org.xwiki.rest.model.jaxb.Objects;
 import org.xwiki.rest.resources.objects.AllObjectsForClassNameResource;
 import org.xwiki.security.authorization.ContextualAuthorizationManager;
 import org.xwiki.security.authorization.Right;
 
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.XWikiException;
 import com.xpn.xwiki.api.Document;
 import com.xpn.xwiki.doc.XWikiDocument;
 import com.xpn.xwiki.objects.BaseObject;
@@ -54,49 +58,47 @@ public class AllObjectsForClassNameResourceImpl extends XWikiResource implements
     public Objects getObjects(String wikiName, String className, Integer start, Integer number, String order,
             Boolean withPrettyNames) throws XWikiRestException
     {
-        String database = Utils.getXWikiContext(componentManager).getWikiId();
+        String query = "select doc, obj from BaseObject as obj, XWikiDocument as doc "
+            + "where obj.name=doc.fullName and obj.className=:className";
+        // The results are fetched by chunks so they need a stable order
+        if ("date".equals(order)) {
+            query += " order by doc.date desc, obj.id";
+        } else {
+            query += " order by obj.id";
+        }
 
         try {
-            Objects objects = new Objects();
-
-            Utils.getXWikiContext(componentManager).setWikiId(wikiName);
-
-            String query = "select doc, obj from BaseObject as obj, XWikiDocument as doc "
-                + "where obj.name=doc.fullName and obj.className=:className";
-            if ("date".equals(order)) {
-                query += " order by doc.date desc";
-            }
-
-            List<Object> queryResult = null;
-            queryResult =
-                    queryManager.createQuery(query, Query.XWQL).bindValue("className", className).setLimit(number)
-                            .setOffset(start).execute();
-
-            for (Object object : queryResult) {
-                Object[] fields = (Object[]) object;
-                XWikiDocument xwikiDocument = (XWikiDocument) fields[0];
-                xwikiDocument.setDatabase(wikiName);
-
-                if (authorization.hasAccess(Right.VIEW, xwikiDocument.getDocumentReference())) {
+            Query objectsQuery = queryManager.createQuery(query, Query.XWQL).bindValue("className", className);
+
+            /*
+             * The object summaries are produced while the response is written so that listing a large number of
+             * objects doesn't require keeping all of them in memory.
+             */
+            XWikiContext xcontext = Utils.getXWikiContext(componentManager);
+            URI baseUri = uriInfo.getBaseUri();
+            return new StreamingObjects(new QueryResultIterator<>(objectsQuery, start, number, wikiName, xcontext,
+                result -> toObjectSummary(result, wikiName, baseUri, withPrettyNames)));
+        } catch (Exception e) {
+            throw new XWikiRestException(e);
+        }
+    }
 
-                    Document doc = new Document(xwikiDocument, Utils.getXWikiContext(componentManager));
+    private ObjectSummary toObjectSummary(Object result, String wikiName, URI baseUri, Boolean withPrettyNames)
+        throws XWikiException
+    {
+        Object[] fields = (Object[]) result;
+        XWikiDocument xwikiDocument = (XWikiDocument) fields[0];
+        xwikiDocument.setDatabase(wikiName);
 
-                    BaseObject xwikiObject = (BaseObject) fields[1];
+        if (!authorization.hasAccess(Right.VIEW, xwikiDocument.getDocumentReference())) {
+            return null;
+        }
 
-                    ObjectSummary objectSummary = DomainObjectFactory
-                        .createObjectSummary(objectFactory, uriInfo.getBaseUri(), Utils.getXWikiContext(
-                            componentManager), doc, xwikiObject, false, Utils.getXWikiApi(componentManager),
-                            withPrettyNames);
+        Document doc = new Document(xwikiDocument, Utils.getXWikiContext(componentManager));
 
-                    objects.getObjectSummaries().add(objectSummary);
-                }
-            }
+        BaseObject xwikiObject = (BaseObject) fields[1];
 
-            return objects;
-        } catch (Exception e) {
-            throw new XWikiRestException(e);
-        } finally {
-            Utils.getXWikiContext(componentManager).setWikiId(database);
-        }
+        return DomainObjectFactory.createObjectSummary(objectFactory, baseUri, Utils.getXWikiContext(componentManager),
+            doc, xwikiObject, false, Utils.getXWikiApi(componentManager), withPrettyNames);
     }
 }
@@ -21,6 +21,7 @@
 
 import java.util.List;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
@@ -28,6 +29,7 @@
 
 import org.xwiki.component.annotation.Component;
 import org.xwiki.rest.XWikiRestException;
+import org.xwiki.rest.internal.ConditionalRequestHandler;
 import org.xwiki.rest.internal.DomainObjectFactory;
 import org.xwiki.rest.internal.RangeIterable;
 import org.xwiki.rest.internal.Utils;
@@ -50,6 +52,9 @@
 @Named("org.xwiki.rest.internal.resources.objects.ObjectsResourceImpl")
 public class ObjectsResourceImpl extends BaseObjectsResource implements ObjectsResource
 {
+    @Inject
+    private ConditionalRequestHandler conditionalRequests;
+
     @Override
     public Objects getObjects(String wikiName, String spaceName, String pageName, Integer start, Integer number,
         Boolean withPrettyNames) throws XWikiRestException
@@ -59,6 +64,11 @@ public Objects getObjects(String wikiName, String spaceName, String pageName, In
 
             Document doc = documentInfo.getDocument();
 
+            // Pretty names depend on other documents
+            if (!withPrettyNames) {
+                this.conditionalRequests.evaluate(doc);
+            }
+
             Objects objects = objectFactory.createObjects();
 
             List<BaseObject> objectList = getBaseObjects(doc);
@@ -21,11 +21,13 @@
 
 import java.net.URI;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.ws.rs.core.Response;
 
 import org.xwiki.component.annotation.Component;
 import org.xwiki.rest.XWikiRestException;
+import org.xwiki.rest.internal.ConditionalRequestHandler;
 import org.xwiki.rest.model.jaxb.Page;
 import org.xwiki.rest.resources.pages.PageResource;
 
@@ -39,6 +41,9 @@
 @Named("org.xwiki.rest.internal.resources.pages.PageResourceImpl")
 public class PageResourceImpl extends ModifiablePageResource implements PageResource
 {
+    @Inject
+    private ConditionalRequestHandler conditionalRequests;
+
     @Override
     public Page getPage(String wikiName, String spaceName, String pageName, Boolean withPrettyNames,
         Boolean withObjects, Boolean withXClass, Boolean withAttachments) throws XWikiRestException
@@ -48,6 +53,11 @@ public Page getPage(String wikiName, String spaceName, String pageName, Boolean
 
             Document doc = documentInfo.getDocument();
 
+            // Pretty names, objects and classes depend on other documents
+            if (!withPrettyNames && !withObjects && !withXClass) {
+                this.conditionalRequests.evaluate(doc, doc.getTranslationLocales());
+            }
+
             URI baseUri = uriInfo.getBaseUri();
 
             Page page =
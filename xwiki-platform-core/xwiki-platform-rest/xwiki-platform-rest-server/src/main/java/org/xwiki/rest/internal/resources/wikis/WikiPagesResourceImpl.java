@@ -19,10 +19,10 @@
  */
 package org.xwiki.rest.internal.resources.wikis;
 
+import java.net.URI;
 import java.net.URL;
 import java.util.Formatter;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import javax.inject.Named;
@@ -33,7 +33,9 @@
 import org.xwiki.rest.Relations;
 import org.xwiki.rest.XWikiResource;
 import org.xwiki.rest.XWikiRestException;
+import org.xwiki.rest.internal.QueryResultIterator;
 import org.xwiki.rest.internal.Utils;
+import org.xwiki.rest.internal.representations.pages.StreamingPages;
 import org.xwiki.rest.model.jaxb.Link;
 import org.xwiki.rest.model.jaxb.PageSummary;
 import org.xwiki.rest.model.jaxb.Pages;
@@ -56,8 +58,6 @@ public Pages getPages(String wikiName, Integer start, String name, String space,
     {
         String database = Utils.getXWikiContext(componentManager).getWikiId();
 
-        Pages pages = objectFactory.createPages();
-
         /* This try is just needed for executing the finally clause. */
         try {
             Map<String, String> filters = new HashMap<String, String>();
@@ -102,61 +102,67 @@ public Pages getPages(String wikiName, Integer start, String name, String space,
                 f.format(")");
             }
 
+            // The results are fetched by chunks so they need a stable order
+            f.format(" order by doc.id");
+
             String queryString = f.toString();
 
             /* Execute the query by filling the parameters */
-            List<Object> queryResult = null;
+            Query query;
             try {
-                Query query = queryManager.createQuery(queryString, Query.XWQL).setLimit(number).setOffset(start);
+                query = queryManager.createQuery(queryString, Query.XWQL);
                 for (String param : filters.keySet()) {
                     query.bindValue(param, String.format("%%%s%%", filters.get(param).toUpperCase()));
                 }
-
-                queryResult = query.execute();
             } catch (QueryException e) {
                 throw new XWikiRestException(e);
             }
 
-            /* Get the results and populate the returned representation */
-            for (Object object : queryResult) {
-                XWikiDocument xwikiDocument = (XWikiDocument) object;
-                xwikiDocument.setDatabase(wikiName);
-
-                Document doc = new Document(xwikiDocument, Utils.getXWikiContext(componentManager));
-
-                /*
-                 * We manufacture page summaries in place because we don't have all the data for calling the
-                 * DomainObjectFactory method (doing so would require to retrieve an actual Document)
-                 */
-                PageSummary pageSummary = objectFactory.createPageSummary();
-                pageSummary.setId(doc.getPrefixedFullName());
-                pageSummary.setFullName(doc.getFullName());
-                pageSummary.setWiki(wikiName);
-                pageSummary.setSpace(doc.getSpace());
-                pageSummary.setName(doc.getDocumentReference().getName());
-                pageSummary.setTitle(doc.getTitle());
-                pageSummary.setParent(doc.getParent());
-
-                URL absoluteUrl = Utils.getXWikiContext(componentManager).getURLFactory().createExternalURL(
-                    doc.getSpace(), doc.getDocumentReference().getName(), "view", null, null,
-                    Utils.getXWikiContext(componentManager));
-                pageSummary.setXwikiAbsoluteUrl(absoluteUrl.toString());
-                pageSummary.setXwikiRelativeUrl(Utils.getXWikiContext(componentManager).getURLFactory().getURL(
-                    absoluteUrl, Utils.getXWikiContext(componentManager)));
-
-                String pageUri = Utils.createURI(uriInfo.getBaseUri(), PageResource.class, doc.getWiki(),
-                    Utils.getSpacesFromSpaceId(doc.getSpace()), doc.getDocumentReference().getName()).toString();
-                Link pageLink = objectFactory.createLink();
-                pageLink.setHref(pageUri);
-                pageLink.setRel(Relations.PAGE);
-                pageSummary.getLinks().add(pageLink);
-
-                pages.getPageSummaries().add(pageSummary);
-            }
+            /*
+             * The page summaries are produced while the response is written so that listing a large number of pages
+             * doesn't require keeping all of them in memory.
+             */
+            URI baseUri = uriInfo.getBaseUri();
+            return new StreamingPages(new QueryResultIterator<>(query, start, number, wikiName,
+                Utils.getXWikiContext(componentManager), result -> toPageSummary(result, wikiName, baseUri)));
         } finally {
             Utils.getXWikiContext(componentManager).setWikiId(database);
         }
+    }
 
-        return pages;
+    private PageSummary toPageSummary(Object result, String wikiName, URI baseUri)
+    {
+        XWikiDocument xwikiDocument = (XWikiDocument) result;
+        xwikiDocument.setDatabase(wikiName);
+
+        Document doc = new Document(xwikiDocument, Utils.getXWikiContext(componentManager));
+
+        /*
+         * We manufacture page summaries in place because we don't have all the data for calling the DomainObjectFactory
+         * method (doing so would require to retrieve an actual Document)
+         */
+        PageSummary pageSummary = objectFactory.createPageSummary();
+        pageSummary.setId(doc.getPrefixedFullName());
+        pageSummary.setFullName(doc.getFullName());
+        pageSummary.setWiki(wikiName);
+        pageSummary.setSpace(doc.getSpace());
+        pageSummary.setName(doc.getDocumentReference().getName());
+        pageSummary.setTitle(doc.getTitle());
+        pageSummary.setParent(doc.getParent());
+
+        URL absoluteUrl = Utils.getXWikiContext(componentManager).getURLFactory().createExternalURL(doc.getSpace(),
+            doc.getDocumentReference().getName(), "view", null, null, Utils.getXWikiContext(componentManager));
+        pageSummary.setXwikiAbsoluteUrl(absoluteUrl.toString());
+        pageSummary.setXwikiRelativeUrl(Utils.getXWikiContext(componentManager).getURLFactory().getURL(absoluteUrl,
+            Utils.getXWikiContext(componentManager)));
+
+        String pageUri = Utils.createURI(baseUri, PageResource.class, doc.getWiki(),
+            Utils.getSpacesFromSpaceId(doc.getSpace()), doc.getDocumentReference().getName()).toString();
+        Link pageLink = objectFactory.createLink();
+        pageLink.setHref(pageUri);
+        pageLink.setRel(Relations.PAGE);
+        pageSummary.getLinks().add(pageLink);
+
+        return pageSummary;
     }
 }
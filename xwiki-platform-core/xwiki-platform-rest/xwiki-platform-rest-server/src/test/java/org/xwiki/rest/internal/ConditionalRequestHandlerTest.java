@@ -0,0 +1,164 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+import javax.inject.Provider;
+import javax.ws.rs.WebApplicationException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.restlet.Request;
+import org.restlet.Response;
+import org.restlet.data.Method;
+import org.restlet.data.Tag;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiDocument;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ConditionalRequestHandler}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+public class ConditionalRequestHandlerTest
+{
+    private static final String URI = "http://localhost/xwiki/rest/wikis/wiki/spaces/Space/pages/Page";
+
+    @InjectMockComponents
+    private ConditionalRequestHandler handler;
+
+    @MockComponent
+    private Provider<XWikiContext> xcontextProvider;
+
+    private XWikiDocument document;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        XWikiContext xcontext = mock(XWikiContext.class);
+        when(this.xcontextProvider.get()).thenReturn(xcontext);
+        when(xcontext.getUserReference()).thenReturn(new DocumentReference("wiki", "XWiki", "User"));
+        when(xcontext.getLocale()).thenReturn(Locale.ENGLISH);
+
+        this.document = mock(XWikiDocument.class);
+        when(this.document.getDocumentReference()).thenReturn(new DocumentReference("wiki", "Space", "Page"));
+        when(this.document.getRealLocale()).thenReturn(Locale.ROOT);
+        when(this.document.getVersion()).thenReturn("1.1");
+        when(this.document.getDate()).thenReturn(new Date(1234567890123L));
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        Response.setCurrent(null);
+    }
+
+    private Request request()
+    {
+        Request request = new Request(Method.GET, URI);
+        Response.setCurrent(new Response(request));
+
+        return request;
+    }
+
+    private Tag evaluate()
+    {
+        Request request = request();
+
+        this.handler.evaluate(this.document);
+
+        assertEquals(new Date(1234567890000L),
+            request.getAttributes().get(ConditionalRequestHandler.MODIFICATION_DATE_ATTRIBUTE));
+
+        return (Tag) request.getAttributes().get(ConditionalRequestHandler.TAG_ATTRIBUTE);
+    }
+
+    @Test
+    public void evaluateWithoutRequest()
+    {
+        // Nothing to do outside of a REST request
+        this.handler.evaluate(this.document);
+    }
+
+    @Test
+    public void evaluateWithoutConditions()
+    {
+        Tag tag = evaluate();
+
+        assertNotNull(tag);
+        assertEquals(tag, evaluate());
+
+        when(this.document.getVersion()).thenReturn("1.2");
+
+        assertNotEquals(tag, evaluate());
+    }
+
+    @Test
+    public void evaluateNotModified()
+    {
+        Tag tag = evaluate();
+
+        Request request = request();
+        request.getConditions().setNoneMatch(Arrays.asList(tag));
+
+        WebApplicationException exception =
+            assertThrows(WebApplicationException.class, () -> this.handler.evaluate(this.document));
+        assertEquals(304, exception.getResponse().getStatus());
+    }
+
+    @Test
+    public void evaluateModified()
+    {
+        Request request = request();
+        request.getConditions().setNoneMatch(Arrays.asList(new Tag("other", false)));
+
+        this.handler.evaluate(this.document);
+
+        assertNotNull(request.getAttributes().get(ConditionalRequestHandler.TAG_ATTRIBUTE));
+    }
+
+    @Test
+    public void evaluateNotModifiedSince()
+    {
+        Request request = request();
+        request.getConditions().setModifiedSince(new Date(1234567890000L));
+
+        WebApplicationException exception =
+            assertThrows(WebApplicationException.class, () -> this.handler.evaluate(this.document));
+        assertEquals(304, exception.getResponse().getStatus());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.xwiki.query.Query;
+
+import com.xpn.xwiki.XWikiContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link QueryResultIterator}.
+ * 
+ * @version $Id$
+ */
+public class QueryResultIteratorTest
+{
+    private Query query;
+
+    private XWikiContext xcontext;
+
+    private List<String> executionWikis = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        this.query = mock(Query.class);
+        when(this.query.setOffset(anyInt())).thenReturn(this.query);
+        when(this.query.setLimit(anyInt())).thenReturn(this.query);
+
+        this.xcontext = new XWikiContext();
+        this.xcontext.setWikiId("current");
+    }
+
+    private <E> List<E> toList(QueryResultIterator<E> iterator)
+    {
+        List<E> elements = new ArrayList<>();
+        iterator.forEachRemaining(elements::add);
+
+        return elements;
+    }
+
+    @Test
+    public void iterateByChunks() throws Exception
+    {
+        when(this.query.execute()).then(invocation -> {
+            this.executionWikis.add(this.xcontext.getWikiId());
+            return this.executionWikis.size() == 1 ? Arrays.asList("a", "b") : Arrays.asList("c");
+        });
+
+        QueryResultIterator<String> iterator = new QueryResultIterator<>(this.query, 5, -1, "wiki", this.xcontext,
+            result -> "b".equals(result) ? null : result.toString().toUpperCase(), 2);
+
+        assertEquals(Arrays.asList("A", "C"), toList(iterator));
+        assertFalse(iterator.hasNext());
+
+        assertEquals(Arrays.asList("wiki", "wiki"), this.executionWikis);
+        assertEquals("current", this.xcontext.getWikiId());
+
+        InOrder inOrder = inOrder(this.query);
+        inOrder.verify(this.query).setOffset(5);
+        inOrder.verify(this.query).setLimit(2);
+        inOrder.verify(this.query).execute();
+        inOrder.verify(this.query).setOffset(7);
+        inOrder.verify(this.query).setLimit(2);
+        inOrder.verify(this.query).execute();
+    }
+
+    @Test
+    public void iterateWithLimit() throws Exception
+    {
+        when(this.query.execute()).thenReturn(Arrays.asList("a", "b"), Arrays.asList("c"), Collections.emptyList());
+
+        QueryResultIterator<Object> iterator =
+            new QueryResultIterator<>(this.query, 0, 3, "wiki", this.xcontext, result -> result, 2);
+
+        assertEquals(Arrays.asList("a", "b", "c"), toList(iterator));
+
+        InOrder inOrder = inOrder(this.query);
+        inOrder.verify(this.query).setOffset(0);
+        inOrder.verify(this.query).setLimit(2);
+        inOrder.verify(this.query).execute();
+        inOrder.verify(this.query).setOffset(2);
+        inOrder.verify(this.query).setLimit(1);
+        inOrder.verify(this.query).execute();
+        inOrder.verifyNoMoreInteractions();
+    }
+}
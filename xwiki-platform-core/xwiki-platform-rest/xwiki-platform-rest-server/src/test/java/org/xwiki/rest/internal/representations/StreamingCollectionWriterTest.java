@@ -0,0 +1,126 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.rest.internal.representations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.ws.rs.core.MediaType;
+import javax.xml.bind.JAXBContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.rest.internal.representations.pages.StreamingPages;
+import org.xwiki.rest.model.jaxb.Link;
+import org.xwiki.rest.model.jaxb.PageSummary;
+import org.xwiki.rest.model.jaxb.Pages;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link StreamingCollectionWriter}.
+ * 
+ * @version $Id$
+ */
+public class StreamingCollectionWriterTest
+{
+    private StreamingCollectionWriter writer;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        this.writer = new StreamingCollectionWriter();
+        this.writer.initialize();
+    }
+
+    private StreamingPages createPages()
+    {
+        PageSummary page1 = new PageSummary();
+        page1.setName("Page1");
+        Link link = new Link();
+        link.setHref("http://host/rest/wikis/xwiki/spaces/Space/pages/Page1");
+        link.setRel("http://www.xwiki.org/rel/page");
+        page1.getLinks().add(link);
+
+        PageSummary page2 = new PageSummary();
+        page2.setName("Page2");
+
+        return new StreamingPages(Arrays.asList(page1, page2).iterator());
+    }
+
+    private String write(StreamingPages pages, MediaType mediaType) throws Exception
+    {
+        assertTrue(this.writer.isWriteable(StreamingPages.class, Pages.class, null, mediaType));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        this.writer.writeTo(pages, StreamingPages.class, Pages.class, null, mediaType, null, stream);
+
+        return new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void isWriteable()
+    {
+        assertFalse(this.writer.isWriteable(Pages.class, Pages.class, null, MediaType.APPLICATION_XML_TYPE));
+    }
+
+    @Test
+    public void writeXML() throws Exception
+    {
+        String xml = write(createPages(), MediaType.APPLICATION_XML_TYPE);
+
+        Pages pages = (Pages) JAXBContext.newInstance(Pages.class).createUnmarshaller()
+            .unmarshal(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, pages.getPageSummaries().size());
+        assertEquals("Page1", pages.getPageSummaries().get(0).getName());
+        assertEquals("http://www.xwiki.org/rel/page", pages.getPageSummaries().get(0).getLinks().get(0).getRel());
+        assertEquals("Page2", pages.getPageSummaries().get(1).getName());
+    }
+
+    @Test
+    public void writeJSON() throws Exception
+    {
+        String json = write(createPages(), MediaType.APPLICATION_JSON_TYPE);
+
+        JsonNode pages = new ObjectMapper().readTree(json);
+
+        assertEquals(0, pages.get("links").size());
+        assertEquals(2, pages.get("pageSummaries").size());
+        assertEquals("Page1", pages.get("pageSummaries").get(0).get("name").asText());
+        assertEquals("http://www.xwiki.org/rel/page",
+            pages.get("pageSummaries").get(0).get("links").get(0).get("rel").asText());
+        assertEquals("Page2", pages.get("pageSummaries").get(1).get("name").asText());
+    }
+
+    @Test
+    public void getPageSummaries()
+    {
+        // Java callers still get the complete list
+        assertEquals(2, createPages().getPageSummaries().size());
+    }
+}
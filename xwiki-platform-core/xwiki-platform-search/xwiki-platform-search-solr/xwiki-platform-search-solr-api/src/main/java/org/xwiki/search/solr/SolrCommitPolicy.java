@@ -0,0 +1,58 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr;
+
+import java.io.IOException;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
+
+/**
+ * Decide how the changes sent to a Solr core are made visible to queries and persisted.
+ * <p>
+ * The code sending changes to Solr is expected to pass {@link #getCommitWithin()} to each update request and to call
+ * {@link #commit(SolrClient)} at the end of each batch instead of committing directly.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+@Role
+@Unstable
+public interface SolrCommitPolicy
+{
+    /**
+     * @return the maximum time in milliseconds before an update becomes visible to queries, to pass as
+     *         {@code commitWithin} parameter to the update requests, -1 if the update only becomes visible after
+     *         {@link #commit(SolrClient)}
+     */
+    int getCommitWithin();
+
+    /**
+     * Indicate that the current batch of changes is finished, which may or may not lead to an actual commit depending
+     * on the configuration.
+     * 
+     * @param client the client of the core to commit
+     * @throws SolrServerException when failing to commit
+     * @throws IOException when failing to commit
+     */
+    void commit(SolrClient client) throws SolrServerException, IOException;
+}
@@ -32,6 +32,7 @@
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.params.SolrParams;
 import org.slf4j.Logger;
+import org.xwiki.search.solr.SolrCommitPolicy;
 import org.xwiki.search.solr.internal.api.SolrInstance;
 
 /**
@@ -54,12 +55,20 @@ public abstract class AbstractSolrInstance implements SolrInstance
     @Inject
     protected Logger logger;
 
+    /**
+     * Decide when the changes are made visible.
+     * 
+     * @since 12.6
+     */
+    @Inject
+    protected SolrCommitPolicy commitPolicy;
+
     @Override
     public void add(SolrInputDocument solrDocument) throws SolrServerException, IOException
     {
         this.logger.debug("Add Solr document [{}] to index", solrDocument);
 
-        this.server.add(solrDocument);
+        this.server.add(solrDocument, this.commitPolicy.getCommitWithin());
     }
 
     @Override
@@ -67,7 +76,7 @@ public void add(List<SolrInputDocument> solrDocuments) throws SolrServerExceptio
     {
         this.logger.debug("Add Solr documents [{}] to index", solrDocuments);
 
-        this.server.add(solrDocuments);
+        this.server.add(solrDocuments, this.commitPolicy.getCommitWithin());
     }
 
     @Override
@@ -81,7 +90,7 @@ public void delete(String id) throws SolrServerException, IOException
     {
         this.logger.debug("Delete Solr document [{}] from index", id);
 
-        this.server.deleteById(id);
+        this.server.deleteById(id, this.commitPolicy.getCommitWithin());
     }
 
     @Override
@@ -89,7 +98,7 @@ public void delete(List<String> ids) throws SolrServerException, IOException
     {
         this.logger.debug("Delete Solr documents [{}] from index", ids);
 
-        this.server.deleteById(ids);
+        this.server.deleteById(ids, this.commitPolicy.getCommitWithin());
     }
 
     @Override
@@ -97,7 +106,7 @@ public void deleteByQuery(String query) throws SolrServerException, IOException
     {
         this.logger.debug("Delete Solr documents from index based on query [{}]", query);
 
-        this.server.deleteByQuery(query);
+        this.server.deleteByQuery(query, this.commitPolicy.getCommitWithin());
     }
 
     @Override
@@ -105,7 +114,7 @@ public void commit() throws SolrServerException, IOException
     {
         this.logger.debug("Commit changes to Solr");
 
-        this.server.commit();
+        this.commitPolicy.commit(this.server);
     }
 
     @Override
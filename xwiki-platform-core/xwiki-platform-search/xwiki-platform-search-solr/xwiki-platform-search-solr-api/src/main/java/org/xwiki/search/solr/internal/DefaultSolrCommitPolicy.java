@@ -0,0 +1,190 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.DisposePriority;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.search.solr.SolrCommitPolicy;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.search.solr.internal.api.SolrConfiguration.CommitMode;
+
+/**
+ * Default implementation of {@link SolrCommitPolicy} based on {@link SolrConfiguration#getCommitMode()}.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Singleton
+// We want the pending changes to be persisted after the indexer threads are finished but before the Solr client is
+// shutdown.
+@DisposePriority(600)
+public class DefaultSolrCommitPolicy implements SolrCommitPolicy, Initializable, Disposable
+{
+    @Inject
+    private SolrConfiguration configuration;
+
+    @Inject
+    private Logger logger;
+
+    /**
+     * The date of the last hard commit of each client.
+     */
+    private final Map<SolrClient, Long> hardCommits = new ConcurrentHashMap<>();
+
+    /**
+     * The clients with changes which are not persisted yet.
+     */
+    private final Set<SolrClient> pendingClients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Persist the pending changes even when no new batch is committed.
+     */
+    private ScheduledExecutorService hardCommitExecutor;
+
+    @Override
+    public void initialize()
+    {
+        long interval = this.configuration.getHardCommitInterval();
+
+        if (this.configuration.getCommitMode() != CommitMode.HARD && interval > 0) {
+            BasicThreadFactory factory = new BasicThreadFactory.Builder()
+                .namingPattern("XWiki Solr hard commit thread %d").daemon(true).build();
+            this.hardCommitExecutor = Executors.newSingleThreadScheduledExecutor(factory);
+            this.hardCommitExecutor.scheduleWithFixedDelay(this::hardCommitPending, interval, interval,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        if (this.hardCommitExecutor != null) {
+            this.hardCommitExecutor.shutdownNow();
+        }
+
+        // Don't lose the changes which were only soft committed
+        for (SolrClient client : new ArrayList<>(this.pendingClients)) {
+            try {
+                hardCommit(client);
+            } catch (Exception e) {
+                this.logger.warn("Failed to persist the last changes sent to Solr: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+    }
+
+    @Override
+    public int getCommitWithin()
+    {
+        return this.configuration.getCommitMode() == CommitMode.WITHIN ? this.configuration.getCommitWithin() : -1;
+    }
+
+    @Override
+    public void commit(SolrClient client) throws SolrServerException, IOException
+    {
+        switch (this.configuration.getCommitMode()) {
+            case SOFT:
+                if (isHardCommitNeeded(client)) {
+                    hardCommit(client);
+                } else {
+                    // Make the changes visible without flushing the segments to the disk
+                    this.pendingClients.add(client);
+                    client.commit(true, true, true);
+                }
+                break;
+
+            case WITHIN:
+                // Solr makes the changes visible by itself, we just need to persist them from time to time
+                if (isHardCommitNeeded(client)) {
+                    hardCommit(client);
+                } else {
+                    this.pendingClients.add(client);
+                }
+                break;
+
+            default:
+                hardCommit(client);
+                break;
+        }
+    }
+
+    private boolean isHardCommitNeeded(SolrClient client)
+    {
+        long now = System.currentTimeMillis();
+
+        long lastHardCommit = this.hardCommits.computeIfAbsent(client, key -> now);
+
+        return now - lastHardCommit >= this.configuration.getHardCommitInterval();
+    }
+
+    /**
+     * Persist the changes of the clients for which the last hard commit is older than the configured interval.
+     */
+    void hardCommitPending()
+    {
+        for (SolrClient client : new ArrayList<>(this.pendingClients)) {
+            if (isHardCommitNeeded(client)) {
+                try {
+                    hardCommit(client);
+                } catch (Exception e) {
+                    this.logger.warn("Failed to persist the changes sent to Solr: {}",
+                        ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+        }
+    }
+
+    private void hardCommit(SolrClient client) throws SolrServerException, IOException
+    {
+        // Changes sent during the commit will be handled by the next one
+        this.pendingClients.remove(client);
+
+        try {
+            client.commit();
+        } catch (SolrServerException | IOException | RuntimeException e) {
+            this.pendingClients.add(client);
+
+            throw e;
+        }
+
+        this.hardCommits.put(client, System.currentTimeMillis());
+    }
+}
@@ -31,6 +31,7 @@
 import org.xwiki.configuration.ConfigurationSource;
 import org.xwiki.environment.Environment;
 import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.search.solr.internal.api.SolrConfiguration.CommitMode;
 
 /**
  * Default implementation for {@link SolrConfiguration} that uses the xwiki.properties file.
@@ -124,6 +125,118 @@ public class DefaultSolrConfiguration implements SolrConfiguration
      */
     public static final int SOLR_INDEXER_QUEUE_CAPACITY_DEFAULT = 100000;
 
+    /**
+     * The name of the configuration property containing the number of threads used to extract the metadata.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_INDEXER_THREADS_PROPERTY = "solr.indexer.threads";
+
+    /**
+     * The default number of threads used to extract the metadata.
+     * 
+     * @since 12.6
+     */
+    public static final int SOLR_INDEXER_THREADS_DEFAULT = 1;
+
+    /**
+     * The name of the configuration property containing the maximum number of characters extracted from an attachment.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_ATTACHMENT_MAXCHARACTERS_PROPERTY = "solr.indexer.attachment.maxCharacters";
+
+    /**
+     * The default maximum number of characters extracted from an attachment.
+     * 
+     * @since 12.6
+     */
+    public static final int SOLR_ATTACHMENT_MAXCHARACTERS_DEFAULT = 100000;
+
+    /**
+     * The name of the configuration property containing the maximum time spent extracting an attachment.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_ATTACHMENT_TIMEOUT_PROPERTY = "solr.indexer.attachment.timeout";
+
+    /**
+     * The default maximum time spent extracting an attachment.
+     * 
+     * @since 12.6
+     */
+    public static final long SOLR_ATTACHMENT_TIMEOUT_DEFAULT = 60000;
+
+    /**
+     * The name of the configuration property containing the number of threads used to extract the attachments.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_ATTACHMENT_THREADS_PROPERTY = "solr.indexer.attachment.threads";
+
+    /**
+     * The default number of threads used to extract the attachments.
+     * 
+     * @since 12.6
+     */
+    public static final int SOLR_ATTACHMENT_THREADS_DEFAULT = 1;
+
+    /**
+     * The name of the configuration property containing the size of the extracted attachment contents cache.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_ATTACHMENT_CACHESIZE_PROPERTY = "solr.indexer.attachment.cacheSize";
+
+    /**
+     * The default size of the extracted attachment contents cache.
+     * 
+     * @since 12.6
+     */
+    public static final int SOLR_ATTACHMENT_CACHESIZE_DEFAULT = 100;
+
+    /**
+     * The name of the configuration property containing the commit mode.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_COMMIT_MODE_PROPERTY = "solr.commit.mode";
+
+    /**
+     * The default commit mode.
+     * 
+     * @since 12.6
+     */
+    public static final CommitMode SOLR_COMMIT_MODE_DEFAULT = CommitMode.HARD;
+
+    /**
+     * The name of the configuration property containing the maximum delay before a change is visible.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_COMMIT_WITHIN_PROPERTY = "solr.commit.within";
+
+    /**
+     * The default maximum delay before a change is visible.
+     * 
+     * @since 12.6
+     */
+    public static final int SOLR_COMMIT_WITHIN_DEFAULT = 1000;
+
+    /**
+     * The name of the configuration property containing the minimum time between two hard commits.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_COMMIT_HARDINTERVAL_PROPERTY = "solr.commit.hardInterval";
+
+    /**
+     * The default minimum time between two hard commits.
+     * 
+     * @since 12.6
+     */
+    public static final long SOLR_COMMIT_HARDINTERVAL_DEFAULT = 60000;
+
     /**
      * The name of the configuration property indicating if a synchronization should be run at startup.
      */
@@ -145,6 +258,34 @@ public class DefaultSolrConfiguration implements SolrConfiguration
     public static final SynchronizeAtStartupMode SOLR_SYNCHRONIZE_AT_STARTUP_MODE_DEFAULT =
         SynchronizeAtStartupMode.FARM;
 
+    /**
+     * The name of the configuration property indicating if the synchronization should be incremental.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_SYNCHRONIZE_INCREMENTAL_PROPERTY = "solr.synchronize.incremental";
+
+    /**
+     * Indicate if the synchronization should be incremental by default.
+     * 
+     * @since 12.6
+     */
+    public static final boolean SOLR_SYNCHRONIZE_INCREMENTAL_DEFAULT = false;
+
+    /**
+     * The name of the configuration property containing the number of wikis synchronized in parallel.
+     * 
+     * @since 12.6
+     */
+    public static final String SOLR_SYNCHRONIZE_THREADS_PROPERTY = "solr.synchronize.threads";
+
+    /**
+     * The default number of wikis synchronized in parallel.
+     * 
+     * @since 12.6
+     */
+    public static final int SOLR_SYNCHRONIZE_THREADS_DEFAULT = 1;
+
     /**
      * The Solr configuration source.
      */
@@ -200,6 +341,63 @@ public int getIndexerQueueCapacity()
             SOLR_INDEXER_QUEUE_CAPACITY_DEFAULT);
     }
 
+    @Override
+    public int getIndexerThreads()
+    {
+        return this.configuration.getProperty(SOLR_INDEXER_THREADS_PROPERTY, SOLR_INDEXER_THREADS_DEFAULT);
+    }
+
+    @Override
+    public int getAttachmentMaxCharacters()
+    {
+        return this.configuration.getProperty(SOLR_ATTACHMENT_MAXCHARACTERS_PROPERTY,
+            SOLR_ATTACHMENT_MAXCHARACTERS_DEFAULT);
+    }
+
+    @Override
+    public long getAttachmentTimeout()
+    {
+        return this.configuration.getProperty(SOLR_ATTACHMENT_TIMEOUT_PROPERTY, SOLR_ATTACHMENT_TIMEOUT_DEFAULT);
+    }
+
+    @Override
+    public int getAttachmentThreads()
+    {
+        return this.configuration.getProperty(SOLR_ATTACHMENT_THREADS_PROPERTY, SOLR_ATTACHMENT_THREADS_DEFAULT);
+    }
+
+    @Override
+    public int getAttachmentCacheSize()
+    {
+        return this.configuration.getProperty(SOLR_ATTACHMENT_CACHESIZE_PROPERTY, SOLR_ATTACHMENT_CACHESIZE_DEFAULT);
+    }
+
+    @Override
+    public CommitMode getCommitMode()
+    {
+        String value = this.configuration.getProperty(SOLR_COMMIT_MODE_PROPERTY, SOLR_COMMIT_MODE_DEFAULT.name());
+
+        CommitMode result;
+        try {
+            result = CommitMode.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            result = SOLR_COMMIT_MODE_DEFAULT;
+        }
+        return result;
+    }
+
+    @Override
+    public int getCommitWithin()
+    {
+        return this.configuration.getProperty(SOLR_COMMIT_WITHIN_PROPERTY, SOLR_COMMIT_WITHIN_DEFAULT);
+    }
+
+    @Override
+    public long getHardCommitInterval()
+    {
+        return this.configuration.getProperty(SOLR_COMMIT_HARDINTERVAL_PROPERTY, SOLR_COMMIT_HARDINTERVAL_DEFAULT);
+    }
+
     @Override
     public boolean synchronizeAtStartup()
     {
@@ -238,4 +436,17 @@ public SynchronizeAtStartupMode synchronizeAtStartupMode()
         }
         return result;
     }
+
+    @Override
+    public boolean isSynchronizeIncremental()
+    {
+        return this.configuration.getProperty(SOLR_SYNCHRONIZE_INCREMENTAL_PROPERTY,
+            SOLR_SYNCHRONIZE_INCREMENTAL_DEFAULT);
+    }
+
+    @Override
+    public int getSynchronizeThreads()
+    {
+        return this.configuration.getProperty(SOLR_SYNCHRONIZE_THREADS_PROPERTY, SOLR_SYNCHRONIZE_THREADS_DEFAULT);
+    }
 }
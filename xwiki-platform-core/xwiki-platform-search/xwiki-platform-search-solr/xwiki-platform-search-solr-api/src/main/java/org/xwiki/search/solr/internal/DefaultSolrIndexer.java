@@ -19,13 +19,24 @@
  */
 package org.xwiki.search.solr.internal;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.solr.common.SolrInputDocument;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
@@ -42,6 +53,7 @@
 import org.xwiki.context.ExecutionContextManager;
 import org.xwiki.job.JobException;
 import org.xwiki.job.JobExecutor;
+import org.xwiki.management.JMXBeanRegistration;
 import org.xwiki.model.EntityType;
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.search.solr.internal.api.SolrConfiguration;
@@ -49,6 +61,7 @@
 import org.xwiki.search.solr.internal.api.SolrIndexerException;
 import org.xwiki.search.solr.internal.api.SolrInstance;
 import org.xwiki.search.solr.internal.job.IndexerJob;
+import org.xwiki.search.solr.internal.jmx.JMXSolrIndexer;
 import org.xwiki.search.solr.internal.job.IndexerRequest;
 import org.xwiki.search.solr.internal.metadata.LengthSolrInputDocument;
 import org.xwiki.search.solr.internal.metadata.SolrMetadataExtractor;
@@ -62,6 +75,10 @@
  * This implementation does not directly process the given leaf-references, but adds them to a processing queue, in the
  * order they were received. The {@link Runnable} part of this implementation is the one that sequentially reads and
  * processes the queue.
+ * <p>
+ * An index request for a reference which is already waiting in the queue is merged with the waiting one. When more
+ * than one indexer thread is configured, the Solr documents are extracted in parallel but are still sent to Solr in
+ * the order of the queue by a single thread.
  * 
  * @version $Id$
  * @since 5.1M2
@@ -96,6 +113,31 @@ public class DefaultSolrIndexer implements SolrIndexer, Initializable, Disposabl
          */
         public IndexOperation operation;
 
+        /**
+         * The time when the entry was added to the queue.
+         */
+        public long queuedTime = System.nanoTime();
+
+        /**
+         * The Solr document being extracted in the build thread pool, {@code null} if it should be extracted by the
+         * index thread.
+         */
+        public Future<LengthSolrInputDocument> document;
+
+        /**
+         * The future to complete when the entry is reached, for {@link IndexOperation#MARK} entries.
+         */
+        public CompletableFuture<Void> marker;
+
+        /**
+         * @param marker the future to complete when the entry is reached
+         */
+        public IndexQueueEntry(CompletableFuture<Void> marker)
+        {
+            this.marker = marker;
+            this.operation = IndexOperation.MARK;
+        }
+
         /**
          * @param indexReference the reference of the entity to index.
          * @param operation the indexing operation to perform.
@@ -128,6 +170,9 @@ public String toString()
                 case DELETE:
                     str = "DELETE " + this.deleteQuery;
                     break;
+                case MARK:
+                    str = "MARK";
+                    break;
                 case STOP:
                     str = "STOP";
                     break;
@@ -162,6 +207,20 @@ public String toString()
          */
         public IndexOperation operation;
 
+        /**
+         * The future to complete when the entry is reached, for {@link IndexOperation#MARK} entries.
+         */
+        public CompletableFuture<Void> marker;
+
+        /**
+         * @param marker the future to complete when the entry is reached
+         */
+        public ResolveQueueEntry(CompletableFuture<Void> marker)
+        {
+            this.marker = marker;
+            this.operation = IndexOperation.MARK;
+        }
+
         /**
          * @param reference the reference of the entity to index.
          * @param recurse also apply operation to reference children.
@@ -199,10 +258,12 @@ public void runInternal()
                 if (queueEntry == RESOLVE_QUEUE_ENTRY_STOP) {
                     // Stop the index thread: clear the queue and send the stop signal without blocking.
                     indexQueue.clear();
+                    pendingIndex.clear();
                     indexQueue.offer(INDEX_QUEUE_ENTRY_STOP);
                     break;
                 }
 
+                long start = System.nanoTime();
                 try {
                     if (queueEntry.operation == IndexOperation.INDEX) {
                         Iterable<EntityReference> references;
@@ -213,9 +274,15 @@ public void runInternal()
                         }
 
                         for (EntityReference reference : references) {
-                            indexQueue.put(new IndexQueueEntry(reference, queueEntry.operation));
+                            addToIndexQueue(reference);
                         }
+                    } else if (queueEntry.operation == IndexOperation.MARK) {
+                        // Index entries waiting before the mark are processed before it anyway
+                        indexQueue.put(new IndexQueueEntry(queueEntry.marker));
                     } else {
+                        // An index entry waiting before the delete cannot absorb the index requests coming after it
+                        pendingIndex.clear();
+
                         if (queueEntry.recurse) {
                             indexQueue.put(new IndexQueueEntry(solrRefereceResolver.getQuery(queueEntry.reference),
                                 queueEntry.operation));
@@ -226,11 +293,32 @@ public void runInternal()
                 } catch (Throwable e) {
                     logger.warn("Failed to apply operation [{}] on root reference [{}]", queueEntry.operation,
                         queueEntry.reference, e);
+                } finally {
+                    statistics.getResolve().record(System.nanoTime() - start);
                 }
             }
 
             logger.debug("Stop SOLR resolver thread");
         }
+
+        private void addToIndexQueue(EntityReference reference) throws InterruptedException
+        {
+            IndexQueueEntry entry = new IndexQueueEntry(reference, IndexOperation.INDEX);
+
+            // Skip the reference if it's already waiting to be indexed: the document will be extracted after this
+            // request anyway.
+            if (pendingIndex.putIfAbsent(reference, entry) == null) {
+                try {
+                    indexQueue.put(entry);
+                } catch (InterruptedException e) {
+                    pendingIndex.remove(reference, entry);
+
+                    throw e;
+                }
+            } else {
+                statistics.coalesced();
+            }
+        }
     }
 
     /**
@@ -245,6 +333,8 @@ public void runInternal()
     private static final IndexQueueEntry INDEX_QUEUE_ENTRY_STOP =
         new IndexQueueEntry((String) null, IndexOperation.STOP);
 
+    private static final String MBEAN_NAME = "name=solrindexer";
+
     /**
      * Logging framework.
      */
@@ -284,6 +374,9 @@ public void runInternal()
     @Inject
     private JobExecutor jobs;
 
+    @Inject
+    private JMXBeanRegistration jmxRegistration;
+
     /**
      * The queue of index operation to perform.
      */
@@ -294,6 +387,31 @@ public void runInternal()
      */
     private BlockingQueue<ResolveQueueEntry> resolveQueue;
 
+    /**
+     * The index entries which are waiting in the index queue.
+     */
+    private final ConcurrentMap<EntityReference, IndexQueueEntry> pendingIndex = new ConcurrentHashMap<>();
+
+    /**
+     * The futures returned by {@link #whenProcessed()} which are not yet completed.
+     */
+    private final Set<CompletableFuture<Void>> markers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The threads extracting the Solr documents, {@code null} if they are extracted by the index thread.
+     */
+    private ExecutorService buildExecutor;
+
+    /**
+     * The maximum number of entries being processed at the same time by the index thread.
+     */
+    private int pipelineCapacity;
+
+    /**
+     * The counters and timers of the various stages of the indexing.
+     */
+    private final SolrIndexerStatistics statistics = new SolrIndexerStatistics();
+
     /**
      * Thread in which the indexUpdater will be executed.
      */
@@ -314,6 +432,11 @@ public void runInternal()
      */
     private volatile int batchSize;
 
+    /**
+     * The number of entries taken from the index queue and not yet sent.
+     */
+    private volatile int pipelineSize;
+
     @Override
     public void initialize() throws InitializationException
     {
@@ -321,6 +444,18 @@ public void initialize() throws InitializationException
         this.resolveQueue = new LinkedBlockingQueue<>();
         this.indexQueue = new LinkedBlockingQueue<>(this.configuration.getIndexerQueueCapacity());
 
+        // Initialize the pool of threads extracting the Solr documents
+        int threads = this.configuration.getIndexerThreads();
+        if (threads > 1) {
+            BasicThreadFactory factory = new BasicThreadFactory.Builder().namingPattern("XWiki Solr build thread %d")
+                .daemon(true).priority(Thread.NORM_PRIORITY - 1).build();
+            this.buildExecutor = Executors.newFixedThreadPool(threads, factory);
+            // Give enough work in advance to the build threads without keeping too many documents in memory
+            this.pipelineCapacity = threads * 2;
+        } else {
+            this.pipelineCapacity = 1;
+        }
+
         // Launch the resolve thread
         this.resolveThread = new Thread(new Resolver());
         this.resolveThread.setName("XWiki Solr resolve thread");
@@ -334,6 +469,9 @@ public void initialize() throws InitializationException
         this.indexThread.setDaemon(true);
         this.indexThread.start();
         this.indexThread.setPriority(Thread.NORM_PRIORITY - 1);
+
+        this.jmxRegistration.registerMBean(new JMXSolrIndexer(this.statistics, this.resolveQueue::size,
+            this.indexQueue::size), MBEAN_NAME);
     }
 
     @Override
@@ -352,7 +490,19 @@ public void dispose() throws ComponentLifecycleException
         // greater than 1. In the worse case, the clear call will unblock the resolve thread (which was waiting because
         // the index queue was full) and just one entry will be added to the queue before the special stop entry.
         this.indexQueue.clear();
+        this.pendingIndex.clear();
         this.indexQueue.offer(INDEX_QUEUE_ENTRY_STOP);
+
+        // Nobody is going to reach the waiting marks anymore
+        this.markers.forEach(marker -> marker.cancel(false));
+        this.markers.clear();
+
+        // Documents being extracted when the index thread stops are discarded anyway.
+        if (this.buildExecutor != null) {
+            this.buildExecutor.shutdown();
+        }
+
+        this.jmxRegistration.unregisterMBean(MBEAN_NAME);
     }
 
     @Override
@@ -392,38 +542,32 @@ private boolean processBatch(IndexQueueEntry queueEntry)
     {
         int length = 0;
 
-        for (IndexQueueEntry batchEntry = queueEntry; batchEntry != null; batchEntry = this.indexQueue.poll()) {
-            if (batchEntry == INDEX_QUEUE_ENTRY_STOP) {
-                // Discard the current batch and stop the indexing thread.
-                return false;
+        // The entries taken from the queue, in order, with their Solr document possibly being extracted in parallel
+        Deque<IndexQueueEntry> pipeline = new ArrayDeque<>(this.pipelineCapacity);
+
+        IndexQueueEntry nextEntry = queueEntry;
+        while (nextEntry != null || !pipeline.isEmpty()) {
+            // Fill the pipeline with the entries available in the queue
+            while (nextEntry != null && pipeline.size() < this.pipelineCapacity) {
+                if (nextEntry == INDEX_QUEUE_ENTRY_STOP) {
+                    // Discard the current batch and stop the indexing thread.
+                    cancel(pipeline);
+
+                    return false;
+                }
+
+                pipeline.add(prepare(nextEntry));
+                nextEntry = this.indexQueue.poll();
             }
+            this.pipelineSize = pipeline.size();
 
-            IndexOperation operation = batchEntry.operation;
+            length += process(pipeline.poll());
 
-            // For the current contiguous operations queue, group the changes
-            try {
-                this.ecim.initialize(new ExecutionContext());
-
-                if (IndexOperation.INDEX.equals(operation)) {
-                    LengthSolrInputDocument solrDocument = getSolrDocument(batchEntry.reference);
-                    if (solrDocument != null) {
-                        solrInstance.add(solrDocument);
-                        length += solrDocument.getLength();
-                        ++this.batchSize;
-                    }
-                } else if (IndexOperation.DELETE.equals(operation)) {
-                    if (batchEntry.reference == null) {
-                        solrInstance.deleteByQuery(batchEntry.deleteQuery);
-                    } else {
-                        solrInstance.delete(this.solrRefereceResolver.getId(batchEntry.reference));
-                    }
+            if (Thread.currentThread().isInterrupted()) {
+                // Discard the current batch and stop the indexing thread.
+                cancel(pipeline);
 
-                    ++this.batchSize;
-                }
-            } catch (Throwable e) {
-                this.logger.error("Failed to process entry [{}]", batchEntry, e);
-            } finally {
-                this.execution.removeContext();
+                return false;
             }
 
             // Commit the index changes so that they become available to queries. This is a costly operation and that is
@@ -432,7 +576,12 @@ private boolean processBatch(IndexQueueEntry queueEntry)
                 commit();
                 length = 0;
             }
+
+            if (nextEntry == null) {
+                nextEntry = this.indexQueue.poll();
+            }
         }
+        this.pipelineSize = 0;
 
         // Commit what's left
         if (this.batchSize > 0) {
@@ -442,13 +591,118 @@ private boolean processBatch(IndexQueueEntry queueEntry)
         return true;
     }
 
+    /**
+     * Start extracting the Solr document of the passed entry in the build thread pool (if any).
+     * 
+     * @param entry the entry just taken from the index queue
+     * @return the entry
+     */
+    private IndexQueueEntry prepare(IndexQueueEntry entry)
+    {
+        if (IndexOperation.INDEX.equals(entry.operation)) {
+            // From now on new index requests for this reference must be added to the queue again
+            this.pendingIndex.remove(entry.reference, entry);
+
+            this.statistics.getQueue().record(System.nanoTime() - entry.queuedTime);
+
+            if (this.buildExecutor != null) {
+                entry.document = this.buildExecutor.submit(() -> getSolrDocumentInContext(entry.reference));
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * @param pipeline the entries to cancel
+     */
+    private void cancel(Deque<IndexQueueEntry> pipeline)
+    {
+        for (IndexQueueEntry entry : pipeline) {
+            if (entry.document != null) {
+                entry.document.cancel(true);
+            }
+        }
+        pipeline.clear();
+    }
+
+    /**
+     * Send the passed entry to Solr.
+     * 
+     * @param entry the entry to process
+     * @return the length of the data added to the batch
+     */
+    private int process(IndexQueueEntry entry)
+    {
+        int length = 0;
+
+        try {
+            if (IndexOperation.INDEX.equals(entry.operation)) {
+                LengthSolrInputDocument solrDocument;
+                if (entry.document != null) {
+                    solrDocument = entry.document.get();
+                } else {
+                    solrDocument = getSolrDocumentInContext(entry.reference);
+                }
+
+                if (solrDocument != null) {
+                    long start = System.nanoTime();
+                    solrInstance.add(solrDocument);
+                    this.statistics.getWrite().record(System.nanoTime() - start);
+
+                    length = solrDocument.getLength();
+                    ++this.batchSize;
+                }
+            } else if (IndexOperation.DELETE.equals(entry.operation)) {
+                long start = System.nanoTime();
+                try {
+                    this.ecim.initialize(new ExecutionContext());
+
+                    if (entry.reference == null) {
+                        solrInstance.deleteByQuery(entry.deleteQuery);
+                    } else {
+                        solrInstance.delete(this.solrRefereceResolver.getId(entry.reference));
+                    }
+                } finally {
+                    this.execution.removeContext();
+                }
+                this.statistics.getWrite().record(System.nanoTime() - start);
+                this.statistics.deleted();
+
+                ++this.batchSize;
+            } else if (IndexOperation.MARK.equals(entry.operation)) {
+                // Make sure what comes before the mark is visible before notifying it
+                if (this.batchSize > 0) {
+                    commit();
+                }
+
+                this.markers.remove(entry.marker);
+                entry.marker.complete(null);
+            }
+        } catch (InterruptedException e) {
+            this.logger.warn("The SOLR index thread has been interrupted while processing entry [{}]", entry, e);
+
+            // Let the index thread stop
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            this.logger.error("Failed to process entry [{}]", entry, e.getCause());
+        } catch (Throwable e) {
+            this.logger.error("Failed to process entry [{}]", entry, e);
+        }
+
+        return length;
+    }
+
     /**
      * Commit.
      */
     private void commit()
     {
+        long start = System.nanoTime();
         try {
             solrInstance.commit();
+
+            this.statistics.getCommit().record(System.nanoTime() - start);
         } catch (Exception e) {
             this.logger.error("Failed to commit index changes to the Solr server. Rolling back.", e);
 
@@ -481,6 +735,30 @@ private boolean shouldCommit(int length, int size)
         return size >= this.configuration.getIndexerBatchSize();
     }
 
+    /**
+     * Extract the Solr document of the passed reference in a new execution context.
+     * 
+     * @param reference the reference to extract metadata from.
+     * @return the {@link SolrInputDocument} containing extracted metadata from the passed reference; {@code null} if
+     *         the reference type is not supported.
+     * @throws SolrIndexerException if problems occur.
+     * @throws ExecutionContextException when failing to initialize the execution context
+     */
+    private LengthSolrInputDocument getSolrDocumentInContext(EntityReference reference)
+        throws SolrIndexerException, ExecutionContextException
+    {
+        long start = System.nanoTime();
+        try {
+            this.ecim.initialize(new ExecutionContext());
+
+            return getSolrDocument(reference);
+        } finally {
+            this.execution.removeContext();
+
+            this.statistics.getBuild().record(System.nanoTime() - start);
+        }
+    }
+
     /**
      * @param reference the reference to extract metadata from.
      * @return the {@link SolrInputDocument} containing extracted metadata from the passed reference; {@code null} if
@@ -552,7 +830,29 @@ private void addToQueue(EntityReference reference, boolean recurse, IndexOperati
     @Override
     public int getQueueSize()
     {
-        return this.indexQueue.size() + this.resolveQueue.size() + this.batchSize;
+        return this.indexQueue.size() + this.resolveQueue.size() + this.pipelineSize + this.batchSize;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenProcessed()
+    {
+        CompletableFuture<Void> marker = new CompletableFuture<>();
+
+        this.markers.add(marker);
+
+        if (this.disposed) {
+            marker.cancel(false);
+        } else {
+            try {
+                this.resolveQueue.put(new ResolveQueueEntry(marker));
+            } catch (InterruptedException e) {
+                marker.cancel(false);
+
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return marker;
     }
 
     @Override
@@ -39,6 +39,13 @@
 
     // General operations
 
+    /**
+     * Notify that all the previous operations have been processed.
+     *
+     * @since 12.6
+     */
+    MARK,
+
     /**
      * Stop indexing thread.
      */
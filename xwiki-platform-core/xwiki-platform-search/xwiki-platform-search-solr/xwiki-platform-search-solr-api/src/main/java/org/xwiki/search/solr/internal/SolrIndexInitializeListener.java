@@ -130,6 +130,7 @@ public void onEvent(Event event, Object source, Object data)
                 }
 
                 if (request != null) {
+                    request.setIncremental(this.configuration.isSynchronizeIncremental());
                     this.solrIndexer.get().startIndex(request);
                 }
             } catch (SolrIndexerException | WikiManagerException e) {
@@ -0,0 +1,177 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers collected by {@link DefaultSolrIndexer} for each stage of the indexing pipeline.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+public class SolrIndexerStatistics
+{
+    /**
+     * Accumulate the duration of the operations executed by a stage of the pipeline.
+     * 
+     * @version $Id$
+     */
+    public static class StageTimer
+    {
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder time = new LongAdder();
+
+        /**
+         * @param nanoseconds the duration of one operation, in nanoseconds
+         */
+        public void record(long nanoseconds)
+        {
+            this.count.increment();
+            this.time.add(nanoseconds);
+        }
+
+        /**
+         * @return the number of recorded operations
+         */
+        public long getCount()
+        {
+            return this.count.sum();
+        }
+
+        /**
+         * @return the average duration of an operation, in milliseconds
+         */
+        public double getAverageMilliseconds()
+        {
+            long currentCount = this.count.sum();
+
+            return currentCount > 0 ? (double) this.time.sum() / currentCount / TimeUnit.MILLISECONDS.toNanos(1) : 0;
+        }
+
+        private void reset()
+        {
+            this.count.reset();
+            this.time.reset();
+        }
+    }
+
+    private final StageTimer resolve = new StageTimer();
+
+    private final StageTimer queue = new StageTimer();
+
+    private final StageTimer build = new StageTimer();
+
+    private final StageTimer write = new StageTimer();
+
+    private final StageTimer commit = new StageTimer();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder deleted = new LongAdder();
+
+    /**
+     * @return the time spent resolving the references to index
+     */
+    public StageTimer getResolve()
+    {
+        return this.resolve;
+    }
+
+    /**
+     * @return the time spent by the entries in the index queue
+     */
+    public StageTimer getQueue()
+    {
+        return this.queue;
+    }
+
+    /**
+     * @return the time spent extracting the metadata of the entities
+     */
+    public StageTimer getBuild()
+    {
+        return this.build;
+    }
+
+    /**
+     * @return the time spent sending the operations to Solr
+     */
+    public StageTimer getWrite()
+    {
+        return this.write;
+    }
+
+    /**
+     * @return the time spent committing the batches
+     */
+    public StageTimer getCommit()
+    {
+        return this.commit;
+    }
+
+    /**
+     * Indicate that an index request was merged with an identical request still waiting in the queue.
+     */
+    public void coalesced()
+    {
+        this.coalesced.increment();
+    }
+
+    /**
+     * @return the number of index requests merged with an identical request still waiting in the queue
+     */
+    public long getCoalescedCount()
+    {
+        return this.coalesced.sum();
+    }
+
+    /**
+     * Indicate that a delete operation was sent to Solr.
+     */
+    public void deleted()
+    {
+        this.deleted.increment();
+    }
+
+    /**
+     * @return the number of delete operations sent to Solr
+     */
+    public long getDeletedCount()
+    {
+        return this.deleted.sum();
+    }
+
+    /**
+     * Reset all counters and timers.
+     */
+    public void reset()
+    {
+        this.resolve.reset();
+        this.queue.reset();
+        this.build.reset();
+        this.write.reset();
+        this.commit.reset();
+        this.coalesced.reset();
+        this.deleted.reset();
+    }
+}
@@ -50,6 +50,29 @@
         WIKI
     }
 
+    /**
+     * Available ways of making the changes visible to queries.
+     * 
+     * @since 12.6
+     */
+    enum CommitMode
+    {
+        /**
+         * Flush the changes to the disk and open a new searcher at the end of each batch.
+         */
+        HARD,
+
+        /**
+         * Open a new searcher at the end of each batch but only flush the changes to the disk periodically.
+         */
+        SOFT,
+
+        /**
+         * Let Solr make the changes visible after a bounded delay and only flush the changes to the disk periodically.
+         */
+        WITHIN
+    }
+
     /**
      * @return the type of Solr server used. Supported values: "embedded" or "remote".
      */
@@ -98,6 +121,57 @@
      */
     int getIndexerQueueCapacity();
 
+    /**
+     * @return the number of threads used to extract the metadata of the entities to index, the documents are still
+     *         sent to Solr in order by a single thread
+     * @since 12.6
+     */
+    int getIndexerThreads();
+
+    /**
+     * @return the maximum number of characters extracted from the content of an attachment
+     * @since 12.6
+     */
+    int getAttachmentMaxCharacters();
+
+    /**
+     * @return the maximum time in milliseconds spent extracting the content of an attachment, 0 for no limit
+     * @since 12.6
+     */
+    long getAttachmentTimeout();
+
+    /**
+     * @return the number of threads used to extract the content of the attachments
+     * @since 12.6
+     */
+    int getAttachmentThreads();
+
+    /**
+     * @return the maximum number of extracted attachment contents kept in memory, 0 to disable the cache
+     * @since 12.6
+     */
+    int getAttachmentCacheSize();
+
+    /**
+     * @return the way the changes are made visible to queries, for all the cores
+     * @since 12.6
+     */
+    CommitMode getCommitMode();
+
+    /**
+     * @return the maximum time in milliseconds before a change is made visible to queries when the commit mode is
+     *         {@link CommitMode#WITHIN}
+     * @since 12.6
+     */
+    int getCommitWithin();
+
+    /**
+     * @return the minimum time in milliseconds between two hard commits when the commit mode is
+     *         {@link CommitMode#SOFT} or {@link CommitMode#WITHIN}
+     * @since 12.6
+     */
+    long getHardCommitInterval();
+
     /**
      * @return true if a full synchronization job between the database and SOLR index should be run when XWiki starts
      * @since 6.1M2
@@ -121,4 +195,17 @@
      * @since 12.5RC1
      */
     SynchronizeAtStartupMode synchronizeAtStartupMode();
+
+    /**
+     * @return true if the synchronization started at startup should only compare the documents modified since the last
+     *         complete synchronization and resume where an interrupted synchronization stopped
+     * @since 12.6
+     */
+    boolean isSynchronizeIncremental();
+
+    /**
+     * @return the number of wikis compared in parallel during an incremental synchronization
+     * @since 12.6
+     */
+    int getSynchronizeThreads();
 }
@@ -19,6 +19,8 @@
  */
 package org.xwiki.search.solr.internal.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.xwiki.component.annotation.Role;
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.search.solr.internal.job.IndexerJob;
@@ -60,6 +62,13 @@
      */
     int getQueueSize();
 
+    /**
+     * @return a future completed once all the operations added to the queue before this call have been processed and
+     *         committed, canceled if the indexer is stopped before
+     * @since 12.6
+     */
+    CompletableFuture<Void> whenProcessed();
+
     /**
      * Start an indexing with specific criteria.
      * 
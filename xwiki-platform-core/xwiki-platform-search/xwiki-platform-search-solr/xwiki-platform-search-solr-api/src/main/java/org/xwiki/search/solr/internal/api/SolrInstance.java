@@ -112,6 +112,9 @@ public interface SolrInstance extends Initializable
 
     /**
      * Commit the recent (uncommitted) changes to the Solr server.
+     * <p>
+     * Depending on the configured {@link org.xwiki.search.solr.SolrCommitPolicy} the changes might only be made visible
+     * to queries and persisted later.
      * 
      * @throws SolrServerException if problems occur.
      * @throws IOException if problems occur.
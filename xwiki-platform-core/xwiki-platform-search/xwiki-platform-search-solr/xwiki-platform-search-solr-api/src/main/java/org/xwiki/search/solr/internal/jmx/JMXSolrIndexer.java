@@ -0,0 +1,124 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.jmx;
+
+import java.util.function.IntSupplier;
+
+import org.xwiki.search.solr.internal.SolrIndexerStatistics;
+
+/**
+ * Implementation of the Solr indexer JMX MBean.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class JMXSolrIndexer implements JMXSolrIndexerMBean
+{
+    private final SolrIndexerStatistics statistics;
+
+    private final IntSupplier resolveQueueSize;
+
+    private final IntSupplier indexQueueSize;
+
+    /**
+     * @param statistics the statistics collected by the indexer
+     * @param resolveQueueSize the size of the resolve queue
+     * @param indexQueueSize the size of the index queue
+     */
+    public JMXSolrIndexer(SolrIndexerStatistics statistics, IntSupplier resolveQueueSize,
+        IntSupplier indexQueueSize)
+    {
+        this.statistics = statistics;
+        this.resolveQueueSize = resolveQueueSize;
+        this.indexQueueSize = indexQueueSize;
+    }
+
+    @Override
+    public int getResolveQueueSize()
+    {
+        return this.resolveQueueSize.getAsInt();
+    }
+
+    @Override
+    public int getIndexQueueSize()
+    {
+        return this.indexQueueSize.getAsInt();
+    }
+
+    @Override
+    public long getCoalescedCount()
+    {
+        return this.statistics.getCoalescedCount();
+    }
+
+    @Override
+    public long getIndexedCount()
+    {
+        return this.statistics.getBuild().getCount();
+    }
+
+    @Override
+    public long getDeletedCount()
+    {
+        return this.statistics.getDeletedCount();
+    }
+
+    @Override
+    public long getCommitCount()
+    {
+        return this.statistics.getCommit().getCount();
+    }
+
+    @Override
+    public double getAverageResolveTime()
+    {
+        return this.statistics.getResolve().getAverageMilliseconds();
+    }
+
+    @Override
+    public double getAverageQueueTime()
+    {
+        return this.statistics.getQueue().getAverageMilliseconds();
+    }
+
+    @Override
+    public double getAverageBuildTime()
+    {
+        return this.statistics.getBuild().getAverageMilliseconds();
+    }
+
+    @Override
+    public double getAverageWriteTime()
+    {
+        return this.statistics.getWrite().getAverageMilliseconds();
+    }
+
+    @Override
+    public double getAverageCommitTime()
+    {
+        return this.statistics.getCommit().getAverageMilliseconds();
+    }
+
+    @Override
+    public void resetStatistics()
+    {
+        this.statistics.reset();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.jmx;
+
+/**
+ * Interface of the Solr indexer JMX MBean.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public interface JMXSolrIndexerMBean
+{
+    /**
+     * @return the number of entries waiting to be resolved
+     */
+    int getResolveQueueSize();
+
+    /**
+     * @return the number of entries waiting to be indexed or deleted
+     */
+    int getIndexQueueSize();
+
+    /**
+     * @return the number of index requests which were merged with an identical request still waiting in the queue
+     */
+    long getCoalescedCount();
+
+    /**
+     * @return the number of entities for which a Solr document was extracted
+     */
+    long getIndexedCount();
+
+    /**
+     * @return the number of delete operations sent to Solr
+     */
+    long getDeletedCount();
+
+    /**
+     * @return the number of commits sent to Solr
+     */
+    long getCommitCount();
+
+    /**
+     * @return the average time in milliseconds spent resolving a queue entry into entities to index
+     */
+    double getAverageResolveTime();
+
+    /**
+     * @return the average time in milliseconds spent waiting in the index queue
+     */
+    double getAverageQueueTime();
+
+    /**
+     * @return the average time in milliseconds spent extracting the metadata of an entity
+     */
+    double getAverageBuildTime();
+
+    /**
+     * @return the average time in milliseconds spent sending an operation to Solr
+     */
+    double getAverageWriteTime();
+
+    /**
+     * @return the average time in milliseconds spent committing a batch
+     */
+    double getAverageCommitTime();
+
+    /**
+     * Reset all counters and timers.
+     */
+    void resetStatistics();
+}
@@ -19,6 +19,9 @@
  */
 package org.xwiki.search.solr.internal.job;
 
+import java.util.Date;
+
+import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.EntityReference;
 
 /**
@@ -40,6 +43,22 @@
      */
     protected EntityReference rootReference;
 
+    /**
+     * Specifies the minimum modification date of the iterated documents. If {@code null} then all the documents are
+     * iterated.
+     * 
+     * @since 12.6
+     */
+    protected Date since;
+
+    /**
+     * Specifies the last document which should not be iterated. If {@code null} then the iteration starts from the
+     * first document.
+     * 
+     * @since 12.6
+     */
+    protected DocumentReference startAfter;
+
     @Override
     public void remove()
     {
@@ -51,4 +70,16 @@ public void setRootReference(EntityReference rootReference)
     {
         this.rootReference = rootReference;
     }
+
+    @Override
+    public void setSince(Date since)
+    {
+        this.since = since;
+    }
+
+    @Override
+    public void setStartAfter(DocumentReference startAfter)
+    {
+        this.startAfter = startAfter;
+    }
 }
@@ -223,13 +223,26 @@ private Query getQuery() throws QueryException
                 documentReference = rootReference.extractReference(EntityType.DOCUMENT);
             }
 
-            String whereClause = "";
+            List<String> constraints = new ArrayList<>();
             if (spaceReference != null) {
-                whereClause += " where doc.space = :space";
+                constraints.add("doc.space = :space");
                 if (documentReference != null) {
-                    whereClause += " and doc.name = :name";
+                    constraints.add("doc.name = :name");
                 }
             }
+            if (this.since != null) {
+                constraints.add("doc.date >= :since");
+            }
+            if (this.startAfter != null) {
+                // Keyset pagination on the sort columns
+                constraints.add("(doc.space > :startSpace or (doc.space = :startSpace and (doc.name > :startName"
+                    + " or (doc.name = :startName and doc.language > :startLanguage))))");
+            }
+
+            String whereClause = "";
+            if (!constraints.isEmpty()) {
+                whereClause = " where " + StringUtils.join(constraints, " and ");
+            }
 
             query = queryManager.createQuery(select + whereClause + orderBy, Query.HQL).setLimit(LIMIT);
             countQuery = queryManager.createQuery(whereClause, Query.HQL).addFilter(countFilter);
@@ -240,6 +253,16 @@ private Query getQuery() throws QueryException
                     query.bindValue("name", documentReference.getName());
                 }
             }
+            if (this.since != null) {
+                query.bindValue("since", this.since);
+            }
+            if (this.startAfter != null) {
+                query.bindValue("startSpace",
+                    this.localEntityReferenceSerializer.serialize(this.startAfter.getLastSpaceReference()));
+                query.bindValue("startName", this.startAfter.getName());
+                query.bindValue("startLanguage",
+                    this.startAfter.getLocale() != null ? this.startAfter.getLocale().toString() : "");
+            }
 
             for (Map.Entry<String, Object> parameter : query.getNamedParameters().entrySet()) {
                 countQuery.bindValue(parameter.getKey(), parameter.getValue());
@@ -19,6 +19,8 @@
  */
 package org.xwiki.search.solr.internal.job;
 
+import java.util.Date;
+
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.xwiki.model.reference.DocumentReference;
@@ -101,6 +103,20 @@ public void setRootReference(EntityReference rootReference)
         next.setRootReference(rootReference);
     }
 
+    @Override
+    public void setSince(Date since)
+    {
+        previous.setSince(since);
+        next.setSince(since);
+    }
+
+    @Override
+    public void setStartAfter(DocumentReference startAfter)
+    {
+        previous.setStartAfter(startAfter);
+        next.setStartAfter(startAfter);
+    }
+
     @Override
     public boolean hasNext()
     {
@@ -19,6 +19,7 @@
  */
 package org.xwiki.search.solr.internal.job;
 
+import java.util.Date;
 import java.util.Iterator;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -45,6 +46,24 @@
      */
     void setRootReference(EntityReference rootReference);
 
+    /**
+     * Limit the iterator to the documents modified since the specified date.
+     * 
+     * @param since the minimum modification date of the documents to iterate, {@code null} to iterate all the
+     *            documents
+     * @since 12.6
+     */
+    void setSince(Date since);
+
+    /**
+     * Skip the documents which come before the specified document (included) in the iteration order. The iterator is
+     * expected to be limited to the wiki of the passed document.
+     * 
+     * @param startAfter the last document which should not be iterated, {@code null} to start from the first document
+     * @since 12.6
+     */
+    void setStartAfter(DocumentReference startAfter);
+
     /**
      * @return estimate the size of the iterated store for showing progress information
      */
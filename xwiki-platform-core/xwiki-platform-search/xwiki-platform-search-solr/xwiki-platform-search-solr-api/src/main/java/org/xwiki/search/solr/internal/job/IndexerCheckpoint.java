@@ -0,0 +1,88 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.job;
+
+import java.util.Date;
+
+import org.xwiki.model.reference.DocumentReference;
+
+/**
+ * The progress of the incremental synchronization of a wiki between the database and the Solr index.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+public class IndexerCheckpoint
+{
+    private Date synchronizedDate;
+
+    private Date startDate;
+
+    private DocumentReference reference;
+
+    /**
+     * @return the date when the last complete synchronization started, {@code null} if the wiki was never fully
+     *         synchronized
+     */
+    public Date getSynchronizedDate()
+    {
+        return this.synchronizedDate;
+    }
+
+    /**
+     * @param synchronizedDate the date when the last complete synchronization started
+     */
+    public void setSynchronizedDate(Date synchronizedDate)
+    {
+        this.synchronizedDate = synchronizedDate;
+    }
+
+    /**
+     * @return the date when the pending synchronization started, {@code null} if no synchronization is pending
+     */
+    public Date getStartDate()
+    {
+        return this.startDate;
+    }
+
+    /**
+     * @param startDate the date when the pending synchronization started
+     */
+    public void setStartDate(Date startDate)
+    {
+        this.startDate = startDate;
+    }
+
+    /**
+     * @return the last document compared by the pending synchronization, {@code null} if none
+     */
+    public DocumentReference getReference()
+    {
+        return this.reference;
+    }
+
+    /**
+     * @param reference the last document compared by the pending synchronization
+     */
+    public void setReference(DocumentReference reference)
+    {
+        this.reference = reference;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.LocaleUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.environment.Environment;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+
+/**
+ * Persist the {@link IndexerCheckpoint} of each wiki so that the incremental synchronization can survive a restart.
+ * <p>
+ * The checkpoints are stored in the cache directory: losing them only means that the next synchronization compares
+ * all the documents again.
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+@Component(roles = IndexerCheckpointStore.class)
+@Singleton
+public class IndexerCheckpointStore
+{
+    private static final String SUFFIX_SYNCHRONIZED = ".synchronized";
+
+    private static final String SUFFIX_START = ".start";
+
+    private static final String SUFFIX_REFERENCE = ".reference";
+
+    private static final String SUFFIX_LOCALE = ".locale";
+
+    @Inject
+    private Environment environment;
+
+    @Inject
+    private EntityReferenceSerializer<String> serializer;
+
+    @Inject
+    private DocumentReferenceResolver<String> resolver;
+
+    @Inject
+    private Logger logger;
+
+    private Properties properties;
+
+    private File getFile()
+    {
+        return new File(this.environment.getPermanentDirectory(), "cache/solr/indexer/checkpoints.properties");
+    }
+
+    private Properties getProperties()
+    {
+        if (this.properties == null) {
+            this.properties = new Properties();
+
+            File file = getFile();
+            if (file.exists()) {
+                try (InputStream stream = Files.newInputStream(file.toPath())) {
+                    this.properties.load(stream);
+                } catch (IOException e) {
+                    this.logger.warn("Failed to read the Solr synchronization checkpoints from [{}]: {}", file,
+                        ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+        }
+
+        return this.properties;
+    }
+
+    /**
+     * @param wiki the identifier of the wiki
+     * @return the checkpoint of the passed wiki, never {@code null}
+     */
+    public synchronized IndexerCheckpoint getCheckpoint(String wiki)
+    {
+        Properties wikiProperties = getProperties();
+
+        IndexerCheckpoint checkpoint = new IndexerCheckpoint();
+        checkpoint.setSynchronizedDate(getDate(wikiProperties.getProperty(wiki + SUFFIX_SYNCHRONIZED)));
+        checkpoint.setStartDate(getDate(wikiProperties.getProperty(wiki + SUFFIX_START)));
+
+        String reference = wikiProperties.getProperty(wiki + SUFFIX_REFERENCE);
+        if (reference != null) {
+            DocumentReference documentReference = this.resolver.resolve(reference);
+            String locale = wikiProperties.getProperty(wiki + SUFFIX_LOCALE);
+            if (StringUtils.isNotEmpty(locale)) {
+                documentReference = new DocumentReference(documentReference, LocaleUtils.toLocale(locale));
+            }
+            checkpoint.setReference(documentReference);
+        }
+
+        return checkpoint;
+    }
+
+    /**
+     * @param wiki the identifier of the wiki
+     * @param checkpoint the checkpoint to save
+     */
+    public synchronized void saveCheckpoint(String wiki, IndexerCheckpoint checkpoint)
+    {
+        Properties wikiProperties = getProperties();
+
+        setDate(wiki + SUFFIX_SYNCHRONIZED, checkpoint.getSynchronizedDate());
+        setDate(wiki + SUFFIX_START, checkpoint.getStartDate());
+
+        DocumentReference reference = checkpoint.getReference();
+        if (reference != null) {
+            wikiProperties.setProperty(wiki + SUFFIX_REFERENCE, this.serializer.serialize(reference));
+            Locale locale = reference.getLocale();
+            wikiProperties.setProperty(wiki + SUFFIX_LOCALE, locale != null ? locale.toString() : "");
+        } else {
+            wikiProperties.remove(wiki + SUFFIX_REFERENCE);
+            wikiProperties.remove(wiki + SUFFIX_LOCALE);
+        }
+
+        File file = getFile();
+        try {
+            // Write a temporary file first to not end up with a corrupted file when interrupted
+            file.getParentFile().mkdirs();
+            File tmpFile = new File(file.getPath() + ".tmp");
+            try (OutputStream stream = Files.newOutputStream(tmpFile.toPath())) {
+                wikiProperties.store(stream, null);
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            this.logger.warn("Failed to save the Solr synchronization checkpoints in [{}]: {}", file,
+                ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private Date getDate(String value)
+    {
+        return StringUtils.isNotEmpty(value) ? new Date(Long.parseLong(value)) : null;
+    }
+
+    private void setDate(String key, Date date)
+    {
+        if (date != null) {
+            getProperties().setProperty(key, String.valueOf(date.getTime()));
+        } else {
+            getProperties().remove(key);
+        }
+    }
+}
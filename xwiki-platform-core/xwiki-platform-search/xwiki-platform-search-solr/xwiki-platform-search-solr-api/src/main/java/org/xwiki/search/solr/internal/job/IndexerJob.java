@@ -19,25 +19,48 @@
  */
 package org.xwiki.search.solr.internal.job;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.inject.Provider;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.component.annotation.InstantiationStrategy;
 import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.context.ExecutionContextManager;
 import org.xwiki.job.AbstractJob;
 import org.xwiki.job.DefaultJobStatus;
 import org.xwiki.job.GroupedJob;
 import org.xwiki.job.JobGroupPath;
 import org.xwiki.job.Request;
+import org.xwiki.model.EntityType;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.EntityReference;
 import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.model.reference.WikiReference;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
 import org.xwiki.search.solr.internal.api.SolrIndexer;
 import org.xwiki.search.solr.internal.job.DiffDocumentIterator.Action;
+import org.xwiki.wiki.descriptor.WikiDescriptorManager;
 
 /**
  * Provide progress information and store logging of an advanced indexing.
@@ -60,6 +83,11 @@ public class IndexerJob extends AbstractJob<IndexerRequest, DefaultJobStatus<Ind
      */
     private static final JobGroupPath GROUP = new JobGroupPath(Arrays.asList("solr", "indexer"));
 
+    /**
+     * The number of compared documents between two saves of the checkpoint during an incremental synchronization.
+     */
+    private static final int CHECKPOINT_INTERVAL = 1000;
+
     /**
      * Used to send documents to index or delete to/from Solr index.
      */
@@ -74,9 +102,32 @@ public class IndexerJob extends AbstractJob<IndexerRequest, DefaultJobStatus<Ind
     @Named("solr")
     private transient DocumentIterator<String> solrIterator;
 
+    @Inject
+    @Named("database")
+    private transient Provider<DocumentIterator<String>> databaseIteratorProvider;
+
+    @Inject
+    @Named("solr")
+    private transient Provider<DocumentIterator<String>> solrIteratorProvider;
+
     @Inject
     private EntityReferenceSerializer<String> entityReferenceSerializer;
 
+    @Inject
+    private transient IndexerCheckpointStore checkpointStore;
+
+    @Inject
+    private transient SolrConfiguration configuration;
+
+    @Inject
+    private transient WikiDescriptorManager wikiDescriptorManager;
+
+    @Inject
+    private transient ExecutionContextManager ecim;
+
+    @Inject
+    private transient Execution execution;
+
     @Override
     public String getType()
     {
@@ -113,11 +164,188 @@ protected void runInternal() throws Exception
             EntityReference rootReference = getRequest().getRootReference();
             this.logger.info("Index documents in [{}].", rootReference);
             this.indexer.index(rootReference, true);
+        } else if (getRequest().isIncremental() && (getRequest().getRootReference() == null
+            || getRequest().getRootReference().getType() == EntityType.WIKI)) {
+            // The checkpoints are maintained per wiki
+            synchronizeSolrIndex();
         } else {
             updateSolrIndex();
         }
     }
 
+    /**
+     * Update the Solr index to match the current state of the database, wiki by wiki, comparing only the documents
+     * modified since the last complete synchronization of each wiki.
+     */
+    private void synchronizeSolrIndex() throws Exception
+    {
+        List<String> wikis;
+        if (getRequest().getRootReference() == null) {
+            wikis = new ArrayList<>(this.wikiDescriptorManager.getAllIds());
+            Collections.sort(wikis);
+        } else {
+            wikis = Collections.singletonList(getRequest().getRootReference().getName());
+        }
+
+        long[] counter = new long[Action.values().length];
+
+        this.progressManager.pushLevelProgress(wikis.size(), this);
+
+        int threads = Math.min(this.configuration.getSynchronizeThreads(), wikis.size());
+        ExecutorService executor = null;
+        try {
+            if (threads > 1) {
+                // Independent wikis are compared in parallel
+                BasicThreadFactory factory = new BasicThreadFactory.Builder()
+                    .namingPattern("XWiki Solr synchronization thread %d").daemon(true).build();
+                executor = Executors.newFixedThreadPool(threads, factory);
+                CompletionService<long[]> completionService = new ExecutorCompletionService<>(executor);
+                for (String wiki : wikis) {
+                    completionService.submit(() -> synchronizeWikiInContext(wiki));
+                }
+
+                for (int i = 0; i < wikis.size(); ++i) {
+                    this.progressManager.startStep(this);
+                    try {
+                        add(counter, completionService.take().get());
+                    } catch (ExecutionException e) {
+                        this.logger.error("Failed to synchronize a wiki with the Solr index.", e.getCause());
+                    }
+                    this.progressManager.endStep(this);
+                }
+            } else {
+                for (String wiki : wikis) {
+                    this.progressManager.startStep(this);
+                    add(counter, synchronizeWiki(wiki));
+                    this.progressManager.endStep(this);
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+
+            this.progressManager.popLevelProgress(this);
+        }
+
+        logCounter(counter);
+    }
+
+    private void add(long[] counter, long[] wikiCounter)
+    {
+        for (int i = 0; i < counter.length; ++i) {
+            counter[i] += wikiCounter[i];
+        }
+    }
+
+    private long[] synchronizeWikiInContext(String wiki) throws Exception
+    {
+        try {
+            this.ecim.initialize(new ExecutionContext());
+
+            return synchronizeWiki(wiki);
+        } finally {
+            this.execution.removeContext();
+        }
+    }
+
+    private long[] synchronizeWiki(String wiki) throws InterruptedException
+    {
+        IndexerCheckpoint checkpoint = this.checkpointStore.getCheckpoint(wiki);
+
+        DocumentReference startAfter = null;
+        if (checkpoint.getStartDate() != null) {
+            // Resume the interrupted synchronization
+            startAfter = checkpoint.getReference();
+            this.logger.info("Resume the synchronization of wiki [{}] after document [{}].", wiki, startAfter);
+        } else {
+            checkpoint.setStartDate(new Date());
+            this.checkpointStore.saveCheckpoint(wiki, checkpoint);
+        }
+
+        DiffDocumentIterator<String> iterator =
+            new DiffDocumentIterator<>(this.solrIteratorProvider.get(), this.databaseIteratorProvider.get());
+        iterator.setRootReference(new WikiReference(wiki));
+        iterator.setSince(checkpoint.getSynchronizedDate());
+        iterator.setStartAfter(startAfter);
+
+        long[] counter = new long[Action.values().length];
+
+        // The compared documents waiting for the indexer to process what has been sent before them
+        Deque<Pair<DocumentReference, CompletableFuture<Void>>> pendingCheckpoints = new ArrayDeque<>();
+
+        for (long count = 1; iterator.hasNext(); ++count) {
+            Pair<DocumentReference, Action> entry = iterator.next();
+            apply(entry);
+            counter[entry.getValue().ordinal()]++;
+
+            if (count % CHECKPOINT_INTERVAL == 0) {
+                pendingCheckpoints.add(new ImmutablePair<>(entry.getKey(), this.indexer.whenProcessed()));
+            }
+
+            // Only move the checkpoint to documents which are known to be indexed, otherwise the documents which are
+            // still in the indexer queue would be lost when interrupted
+            moveCheckpoint(wiki, checkpoint, pendingCheckpoints);
+        }
+
+        // Don't remember the wiki as synchronized before everything sent to the indexer is actually indexed
+        try {
+            this.indexer.whenProcessed().get();
+        } catch (CancellationException | ExecutionException e) {
+            moveCheckpoint(wiki, checkpoint, pendingCheckpoints);
+
+            this.logger.warn("The indexer stopped before the end of the synchronization of wiki [{}]. It will be"
+                + " resumed after document [{}].", wiki, checkpoint.getReference());
+
+            return counter;
+        }
+
+        checkpoint.setSynchronizedDate(checkpoint.getStartDate());
+        checkpoint.setStartDate(null);
+        checkpoint.setReference(null);
+        this.checkpointStore.saveCheckpoint(wiki, checkpoint);
+
+        return counter;
+    }
+
+    private void moveCheckpoint(String wiki, IndexerCheckpoint checkpoint,
+        Deque<Pair<DocumentReference, CompletableFuture<Void>>> pendingCheckpoints)
+    {
+        DocumentReference processed = null;
+        while (!pendingCheckpoints.isEmpty() && pendingCheckpoints.peek().getValue().isDone()) {
+            Pair<DocumentReference, CompletableFuture<Void>> pendingCheckpoint = pendingCheckpoints.poll();
+            if (pendingCheckpoint.getValue().isCompletedExceptionally()) {
+                // The indexer stopped, nothing after this point is known to be indexed
+                pendingCheckpoints.clear();
+            } else {
+                processed = pendingCheckpoint.getKey();
+            }
+        }
+
+        if (processed != null) {
+            checkpoint.setReference(processed);
+            this.checkpointStore.saveCheckpoint(wiki, checkpoint);
+        }
+    }
+
+    private void apply(Pair<DocumentReference, Action> entry)
+    {
+        if (entry.getValue() == Action.ADD || entry.getValue() == Action.UPDATE) {
+            // The database entry has not been indexed or the indexed version doesn't match the latest version from the
+            // database.
+            this.indexer.index(entry.getKey(), true);
+        } else if (entry.getValue() == Action.DELETE && getRequest().isRemoveMissing()) {
+            // The index entry doesn't exist anymore in the database.
+            this.indexer.delete(entry.getKey(), true);
+        }
+    }
+
+    private void logCounter(long[] counter)
+    {
+        this.logger.info("{} documents added, {} deleted and {} updated during the synchronization of the Solr index.",
+            counter[Action.ADD.ordinal()], counter[Action.DELETE.ordinal()], counter[Action.UPDATE.ordinal()]);
+    }
+
     /**
      * Update the Solr index to match the current state of the database.
      */
@@ -156,24 +384,13 @@ private void updateSolrIndex(int progressSize, DiffDocumentIterator<String> iter
                 this.progressManager.startStep(this);
 
                 Pair<DocumentReference, Action> entry = iterator.next();
-                if (entry.getValue() == Action.ADD || entry.getValue() == Action.UPDATE) {
-                    // The database entry has not been indexed or the indexed version doesn't match the latest
-                    // version
-                    // from the database.
-                    this.indexer.index(entry.getKey(), true);
-                } else if (entry.getValue() == Action.DELETE && getRequest().isRemoveMissing()) {
-                    // The index entry doesn't exist anymore in the database.
-                    this.indexer.delete(entry.getKey(), true);
-                }
-
+                apply(entry);
                 counter[entry.getValue().ordinal()]++;
 
                 this.progressManager.endStep(this);
             }
 
-            this.logger.info(
-                "{} documents added, {} deleted and {} updated during the synchronization of the Solr index.",
-                counter[Action.ADD.ordinal()], counter[Action.DELETE.ordinal()], counter[Action.UPDATE.ordinal()]);
+            logCounter(counter);
         } finally {
             this.progressManager.popLevelProgress(this);
         }
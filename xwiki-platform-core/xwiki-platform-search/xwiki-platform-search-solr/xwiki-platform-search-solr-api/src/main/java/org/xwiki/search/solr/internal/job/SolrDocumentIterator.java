@@ -39,6 +39,7 @@
 import org.xwiki.model.EntityType;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.search.solr.internal.api.FieldUtils;
 import org.xwiki.search.solr.internal.api.SolrIndexerException;
 import org.xwiki.search.solr.internal.api.SolrInstance;
@@ -85,6 +86,10 @@ public class SolrDocumentIterator extends AbstractDocumentIterator<String>
     @Inject
     private DocumentReferenceResolver<SolrDocument> solrDocumentReferenceResolver;
 
+    @Inject
+    @Named("local")
+    private EntityReferenceSerializer<String> localSerializer;
+
     @Override
     public boolean hasNext()
     {
@@ -144,6 +149,19 @@ private SolrQuery getQuery() throws SolrIndexerException
             query.setFields(FieldUtils.WIKI, FieldUtils.SPACES, FieldUtils.NAME, FieldUtils.DOCUMENT_LOCALE,
                 FieldUtils.VERSION);
             query.addFilterQuery(FieldUtils.TYPE + ':' + EntityType.DOCUMENT.name());
+            if (this.since != null) {
+                query.addFilterQuery(String.format("%s:[%s TO *]", FieldUtils.DATE, this.since.toInstant()));
+            }
+            if (this.startAfter != null) {
+                // Keyset pagination on the sort fields (the wiki is expected to be the root reference)
+                String space = quote(this.localSerializer.serialize(this.startAfter.getLastSpaceReference()));
+                String name = quote(this.startAfter.getName());
+                String locale =
+                    quote(this.startAfter.getLocale() != null ? this.startAfter.getLocale().toString() : "");
+                query.addFilterQuery(String.format("%1$s:{%2$s TO *] OR (%1$s:%2$s AND (%3$s:{%4$s TO *] OR (%3$s:%4$s"
+                    + " AND %5$s:{%6$s TO *])))", FieldUtils.SPACE_EXACT, space, FieldUtils.NAME_EXACT, name,
+                    FieldUtils.DOCUMENT_LOCALE, locale));
+            }
             // This iterator must have the same order as the database iterator, otherwise the synchronization fails.
             // Note that we had two options:
             // (A) Sort the Solr index only by id and enable docValues on the id field to improve the speed. But then we
@@ -169,4 +187,9 @@ private SolrQuery getQuery() throws SolrIndexerException
         }
         return query;
     }
+
+    private String quote(String value)
+    {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
 }
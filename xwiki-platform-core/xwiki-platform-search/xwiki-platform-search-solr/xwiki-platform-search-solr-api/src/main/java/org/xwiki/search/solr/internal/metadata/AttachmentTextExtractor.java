@@ -0,0 +1,316 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaMetadataKeys;
+import org.apache.tika.sax.BodyContentHandler;
+import org.slf4j.Logger;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheException;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.cache.config.LRUCacheConfiguration;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.manager.ComponentLifecycleException;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.component.phase.InitializationException;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.tika.internal.TikaUtils;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiAttachment;
+
+/**
+ * Extract the text content of the attachments to index.
+ * <p>
+ * The content is streamed to a bounded buffer in a dedicated pool of threads so that a large or complex attachment
+ * cannot exhaust the memory or block the indexing of the other entities for too long: the extraction stops when the
+ * configured number of characters or time is reached and what was extracted so far is indexed. The time budget starts
+ * when the extraction starts, not while it waits for a free extraction thread. The extracted contents are cached by
+ * attachment version so that an unchanged attachment is not extracted again when reindexed, unless the extraction was
+ * interrupted by the time budget (which depends on the load).
+ * 
+ * @version $Id$
+ * @since 12.6
+ */
+@Component(roles = AttachmentTextExtractor.class)
+@Singleton
+public class AttachmentTextExtractor implements Initializable, Disposable
+{
+    private static final char KEY_SEPARATOR = '/';
+
+    @Inject
+    private SolrConfiguration configuration;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private Provider<XWikiContext> xcontextProvider;
+
+    @Inject
+    private Logger logger;
+
+    private Cache<String> cache;
+
+    private ExecutorService executor;
+
+    /**
+     * Accumulate the extracted text until one of the budgets is exhausted.
+     */
+    private static final class BudgetWriter extends Writer
+    {
+        private final StringBuilder builder = new StringBuilder();
+
+        private final int maxCharacters;
+
+        private volatile boolean stopped;
+
+        private volatile boolean timedOut;
+
+        BudgetWriter(int maxCharacters)
+        {
+            this.maxCharacters = maxCharacters;
+        }
+
+        @Override
+        public synchronized void write(char[] cbuf, int off, int len) throws IOException
+        {
+            if (this.stopped) {
+                throw new IOException("The extraction was stopped");
+            }
+
+            int remaining = Math.max(0, this.maxCharacters - this.builder.length());
+            this.builder.append(cbuf, off, Math.min(len, remaining));
+
+            if (len >= remaining) {
+                // Stop the parser
+                stop();
+                throw new IOException("The maximum number of characters was reached");
+            }
+        }
+
+        void stop()
+        {
+            this.stopped = true;
+        }
+
+        boolean isStopped()
+        {
+            return this.stopped;
+        }
+
+        void timeOut()
+        {
+            this.timedOut = true;
+            stop();
+        }
+
+        boolean isTimedOut()
+        {
+            return this.timedOut;
+        }
+
+        @Override
+        public void flush()
+        {
+            // Nothing to flush
+        }
+
+        @Override
+        public void close()
+        {
+            // Nothing to close
+        }
+
+        @Override
+        public synchronized String toString()
+        {
+            return this.builder.toString();
+        }
+    }
+
+    @Override
+    public void initialize() throws InitializationException
+    {
+        int cacheSize = this.configuration.getAttachmentCacheSize();
+        if (cacheSize > 0) {
+            try {
+                this.cache =
+                    this.cacheManager.createNewCache(new LRUCacheConfiguration("solr.attachment.content", cacheSize));
+            } catch (CacheException e) {
+                throw new InitializationException("Failed to create the attachment content cache", e);
+            }
+        }
+
+        BasicThreadFactory factory = new BasicThreadFactory.Builder()
+            .namingPattern("XWiki Solr attachment extraction thread %d").daemon(true)
+            .priority(Thread.NORM_PRIORITY - 1).build();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, this.configuration.getAttachmentThreads()), factory);
+    }
+
+    @Override
+    public void dispose() throws ComponentLifecycleException
+    {
+        this.executor.shutdownNow();
+
+        if (this.cache != null) {
+            this.cache.dispose();
+        }
+    }
+
+    /**
+     * @param attachment the attachment
+     * @return the text content of the attachment, possibly truncated
+     * @throws Exception when failing to extract the content of the attachment
+     */
+    public String getText(XWikiAttachment attachment) throws Exception
+    {
+        XWikiContext xcontext = this.xcontextProvider.get();
+
+        String key = null;
+        if (this.cache != null) {
+            key = getKey(attachment);
+
+            String text = this.cache.get(key);
+            if (text != null) {
+                return text;
+            }
+        }
+
+        BudgetWriter writer = extract(attachment, xcontext);
+
+        // A text truncated by the time budget could be complete next time
+        if (key != null && !writer.isTimedOut()) {
+            this.cache.set(key, writer.toString());
+        }
+
+        return writer.toString();
+    }
+
+    private String getKey(XWikiAttachment attachment)
+    {
+        // The identifier of the attachment is only unique in its wiki. The content of a given attachment version is not
+        // supposed to change, the size is just a safety net.
+        StringBuilder key = new StringBuilder();
+        key.append(attachment.getReference().getDocumentReference().getWikiReference().getName());
+        key.append(KEY_SEPARATOR);
+        key.append(attachment.getId());
+        key.append(KEY_SEPARATOR);
+        key.append(attachment.getVersion());
+        key.append(KEY_SEPARATOR);
+        key.append(attachment.getLongSize());
+
+        return key.toString();
+    }
+
+    private BudgetWriter extract(XWikiAttachment attachment, XWikiContext xcontext) throws Exception
+    {
+        BudgetWriter writer = new BudgetWriter(this.configuration.getAttachmentMaxCharacters());
+
+        Metadata metadata = new Metadata();
+        metadata.set(TikaMetadataKeys.RESOURCE_NAME_KEY, attachment.getFilename());
+
+        try (InputStream stream = attachment.getContentInputStream(xcontext)) {
+            AtomicLong started = new AtomicLong();
+            Future<?> future = this.executor.submit(() -> {
+                started.set(System.nanoTime());
+
+                try {
+                    TikaUtils.parse(stream, new BodyContentHandler(writer), metadata);
+                } catch (Exception e) {
+                    // Ignore the error triggered by the budget to keep what was extracted so far
+                    if (!writer.isStopped()) {
+                        throw e;
+                    }
+                }
+
+                return null;
+            });
+
+            long timeout = this.configuration.getAttachmentTimeout();
+            try {
+                if (timeout > 0) {
+                    await(future, started, timeout);
+                } else {
+                    future.get();
+                }
+            } catch (TimeoutException e) {
+                // Make sure the parser stops as soon as possible (closing the stream also helps with that)
+                writer.timeOut();
+                future.cancel(true);
+
+                this.logger.warn("The extraction of the content of attachment [{}] took more than [{}] milliseconds,"
+                    + " only the first [{}] characters are indexed.", attachment.getReference(), timeout,
+                    writer.toString().length());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+
+                throw e;
+            }
+        }
+
+        return writer;
+    }
+
+    private void await(Future<?> future, AtomicLong started, long timeout)
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        long wait = timeout;
+        while (true) {
+            try {
+                future.get(wait, TimeUnit.MILLISECONDS);
+
+                return;
+            } catch (TimeoutException e) {
+                long start = started.get();
+                if (start != 0) {
+                    wait = timeout - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (wait <= 0) {
+                        throw e;
+                    }
+                } else if (this.executor.isShutdown()) {
+                    // The extraction will never start
+                    throw new CancellationException("The attachment text extractor has been disposed");
+                }
+            }
+        }
+    }
+}
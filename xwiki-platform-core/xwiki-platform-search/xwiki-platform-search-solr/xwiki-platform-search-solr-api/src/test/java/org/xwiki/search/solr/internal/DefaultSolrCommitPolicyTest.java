@@ -0,0 +1,154 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.junit.jupiter.api.Test;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.search.solr.internal.api.SolrConfiguration.CommitMode;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link DefaultSolrCommitPolicy}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+public class DefaultSolrCommitPolicyTest
+{
+    @MockComponent
+    private SolrConfiguration configuration;
+
+    @InjectMockComponents
+    private DefaultSolrCommitPolicy policy;
+
+    @Test
+    public void hard() throws Exception
+    {
+        when(this.configuration.getCommitMode()).thenReturn(CommitMode.HARD);
+
+        SolrClient client = mock(SolrClient.class);
+
+        assertEquals(-1, this.policy.getCommitWithin());
+
+        this.policy.commit(client);
+        this.policy.commit(client);
+
+        verify(client, times(2)).commit();
+        verify(client, never()).commit(anyBoolean(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void soft() throws Exception
+    {
+        when(this.configuration.getCommitMode()).thenReturn(CommitMode.SOFT);
+        when(this.configuration.getHardCommitInterval()).thenReturn(Long.MAX_VALUE);
+
+        SolrClient client = mock(SolrClient.class);
+
+        assertEquals(-1, this.policy.getCommitWithin());
+
+        this.policy.commit(client);
+        this.policy.commit(client);
+
+        verify(client, times(2)).commit(true, true, true);
+        verify(client, never()).commit();
+
+        when(this.configuration.getHardCommitInterval()).thenReturn(0L);
+
+        this.policy.commit(client);
+
+        verify(client).commit();
+    }
+
+    @Test
+    public void within() throws Exception
+    {
+        when(this.configuration.getCommitMode()).thenReturn(CommitMode.WITHIN);
+        when(this.configuration.getCommitWithin()).thenReturn(500);
+        when(this.configuration.getHardCommitInterval()).thenReturn(Long.MAX_VALUE);
+
+        SolrClient client = mock(SolrClient.class);
+
+        assertEquals(500, this.policy.getCommitWithin());
+
+        this.policy.commit(client);
+
+        verify(client, never()).commit();
+        verify(client, never()).commit(anyBoolean(), anyBoolean(), anyBoolean());
+
+        when(this.configuration.getHardCommitInterval()).thenReturn(0L);
+
+        this.policy.commit(client);
+
+        verify(client).commit();
+    }
+
+    @Test
+    public void hardCommitPending() throws Exception
+    {
+        when(this.configuration.getCommitMode()).thenReturn(CommitMode.SOFT);
+        when(this.configuration.getHardCommitInterval()).thenReturn(Long.MAX_VALUE);
+
+        SolrClient client = mock(SolrClient.class);
+        SolrClient otherClient = mock(SolrClient.class);
+
+        this.policy.commit(client);
+
+        when(this.configuration.getHardCommitInterval()).thenReturn(0L);
+
+        this.policy.hardCommitPending();
+
+        verify(client).commit();
+        verify(otherClient, never()).commit();
+
+        // Nothing left to persist
+        this.policy.hardCommitPending();
+
+        verify(client).commit();
+    }
+
+    @Test
+    public void dispose() throws Exception
+    {
+        when(this.configuration.getCommitMode()).thenReturn(CommitMode.WITHIN);
+        when(this.configuration.getHardCommitInterval()).thenReturn(Long.MAX_VALUE);
+
+        SolrClient client = mock(SolrClient.class);
+
+        this.policy.commit(client);
+
+        verify(client, never()).commit();
+
+        this.policy.dispose();
+
+        verify(client).commit();
+    }
+}
@@ -85,6 +85,40 @@ public void getIndexerQueueCapacity()
 
     }
 
+    @Test
+    public void getIndexerThreads()
+    {
+        when(this.source.getProperty(DefaultSolrConfiguration.SOLR_INDEXER_THREADS_PROPERTY,
+            DefaultSolrConfiguration.SOLR_INDEXER_THREADS_DEFAULT)).thenReturn(4);
+
+        assertEquals(4, this.configuration.getIndexerThreads());
+    }
+
+    @Test
+    public void getSynchronizeThreads()
+    {
+        when(this.source.getProperty(DefaultSolrConfiguration.SOLR_SYNCHRONIZE_THREADS_PROPERTY,
+            DefaultSolrConfiguration.SOLR_SYNCHRONIZE_THREADS_DEFAULT)).thenReturn(4);
+
+        assertEquals(4, this.configuration.getSynchronizeThreads());
+    }
+
+    @Test
+    public void getCommitMode()
+    {
+        when(this.source.getProperty(DefaultSolrConfiguration.SOLR_COMMIT_MODE_PROPERTY,
+            DefaultSolrConfiguration.SOLR_COMMIT_MODE_DEFAULT.name())).thenReturn("soft");
+        assertEquals(SolrConfiguration.CommitMode.SOFT, this.configuration.getCommitMode());
+
+        when(this.source.getProperty(DefaultSolrConfiguration.SOLR_COMMIT_MODE_PROPERTY,
+            DefaultSolrConfiguration.SOLR_COMMIT_MODE_DEFAULT.name())).thenReturn("WITHIN");
+        assertEquals(SolrConfiguration.CommitMode.WITHIN, this.configuration.getCommitMode());
+
+        when(this.source.getProperty(DefaultSolrConfiguration.SOLR_COMMIT_MODE_PROPERTY,
+            DefaultSolrConfiguration.SOLR_COMMIT_MODE_DEFAULT.name())).thenReturn("foobar");
+        assertEquals(SolrConfiguration.CommitMode.HARD, this.configuration.getCommitMode());
+    }
+
     @Test
     public void synchronizeAtStartup()
     {
@@ -0,0 +1,288 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.inject.Named;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContextManager;
+import org.xwiki.management.JMXBeanRegistration;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.search.solr.internal.api.SolrInstance;
+import org.xwiki.search.solr.internal.jmx.JMXSolrIndexer;
+import org.xwiki.search.solr.internal.metadata.LengthSolrInputDocument;
+import org.xwiki.search.solr.internal.metadata.SolrMetadataExtractor;
+import org.xwiki.search.solr.internal.reference.SolrReferenceResolver;
+import org.xwiki.test.annotation.BeforeComponent;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import com.xpn.xwiki.web.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link DefaultSolrIndexer}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+public class DefaultSolrIndexerTest
+{
+    private static final long TIMEOUT = 10;
+
+    private static final int THREADS = 4;
+
+    @MockComponent
+    private SolrConfiguration configuration;
+
+    @MockComponent
+    private SolrInstance solrInstance;
+
+    @MockComponent
+    private SolrReferenceResolver solrReferenceResolver;
+
+    @MockComponent
+    @Named("document")
+    private SolrMetadataExtractor documentExtractor;
+
+    @MockComponent
+    private Execution execution;
+
+    @MockComponent
+    private ExecutionContextManager executionContextManager;
+
+    @MockComponent
+    private JMXBeanRegistration jmxRegistration;
+
+    @InjectMockComponents
+    private DefaultSolrIndexer indexer;
+
+    private DocumentReference documentA = new DocumentReference("wiki", "Space", "A");
+
+    private DocumentReference documentB = new DocumentReference("wiki", "Space", "B");
+
+    private DocumentReference documentC = new DocumentReference("wiki", "Space", "C");
+
+    private DocumentReference blocker = new DocumentReference("wiki", "Space", "Blocker");
+
+    @BeforeComponent
+    public void beforeComponent(MockitoComponentManager componentManager)
+    {
+        // Used by the resolve thread to initialize its execution context
+        Utils.setComponentManager(componentManager);
+
+        when(this.configuration.getIndexerQueueCapacity()).thenReturn(100);
+        when(this.configuration.getIndexerThreads()).thenReturn(THREADS);
+        when(this.configuration.getIndexerBatchSize()).thenReturn(50);
+        when(this.configuration.getIndexerBatchMaxLengh()).thenReturn(10000);
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        Utils.setComponentManager(null);
+    }
+
+    private LengthSolrInputDocument mockDocument(DocumentReference reference) throws Exception
+    {
+        LengthSolrInputDocument solrDocument = new LengthSolrInputDocument();
+        solrDocument.setField("id", reference.toString());
+
+        when(this.documentExtractor.getSolrDocument(reference)).thenReturn(solrDocument);
+
+        return solrDocument;
+    }
+
+    private JMXSolrIndexer getMBean()
+    {
+        ArgumentCaptor<Object> mbeanCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(this.jmxRegistration).registerMBean(mbeanCaptor.capture(), eq("name=solrindexer"));
+
+        return (JMXSolrIndexer) mbeanCaptor.getValue();
+    }
+
+    /**
+     * Block the index thread while it sends a first document, so that the next requests stay in the index queue.
+     * 
+     * @return the latch to count down to unblock the index thread
+     */
+    private CountDownLatch blockIndexThread() throws Exception
+    {
+        LengthSolrInputDocument blockerSolrDocument = mockDocument(this.blocker);
+
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch sent = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            sent.await(TIMEOUT, TimeUnit.SECONDS);
+            return null;
+        }).when(this.solrInstance).add(same(blockerSolrDocument));
+
+        this.indexer.index(this.blocker, false);
+        assertTrue(sending.await(TIMEOUT, TimeUnit.SECONDS));
+
+        return sent;
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws Exception
+    {
+        long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private void waitProcessed() throws Exception
+    {
+        this.indexer.whenProcessed().get(TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void indexCoalescesPendingReferences() throws Exception
+    {
+        JMXSolrIndexer mbean = getMBean();
+
+        mockDocument(this.documentA);
+        mockDocument(this.documentB);
+
+        CountDownLatch blocked = blockIndexThread();
+
+        this.indexer.index(this.documentA, false);
+        this.indexer.index(this.documentB, false);
+        this.indexer.index(this.documentA, false);
+        this.indexer.index(this.documentB, false);
+        this.indexer.index(this.documentA, false);
+
+        // Wait for the resolve thread to handle all the requests
+        waitUntil(() -> mbean.getCoalescedCount() == 3);
+
+        blocked.countDown();
+        waitProcessed();
+
+        verify(this.documentExtractor).getSolrDocument(this.documentA);
+        verify(this.documentExtractor).getSolrDocument(this.documentB);
+        verify(this.solrInstance, times(3)).add(any(SolrInputDocument.class));
+        assertEquals(3, mbean.getCoalescedCount());
+    }
+
+    @Test
+    public void indexKeepsTheOrderOfTheOperationsOnTheSameDocument() throws Exception
+    {
+        JMXSolrIndexer mbean = getMBean();
+
+        LengthSolrInputDocument firstSolrDocument = new LengthSolrInputDocument();
+        LengthSolrInputDocument secondSolrDocument = new LengthSolrInputDocument();
+        // The first extraction is the slowest
+        when(this.documentExtractor.getSolrDocument(this.documentA)).then(invocation -> {
+            Thread.sleep(200);
+            return firstSolrDocument;
+        }).thenReturn(secondSolrDocument);
+        when(this.solrReferenceResolver.getId(this.documentA)).thenReturn("A");
+
+        CountDownLatch blocked = blockIndexThread();
+
+        this.indexer.index(this.documentA, false);
+        this.indexer.delete(this.documentA, false);
+        this.indexer.index(this.documentA, false);
+
+        // The index request coming after the delete must not be merged with the one before it
+        waitUntil(() -> mbean.getIndexQueueSize() == 3);
+        assertEquals(0, mbean.getCoalescedCount());
+
+        blocked.countDown();
+        waitProcessed();
+
+        InOrder inOrder = inOrder(this.solrInstance);
+        inOrder.verify(this.solrInstance).add(same(firstSolrDocument));
+        inOrder.verify(this.solrInstance).delete("A");
+        inOrder.verify(this.solrInstance).add(same(secondSolrDocument));
+        inOrder.verify(this.solrInstance).commit();
+    }
+
+    @Test
+    public void indexExtractsDocumentsInParallel() throws Exception
+    {
+        JMXSolrIndexer mbean = getMBean();
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        // Each extraction waits for the other ones to start, which is only possible with several build threads
+        CountDownLatch extracting = new CountDownLatch(3);
+        for (DocumentReference reference : Arrays.asList(this.documentA, this.documentB, this.documentC)) {
+            LengthSolrInputDocument solrDocument = new LengthSolrInputDocument();
+            solrDocument.setField("id", reference.toString());
+            when(this.documentExtractor.getSolrDocument(reference)).then(invocation -> {
+                threads.add(Thread.currentThread().getName());
+                extracting.countDown();
+                extracting.await(TIMEOUT, TimeUnit.SECONDS);
+                return solrDocument;
+            });
+        }
+
+        List<Object> sent = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> sent.add(((SolrInputDocument) invocation.getArgument(0)).getFieldValue("id")))
+            .when(this.solrInstance).add(any(SolrInputDocument.class));
+
+        CountDownLatch blocked = blockIndexThread();
+
+        this.indexer.index(this.documentA, false);
+        this.indexer.index(this.documentB, false);
+        this.indexer.index(this.documentC, false);
+
+        waitUntil(() -> mbean.getIndexQueueSize() == 3);
+
+        blocked.countDown();
+        waitProcessed();
+
+        assertEquals(0, extracting.getCount());
+        assertEquals(3, threads.size());
+
+        // The documents are sent in the order of the requests, whatever the extraction order
+        assertEquals(Arrays.asList(this.documentA.toString(), this.documentB.toString(), this.documentC.toString()),
+            sent);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Validate {@link SolrIndexerStatistics}.
+ * 
+ * @version $Id$
+ */
+public class SolrIndexerStatisticsTest
+{
+    @Test
+    public void stageTimer()
+    {
+        SolrIndexerStatistics statistics = new SolrIndexerStatistics();
+
+        assertEquals(0, statistics.getBuild().getAverageMilliseconds());
+
+        statistics.getBuild().record(TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.getBuild().record(TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertEquals(2, statistics.getBuild().getCount());
+        assertEquals(15, statistics.getBuild().getAverageMilliseconds());
+        assertEquals(0, statistics.getWrite().getCount());
+    }
+
+    @Test
+    public void reset()
+    {
+        SolrIndexerStatistics statistics = new SolrIndexerStatistics();
+
+        statistics.coalesced();
+        statistics.coalesced();
+        statistics.deleted();
+        statistics.getCommit().record(42);
+
+        assertEquals(2, statistics.getCoalescedCount());
+        assertEquals(1, statistics.getDeletedCount());
+        assertEquals(1, statistics.getCommit().getCount());
+
+        statistics.reset();
+
+        assertEquals(0, statistics.getCoalescedCount());
+        assertEquals(0, statistics.getDeletedCount());
+        assertEquals(0, statistics.getCommit().getCount());
+    }
+}
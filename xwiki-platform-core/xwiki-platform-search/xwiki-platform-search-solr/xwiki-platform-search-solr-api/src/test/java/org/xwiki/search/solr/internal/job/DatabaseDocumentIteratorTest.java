@@ -22,6 +22,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -48,6 +49,7 @@
 import org.xwiki.wiki.descriptor.WikiDescriptorManager;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -223,6 +225,49 @@ public void iterateOneWiki() throws Exception
         verify(countQuery).bindValue("name", "C");
     }
 
+    @Test
+    public void iterateModifiedDocumentsAfterCheckpoint() throws Exception
+    {
+        DocumentReference startAfter = createDocumentReference("chess", Arrays.asList("Main"), "Welcome", null);
+        Date since = new Date();
+
+        Query emptyQuery = mock(Query.class);
+        when(emptyQuery.execute()).thenReturn(Collections.emptyList());
+
+        Query query = mock(Query.class);
+        when(query.setLimit(anyInt())).thenReturn(query);
+        when(query.setWiki("chess")).thenReturn(query);
+        when(query.setOffset(0)).thenReturn(query);
+        when(query.setOffset(100)).thenReturn(emptyQuery);
+        when(query.execute())
+            .thenReturn(Collections.<Object>singletonList(new Object[] { "Main", "Welcome", "fr", "1.2" }));
+        when(query.getNamedParameters()).thenReturn(Collections.<String, Object>emptyMap());
+
+        Query countQuery = mock(Query.class);
+        when(countQuery.addFilter(this.countQueryFilter)).thenReturn(countQuery);
+
+        String whereClause = " where doc.date >= :since and (doc.space > :startSpace or (doc.space = :startSpace"
+            + " and (doc.name > :startName or (doc.name = :startName and doc.language > :startLanguage))))";
+        when(
+            this.queryManager.createQuery("select doc.space, doc.name, doc.language, doc.version from XWikiDocument doc"
+                + whereClause + " order by doc.space, doc.name, doc.language", Query.HQL)).thenReturn(query);
+        when(this.queryManager.createQuery(whereClause, Query.HQL)).thenReturn(countQuery);
+
+        DocumentIterator<String> iterator = this.databaseIterator;
+        iterator.setRootReference(startAfter.getWikiReference());
+        iterator.setSince(since);
+        iterator.setStartAfter(startAfter);
+
+        assertEquals(new ImmutablePair<DocumentReference, String>(new DocumentReference(startAfter, Locale.FRENCH),
+            "1.2"), iterator.next());
+        assertFalse(iterator.hasNext());
+
+        verify(query).bindValue("since", since);
+        verify(query).bindValue("startSpace", "Main");
+        verify(query).bindValue("startName", "Welcome");
+        verify(query).bindValue("startLanguage", "");
+    }
+
     private DocumentReference createDocumentReference(String wiki, List<String> spaces, String name, Locale locale)
     {
         DocumentReference documentReference = new DocumentReference(wiki, spaces, name);
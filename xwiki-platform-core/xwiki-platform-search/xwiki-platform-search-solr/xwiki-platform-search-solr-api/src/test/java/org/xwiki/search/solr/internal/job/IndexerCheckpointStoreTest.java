@@ -0,0 +1,119 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.job;
+
+import java.io.File;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.component.util.ReflectionUtils;
+import org.xwiki.environment.Environment;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link IndexerCheckpointStore}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+public class IndexerCheckpointStoreTest
+{
+    @XWikiTempDir
+    private File permanentDirectory;
+
+    @MockComponent
+    private Environment environment;
+
+    @MockComponent
+    private EntityReferenceSerializer<String> serializer;
+
+    @MockComponent
+    private DocumentReferenceResolver<String> resolver;
+
+    @InjectMockComponents
+    private IndexerCheckpointStore store;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        when(this.environment.getPermanentDirectory()).thenReturn(this.permanentDirectory);
+    }
+
+    @Test
+    public void getCheckpointWhenEmpty()
+    {
+        IndexerCheckpoint checkpoint = this.store.getCheckpoint("wiki");
+
+        assertNull(checkpoint.getSynchronizedDate());
+        assertNull(checkpoint.getStartDate());
+        assertNull(checkpoint.getReference());
+    }
+
+    @Test
+    public void saveCheckpoint()
+    {
+        DocumentReference documentReference = new DocumentReference("wiki", "Space", "Page");
+        when(this.serializer.serialize(new DocumentReference(documentReference, Locale.FRENCH)))
+            .thenReturn("wiki:Space.Page");
+        when(this.resolver.resolve("wiki:Space.Page")).thenReturn(documentReference);
+
+        IndexerCheckpoint checkpoint = new IndexerCheckpoint();
+        checkpoint.setSynchronizedDate(new Date(1000));
+        checkpoint.setStartDate(new Date(2000));
+        checkpoint.setReference(new DocumentReference(documentReference, Locale.FRENCH));
+        this.store.saveCheckpoint("wiki", checkpoint);
+
+        // Make sure the checkpoint is read from the file
+        ReflectionUtils.setFieldValue(this.store, "properties", null);
+
+        checkpoint = this.store.getCheckpoint("wiki");
+
+        assertEquals(new Date(1000), checkpoint.getSynchronizedDate());
+        assertEquals(new Date(2000), checkpoint.getStartDate());
+        assertEquals(new DocumentReference(documentReference, Locale.FRENCH), checkpoint.getReference());
+        assertNull(this.store.getCheckpoint("otherwiki").getSynchronizedDate());
+
+        // Complete the synchronization
+        checkpoint.setSynchronizedDate(checkpoint.getStartDate());
+        checkpoint.setStartDate(null);
+        checkpoint.setReference(null);
+        this.store.saveCheckpoint("wiki", checkpoint);
+
+        ReflectionUtils.setFieldValue(this.store, "properties", null);
+
+        checkpoint = this.store.getCheckpoint("wiki");
+
+        assertEquals(new Date(2000), checkpoint.getSynchronizedDate());
+        assertNull(checkpoint.getStartDate());
+        assertNull(checkpoint.getReference());
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.job;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.WikiReference;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.search.solr.internal.api.SolrIndexer;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link IndexerJob}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+public class IndexerJobTest
+{
+    private static final DocumentReference DOCUMENT = new DocumentReference("wiki", "Space", "Page");
+
+    @InjectMockComponents
+    private IndexerJob job;
+
+    @MockComponent
+    private SolrIndexer indexer;
+
+    @MockComponent
+    @Named("database")
+    private Provider<DocumentIterator<String>> databaseIteratorProvider;
+
+    @MockComponent
+    @Named("solr")
+    private Provider<DocumentIterator<String>> solrIteratorProvider;
+
+    @MockComponent
+    private IndexerCheckpointStore checkpointStore;
+
+    @MockComponent
+    private SolrConfiguration configuration;
+
+    private DocumentIterator<String> databaseIterator;
+
+    private DocumentIterator<String> solrIterator;
+
+    private IndexerCheckpoint checkpoint = new IndexerCheckpoint();
+
+    @BeforeEach
+    void configure()
+    {
+        this.databaseIterator = mock(DocumentIterator.class);
+        when(this.databaseIterator.hasNext()).thenReturn(true, false);
+        when(this.databaseIterator.next()).thenReturn(new ImmutablePair<>(DOCUMENT, "1.1"));
+        when(this.databaseIteratorProvider.get()).thenReturn(this.databaseIterator);
+
+        this.solrIterator = mock(DocumentIterator.class);
+        when(this.solrIteratorProvider.get()).thenReturn(this.solrIterator);
+
+        when(this.configuration.getSynchronizeThreads()).thenReturn(1);
+        when(this.checkpointStore.getCheckpoint("wiki")).thenReturn(this.checkpoint);
+    }
+
+    private void runIncremental()
+    {
+        IndexerRequest request = new IndexerRequest();
+        request.setRootReference(new WikiReference("wiki"));
+        request.setIncremental(true);
+        request.setVerbose(false);
+
+        this.job.initialize(request);
+        this.job.run();
+    }
+
+    @Test
+    void resumeFromCheckpoint()
+    {
+        Date synchronizedDate = new Date(1000);
+        Date startDate = new Date(2000);
+        DocumentReference reference = new DocumentReference("wiki", "Space", "Before");
+        this.checkpoint.setSynchronizedDate(synchronizedDate);
+        this.checkpoint.setStartDate(startDate);
+        this.checkpoint.setReference(reference);
+
+        when(this.indexer.whenProcessed()).thenReturn(CompletableFuture.completedFuture(null));
+
+        runIncremental();
+
+        verify(this.databaseIterator).setRootReference(new WikiReference("wiki"));
+        verify(this.databaseIterator).setSince(synchronizedDate);
+        verify(this.databaseIterator).setStartAfter(reference);
+        verify(this.solrIterator).setSince(synchronizedDate);
+        verify(this.solrIterator).setStartAfter(reference);
+        verify(this.indexer).index(DOCUMENT, true);
+
+        // The wiki is now synchronized up to the date the interrupted synchronization started
+        verify(this.checkpointStore).saveCheckpoint("wiki", this.checkpoint);
+        assertEquals(startDate, this.checkpoint.getSynchronizedDate());
+        assertNull(this.checkpoint.getStartDate());
+        assertNull(this.checkpoint.getReference());
+    }
+
+    @Test
+    void indexerStoppedBeforeTheEndOfTheSynchronization()
+    {
+        Date synchronizedDate = new Date(1000);
+        this.checkpoint.setSynchronizedDate(synchronizedDate);
+
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        stopped.cancel(false);
+        when(this.indexer.whenProcessed()).thenReturn(stopped);
+
+        runIncremental();
+
+        verify(this.databaseIterator).setSince(synchronizedDate);
+        verify(this.databaseIterator).setStartAfter(null);
+        verify(this.indexer).index(DOCUMENT, true);
+
+        // The synchronization has to be resumed since the document sent to the indexer might not be indexed
+        verify(this.checkpointStore, atLeastOnce()).saveCheckpoint(any(), any());
+        assertEquals(synchronizedDate, this.checkpoint.getSynchronizedDate());
+        assertNotNull(this.checkpoint.getStartDate());
+        assertNull(this.checkpoint.getReference());
+    }
+}
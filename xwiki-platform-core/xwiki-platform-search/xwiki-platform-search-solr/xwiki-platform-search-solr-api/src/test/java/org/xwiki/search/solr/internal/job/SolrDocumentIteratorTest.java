@@ -21,9 +21,12 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
+import javax.inject.Named;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -32,9 +35,11 @@
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.xwiki.localization.LocaleUtils;
 import org.xwiki.model.reference.DocumentReference;
 import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReferenceSerializer;
 import org.xwiki.model.reference.WikiReference;
 import org.xwiki.search.solr.internal.api.FieldUtils;
 import org.xwiki.search.solr.internal.api.SolrInstance;
@@ -44,7 +49,9 @@
 import org.xwiki.test.junit5.mockito.MockComponent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -68,6 +75,10 @@
     @MockComponent
     private DocumentReferenceResolver<SolrDocument> solrDocumentReferenceResolver;
 
+    @MockComponent
+    @Named("local")
+    private EntityReferenceSerializer<String> localSerializer;
+
     @InjectMockComponents
     private SolrDocumentIterator solrIterator;
 
@@ -141,6 +152,34 @@ public void iterate() throws Exception
         assertEquals(expectedResult, actualResult);
     }
 
+    @Test
+    public void iterateSinceAndStartAfter() throws Exception
+    {
+        QueryResponse response = mock(QueryResponse.class);
+        when(response.getResults()).thenReturn(new SolrDocumentList());
+        when(this.solrInstance.query(any(SolrQuery.class))).thenReturn(response);
+
+        DocumentReference startAfter = new DocumentReference("wiki", Arrays.asList("A", "B"), "C\"D", Locale.FRENCH);
+        when(this.localSerializer.serialize(startAfter.getLastSpaceReference())).thenReturn("A.B");
+
+        DocumentIterator<String> iterator = this.solrIterator;
+        iterator.setRootReference(new WikiReference("wiki"));
+        iterator.setSince(new Date(0));
+        iterator.setStartAfter(startAfter);
+
+        assertFalse(iterator.hasNext());
+
+        ArgumentCaptor<SolrQuery> queryCaptor = ArgumentCaptor.forClass(SolrQuery.class);
+        verify(this.solrInstance).query(queryCaptor.capture());
+        List<String> filterQueries = Arrays.asList(queryCaptor.getValue().getFilterQueries());
+
+        assertTrue(filterQueries.contains(FieldUtils.DATE + ":[1970-01-01T00:00:00Z TO *]"));
+        assertTrue(filterQueries.contains(String.format(
+            "%1$s:{\"A.B\" TO *] OR (%1$s:\"A.B\" AND (%2$s:{\"C\\\"D\" TO *] OR (%2$s:\"C\\\"D\""
+                + " AND %3$s:{\"fr\" TO *])))",
+            FieldUtils.SPACE_EXACT, FieldUtils.NAME_EXACT, FieldUtils.DOCUMENT_LOCALE)), filterQueries.toString());
+    }
+
     private SolrDocument createSolrDocument(String wiki, List<String> spaces, String name, String locale,
         String version)
     {
@@ -0,0 +1,217 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.search.solr.internal.metadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Provider;
+
+import org.junit.jupiter.api.Test;
+import org.xwiki.cache.Cache;
+import org.xwiki.cache.CacheManager;
+import org.xwiki.model.reference.AttachmentReference;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
+import org.xwiki.test.annotation.BeforeComponent;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+import org.xwiki.test.mockito.MockitoComponentManager;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiAttachment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link AttachmentTextExtractor}.
+ * 
+ * @version $Id$
+ */
+@ComponentTest
+public class AttachmentTextExtractorTest
+{
+    @MockComponent
+    private SolrConfiguration configuration;
+
+    @MockComponent
+    private Provider<XWikiContext> xcontextProvider;
+
+    @InjectMockComponents
+    private AttachmentTextExtractor extractor;
+
+    private static final long TIMEOUT = 1000;
+
+    private XWikiContext xcontext = mock(XWikiContext.class);
+
+    private Cache<String> cache;
+
+    private Map<String, String> cacheEntries = new ConcurrentHashMap<>();
+
+    @BeforeComponent
+    public void beforeComponent(MockitoComponentManager componentManager) throws Exception
+    {
+        when(this.configuration.getAttachmentMaxCharacters()).thenReturn(10);
+        when(this.configuration.getAttachmentCacheSize()).thenReturn(10);
+        when(this.configuration.getAttachmentThreads()).thenReturn(1);
+        when(this.configuration.getAttachmentTimeout()).thenReturn(TIMEOUT);
+
+        this.cache = mock(Cache.class);
+        when(this.cache.get(anyString())).then(invocation -> this.cacheEntries.get(invocation.getArgument(0)));
+        doAnswer(invocation -> this.cacheEntries.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(this.cache).set(anyString(), anyString());
+        CacheManager cacheManager = componentManager.registerMockComponent(CacheManager.class);
+        when(cacheManager.<String>createNewCache(any())).thenReturn(this.cache);
+    }
+
+    private XWikiAttachment mockAttachment(String filename, String content) throws Exception
+    {
+        return mockAttachment(filename, content, "1.1", 0);
+    }
+
+    private XWikiAttachment mockAttachment(String filename, String content, String version, long delay)
+        throws Exception
+    {
+        when(this.xcontextProvider.get()).thenReturn(this.xcontext);
+
+        XWikiAttachment attachment = mock(XWikiAttachment.class);
+        when(attachment.getFilename()).thenReturn(filename);
+        when(attachment.getReference())
+            .thenReturn(new AttachmentReference(filename, new DocumentReference("wiki", "Space", "Page")));
+        when(attachment.getId()).thenReturn((long) filename.hashCode());
+        when(attachment.getVersion()).thenReturn(version);
+        when(attachment.getLongSize()).thenReturn((long) content.length());
+        when(attachment.getContentInputStream(this.xcontext)).then(invocation -> createStream(content, delay));
+
+        return attachment;
+    }
+
+    private InputStream createStream(String content, long delay)
+    {
+        return new ByteArrayInputStream(content.getBytes())
+        {
+            private boolean waited;
+
+            @Override
+            public synchronized int read()
+            {
+                return waitFirstRead() ? super.read() : -1;
+            }
+
+            @Override
+            public synchronized int read(byte[] b, int off, int len)
+            {
+                return waitFirstRead() ? super.read(b, off, len) : -1;
+            }
+
+            private boolean waitFirstRead()
+            {
+                if (!this.waited && delay > 0) {
+                    this.waited = true;
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void getTextWithMaxCharacters() throws Exception
+    {
+        XWikiAttachment attachment = mockAttachment("file.txt", "text content longer than the budget");
+
+        assertEquals("text conte", this.extractor.getText(attachment));
+    }
+
+    @Test
+    public void getTextFromCache() throws Exception
+    {
+        XWikiAttachment attachment = mockAttachment("file.txt", "content");
+        XWikiAttachment sameAttachment = mockAttachment("file.txt", "content");
+        XWikiAttachment otherVersion = mockAttachment("file.txt", "other", "1.2", 0);
+
+        assertEquals("content\n", this.extractor.getText(attachment));
+        verify(attachment).getContentInputStream(this.xcontext);
+
+        // The key is computed from the attachment metadata, the content is not read
+        assertEquals("content\n", this.extractor.getText(sameAttachment));
+        verify(sameAttachment, times(0)).getContentInputStream(this.xcontext);
+
+        assertEquals("other\n", this.extractor.getText(otherVersion));
+        verify(otherVersion).getContentInputStream(this.xcontext);
+
+        assertEquals(2, this.cacheEntries.size());
+    }
+
+    @Test
+    public void getTextWithTimeout() throws Exception
+    {
+        XWikiAttachment attachment = mockAttachment("file.txt", "content", "1.1", TIMEOUT * 10);
+
+        long start = System.currentTimeMillis();
+        assertEquals("", this.extractor.getText(attachment));
+        assertTrue(System.currentTimeMillis() - start < TIMEOUT * 10);
+
+        // The text truncated by the time budget is not cached
+        assertTrue(this.cacheEntries.isEmpty());
+    }
+
+    @Test
+    public void getTextWithTimeoutStartingWithTheExtraction() throws Exception
+    {
+        // Each extraction takes more than half the time budget and only one can run at a time
+        XWikiAttachment attachment1 = mockAttachment("file1.txt", "first", "1.1", TIMEOUT * 2 / 3);
+        XWikiAttachment attachment2 = mockAttachment("file2.txt", "second", "1.1", TIMEOUT * 2 / 3);
+
+        CompletableFuture<String> text1 = CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.extractor.getText(attachment1);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        // Wait for the first extraction to start
+        Thread.sleep(TIMEOUT / 10);
+
+        // The time spent waiting for the first extraction to end is not taken into account
+        assertEquals("second\n", this.extractor.getText(attachment2));
+        assertEquals("first\n", text1.get());
+        assertEquals(2, this.cacheEntries.size());
+    }
+}
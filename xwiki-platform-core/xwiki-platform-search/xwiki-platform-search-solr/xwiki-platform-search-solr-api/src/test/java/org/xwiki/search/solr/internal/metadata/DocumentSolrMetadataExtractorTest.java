@@ -41,6 +41,7 @@
 import org.mockito.AdditionalAnswers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.xwiki.component.util.ReflectionUtils;
 import org.xwiki.context.Execution;
 import org.xwiki.context.ExecutionContext;
 import org.xwiki.model.EntityType;
@@ -51,7 +52,9 @@
 import org.xwiki.rendering.block.Block;
 import org.xwiki.rendering.renderer.BlockRenderer;
 import org.xwiki.rendering.renderer.printer.WikiPrinter;
+import org.xwiki.search.solr.internal.DefaultSolrConfiguration;
 import org.xwiki.search.solr.internal.api.FieldUtils;
+import org.xwiki.search.solr.internal.api.SolrConfiguration;
 import org.xwiki.search.solr.internal.api.SolrFieldNameEncoder;
 import org.xwiki.search.solr.internal.api.SolrIndexerException;
 import org.xwiki.search.solr.internal.reference.SolrReferenceResolver;
@@ -159,6 +162,17 @@ public String answer(InvocationOnMock invocation) throws Throwable
         // Field Name Encoder
         SolrFieldNameEncoder fieldNameEncoder = this.mocker.getInstance(SolrFieldNameEncoder.class);
         when(fieldNameEncoder.encode(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        // Actually extract the content of the attachments
+        SolrConfiguration solrConfiguration = mock(SolrConfiguration.class);
+        when(solrConfiguration.getAttachmentMaxCharacters())
+            .thenReturn(DefaultSolrConfiguration.SOLR_ATTACHMENT_MAXCHARACTERS_DEFAULT);
+        AttachmentTextExtractor attachmentTextExtractor = new AttachmentTextExtractor();
+        ReflectionUtils.setFieldValue(attachmentTextExtractor, "configuration", solrConfiguration);
+        ReflectionUtils.setFieldValue(attachmentTextExtractor, "xcontextProvider", xcontextProvider);
+        attachmentTextExtractor.initialize();
+        ReflectionUtils.setFieldValue(this.mocker.getComponentUnderTest(), "attachmentTextExtractor",
+            attachmentTextExtractor);
     }
 
     @Test
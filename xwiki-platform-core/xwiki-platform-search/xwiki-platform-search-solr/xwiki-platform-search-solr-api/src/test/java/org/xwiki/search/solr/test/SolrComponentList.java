@@ -29,6 +29,7 @@
 import org.xwiki.properties.internal.converter.ConvertUtilsConverter;
 import org.xwiki.properties.internal.converter.EnumConverter;
 import org.xwiki.search.solr.internal.DefaultSolr;
+import org.xwiki.search.solr.internal.DefaultSolrCommitPolicy;
 import org.xwiki.search.solr.internal.DefaultSolrConfiguration;
 import org.xwiki.search.solr.internal.DefaultSolrUtils;
 import org.xwiki.search.solr.internal.EmbeddedSolr;
@@ -55,6 +56,7 @@
     DefaultConverterManager.class,
     ConvertUtilsConverter.class,
     DefaultSolrConfiguration.class,
+    DefaultSolrCommitPolicy.class,
     EnumConverter.class,
     ContextComponentManagerProvider.class
 })
@@ -20,6 +20,7 @@
 package org.xwiki.security.authorization;
 
 import org.xwiki.component.annotation.Role;
+import org.xwiki.stability.Unstable;
 
 /**
  * Configuration of the {@link AuthorizationManager}.
@@ -34,4 +35,35 @@
      * @return the hints to be used for looking up the authorization settler.
      */
     String getAuthorizationSettler();
+
+    /**
+     * @return true if the access entries which were the most recently loaded before the last shutdown should be loaded
+     *         again in the background at startup
+     * @since 12.6
+     */
+    @Unstable
+    default boolean isCacheWarmupEnabled()
+    {
+        return false;
+    }
+
+    /**
+     * @return the maximum number of access entries to remember for the warm-up of the security cache at startup
+     * @since 12.6
+     */
+    @Unstable
+    default int getCacheWarmupSize()
+    {
+        return 1000;
+    }
+
+    /**
+     * @return the maximum number of entries of the security cache
+     * @since 12.6
+     */
+    @Unstable
+    default int getCacheCapacity()
+    {
+        return 10000;
+    }
 }
@@ -19,8 +19,13 @@
  */
 package org.xwiki.security.authorization;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.xwiki.component.annotation.Role;
 import org.xwiki.model.reference.EntityReference;
+import org.xwiki.stability.Unstable;
 
 /**
  * This API is for checking the access rights of current user in the current context. It replaces
@@ -80,4 +85,23 @@
      * @return {@code true} if the user has the specified right on the entity, {@code false} otherwise
      */
     boolean hasAccess(Right right, EntityReference entityReference);
+
+    /**
+     * Filter the entities on which access identified by {@code right} would be allowed in the current context. This
+     * gives the same result as calling {@link #hasAccess(Right, EntityReference)} for each entity, but the
+     * implementation is free to evaluate the rights of all the entities at once.
+     *
+     * @param <T> the type of the entity references
+     * @param right the right to check
+     * @param entityReferences the entities on which to check the right
+     * @return the entities on which the right is allowed, in the same order
+     * @since 12.6
+     * @see AuthorizationManager#filterAccess(Right, org.xwiki.model.reference.DocumentReference, Collection)
+     */
+    @Unstable
+    default <T extends EntityReference> List<T> filterAccess(Right right, Collection<T> entityReferences)
+    {
+        return entityReferences.stream().filter(entityReference -> hasAccess(right, entityReference))
+            .collect(Collectors.toList());
+    }
 }
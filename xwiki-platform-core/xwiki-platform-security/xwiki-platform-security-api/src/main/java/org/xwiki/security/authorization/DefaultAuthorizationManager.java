@@ -19,15 +19,22 @@
  */
 package org.xwiki.security.authorization;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
 import org.xwiki.model.reference.DocumentReference;
@@ -114,6 +121,15 @@ public void checkAccess(Right right, DocumentReference userReference, EntityRefe
 
     @Override
     public boolean hasAccess(Right right, DocumentReference userReference, EntityReference entityReference)
+    {
+        return hasAccessInternal(right, userReference, entityReference);
+    }
+
+    /**
+     * Same as {@link #hasAccess(Right, DocumentReference, EntityReference)} but not overridable, so that the
+     * fallback of {@link #filterAccess(Right, DocumentReference, Collection)} is not reported twice by extensions.
+     */
+    private boolean hasAccessInternal(Right right, DocumentReference userReference, EntityReference entityReference)
     {
         try {
             return hasSecurityAccess(right, userReference, entityReference, false);
@@ -125,6 +141,72 @@ public boolean hasAccess(Right right, DocumentReference userReference, EntityRef
         }
     }
 
+    @Override
+    public <T extends EntityReference> List<T> filterAccess(Right right, DocumentReference userReference,
+        Collection<T> entityReferences)
+    {
+        if (isSuperAdmin(userReference)) {
+            return new ArrayList<>(entityReferences);
+        }
+
+        if (right == null || right == Right.ILLEGAL || (!right.isReadOnly() && xwikiBridge.isWikiReadOnly())
+            || (userReference == null && xwikiBridge.needsAuthentication(right))) {
+            return new ArrayList<>();
+        }
+
+        UserSecurityReference user = securityReferenceFactory.newUserReference(userReference);
+
+        // Resolve what can be resolved from the cache, sharing the resolution of the common ancestors
+        Map<T, SecurityReference> entities = new LinkedHashMap<>();
+        Map<SecurityReference, SecurityAccess> accesses = new HashMap<>();
+        Map<SecurityReference, SecurityAccess> resolvedAncestors = new HashMap<>();
+        Set<SecurityReference> missingEntities = new LinkedHashSet<>();
+        for (T entityReference : entityReferences) {
+            SecurityReference entity = securityReferenceFactory.newEntityReference(entityReference);
+            entities.put(entityReference, entity);
+            if (!accesses.containsKey(entity)) {
+                SecurityAccess access = getCachedAccess(user, entity, resolvedAncestors);
+                if (access != null) {
+                    accesses.put(entity, access);
+                } else {
+                    missingEntities.add(entity);
+                }
+            }
+        }
+
+        // Load all the missing entries in one pass
+        if (!missingEntities.isEmpty()) {
+            try {
+                for (Map.Entry<SecurityReference, SecurityAccessEntry> entry : this.securityCacheLoader
+                    .load(user, missingEntities).entrySet()) {
+                    accesses.put(entry.getKey(), entry.getValue().getAccess());
+                }
+            } catch (Exception e) {
+                this.logger.warn("Failed to load the rights of user [{}] on [{}] entities at once: {}",
+                    (userReference == null) ? AuthorizationException.NULL_USER : userReference, missingEntities.size(),
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        List<T> allowed = new ArrayList<>(entityReferences.size());
+        for (T entityReference : entityReferences) {
+            SecurityAccess access = accesses.get(entities.get(entityReference));
+            boolean isAllowed;
+            if (access != null) {
+                logAccess(access.get(right), userReference, entityReference, right, "access inquiry", true);
+                isAllowed = access.get(right) == RuleState.ALLOW;
+            } else {
+                // The batch loading failed, fallback on the standard check which takes care of reporting the error
+                isAllowed = hasAccessInternal(right, userReference, entityReference);
+            }
+            if (isAllowed) {
+                allowed.add(entityReference);
+            }
+        }
+
+        return allowed;
+    }
+
     /**
      * Verifies if the user identified by {@code userReference} has the access identified by {@code right} on the
      * entity identified by {@code entityReference}. Note that some rights may be checked higher in hierarchy of the
@@ -210,6 +292,51 @@ public Right register(RightDescription rightDescription, Set<Right> impliedByRig
         }
     }
 
+    /**
+     * Obtain the access for the user on the given entity from the cache, without loading anything.
+     *
+     * @param user The user identity.
+     * @param entity The entity.
+     * @param resolvedAncestors the access already resolved for the ancestors of previous entities, completed with the
+     *            ancestors resolved for this entity
+     * @return the cached access, or {@code null} if it needs to be loaded
+     */
+    private SecurityAccess getCachedAccess(UserSecurityReference user, SecurityReference entity,
+        Map<SecurityReference, SecurityAccess> resolvedAncestors)
+    {
+        List<SecurityReference> visited = new ArrayList<>();
+        for (SecurityReference ref = entity; ref != null; ref = ref.getParentSecurityReference()) {
+            SecurityAccess access = resolvedAncestors.get(ref);
+            if (access == null && !Right.getEnabledRights(ref.getSecurityType()).isEmpty()) {
+                SecurityRuleEntry entry = securityCache.get(ref);
+                if (entry == null) {
+                    return null;
+                }
+                if (!entry.isEmpty()) {
+                    SecurityAccessEntry accessEntry = securityCache.get(user, ref);
+                    if (accessEntry == null) {
+                        return null;
+                    }
+                    access = accessEntry.getAccess();
+                }
+            }
+
+            visited.add(ref);
+
+            if (access != null) {
+                // Siblings going through the same (empty) levels will get the same access
+                for (SecurityReference visitedReference : visited) {
+                    resolvedAncestors.put(visitedReference, access);
+                }
+
+                return access;
+            }
+        }
+
+        // The default access needs to be loaded
+        return null;
+    }
+
     /**
      * Obtain the access for the user on the given entity and load it into the cache if unavailable.
      *
@@ -23,10 +23,17 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.inject.Inject;
@@ -47,6 +54,7 @@
 import org.xwiki.security.GroupSecurityReference;
 import org.xwiki.security.SecurityReference;
 import org.xwiki.security.UserSecurityReference;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
 import org.xwiki.security.authorization.SecurityAccessEntry;
 import org.xwiki.security.authorization.SecurityEntry;
 import org.xwiki.security.authorization.SecurityRuleEntry;
@@ -56,6 +64,11 @@
 
 /**
  * Default implementation of the security cache.
+ * <p>
+ * Reads are not locked: the underlying cache is thread safe and the links between the entries are only modified in a
+ * thread safe way. Insertions are serialized by wiki using a fixed set of lock stripes, so that loading rights in one
+ * wiki never waits for another wiki. Removals are not locked either, they are only serialized with the loads through
+ * the invalidation lock (see {@link #suspendInvalidation()}).
  *
  * @version $Id$
  * @since 4.0M2
@@ -64,24 +77,21 @@
 @Singleton
 public class DefaultSecurityCache implements SecurityCache, Initializable
 {
-    /** Default capacity for security cache. */
-    private static final int DEFAULT_CAPACITY = 10000;
-
     /** Separator used for composing key for the cache. */
     private static final String KEY_CACHE_SEPARATOR = "@@";
 
+    /** Number of lock stripes used to serialize the insertions. */
+    private static final int LOCK_STRIPES = 64;
+
+    /** Maximum number of attempts at re-installing the ancestors of an entry. */
+    private static final int MAX_INSTALL_ATTEMPTS = 5;
+
     /** Logger. **/
     @Inject
     private Logger logger;
 
-    /** Fair read-write lock used for fair scheduling of cache access. */
-    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock(true);
-
-    /** Fair read lock. */
-    private final Lock readLock = readWriteLock.readLock();
-
-    /** Fair write lock. */
-    private final Lock writeLock = readWriteLock.writeLock();
+    /** The locks serializing the insertions, indexed by the hash of the wiki of the inserted entry. */
+    private final Lock[] insertionLocks = new Lock[LOCK_STRIPES];
 
     private final ReadWriteLock invalidationReadWriteLock = new ReentrantReadWriteLock(true);
 
@@ -97,11 +107,25 @@ public class DefaultSecurityCache implements SecurityCache, Initializable
     @Inject
     private CacheManager cacheManager;
 
+    /** Provide the capacity of the cache. */
+    @Inject
+    private AuthorizationManagerConfiguration configuration;
+
     /** The cache instance. */
     private Cache<SecurityCacheEntry> cache;
 
-    /** The new entry being added. */
-    private SecurityCacheEntry newEntry;
+    /** The new entries being added. */
+    private final Set<SecurityCacheEntry> newEntries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Default constructor.
+     */
+    public DefaultSecurityCache()
+    {
+        for (int i = 0; i < LOCK_STRIPES; ++i) {
+            this.insertionLocks[i] = new ReentrantLock();
+        }
+    }
 
     /**
      * @return a new configured security cache
@@ -112,7 +136,7 @@ private Cache<SecurityCacheEntry> newCache() throws InitializationException
         CacheConfiguration cacheConfig = new CacheConfiguration();
         cacheConfig.setConfigurationId("platform.security.authorization.cache");
         LRUEvictionConfiguration lru = new LRUEvictionConfiguration();
-        lru.setMaxEntries(DEFAULT_CAPACITY);
+        lru.setMaxEntries(this.configuration.getCacheCapacity());
         cacheConfig.put(EntryEvictionConfiguration.CONFIGURATIONID, lru);
         try {
             return cacheManager.createNewCache(cacheConfig);
@@ -136,22 +160,22 @@ private class SecurityCacheEntry implements DisposableCacheValue
         /**
          * The cached security entry.
          */
-        private SecurityEntry entry;
+        private volatile SecurityEntry entry;
 
         /**
-         * Parents of this cached entry.
+         * Parents of this cached entry. The collection is never modified once published, it is replaced instead.
          */
-        private Collection<SecurityCacheEntry> parents;
+        private volatile Collection<SecurityCacheEntry> parents;
 
         /**
-         * Children of this cached entry.
+         * Children of this cached entry, guarded by the entry itself.
          */
         private Collection<SecurityCacheEntry> children;
 
         /**
          * True if this entry has been removed.
          */
-        private boolean disposed;
+        private volatile boolean disposed;
 
         /**
          * Create a new cache entry for a security rule, linking it to its parent.
@@ -171,13 +195,9 @@ private class SecurityCacheEntry implements DisposableCacheValue
                         parentReference, entry));
                 }
                 this.parents = Arrays.asList(parent);
-                parent.addChild(this);
-                logNewEntry();
             } else {
                 this.parents = null;
-                logNewEntry();
             }
-
         }
 
         /**
@@ -202,9 +222,6 @@ private class SecurityCacheEntry implements DisposableCacheValue
                     entry));
             }
             this.parents = Arrays.asList(parent1, parent2);
-            parent1.addChild(this);
-            parent2.addChild(this);
-            logNewEntry();
         }
 
         /**
@@ -235,11 +252,6 @@ private class SecurityCacheEntry implements DisposableCacheValue
                     parent2, entry, wiki));
             }
             this.parents = (isSelf) ? Arrays.asList(parent1) : Arrays.asList(parent1, parent2);
-            parent1.addChild(this);
-            if (!isSelf) {
-                parent2.addChild(this);
-            }
-            logNewEntry();
         }
 
         /**
@@ -282,7 +294,7 @@ private SecurityCacheEntry(SecurityEntry entry, Collection<GroupSecurityReferenc
             this.entry = entry;
             int parentSize = groups.size() + ((parentReference == null) ? 0 : 1);
             if (parentSize > 0) {
-                this.parents = new ArrayList<>(parentSize);
+                Collection<SecurityCacheEntry> newParents = new ArrayList<>(parentSize);
                 if (parentReference != null) {
                     SecurityCacheEntry parent = DefaultSecurityCache.this.getEntry(parentReference);
                     if (parent == null) {
@@ -291,25 +303,25 @@ private SecurityCacheEntry(SecurityEntry entry, Collection<GroupSecurityReferenc
                                 + " is no longer available in the cache.",
                             parentReference, entry, groups));
                     }
-                    this.parents.add(parent);
-                    parent.addChild(this);
+                    newParents.add(parent);
                 }
-                addParentGroups(groups, parentReference);
-                logNewEntry();
+                addParentGroups(newParents, groups, parentReference);
+                this.parents = newParents;
             } else {
                 this.parents = null;
-                logNewEntry();
             }
         }
 
         /**
          * Add provided groups as parent of this entry, excluding the main parent reference.
          *
+         * @param newParents the collection of parents to complete.
          * @param groups the list of groups to add.
          * @param parentReference the main parent reference to exclude.
          * @throws ParentEntryEvictedException if the parents required are no more available in the cache.
          */
-        private void addParentGroups(Collection<GroupSecurityReference> groups, SecurityReference parentReference)
+        private void addParentGroups(Collection<SecurityCacheEntry> newParents,
+            Collection<GroupSecurityReference> groups, SecurityReference parentReference)
             throws ParentEntryEvictedException
         {
             for (GroupSecurityReference group : groups) {
@@ -323,9 +335,45 @@ private void addParentGroups(Collection<GroupSecurityReference> groups, Security
                     throw new ParentEntryEvictedException(String
                         .format("The parent with reference [%s] is no longer available in the cache", parentReference));
                 }
-                this.parents.add(parent);
-                parent.addChild(this);
+                newParents.add(parent);
+            }
+        }
+
+        /**
+         * Register this entry as a child of all its parents. Since the parents are not locked, a parent could be
+         * disposed concurrently, in which case this entry is disposed too.
+         *
+         * @throws ParentEntryEvictedException if one of the parents has been disposed while linking this entry.
+         */
+        void link() throws ParentEntryEvictedException
+        {
+            SecurityCacheEntry evictedParent = linkToParents(this.parents);
+            if (evictedParent != null) {
+                dispose();
+                throw new ParentEntryEvictedException(String.format(
+                    "The parent [%s] of entry [%s] has been evicted while being linked", evictedParent, entry));
+            }
+            logNewEntry();
+        }
+
+        /**
+         * @param newParents the parents to link to
+         * @return the first disposed parent, null if none of the parents were disposed
+         */
+        private SecurityCacheEntry linkToParents(Collection<SecurityCacheEntry> newParents)
+        {
+            if (newParents != null) {
+                for (SecurityCacheEntry parent : newParents) {
+                    parent.addChild(this);
+                    // The parent is marked as disposed before disposing its children, so either we see it here, or
+                    // the parent sees this new child
+                    if (parent.disposed) {
+                        return parent;
+                    }
+                }
             }
+
+            return null;
         }
 
         /**
@@ -341,15 +389,30 @@ boolean updateParentGroups(Collection<GroupSecurityReference> groups) throws Par
             }
 
             if (groups != null && !groups.isEmpty()) {
-                if (this.parents == null) {
-                    this.parents = new ArrayList<>(groups.size());
-                    addParentGroups(groups, null);
+                Collection<SecurityCacheEntry> currentParents = this.parents;
+                List<SecurityCacheEntry> newParents;
+                if (currentParents == null) {
+                    newParents = new ArrayList<>(groups.size());
+                    addParentGroups(newParents, groups, null);
                 } else {
-                    SecurityCacheEntry parent = this.parents.iterator().next();
-                    this.parents = new ArrayList<>(groups.size() + 1);
-                    this.parents.add(parent);
-                    addParentGroups(groups, parent.entry.getReference());
+                    SecurityCacheEntry parent = currentParents.iterator().next();
+                    newParents = new ArrayList<>(groups.size() + 1);
+                    newParents.add(parent);
+                    addParentGroups(newParents, groups, parent.entry.getReference());
+                }
+
+                // Only link the groups, the main parent is already linked
+                Collection<SecurityCacheEntry> groupParents =
+                    (currentParents == null) ? newParents : newParents.subList(1, newParents.size());
+                SecurityCacheEntry evictedParent = linkToParents(groupParents);
+                if (evictedParent != null) {
+                    for (SecurityCacheEntry parent : groupParents) {
+                        parent.removeChild(this);
+                    }
+                    throw new ParentEntryEvictedException(String.format(
+                        "The group [%s] of entry [%s] has been evicted while being linked", evictedParent, entry));
                 }
+                this.parents = newParents;
             }
 
             return true;
@@ -399,23 +462,34 @@ String getKey()
 
         /**
          * Dispose this entry from the cache, removing all children relation in its parents, and removing all its
-         * children recursively. This method is not thread safe in regards to the cache, proper locking should be done
-         * externally.
+         * children recursively. This method is thread safe and can be called several times.
          */
         @Override
         public void dispose()
         {
-            if (!disposed) {
-                disposed = true;
+            if (markDisposed()) {
                 disconnectFromParents();
                 disposeChildren();
             }
         }
 
+        /**
+         * @return true if this call marked the entry as disposed, false if it was already disposed
+         */
+        private synchronized boolean markDisposed()
+        {
+            if (this.disposed) {
+                return false;
+            }
+            this.disposed = true;
+            return true;
+        }
+
         protected void disconnectFromParents()
         {
-            if (parents != null) {
-                for (SecurityCacheEntry parent : parents) {
+            Collection<SecurityCacheEntry> currentParents = this.parents;
+            if (currentParents != null) {
+                for (SecurityCacheEntry parent : currentParents) {
                     if (!parent.disposed) {
                         parent.removeChild(this);
                     }
@@ -425,33 +499,39 @@ protected void disconnectFromParents()
 
         private void disposeChildren()
         {
-            if (children != null) {
-                for (SecurityCacheEntry child : children) {
-                    if (!child.disposed) {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("Cascaded removal of entry [{}] from cache.", child.getKey());
-                        }
-                        // XWIKI-13746: Prevent an addition in progress to bite his own entry in a bad way.
-                        if (child == newEntry) {
-                            child.dispose();
-                        } else {
-                            try {
-                                DefaultSecurityCache.this.cache.remove(child.getKey());
-                            } catch (Throwable e) {
-                                logger.error("Security cache failure during eviction of entry [{}]", child.getKey(), e);
-                            }
+            for (SecurityCacheEntry child : getChildren()) {
+                if (!child.disposed) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Cascaded removal of entry [{}] from cache.", child.getKey());
+                    }
+                    // Mark the child as disposed first, so that an addition in progress notice it
+                    child.dispose();
+                    // XWIKI-13746: Prevent an addition in progress to bite his own entry in a bad way.
+                    if (!newEntries.contains(child)) {
+                        try {
+                            DefaultSecurityCache.this.removeEntry(child);
+                        } catch (Throwable e) {
+                            logger.error("Security cache failure during eviction of entry [{}]", child.getKey(), e);
                         }
                     }
                 }
             }
         }
 
+        /**
+         * @return a copy of the children of this entry
+         */
+        private synchronized Collection<SecurityCacheEntry> getChildren()
+        {
+            return (this.children != null) ? new ArrayList<>(this.children) : Collections.emptyList();
+        }
+
         /**
          * Add a children to this cache entry.
          * 
          * @param entry the children entry to add.
          */
-        private void addChild(SecurityCacheEntry entry)
+        private synchronized void addChild(SecurityCacheEntry entry)
         {
             if (this.children == null) {
                 this.children = new ArrayList<>();
@@ -464,7 +544,7 @@ private void addChild(SecurityCacheEntry entry)
          * 
          * @param entry the children entry to remove.
          */
-        private void removeChild(SecurityCacheEntry entry)
+        private synchronized void removeChild(SecurityCacheEntry entry)
         {
             if (this.children != null) {
                 this.children.remove(entry);
@@ -568,12 +648,7 @@ private String getEntryKey(SecurityAccessEntry entry)
      */
     private SecurityCacheEntry getEntry(SecurityReference reference)
     {
-        readLock.lock();
-        try {
-            return cache.get(getEntryKey(reference));
-        } finally {
-            readLock.unlock();
-        }
+        return cache.get(getEntryKey(reference));
     }
 
     /**
@@ -584,12 +659,7 @@ private SecurityCacheEntry getEntry(SecurityReference reference)
      */
     private SecurityCacheEntry getEntry(UserSecurityReference userReference, SecurityReference reference)
     {
-        readLock.lock();
-        try {
-            return cache.get(getEntryKey(userReference, reference));
-        } finally {
-            readLock.unlock();
-        }
+        return cache.get(getEntryKey(userReference, reference));
     }
 
     /**
@@ -600,12 +670,7 @@ private SecurityCacheEntry getEntry(UserSecurityReference userReference, Securit
      */
     private SecurityCacheEntry getShadowEntry(SecurityReference userReference, SecurityReference wiki)
     {
-        readLock.lock();
-        try {
-            return cache.get(getShadowEntryKey(userReference, wiki));
-        } finally {
-            readLock.unlock();
-        }
+        return cache.get(getShadowEntryKey(userReference, wiki));
     }
 
     /**
@@ -655,25 +720,69 @@ private boolean isAlreadyInserted(String key, SecurityEntry entry, Collection<Gr
      * 
      * @param key the key of the entry to be added.
      * @param entry the entry to add.
+     * @throws ParentEntryEvictedException when one of the parents of the entry has been disposed while linking it.
      * @throws ConflictingInsertionException when the entry have been disposed while being added, the full load should
      *             be retried.
      */
-    private void addEntry(String key, SecurityCacheEntry entry) throws ConflictingInsertionException
+    private void addEntry(String key, SecurityCacheEntry entry)
+        throws ParentEntryEvictedException, ConflictingInsertionException
     {
+        entry.link();
+
+        this.newEntries.add(entry);
         try {
-            newEntry = entry;
-            cache.set(key, newEntry);
-            if (entry.disposed) {
-                // XWIKI-13746: The added entry have been disposed while being added, meaning that the eviction
-                // triggered by adding the entry has hit the entry itself, so remove it and fail.
-                cache.remove(key);
-                throw new ConflictingInsertionException(String.format(
-                    "The cache entry [%s] with key [%s] has been disposed by another thread while being added.", entry,
-                    key));
-            }
+            cache.set(key, entry);
         } finally {
-            newEntry = null;
+            this.newEntries.remove(entry);
+        }
+
+        // The disposed flag is checked after the entry is not marked as new anymore, so either a concurrent dispose
+        // removed the entry from the cache itself, or we see it here
+        if (entry.disposed) {
+            // XWIKI-13746: The added entry have been disposed while being added, meaning that the eviction
+            // triggered by adding the entry has hit the entry itself, so remove it and fail.
+            removeEntry(entry);
+            throw new ConflictingInsertionException(String.format(
+                "The cache entry [%s] with key [%s] has been disposed by another thread while being added.", entry,
+                key));
+        }
+    }
+
+    /**
+     * Remove an entry from the cache, unless the slot has already been reused for another entry.
+     *
+     * @param entry the entry to remove
+     */
+    private void removeEntry(SecurityCacheEntry entry)
+    {
+        String key = entry.getKey();
+        // A new entry can only be inserted once the previous one has been removed, so in the worst case another
+        // thread removed this entry and inserted a new one in between, which is then evicted a bit too early
+        if (cache.get(key) == entry) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * @param wiki the wiki of the entry to insert
+     * @return the lock to use to insert an entry in the passed wiki
+     */
+    private Lock getInsertionLock(SecurityReference wiki)
+    {
+        return this.insertionLocks[Math.floorMod(Objects.hashCode(wiki), LOCK_STRIPES)];
+    }
+
+    /**
+     * @param entry the entry to insert
+     * @return the lock to use to insert the passed entry
+     */
+    private Lock getInsertionLock(SecurityEntry entry)
+    {
+        if (entry instanceof SecurityShadowEntry) {
+            return getInsertionLock(((SecurityShadowEntry) entry).getWikiReference());
         }
+
+        return getInsertionLock(entry.getReference().getWikiReference());
     }
 
     @Override
@@ -696,6 +805,51 @@ public void add(SecurityShadowEntry entry, Collection<GroupSecurityReference> gr
         add((SecurityEntry) entry, groups);
     }
 
+    @Override
+    public void install(SecurityRuleEntry entry, Deque<SecurityRuleEntry> ancestors)
+        throws ParentEntryEvictedException, ConflictingInsertionException
+    {
+        for (int attempt = 1;; ++attempt) {
+            try {
+                if (attempt > 1) {
+                    installAncestors(entry, ancestors);
+                }
+                add(entry);
+
+                return;
+            } catch (ParentEntryEvictedException e) {
+                if (attempt >= MAX_INSTALL_ATTEMPTS) {
+                    throw e;
+                }
+
+                logger.debug("Re-installing the evicted ancestors of entry [{}].", entry);
+            }
+        }
+    }
+
+    /**
+     * Add back the ancestors of an entry which are not in the cache anymore, starting with the wiki.
+     *
+     * @param entry the entry for which to install the ancestors
+     * @param ancestors the ancestors of the entry, starting with the closest one
+     * @throws ParentEntryEvictedException when an ancestor has been evicted again while installing its children.
+     * @throws ConflictingInsertionException when another thread have inserted an ancestor with a different content.
+     */
+    private void installAncestors(SecurityRuleEntry entry, Deque<SecurityRuleEntry> ancestors)
+        throws ParentEntryEvictedException, ConflictingInsertionException
+    {
+        Iterator<SecurityRuleEntry> iterator = ancestors.descendingIterator();
+        while (iterator.hasNext()) {
+            SecurityRuleEntry ancestor = iterator.next();
+            if (ancestor.getReference().equals(entry.getReference())) {
+                break;
+            }
+            if (getEntry(ancestor.getReference()) == null) {
+                add(ancestor);
+            }
+        }
+    }
+
     /**
      * Add either a rule or shadow user/group entry into the cache.
      * 
@@ -711,7 +865,8 @@ private void add(SecurityEntry entry, Collection<GroupSecurityReference> groups)
     {
         String key = getEntryKey(entry);
 
-        writeLock.lock();
+        Lock lock = getInsertionLock(entry);
+        lock.lock();
         try {
             if (isAlreadyInserted(key, entry, groups)) {
                 return;
@@ -720,7 +875,7 @@ private void add(SecurityEntry entry, Collection<GroupSecurityReference> groups)
 
             logger.debug("Added rule/shadow entry [{}] into the cache.", key);
         } finally {
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
@@ -774,7 +929,8 @@ private void internalAdd(SecurityAccessEntry entry, SecurityReference wiki)
     {
         String key = getEntryKey(entry);
 
-        writeLock.lock();
+        Lock lock = getInsertionLock(entry);
+        lock.lock();
         try {
             if (isAlreadyInserted(key, entry)) {
                 return;
@@ -783,8 +939,7 @@ private void internalAdd(SecurityAccessEntry entry, SecurityReference wiki)
 
             logger.debug("Added access entry [{}] into the cache.", key);
         } finally {
-            newEntry = null;
-            writeLock.unlock();
+            lock.unlock();
         }
     }
 
@@ -838,17 +993,12 @@ public void remove(UserSecurityReference user, SecurityReference entity)
         this.invalidationWriteLock.lock();
 
         try {
-            writeLock.lock();
-            try {
-                SecurityCacheEntry entry = getEntry(user, entity);
-                if (entry != null) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Remove outdated access entry for [{}].", getEntryKey(user, entity));
-                    }
-                    this.cache.remove(entry.getKey());
+            SecurityCacheEntry entry = getEntry(user, entity);
+            if (entry != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Remove outdated access entry for [{}].", getEntryKey(user, entity));
                 }
-            } finally {
-                writeLock.unlock();
+                this.cache.remove(entry.getKey());
             }
         } finally {
             this.invalidationWriteLock.unlock();
@@ -861,17 +1011,12 @@ public void remove(SecurityReference entity)
         this.invalidationWriteLock.lock();
 
         try {
-            writeLock.lock();
-            try {
-                SecurityCacheEntry entry = getEntry(entity);
-                if (entry != null) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Remove outdated rule entry for [{}].", getEntryKey(entity));
-                    }
-                    this.cache.remove(entry.getKey());
+            SecurityCacheEntry entry = getEntry(entity);
+            if (entry != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Remove outdated rule entry for [{}].", getEntryKey(entity));
                 }
-            } finally {
-                writeLock.unlock();
+                this.cache.remove(entry.getKey());
             }
         } finally {
             this.invalidationWriteLock.unlock();
@@ -920,7 +1065,10 @@ public Collection<GroupSecurityReference> getGroupsFor(UserSecurityReference use
         // Special case if the user is a shadow.
         if (entityWiki != null) {
             // We start with the parents of the original entry, and the parent of this shadow (excluding the original)
-            addParentsWhenEntryIsShadow(userEntry, user, groups, entriesToExplore);
+            if (!addParentsWhenEntryIsShadow(userEntry, user, groups, entriesToExplore)) {
+                // The original entry has been evicted concurrently
+                return null;
+            }
         } else {
             // We start with the current user
             entriesToExplore.add(userEntry);
@@ -948,15 +1096,20 @@ public Collection<GroupSecurityReference> getGroupsFor(UserSecurityReference use
         return groups;
     }
 
-    private void addParentsWhenEntryIsShadow(SecurityCacheEntry shadow, UserSecurityReference user,
+    private boolean addParentsWhenEntryIsShadow(SecurityCacheEntry shadow, UserSecurityReference user,
         Collection<GroupSecurityReference> groups, Deque<SecurityCacheEntry> entriesToExplore)
     {
         SecurityCacheEntry originalEntry = getEntry(user);
+        if (originalEntry == null) {
+            return false;
+        }
 
         // We add the parents of the original (but not the original, otherwise we could have the same group twice)
         addParentsToTheListOfEntriesToExplore(originalEntry.parents, groups, entriesToExplore);
         // And we add the parent groups of the shadow
         addParentsToTheListOfEntriesToExplore(shadow.parents, groups, entriesToExplore, originalEntry);
+
+        return true;
     }
 
     /**
@@ -25,8 +25,10 @@
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -90,6 +92,10 @@ public class DefaultSecurityCacheLoader implements SecurityCacheLoader
     @Inject
     private Provider<AuthorizationSettler> authorizationSettlerProvider;
 
+    /** Keep track of the loaded access entries. */
+    @Inject
+    private SecurityCacheActivity activity;
+
     /**
      * Implementation of the SecurityRuleEntry.
      */
@@ -147,7 +153,9 @@ public SecurityAccessEntry load(UserSecurityReference user, SecurityReference en
 
             try {
                 retries++;
-                return loadRequiredEntries(user, entity);
+                SecurityAccessEntry entry = loadRequiredEntries(user, entity);
+                this.activity.record(user, entity);
+                return entry;
             } catch (ParentEntryEvictedException e) {
                 lastException = e;
                 if (retries < MAX_RETRIES) {
@@ -170,6 +178,39 @@ public SecurityAccessEntry load(UserSecurityReference user, SecurityReference en
         }
     }
 
+    @Override
+    public Map<SecurityReference, SecurityAccessEntry> load(UserSecurityReference user,
+        Collection<SecurityReference> entities) throws AuthorizationException
+    {
+        Map<SecurityReference, SecurityAccessEntry> entries = new LinkedHashMap<>();
+        List<SecurityReference> failedEntities = new ArrayList<>();
+
+        // Load all the entities in a single pass, the user, its groups and the common ancestors being loaded only once
+        rulesInvalidator.suspend();
+        try {
+            for (SecurityReference entity : entities) {
+                if (!entries.containsKey(entity)) {
+                    try {
+                        entries.put(entity, loadRequiredEntries(user, entity));
+                        this.activity.record(user, entity);
+                    } catch (ParentEntryEvictedException | ConflictingInsertionException e) {
+                        failedEntities.add(entity);
+                    }
+                }
+            }
+        } finally {
+            rulesInvalidator.resume();
+        }
+
+        // Retry the entities which could not be loaded in the batch one by one
+        for (SecurityReference entity : failedEntities) {
+            this.logger.debug("Failed to load the entity [{}] in the batch. Trying again alone...", entity);
+            entries.put(entity, load(user, entity));
+        }
+
+        return entries;
+    }
+
     /**
      * Load entity entries, group entries, and user entries required to settle the access, settle it, add this decision
      * into the cache and return the access.
@@ -411,12 +452,14 @@ private void loadUserEntry(UserSecurityReference user, Collection<GroupSecurityR
         // Make sure the parent of the user document is loaded.
         Deque<SecurityReference> chain = user.getReversedSecurityReferenceChain();
         chain.removeLast();
+        Deque<SecurityRuleEntry> ancestors = new ArrayDeque<>(chain.size());
         for (SecurityReference ref : chain) {
             SecurityRuleEntry entry = getSecurityCache().get(ref);
             if (entry == null) {
                 entry = securityEntryReader.read(ref);
-                getSecurityCache().add(entry);
+                getSecurityCache().install(entry, ancestors);
             }
+            ancestors.push(entry);
         }
 
         SecurityRuleEntry entry = securityEntryReader.read(user);
@@ -450,11 +493,13 @@ private Deque<SecurityRuleEntry> getRules(SecurityReference entity)
                     if (!emptyRuleEntryTail.isEmpty()) {
                         // Add intermediate empty rules sets to the cache to hold this significant one
                         for (SecurityRuleEntry emptyRuleEntry : emptyRuleEntryTail) {
-                            getSecurityCache().add(emptyRuleEntry);
+                            getSecurityCache().install(emptyRuleEntry, rules);
                         }
                         emptyRuleEntryTail.clear();
                     }
-                    getSecurityCache().add(entry);
+                    // Re-install the ancestors already read if they have been evicted in the meantime, instead of
+                    // restarting the whole load
+                    getSecurityCache().install(entry, rules);
                 }
             }
             rules.push(entry);
@@ -20,6 +20,7 @@
 package org.xwiki.security.authorization.cache.internal;
 
 import java.util.Collection;
+import java.util.Deque;
 
 import org.xwiki.security.GroupSecurityReference;
 import org.xwiki.security.SecurityReference;
@@ -112,6 +113,26 @@ void add(SecurityRuleEntry entry, Collection<GroupSecurityReference> groups)
     void add(SecurityShadowEntry entry, Collection<GroupSecurityReference> groups)
         throws ParentEntryEvictedException, ConflictingInsertionException;
 
+    /**
+     * Add a rule entry to this cache, re-installing its ancestors which have been evicted in the meantime instead of
+     * failing immediately.
+     *
+     * @param entry The rule entry to add.
+     * @param ancestors The rule entries of the ancestors of the entry, starting with the closest one and ending with
+     * the wiki. Entries located after the entry itself are ignored.
+     * @throws ParentEntryEvictedException when the ancestors of this entry keep being evicted while being
+     * re-installed.
+     * @throws ConflictingInsertionException when another thread have
+     * inserted this entry, but with a different content.
+     *
+     * @since 12.6
+     */
+    default void install(SecurityRuleEntry entry, Deque<SecurityRuleEntry> ancestors)
+        throws ParentEntryEvictedException, ConflictingInsertionException
+    {
+        add(entry);
+    }
+
     /**
      * Get immediate groups where the user/group is a member (directly in its wiki).
      *
@@ -0,0 +1,113 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.cache.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Initializable;
+import org.xwiki.security.SecurityReference;
+import org.xwiki.security.UserSecurityReference;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
+
+/**
+ * Keep track of the most recently loaded access entries, so that they can be loaded again in advance after a restart.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component(roles = SecurityCacheActivity.class)
+@Singleton
+public class SecurityCacheActivity implements Initializable
+{
+    @Inject
+    private AuthorizationManagerConfiguration configuration;
+
+    /**
+     * The activity is only needed for the warm-up of the security cache.
+     */
+    private boolean enabled;
+
+    /**
+     * The maximum number of tracked access entries (same as the capacity of the security cache).
+     */
+    private int capacity;
+
+    private final Map<Pair<UserSecurityReference, SecurityReference>, Boolean> entries =
+        new LinkedHashMap<Pair<UserSecurityReference, SecurityReference>, Boolean>(16, 0.75F, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Pair<UserSecurityReference, SecurityReference>, Boolean> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+
+    @Override
+    public void initialize()
+    {
+        this.enabled = this.configuration.isCacheWarmupEnabled();
+        this.capacity = this.configuration.getCacheCapacity();
+    }
+
+    /**
+     * Remember that the access of the user on the entity has been loaded. Does nothing when the warm-up of the
+     * security cache is disabled.
+     *
+     * @param user the user for which the access has been loaded
+     * @param entity the entity on which the access has been loaded
+     */
+    public void record(UserSecurityReference user, SecurityReference entity)
+    {
+        if (!this.enabled || entity == null) {
+            // Nothing will be loaded in advance
+            return;
+        }
+
+        synchronized (this.entries) {
+            this.entries.put(Pair.of(user, entity), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return the tracked access entries, starting with the most recently loaded one
+     */
+    public List<Pair<UserSecurityReference, SecurityReference>> getEntries()
+    {
+        List<Pair<UserSecurityReference, SecurityReference>> result;
+        synchronized (this.entries) {
+            result = new ArrayList<>(this.entries.keySet());
+        }
+        Collections.reverse(result);
+
+        return result;
+    }
+}
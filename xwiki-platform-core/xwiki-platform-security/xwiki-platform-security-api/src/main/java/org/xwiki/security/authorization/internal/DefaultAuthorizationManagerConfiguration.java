@@ -48,6 +48,12 @@ public class DefaultAuthorizationManagerConfiguration extends AbstractSecurityCo
     /** Default hint for component manager. */
     private static final String DEFAULT_SETTLER = "default";
 
+    /** Prefix for the security cache configuration keys. */
+    private static final String CACHE = AUTHORIZATION + ".cache";
+
+    /** Prefix for the security cache warm-up configuration keys. */
+    private static final String CACHE_WARMUP = CACHE + ".warmup";
+
     /** Obtain configuration from the xwiki.properties file. */
     @Inject
     @Named("xwikiproperties")
@@ -58,4 +64,22 @@ public String getAuthorizationSettler()
     {
         return configuration.getProperty(SETTLER, DEFAULT_SETTLER);
     }
+
+    @Override
+    public boolean isCacheWarmupEnabled()
+    {
+        return configuration.getProperty(CACHE_WARMUP + ".enabled", false);
+    }
+
+    @Override
+    public int getCacheWarmupSize()
+    {
+        return configuration.getProperty(CACHE_WARMUP + ".size", 1000);
+    }
+
+    @Override
+    public int getCacheCapacity()
+    {
+        return configuration.getProperty(CACHE + ".capacity", 10000);
+    }
 }
@@ -21,8 +21,10 @@
 package org.xwiki.security.authorization;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -49,6 +51,7 @@
 import org.xwiki.security.authorization.cache.SecurityCacheRulesInvalidator;
 import org.xwiki.security.authorization.cache.internal.DefaultSecurityCache;
 import org.xwiki.security.authorization.cache.internal.DefaultSecurityCacheLoader;
+import org.xwiki.security.authorization.cache.internal.SecurityCacheActivity;
 import org.xwiki.security.authorization.cache.internal.TestCache;
 import org.xwiki.security.authorization.internal.AbstractSecurityRuleEntry;
 import org.xwiki.security.authorization.internal.DefaultAuthorizationSettler;
@@ -70,6 +73,7 @@
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -96,7 +100,8 @@
 @ComponentList({ DefaultSecurityCache.class, DefaultStringEntityReferenceResolver.class,
     DefaultStringEntityReferenceSerializer.class, DefaultEntityReferenceProvider.class, DefaultModelConfiguration.class,
     AuthorizationManagerConfiguration.class, DefaultSecurityReferenceFactory.class, DefaultSecurityCacheLoader.class,
-    DefaultAuthorizationSettler.class, DefaultAuthorizationManager.class, DefaultSymbolScheme.class })
+    DefaultAuthorizationSettler.class, DefaultAuthorizationManager.class, DefaultSymbolScheme.class,
+    SecurityCacheActivity.class })
 public class DefaultAuthorizationManagerIntegrationTest extends AbstractAuthorizationTestCase
 {
     private AuthorizationManager authorizationManager;
@@ -133,6 +138,7 @@ public void initializeMocks() throws Exception
         userBridge = componentManager.registerMockComponent(UserBridge.class);
         securityEntryReader = componentManager.registerMockComponent(SecurityEntryReader.class);
         securityCacheRulesInvalidator = componentManager.registerMockComponent(SecurityCacheRulesInvalidator.class);
+        componentManager.registerMockComponent(AuthorizationManagerConfiguration.class);
 
         when(xWikiBridge.toCompatibleEntityReference(any(EntityReference.class)))
             .thenAnswer(new Answer<EntityReference>()
@@ -473,6 +479,35 @@ public void testInheritancePolicyForGlobalFullWikiAccess() throws Exception
             getDoc("docDenyA", "any space", "wikiAllowA"));
     }
 
+    @Test
+    public void testFilterAccess() throws Exception
+    {
+        initialiseWikiMock("inheritancePolicyForGlobalFullWikiAccess");
+
+        List<DocumentReference> documents = Arrays.asList(getXDoc("any document", "any space"),
+            getXDoc("any document", "spaceAllowA"), getXDoc("docDenyA", "spaceAllowA"),
+            getXDoc("docAllowA", "any space"), getDoc("any document", "any space", "wikiNoRules"),
+            getDoc("docAllowA", "any space", "wikiNoRules"), getDoc("any document", "any space", "wikiAllowA"),
+            getDoc("docDenyA", "any space", "wikiAllowA"));
+        List<DocumentReference> expected = Arrays.asList(getXDoc("any document", "spaceAllowA"),
+            getXDoc("docDenyA", "spaceAllowA"), getXDoc("docAllowA", "any space"),
+            getDoc("docAllowA", "any space", "wikiNoRules"), getDoc("any document", "any space", "wikiAllowA"),
+            getDoc("docDenyA", "any space", "wikiAllowA"));
+
+        // Loaded in one pass
+        assertEquals(expected, authorizationManager.filterAccess(VIEW, getXUser("userA"), documents));
+        // Resolved from the cache
+        assertEquals(expected, authorizationManager.filterAccess(VIEW, getXUser("userA"), documents));
+
+        for (DocumentReference document : documents) {
+            assertEquals(expected.contains(document),
+                authorizationManager.hasAccess(VIEW, getXUser("userA"), document));
+        }
+
+        assertEquals(documents, authorizationManager.filterAccess(VIEW, SUPERADMIN, documents));
+        assertEquals(Collections.emptyList(), authorizationManager.filterAccess(ILLEGAL, getXUser("userA"), documents));
+    }
+
     @Test
     public void testInheritancePolicyForLocalWikiAccess() throws Exception
     {
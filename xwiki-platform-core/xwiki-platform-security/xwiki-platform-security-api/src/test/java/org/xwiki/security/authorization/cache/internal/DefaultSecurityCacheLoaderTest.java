@@ -100,6 +100,7 @@ public EntityReference answer(InvocationOnMock invocation) throws Throwable
         mocker.registerMockComponent(SecurityEntryReader.class);
         mocker.registerMockComponent(UserBridge.class);
         mocker.registerMockComponent(AuthorizationSettler.class);
+        mocker.registerMockComponent(SecurityCacheActivity.class);
         securityCacheLoader = mocker.getInstance(SecurityCacheLoader.class);
     }
 
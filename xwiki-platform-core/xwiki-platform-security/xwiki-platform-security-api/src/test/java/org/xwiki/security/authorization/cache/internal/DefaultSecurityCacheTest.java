@@ -19,13 +19,20 @@
  */
 package org.xwiki.security.authorization.cache.internal;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -862,4 +869,113 @@ public boolean keepAccess(SecurityAccessEntry entry)
             }
         });
     }
+
+    @Test
+    public void testInstallSecurityRuleEntryWithEvictedAncestors() throws Exception
+    {
+        SecurityReference wiki = factory.newEntityReference(new WikiReference("xwiki"));
+        SpaceReference spaceReference = new SpaceReference("xwiki", "Install");
+        SecurityReference space = factory.newEntityReference(spaceReference);
+        SecurityReference document = factory.newEntityReference(new DocumentReference("Page", spaceReference));
+
+        SecurityRuleEntry wikiEntry = mockSecurityRuleEntry(wiki);
+        SecurityRuleEntry spaceEntry = mockSecurityRuleEntry(space);
+        SecurityRuleEntry documentEntry = mockSecurityRuleEntry(document);
+
+        securityCache.add(wikiEntry);
+        securityCache.add(spaceEntry);
+
+        // Evict the ancestors of the document before inserting it
+        securityCache.remove(wiki);
+        assertThat(securityCache.get(space), is(nullValue()));
+
+        try {
+            securityCache.add(documentEntry);
+            fail("Should have thrown a ParentEntryEvictedException");
+        } catch (ParentEntryEvictedException expected) {
+            // Expected
+        }
+
+        securityCache.install(documentEntry, new ArrayDeque<>(Arrays.asList(documentEntry, spaceEntry, wikiEntry)));
+
+        assertThat(securityCache.get(wiki), sameInstance(wikiEntry));
+        assertThat(securityCache.get(space), sameInstance(spaceEntry));
+        assertThat(securityCache.get(document), sameInstance(documentEntry));
+    }
+
+    @Test
+    public void testConcurrentReadsAndInvalidations() throws Exception
+    {
+        SecurityReference wiki = factory.newEntityReference(new WikiReference("xwiki"));
+        SpaceReference spaceReference = new SpaceReference("xwiki", "Concurrent");
+        SecurityReference space = factory.newEntityReference(spaceReference);
+
+        SecurityRuleEntry wikiEntry = mockSecurityRuleEntry(wiki);
+        SecurityRuleEntry spaceEntry = mockSecurityRuleEntry(space);
+        List<SecurityRuleEntry> documentEntries = new ArrayList<>();
+        for (int i = 0; i < 20; ++i) {
+            documentEntries.add(
+                mockSecurityRuleEntry(factory.newEntityReference(new DocumentReference("Page" + i, spaceReference))));
+        }
+        Deque<SecurityRuleEntry> ancestors = new ArrayDeque<>(Arrays.asList(spaceEntry, wikiEntry));
+
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            // Readers
+            for (int i = 0; i < 3; ++i) {
+                futures.add(executor.submit(() -> {
+                    while (!stop.get()) {
+                        for (SecurityRuleEntry documentEntry : documentEntries) {
+                            SecurityRuleEntry entry = securityCache.get(documentEntry.getReference());
+                            if (entry != null) {
+                                assertThat(entry, sameInstance(documentEntry));
+                            }
+                        }
+                    }
+                }));
+            }
+            // Writers
+            for (int i = 0; i < 2; ++i) {
+                futures.add(executor.submit(() -> {
+                    while (!stop.get()) {
+                        for (SecurityRuleEntry documentEntry : documentEntries) {
+                            try {
+                                securityCache.install(documentEntry, ancestors);
+                            } catch (ParentEntryEvictedException | ConflictingInsertionException e) {
+                                // The loader would retry
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Invalidations
+            Future<?> invalidations = executor.submit(() -> {
+                for (int i = 0; i < 500; ++i) {
+                    securityCache.remove(i % 2 == 0 ? space : wiki);
+                }
+            });
+
+            invalidations.get(1, TimeUnit.MINUTES);
+        } finally {
+            stop.set(true);
+            executor.shutdown();
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+
+        // No entry should survive the eviction of its parent, whatever the interleaving was
+        securityCache.remove(space);
+        for (SecurityRuleEntry documentEntry : documentEntries) {
+            assertThat(securityCache.get(documentEntry.getReference()), is(nullValue()));
+        }
+
+        for (SecurityRuleEntry documentEntry : documentEntries) {
+            securityCache.install(documentEntry, ancestors);
+            assertThat(securityCache.get(documentEntry.getReference()), sameInstance(documentEntry));
+        }
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.cache.internal;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.xwiki.security.SecurityReference;
+import org.xwiki.security.UserSecurityReference;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link SecurityCacheActivity}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+public class SecurityCacheActivityTest
+{
+    @MockComponent
+    private AuthorizationManagerConfiguration configuration;
+
+    @InjectMockComponents
+    private SecurityCacheActivity activity;
+
+    private UserSecurityReference user = mock(UserSecurityReference.class);
+
+    private SecurityReference entity1 = mock(SecurityReference.class, "entity1");
+
+    private SecurityReference entity2 = mock(SecurityReference.class, "entity2");
+
+    private SecurityReference entity3 = mock(SecurityReference.class, "entity3");
+
+    @Test
+    void recordWhenWarmupDisabled()
+    {
+        when(this.configuration.isCacheWarmupEnabled()).thenReturn(false);
+        when(this.configuration.getCacheCapacity()).thenReturn(2);
+        this.activity.initialize();
+
+        this.activity.record(this.user, this.entity1);
+
+        assertTrue(this.activity.getEntries().isEmpty());
+    }
+
+    @Test
+    void recordKeepsTheMostRecentEntries()
+    {
+        when(this.configuration.isCacheWarmupEnabled()).thenReturn(true);
+        when(this.configuration.getCacheCapacity()).thenReturn(2);
+        this.activity.initialize();
+
+        this.activity.record(this.user, this.entity1);
+        this.activity.record(this.user, this.entity2);
+        this.activity.record(this.user, this.entity3);
+
+        assertEquals(Arrays.asList(Pair.of(this.user, this.entity3), Pair.of(this.user, this.entity2)),
+            this.activity.getEntries());
+    }
+}
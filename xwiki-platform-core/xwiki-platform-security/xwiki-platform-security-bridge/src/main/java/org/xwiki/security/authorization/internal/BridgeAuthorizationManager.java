@@ -19,6 +19,11 @@
  */
 package org.xwiki.security.authorization.internal;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -72,4 +77,19 @@ public boolean hasAccess(Right right, DocumentReference userReference, EntityRef
 
         return allowed;
     }
+
+    @Override
+    public <T extends EntityReference> List<T> filterAccess(Right right, DocumentReference userReference,
+        Collection<T> entityReferences)
+    {
+        List<T> allowedReferences = super.filterAccess(right, userReference, entityReferences);
+
+        // Associated the currently executing content with each of the passed right checks
+        Set<T> allowedSet = new HashSet<>(allowedReferences);
+        for (T entityReference : entityReferences) {
+            this.asyncContext.useRight(right, userReference, entityReference, allowedSet.contains(entityReference));
+        }
+
+        return allowedReferences;
+    }
 }
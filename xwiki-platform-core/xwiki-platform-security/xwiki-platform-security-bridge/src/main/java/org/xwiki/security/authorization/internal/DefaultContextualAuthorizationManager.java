@@ -19,9 +19,14 @@
  */
 package org.xwiki.security.authorization.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -122,6 +127,33 @@ private boolean hasAccess(Right right, DocumentReference user, EntityReference e
         return checkPreAccess(right) && this.authorizationManager.hasAccess(right, user, getFullReference(entity));
     }
 
+    @Override
+    public <T extends EntityReference> List<T> filterAccess(Right right, Collection<T> entityReferences)
+    {
+        if (CONTENT_AUTHOR_RIGHTS.contains(right)) {
+            // The user depends on each entity
+            return ContextualAuthorizationManager.super.filterAccess(right, entityReferences);
+        }
+
+        DocumentReference user = this.xcontextProvider.get().getUserReference();
+
+        List<EntityReference> fullReferences =
+            entityReferences.stream().map(this::getFullReference).collect(Collectors.toList());
+        Set<EntityReference> allowedReferences =
+            new HashSet<>(this.authorizationManager.filterAccess(right, user, fullReferences));
+
+        // Return the passed references and not the resolved ones
+        List<T> allowedEntities = new ArrayList<>(allowedReferences.size());
+        Iterator<EntityReference> fullReferenceIterator = fullReferences.iterator();
+        for (T entityReference : entityReferences) {
+            if (allowedReferences.contains(fullReferenceIterator.next())) {
+                allowedEntities.add(entityReference);
+            }
+        }
+
+        return allowedEntities;
+    }
+
     private EntityReference getFullReference(EntityReference reference)
     {
         return reference != null ? this.resolver.resolve(reference, reference.getType()) : null;
@@ -0,0 +1,96 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.annotation.InstantiationStrategy;
+import org.xwiki.component.descriptor.ComponentInstantiationStrategy;
+import org.xwiki.job.AbstractJob;
+import org.xwiki.job.DefaultJobStatus;
+import org.xwiki.job.DefaultRequest;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.security.authorization.AuthorizationManager;
+import org.xwiki.security.authorization.Right;
+
+/**
+ * Load in the security cache the access entries which were the most recently used before the last shutdown.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@InstantiationStrategy(ComponentInstantiationStrategy.PER_LOOKUP)
+@Named(SecurityCacheWarmupJob.JOBTYPE)
+public class SecurityCacheWarmupJob extends AbstractJob<DefaultRequest, DefaultJobStatus<DefaultRequest>>
+{
+    /**
+     * The id of the job.
+     */
+    public static final String JOBTYPE = "security.cache.warmup";
+
+    @Inject
+    private transient SecurityCacheWarmupStore store;
+
+    @Inject
+    private transient AuthorizationManager authorizationManager;
+
+    @Override
+    public String getType()
+    {
+        return JOBTYPE;
+    }
+
+    @Override
+    protected void runInternal() throws Exception
+    {
+        // Group the entities by user to load them with a single call for each user
+        Map<DocumentReference, List<EntityReference>> entities = new LinkedHashMap<>();
+        for (Pair<DocumentReference, EntityReference> entry : this.store.load()) {
+            entities.computeIfAbsent(entry.getLeft(), k -> new ArrayList<>()).add(entry.getRight());
+        }
+
+        this.progressManager.pushLevelProgress(entities.size(), this);
+
+        try {
+            for (Map.Entry<DocumentReference, List<EntityReference>> entry : entities.entrySet()) {
+                this.progressManager.startStep(this);
+
+                // All the rights of a user on an entity are loaded together so the checked right does not matter
+                this.authorizationManager.filterAccess(Right.VIEW, entry.getKey(), entry.getValue());
+
+                this.progressManager.endStep(this);
+            }
+        } finally {
+            this.progressManager.popLevelProgress(this);
+        }
+
+        this.logger.info("Loaded the security cache access entries of [{}] users", entities.size());
+    }
+}
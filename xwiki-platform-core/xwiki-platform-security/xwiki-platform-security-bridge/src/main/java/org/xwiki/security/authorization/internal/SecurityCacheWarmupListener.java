@@ -0,0 +1,101 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.xwiki.bridge.event.ApplicationReadyEvent;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.job.DefaultRequest;
+import org.xwiki.job.JobExecutor;
+import org.xwiki.observation.EventListener;
+import org.xwiki.observation.event.Event;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
+
+/**
+ * Start the warm-up of the security cache at startup.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Named(SecurityCacheWarmupListener.NAME)
+@Singleton
+public class SecurityCacheWarmupListener implements EventListener
+{
+    /**
+     * The name of the listener.
+     */
+    public static final String NAME = "security.cache.warmup";
+
+    private static final List<String> JOB_ID = Arrays.asList("security", "cache", "warmup");
+
+    @Inject
+    private AuthorizationManagerConfiguration configuration;
+
+    /**
+     * Make sure the store is initialized so that it saves the most recently used entries at shutdown.
+     */
+    @Inject
+    private SecurityCacheWarmupStore store;
+
+    @Inject
+    private Provider<JobExecutor> jobExecutorProvider;
+
+    @Inject
+    private Logger logger;
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public List<Event> getEvents()
+    {
+        return Collections.<Event>singletonList(new ApplicationReadyEvent());
+    }
+
+    @Override
+    public void onEvent(Event event, Object source, Object data)
+    {
+        if (this.configuration.isCacheWarmupEnabled()) {
+            DefaultRequest request = new DefaultRequest();
+            request.setId(JOB_ID);
+
+            try {
+                this.jobExecutorProvider.get().execute(SecurityCacheWarmupJob.JOBTYPE, request);
+            } catch (Exception e) {
+                this.logger.warn("Failed to start the warm-up of the security cache: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+    }
+}
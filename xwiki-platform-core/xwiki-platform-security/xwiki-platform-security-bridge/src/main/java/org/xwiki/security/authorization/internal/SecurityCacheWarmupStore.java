@@ -0,0 +1,169 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
+import org.xwiki.environment.Environment;
+import org.xwiki.model.EntityType;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.model.reference.EntityReferenceResolver;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.security.SecurityReference;
+import org.xwiki.security.UserSecurityReference;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
+import org.xwiki.security.authorization.cache.internal.SecurityCacheActivity;
+
+/**
+ * Persist the list of the most recently loaded access entries when XWiki stops, so that they can be loaded again at
+ * startup.
+ * <p>
+ * Only the references of the users and entities are stored: the access rights are always evaluated again from the
+ * current content of the wiki, so an outdated file can only make the warm-up useless, not wrong.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component(roles = SecurityCacheWarmupStore.class)
+@Singleton
+public class SecurityCacheWarmupStore implements Disposable
+{
+    private static final char SEPARATOR = '\t';
+
+    @Inject
+    private Environment environment;
+
+    @Inject
+    private SecurityCacheActivity activity;
+
+    @Inject
+    private AuthorizationManagerConfiguration configuration;
+
+    @Inject
+    private EntityReferenceSerializer<String> serializer;
+
+    @Inject
+    private EntityReferenceResolver<String> resolver;
+
+    @Inject
+    private DocumentReferenceResolver<String> documentResolver;
+
+    @Inject
+    private Logger logger;
+
+    private File getFile()
+    {
+        return new File(this.environment.getPermanentDirectory(), "cache/security/warmup.txt");
+    }
+
+    /**
+     * @return the access entries to load, starting with the most recently used one: the user ({@code null} for guest)
+     *         and the entity
+     */
+    public List<Pair<DocumentReference, EntityReference>> load()
+    {
+        List<Pair<DocumentReference, EntityReference>> entries = new ArrayList<>();
+
+        File file = getFile();
+        if (file.exists()) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    String[] elements = StringUtils.splitPreserveAllTokens(line, SEPARATOR);
+                    if (elements.length == 3) {
+                        DocumentReference user =
+                            elements[1].isEmpty() ? null : this.documentResolver.resolve(elements[1]);
+                        EntityReference entity =
+                            this.resolver.resolve(elements[2], EntityType.valueOf(elements[0]));
+                        entries.add(Pair.of(user, entity));
+                    }
+                }
+            } catch (Exception e) {
+                this.logger.warn("Failed to read the security cache warm-up entries from [{}]: {}", file,
+                    ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Save the most recently loaded access entries.
+     */
+    public void save()
+    {
+        int size = this.configuration.getCacheWarmupSize();
+
+        File file = getFile();
+        try {
+            // Write a temporary file first to not end up with a corrupted file when interrupted
+            file.getParentFile().mkdirs();
+            File tmpFile = new File(file.getPath() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+                int count = 0;
+                for (Pair<UserSecurityReference, SecurityReference> entry : this.activity.getEntries()) {
+                    if (count >= size) {
+                        break;
+                    }
+                    EntityReference entity = entry.getRight().getOriginalReference();
+                    if (entity == null) {
+                        continue;
+                    }
+                    DocumentReference user = entry.getLeft().getOriginalDocumentReference();
+                    writer.append(entity.getType().name()).append(SEPARATOR);
+                    writer.append(user != null ? this.serializer.serialize(user) : "").append(SEPARATOR);
+                    writer.append(this.serializer.serialize(entity));
+                    writer.newLine();
+                    ++count;
+                }
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            this.logger.warn("Failed to save the security cache warm-up entries in [{}]: {}", file,
+                ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (this.configuration.isCacheWarmupEnabled()) {
+            save();
+        }
+    }
+}
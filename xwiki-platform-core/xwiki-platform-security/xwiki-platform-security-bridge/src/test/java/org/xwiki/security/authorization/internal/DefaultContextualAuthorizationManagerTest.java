@@ -19,6 +19,8 @@
  */
 package org.xwiki.security.authorization.internal;
 
+import java.util.Arrays;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,10 +35,14 @@
 import com.xpn.xwiki.test.MockitoOldcoreRule;
 import com.xpn.xwiki.test.reference.ReferenceComponentList;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Validate {@link DefaultContextualAuthorizationManager}.
@@ -88,4 +94,20 @@ public void hasAccess() throws Exception
         verify(this.authorizationManager).hasAccess(same(Right.VIEW), isNull(DocumentReference.class),
             eq(new DocumentReference(localReference, this.currentWikiReference)));
     }
+
+    @Test
+    public void filterAccess() throws Exception
+    {
+        LocalDocumentReference localReference1 = new LocalDocumentReference("space", "page1");
+        LocalDocumentReference localReference2 = new LocalDocumentReference("space", "page2");
+        DocumentReference reference1 = new DocumentReference(localReference1, this.currentWikiReference);
+        DocumentReference reference2 = new DocumentReference(localReference2, this.currentWikiReference);
+        when(this.authorizationManager.filterAccess(same(Right.VIEW), isNull(DocumentReference.class),
+            eq(Arrays.asList(reference1, reference2, reference1)))).thenReturn(Arrays.asList(reference1, reference1));
+
+        assertEquals(Arrays.asList(localReference1, localReference1), this.mocker.getComponentUnderTest()
+            .filterAccess(Right.VIEW, Arrays.asList(localReference1, localReference2, localReference1)));
+
+        verify(this.authorizationManager, never()).hasAccess(any(), any(), any());
+    }
 }
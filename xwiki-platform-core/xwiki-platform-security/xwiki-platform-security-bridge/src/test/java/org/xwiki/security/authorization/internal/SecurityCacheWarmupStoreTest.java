@@ -0,0 +1,133 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.security.authorization.internal;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.environment.Environment;
+import org.xwiki.model.EntityType;
+import org.xwiki.model.reference.DocumentReference;
+import org.xwiki.model.reference.DocumentReferenceResolver;
+import org.xwiki.model.reference.EntityReference;
+import org.xwiki.model.reference.EntityReferenceResolver;
+import org.xwiki.model.reference.EntityReferenceSerializer;
+import org.xwiki.model.reference.SpaceReference;
+import org.xwiki.security.SecurityReference;
+import org.xwiki.security.UserSecurityReference;
+import org.xwiki.security.authorization.AuthorizationManagerConfiguration;
+import org.xwiki.security.authorization.cache.internal.SecurityCacheActivity;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link SecurityCacheWarmupStore}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+public class SecurityCacheWarmupStoreTest
+{
+    private static final DocumentReference USER = new DocumentReference("wiki", "XWiki", "user");
+
+    private static final DocumentReference DOCUMENT = new DocumentReference("wiki", "Space", "Page");
+
+    private static final SpaceReference SPACE = new SpaceReference("wiki", "Space");
+
+    @XWikiTempDir
+    private File permanentDirectory;
+
+    @MockComponent
+    private Environment environment;
+
+    @MockComponent
+    private SecurityCacheActivity activity;
+
+    @MockComponent
+    private AuthorizationManagerConfiguration configuration;
+
+    @MockComponent
+    private EntityReferenceSerializer<String> serializer;
+
+    @MockComponent
+    private EntityReferenceResolver<String> resolver;
+
+    @MockComponent
+    private DocumentReferenceResolver<String> documentResolver;
+
+    @InjectMockComponents
+    private SecurityCacheWarmupStore store;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        when(this.environment.getPermanentDirectory()).thenReturn(this.permanentDirectory);
+        when(this.configuration.isCacheWarmupEnabled()).thenReturn(true);
+
+        when(this.serializer.serialize(USER)).thenReturn("wiki:XWiki.user");
+        when(this.serializer.serialize(DOCUMENT)).thenReturn("wiki:Space.Page");
+        when(this.serializer.serialize(SPACE)).thenReturn("wiki:Space");
+        when(this.documentResolver.resolve("wiki:XWiki.user")).thenReturn(USER);
+        when(this.resolver.resolve("wiki:Space.Page", EntityType.DOCUMENT)).thenReturn(DOCUMENT);
+        when(this.resolver.resolve("wiki:Space", EntityType.SPACE)).thenReturn(SPACE);
+    }
+
+    private Pair<UserSecurityReference, SecurityReference> entry(DocumentReference user, EntityReference entity)
+    {
+        UserSecurityReference userReference = mock(UserSecurityReference.class);
+        when(userReference.getOriginalDocumentReference()).thenReturn(user);
+        SecurityReference entityReference = mock(SecurityReference.class);
+        when(entityReference.getOriginalReference()).thenReturn(entity);
+
+        return Pair.of(userReference, entityReference);
+    }
+
+    @Test
+    public void loadWhenEmpty()
+    {
+        assertTrue(this.store.load().isEmpty());
+    }
+
+    @Test
+    public void saveAndLoad()
+    {
+        when(this.configuration.getCacheWarmupSize()).thenReturn(2);
+        when(this.activity.getEntries()).thenReturn(
+            Arrays.asList(entry(USER, DOCUMENT), entry(null, null), entry(null, SPACE), entry(USER, SPACE)));
+
+        this.store.dispose();
+
+        List<Pair<DocumentReference, EntityReference>> entries = this.store.load();
+
+        // The entry without original reference is skipped and the size is limited by the configuration
+        assertEquals(Arrays.asList(Pair.of(USER, DOCUMENT), Pair.of(null, SPACE)), entries);
+    }
+}
@@ -42,4 +42,10 @@
      * @since 11.4RC1
      */
     File getDirectory();
+
+    /**
+     * @return {@code true} if identical attachment contents should be stored only once
+     * @since 12.6
+     */
+    boolean isDeduplicationEnabled();
 }
@@ -0,0 +1,219 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.filesystem.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Store each distinct attachment content only once, in a file named after the SHA-256 hash of the content. The stored
+ * attachment files are hard links to those blobs so the stores reading them don't need to know about deduplication.
+ * The link count of each blob is its reference count: a blob which is not linked anymore from any attachment file is
+ * garbage.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class FilesystemBlobStore
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilesystemBlobStore.class);
+
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    private static final String TEMP_FILE_SUFFIX = "~link";
+
+    private final File directory;
+
+    /**
+     * @param directory the directory where to store the blobs
+     */
+    public FilesystemBlobStore(File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * @param directory the directory where the blobs would be stored
+     * @return {@code true} if the file system of the passed directory supports hard links and link counts
+     */
+    public static boolean isSupported(File directory)
+    {
+        try {
+            Path existing = directory.toPath();
+            while (!Files.exists(existing) && existing.getParent() != null) {
+                existing = existing.getParent();
+            }
+
+            return Files.getFileStore(existing).supportsFileAttributeView("unix");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the directory where the blobs are stored
+     */
+    public File getDirectory()
+    {
+        return this.directory;
+    }
+
+    /**
+     * @param file a file
+     * @return the SHA-256 hash of the file content
+     * @throws IOException when failing to read the file
+     */
+    public String hash(File file) throws IOException
+    {
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            return DigestUtils.sha256Hex(stream);
+        }
+    }
+
+    /**
+     * @param file a file
+     * @return the number of hard links to the passed file
+     * @throws IOException when failing to read the file attributes
+     */
+    public int getLinkCount(File file) throws IOException
+    {
+        return (Integer) Files.getAttribute(file.toPath(), LINK_COUNT_ATTRIBUTE);
+    }
+
+    /**
+     * Make the passed file share its content with the other files having the same content.
+     *
+     * @param file the file to deduplicate
+     * @param hash the SHA-256 hash of the file content
+     */
+    public void deduplicate(File file, String hash)
+    {
+        File blob = getBlobFile(hash);
+
+        try {
+            // Linking to a blob and deleting it must not happen at the same time
+            synchronized (this) {
+                if (blob.exists()) {
+                    if (!Files.isSameFile(blob.toPath(), file.toPath())) {
+                        // Replace the file with a link to the existing blob
+                        Path link = getTemporaryLink(file);
+                        Files.createLink(link, blob.toPath());
+                        Files.move(link, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } else {
+                    blob.getParentFile().mkdirs();
+                    Files.createLink(blob.toPath(), file.toPath());
+                }
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            // The file is still valid, it's just not shared
+            LOGGER.warn("Failed to deduplicate file [{}]: {}", file, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    /**
+     * Make the target file share the content of the source file, without copying it.
+     *
+     * @param source the file containing the content
+     * @param target the file to create
+     * @return {@code true} if the link was created, {@code false} if the content has to be copied instead
+     */
+    public boolean link(File source, File target)
+    {
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.debug("Failed to link file [{}] to [{}]: {}", target, source,
+                ExceptionUtils.getRootCauseMessage(e));
+
+            return false;
+        }
+    }
+
+    /**
+     * Delete the blobs which are not linked anymore from any attachment file.
+     *
+     * @return the number of deleted blobs
+     * @throws IOException when failing to list the blobs
+     */
+    public int collectGarbage() throws IOException
+    {
+        int count = 0;
+
+        if (this.directory.exists()) {
+            try (Stream<Path> paths = Files.walk(this.directory.toPath())) {
+                for (Iterator<Path> it = paths.filter(Files::isRegularFile).iterator(); it.hasNext();) {
+                    if (deleteUnused(it.next())) {
+                        ++count;
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private boolean deleteUnused(Path blob)
+    {
+        try {
+            synchronized (this) {
+                if (getLinkCount(blob.toFile()) <= 1) {
+                    Files.delete(blob);
+
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete unused blob [{}]: {}", blob, ExceptionUtils.getRootCauseMessage(e));
+        }
+
+        return false;
+    }
+
+    private Path getTemporaryLink(File file)
+    {
+        return new File(file.getPath() + TEMP_FILE_SUFFIX + RandomStringUtils.randomAlphanumeric(8)).toPath();
+    }
+
+    private File getBlobFile(String hash)
+    {
+        // Avoid having too many files in one folder because some filesystems don't perform well with large numbers of
+        // files in one folder
+        File directory1 = new File(this.directory, hash.substring(0, 2));
+        File directory2 = new File(directory1, hash.substring(2, 4));
+
+        return new File(directory2, hash);
+    }
+}
@@ -22,6 +22,10 @@
 import java.io.File;
 import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import javax.inject.Inject;
@@ -30,8 +34,10 @@
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.xwiki.component.annotation.Component;
+import org.xwiki.component.phase.Disposable;
 import org.xwiki.component.phase.Initializable;
 import org.xwiki.component.phase.InitializationException;
 import org.xwiki.environment.Environment;
@@ -50,7 +56,7 @@
  */
 @Component(roles = FilesystemStoreTools.class)
 @Singleton
-public class FilesystemStoreTools implements Initializable
+public class FilesystemStoreTools implements Initializable, Disposable
 {
     /**
      * The directory within each document's directory for document locales.
@@ -80,6 +86,13 @@ public class FilesystemStoreTools implements Initializable
      */
     public static final String DELETED_DOCUMENTS_DIR_NAME = "deleted-documents";
 
+    /**
+     * The directory within the store root directory where the deduplicated attachment contents are stored.
+     * 
+     * @since 12.6
+     */
+    public static final String BLOBS_DIR_NAME = "~blobs";
+
     /**
      * When a file is being saved, the original will be moved to the same name with this after it. If the save operation
      * fails then this file will be moved back to the regular position to come as close as possible to ACID transaction
@@ -94,6 +107,12 @@ public class FilesystemStoreTools implements Initializable
      */
     private static final String TEMP_FILE_SUFFIX = "~tmp";
 
+    /**
+     * The time in seconds between the deletion of an attachment file and the collection of the unused blobs, so that
+     * the files deleted meanwhile are handled by the same collection.
+     */
+    private static final long BLOB_COLLECTION_DELAY = 10;
+
     @Inject
     private FilesystemAttachmentsConfiguration config;
 
@@ -119,6 +138,18 @@ public class FilesystemStoreTools implements Initializable
      */
     private File storeRootDirectory;
 
+    /**
+     * The store of deduplicated attachment contents, {@code null} when deduplication is disabled.
+     */
+    private FilesystemBlobStore blobStore;
+
+    /**
+     * The thread deleting the blobs which are not used anymore, {@code null} when deduplication is disabled.
+     */
+    private ScheduledExecutorService blobCollector;
+
+    private final AtomicBoolean blobCollectionScheduled = new AtomicBoolean();
+
     /**
      * Testing Constructor.
      *
@@ -164,6 +195,59 @@ public void initialize() throws InitializationException
 
             new Thread(() -> deleteEmptyDirs(dir, 0)).start();
         }
+
+        File blobsDirectory = new File(this.storeRootDirectory, BLOBS_DIR_NAME);
+        if (this.config.isDeduplicationEnabled()) {
+            if (FilesystemBlobStore.isSupported(blobsDirectory)) {
+                this.blobStore = new FilesystemBlobStore(blobsDirectory);
+                this.blobCollector = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "XWiki attachment blobs collector");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+                // Collect the blobs left by a previous run (e.g. when it was stopped before a scheduled collection)
+                collectUnusedBlobs();
+            } else {
+                this.logger.warn("Attachment deduplication is not supported by the file system of [{}]",
+                    this.storeRootDirectory);
+            }
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (this.blobCollector != null) {
+            this.blobCollector.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedule the deletion of the deduplicated attachment contents which are not used anymore. Blobs are not deleted
+     * with the last attachment file linking them so this has to be called after deleting attachment files.
+     *
+     * @since 12.6
+     */
+    public void collectUnusedBlobs()
+    {
+        if (this.blobCollector != null && this.blobCollectionScheduled.compareAndSet(false, true)) {
+            this.blobCollector.schedule(this::collectGarbage, BLOB_COLLECTION_DELAY, TimeUnit.SECONDS);
+        }
+    }
+
+    private void collectGarbage()
+    {
+        // The files deleted from now on need another collection
+        this.blobCollectionScheduled.set(false);
+
+        try {
+            int count = this.blobStore.collectGarbage();
+
+            this.logger.debug("Deleted [{}] unused attachment blobs", count);
+        } catch (IOException e) {
+            this.logger.warn("Failed to delete the unused attachment blobs: {}", ExceptionUtils.getRootCauseMessage(e));
+        }
     }
 
     /**
@@ -325,6 +409,16 @@ public File getDeletedDocumentContentDir(final DocumentReference documentReferen
         return new File(deletedDocumentContentsDir, String.valueOf(index));
     }
 
+    /**
+     * @return the store of deduplicated attachment contents, {@code null} when deduplication is disabled or not
+     *         supported
+     * @since 12.6
+     */
+    public FilesystemBlobStore getBlobStore()
+    {
+        return this.blobStore;
+    }
+
     /**
      * @param wikiId the wiki identifier
      * @return the {@link File} corresponding to the passed wiki identifier
@@ -73,6 +73,8 @@ public void onEvent(Event event, Object source, Object data)
         if (directory.exists() && directory.isDirectory()) {
             try {
                 FileUtils.deleteDirectory(directory);
+
+                this.store.collectUnusedBlobs();
             } catch (IOException e) {
                 this.logger.error("Failed to delete storage for the wiki [{}]", wikiId, e);
             }
@@ -0,0 +1,108 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.filesystem.internal.migration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.xwiki.component.annotation.Component;
+import org.xwiki.store.filesystem.internal.FilesystemBlobStore;
+import org.xwiki.store.filesystem.internal.FilesystemStoreTools;
+
+import com.xpn.xwiki.store.migration.DataMigrationException;
+import com.xpn.xwiki.store.migration.XWikiDBVersion;
+
+/**
+ * Share the identical attachment contents already stored in the filesystem store.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+@Component
+@Named("R1260000AttachmentDeduplication")
+@Singleton
+public class R1260000AttachmentDeduplicationDataMigration extends AbstractFileStoreDataMigration
+{
+    @Override
+    public String getDescription()
+    {
+        return "Store identical attachment contents only once.";
+    }
+
+    @Override
+    public XWikiDBVersion getVersion()
+    {
+        return new XWikiDBVersion(1260000);
+    }
+
+    @Override
+    public void hibernateMigrate() throws DataMigrationException
+    {
+        FilesystemBlobStore blobStore = this.fstools.getBlobStore();
+        if (blobStore == null) {
+            this.logger.info("Skipping the migration (attachment deduplication is disabled or not supported)");
+
+            return;
+        }
+
+        File wikiDirectory = this.fstools.getWikiDir(getXWikiContext().getWikiId());
+        if (wikiDirectory.exists()) {
+            this.logger.info("Deduplicating the attachment contents stored in [{}]", wikiDirectory);
+
+            try (Stream<Path> paths = Files.walk(wikiDirectory.toPath())) {
+                for (Iterator<Path> it = paths.filter(this::isAttachmentContentFile).iterator(); it.hasNext();) {
+                    File file = it.next().toFile();
+                    // Files with several links are already shared
+                    if (blobStore.getLinkCount(file) == 1) {
+                        blobStore.deduplicate(file, blobStore.hash(file));
+                    }
+                }
+            } catch (IOException e) {
+                throw new DataMigrationException(
+                    String.format("Failed to deduplicate the attachment contents stored in [%s]", wikiDirectory), e);
+            }
+        }
+    }
+
+    private boolean isAttachmentContentFile(Path path)
+    {
+        // Skip metadata files
+        if (!Files.isRegularFile(path) || path.getFileName().toString().startsWith("~")) {
+            return false;
+        }
+
+        for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+            String name = parent.getFileName() != null ? parent.getFileName().toString() : null;
+            if (FilesystemStoreTools.ATTACHMENTS_DIR_NAME.equals(name)
+                || FilesystemStoreTools.DELETED_ATTACHMENTS_DIR_NAME.equals(name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
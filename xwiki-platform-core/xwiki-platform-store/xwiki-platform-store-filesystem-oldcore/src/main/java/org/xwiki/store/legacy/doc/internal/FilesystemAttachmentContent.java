@@ -23,6 +23,9 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.AutoCloseInputStream;
@@ -84,6 +87,16 @@ public FilesystemAttachmentContent(FilesystemAttachmentContent filesystemAttachm
         this.storageFile = filesystemAttachmentContent.storageFile;
     }
 
+    /**
+     * @return the file where the content is stored, or {@code null} if the content has been modified since it was
+     *         loaded from that file
+     * @since 12.6
+     */
+    public File getStorageFile()
+    {
+        return this.getFileItem() == null ? this.storageFile : null;
+    }
+
     @Override
     public FilesystemAttachmentContent clone()
     {
@@ -122,6 +135,16 @@ public InputStream getContentInputStream()
         }
     }
 
+    @Override
+    public SeekableByteChannel getContentChannel() throws IOException
+    {
+        if (this.getFileItem() != null) {
+            return super.getContentChannel();
+        }
+
+        return FileChannel.open(this.storageFile.toPath(), StandardOpenOption.READ);
+    }
+
     @Override
     public long getLongSize()
     {
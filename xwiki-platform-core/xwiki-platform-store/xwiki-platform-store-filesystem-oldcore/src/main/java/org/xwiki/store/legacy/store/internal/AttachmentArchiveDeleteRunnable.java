@@ -60,5 +60,7 @@ public AttachmentArchiveDeleteRunnable(final XWikiAttachmentArchive archive, fin
             new FileDeleteTransactionRunnable(file, fileTools.getBackupFile(file), fileTools.getLockForFile(file))
                 .runIn(this);
         }
+
+        new UnusedBlobsCollectionRunnable(fileTools).runIn(this);
     }
 }
@@ -0,0 +1,106 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.legacy.store.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.xwiki.store.FileSerializer;
+import org.xwiki.store.filesystem.internal.FilesystemBlobStore;
+import org.xwiki.store.legacy.doc.internal.FilesystemAttachmentContent;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiAttachment;
+
+/**
+ * Write the content of an attachment to a file, sharing it with the other files having the same content when
+ * deduplication is enabled.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class AttachmentContentFileSerializer implements FileSerializer
+{
+    /**
+     * The attachment to save content of.
+     */
+    private final XWikiAttachment attachment;
+
+    /**
+     * The store of deduplicated contents, {@code null} when deduplication is disabled.
+     */
+    private final FilesystemBlobStore blobStore;
+
+    /**
+     * The XWikiContext for getting the content of the attachment.
+     */
+    private final XWikiContext context;
+
+    /**
+     * @param attachment the attachment whose content should be written
+     * @param blobStore the store of deduplicated contents, {@code null} when deduplication is disabled
+     * @param context the XWikiContext needed to get the content from the attachment using
+     *            {@link XWikiAttachment#getContentInputStream(XWikiContext)}
+     */
+    public AttachmentContentFileSerializer(XWikiAttachment attachment, FilesystemBlobStore blobStore,
+        XWikiContext context)
+    {
+        this.attachment = attachment;
+        this.blobStore = blobStore;
+        this.context = context;
+    }
+
+    @Override
+    public void serialize(File file) throws Exception
+    {
+        // The content of copied, renamed, restored or archived attachments is usually already stored in a file
+        if (this.blobStore != null && this.attachment.getAttachment_content() instanceof FilesystemAttachmentContent) {
+            File storageFile =
+                ((FilesystemAttachmentContent) this.attachment.getAttachment_content()).getStorageFile();
+            if (storageFile != null && storageFile.exists() && this.blobStore.link(storageFile, file)) {
+                return;
+            }
+        }
+
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        try (InputStream in = this.attachment.getContentInputStream(this.context)) {
+            OutputStream out = new FileOutputStream(file);
+            if (this.blobStore != null) {
+                out = new DigestOutputStream(out, digest);
+            }
+            try {
+                IOUtils.copy(in, out);
+            } finally {
+                out.close();
+            }
+        }
+
+        if (this.blobStore != null) {
+            this.blobStore.deduplicate(file, Hex.encodeHexString(digest.digest()));
+        }
+    }
+}
@@ -149,6 +149,8 @@ private StartableTransactionRunnable getDeletedAttachmentPurgeRunnable(final Del
                 this.fileTools.getLockForFile(toDelete)).runIn(out);
         }
 
+        new UnusedBlobsCollectionRunnable(this.fileTools).runIn(out);
+
         return out;
     }
 
@@ -34,7 +34,7 @@
 import org.xwiki.component.manager.ComponentManager;
 import org.xwiki.store.FileDeleteTransactionRunnable;
 import org.xwiki.store.FileSaveTransactionRunnable;
-import org.xwiki.store.StreamProvider;
+import org.xwiki.store.FileSerializer;
 import org.xwiki.store.TransactionRunnable;
 import org.xwiki.store.filesystem.internal.FilesystemStoreTools;
 import org.xwiki.store.internal.FileSystemStoreUtils;
@@ -258,8 +258,12 @@ private TransactionRunnable<XWikiHibernateTransaction> getAttachmentDeleteRunnab
         final File attachFile =
             this.fileTools.getAttachmentFileProvider(attachment.getReference()).getAttachmentContentFile();
 
-        return new AttachmentDeleteTransactionRunnable(attachment, updateDocument, context, attachFile,
-            this.fileTools.getBackupFile(attachFile), this.fileTools.getLockForFile(attachFile));
+        TransactionRunnable<XWikiHibernateTransaction> runnable = new AttachmentDeleteTransactionRunnable(attachment,
+            updateDocument, context, attachFile, this.fileTools.getBackupFile(attachFile),
+            this.fileTools.getLockForFile(attachFile));
+        new UnusedBlobsCollectionRunnable(this.fileTools).runIn(runnable);
+
+        return runnable;
     }
 
     @Override
@@ -289,8 +293,9 @@ private class AttachmentSaveTransactionRunnable extends TransactionRunnable<XWik
             final XWikiContext context, final File attachFile, final File tempFile, final File backupFile,
             final ReadWriteLock lock) throws XWikiException
         {
-            final StreamProvider provider = new AttachmentContentStreamProvider(attachment, context);
-            new FileSaveTransactionRunnable(attachFile, tempFile, backupFile, lock, provider).runIn(this);
+            final FileSerializer serializer =
+                new AttachmentContentFileSerializer(attachment, fileTools.getBlobStore(), context);
+            new FileSaveTransactionRunnable(attachFile, tempFile, backupFile, lock, serializer).runIn(this);
 
             // If the versioning store supports TransactionRunnable then use it, otherwise don't.
             AttachmentVersioningStore avs = resolveAttachmentVersioningStore(attachment, context);
@@ -23,8 +23,10 @@
 import java.util.List;
 
 import org.xwiki.store.FileSaveTransactionRunnable;
+import org.xwiki.store.FileSerializer;
 import org.xwiki.store.StartableTransactionRunnable;
 import org.xwiki.store.StreamProvider;
+import org.xwiki.store.StreamProviderFileSerializer;
 import org.xwiki.store.filesystem.internal.DeletedAttachmentFileProvider;
 import org.xwiki.store.filesystem.internal.FilesystemStoreTools;
 import org.xwiki.store.serialization.SerializationStreamProvider;
@@ -62,7 +64,7 @@ class SaveDeletedAttachmentContentRunnable extends StartableTransactionRunnable
         // Save metadata about the deleted attachment.
         final StreamProvider metaProvider =
             new SerializationStreamProvider<XWikiAttachment>(metaSerializer, attachment);
-        addSaver(metaProvider, fileTools, provider.getDeletedAttachmentMetaFile());
+        addSaver(new StreamProviderFileSerializer(metaProvider), fileTools, provider.getDeletedAttachmentMetaFile());
 
         // Save the archive for the deleted attachment.
         final XWikiAttachmentArchive archive = attachment.loadArchive(context);
@@ -72,20 +74,21 @@ class SaveDeletedAttachmentContentRunnable extends StartableTransactionRunnable
         new AttachmentArchiveSaveRunnable(archive, fileTools, provider, versionSerializer, context).runIn(this);
 
         // Save the attachment's content.
-        final StreamProvider contentProvider = new AttachmentContentStreamProvider(attachment, context);
-        this.addSaver(contentProvider, fileTools, provider.getAttachmentContentFile());
+        final FileSerializer contentSerializer =
+            new AttachmentContentFileSerializer(attachment, fileTools.getBlobStore(), context);
+        this.addSaver(contentSerializer, fileTools, provider.getAttachmentContentFile());
     }
 
     /**
      * Save some content safely in this runnable. TODO This duplicates AttachmentArchiveSaveRunnable, fix.
      *
-     * @param provider the means to get the content to save.
+     * @param serializer the means to write the content to save.
      * @param fileTools the means to get the backup file, temporary file, and lock.
      * @param saveHere the location to save the data.
      */
-    private void addSaver(final StreamProvider provider, final FilesystemStoreTools fileTools, final File saveHere)
+    private void addSaver(final FileSerializer serializer, final FilesystemStoreTools fileTools, final File saveHere)
     {
         new FileSaveTransactionRunnable(saveHere, fileTools.getTempFile(saveHere), fileTools.getBackupFile(saveHere),
-            fileTools.getLockForFile(saveHere), provider).runIn(this);
+            fileTools.getLockForFile(saveHere), serializer).runIn(this);
     }
 }
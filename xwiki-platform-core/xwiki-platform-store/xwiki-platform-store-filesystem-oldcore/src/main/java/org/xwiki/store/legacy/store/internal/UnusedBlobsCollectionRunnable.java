@@ -0,0 +1,53 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.legacy.store.internal;
+
+import org.xwiki.store.TransactionRunnable;
+import org.xwiki.store.filesystem.internal.FilesystemStoreTools;
+
+/**
+ * A TransactionRunnable scheduling the deletion of the deduplicated attachment contents which are not used anymore once
+ * the attachment files deleted by the transaction are actually gone.
+ *
+ * @version $Id$
+ * @since 12.6
+ */
+public class UnusedBlobsCollectionRunnable extends TransactionRunnable<Object>
+{
+    /**
+     * Tools for accessing the store of deduplicated contents.
+     */
+    private final FilesystemStoreTools fileTools;
+
+    /**
+     * @param fileTools tools for accessing the store of deduplicated contents
+     */
+    public UnusedBlobsCollectionRunnable(FilesystemStoreTools fileTools)
+    {
+        this.fileTools = fileTools;
+    }
+
+    @Override
+    protected void onComplete()
+    {
+        // Harmless after a rollback since only the blobs which are not linked anymore are deleted
+        this.fileTools.collectUnusedBlobs();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.filesystem.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.XWikiTempDirExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Validate {@link FilesystemBlobStore}.
+ *
+ * @version $Id$
+ */
+@ExtendWith(XWikiTempDirExtension.class)
+public class FilesystemBlobStoreTest
+{
+    @XWikiTempDir
+    private File tmpDir;
+
+    private FilesystemBlobStore blobStore;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        File blobsDirectory = new File(this.tmpDir, FilesystemStoreTools.BLOBS_DIR_NAME);
+
+        assumeTrue(FilesystemBlobStore.isSupported(blobsDirectory));
+
+        this.blobStore = new FilesystemBlobStore(blobsDirectory);
+    }
+
+    private File createFile(String name, String content) throws IOException
+    {
+        File file = new File(this.tmpDir, name);
+        FileUtils.write(file, content, "UTF-8");
+
+        return file;
+    }
+
+    @Test
+    public void deduplicate() throws IOException
+    {
+        File file1 = createFile("file1", "content");
+        File file2 = createFile("file2", "content");
+        File file3 = createFile("file3", "other content");
+
+        this.blobStore.deduplicate(file1, this.blobStore.hash(file1));
+        this.blobStore.deduplicate(file2, this.blobStore.hash(file2));
+        this.blobStore.deduplicate(file3, this.blobStore.hash(file3));
+
+        assertTrue(Files.isSameFile(file1.toPath(), file2.toPath()));
+        assertEquals(3, this.blobStore.getLinkCount(file1));
+        assertEquals(2, this.blobStore.getLinkCount(file3));
+        assertEquals("content", FileUtils.readFileToString(file2, "UTF-8"));
+    }
+
+    @Test
+    public void link() throws IOException
+    {
+        File source = createFile("source", "content");
+        File target = new File(this.tmpDir, "target");
+
+        assertTrue(this.blobStore.link(source, target));
+
+        assertTrue(Files.isSameFile(source.toPath(), target.toPath()));
+        assertEquals(2, this.blobStore.getLinkCount(source));
+    }
+
+    @Test
+    public void collectGarbage() throws IOException
+    {
+        File file1 = createFile("file1", "content");
+        File file2 = createFile("file2", "other content");
+        this.blobStore.deduplicate(file1, this.blobStore.hash(file1));
+        this.blobStore.deduplicate(file2, this.blobStore.hash(file2));
+
+        Files.delete(file2.toPath());
+
+        assertEquals(1, this.blobStore.collectGarbage());
+        assertEquals(2, this.blobStore.getLinkCount(file1));
+        assertEquals(0, this.blobStore.collectGarbage());
+    }
+}
@@ -33,6 +33,7 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ComponentTest
@@ -56,6 +57,7 @@ public void onEvent() throws IOException
         assertTrue(fooWikiTestDir.exists());
         wikiDeletedListener.onEvent(wikiDeletedEvent, null, null);
         assertFalse(fooWikiTestDir.exists());
+        verify(filesystemStoreTools).collectUnusedBlobs();
 
         File barWikiTestFile = Files.createTempFile("wikitest", "tempfile").toFile();
         when(filesystemStoreTools.getWikiDir(wikiId)).thenReturn(barWikiTestFile);
@@ -0,0 +1,137 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.filesystem.internal.migration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xwiki.context.Execution;
+import org.xwiki.context.ExecutionContext;
+import org.xwiki.environment.Environment;
+import org.xwiki.store.filesystem.internal.FilesystemBlobStore;
+import org.xwiki.store.filesystem.internal.FilesystemStoreTools;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.mockito.ComponentTest;
+import org.xwiki.test.junit5.mockito.InjectMockComponents;
+import org.xwiki.test.junit5.mockito.MockComponent;
+
+import com.xpn.xwiki.XWikiContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link R1260000AttachmentDeduplicationDataMigration}.
+ *
+ * @version $Id$
+ */
+@ComponentTest
+public class R1260000AttachmentDeduplicationDataMigrationTest
+{
+    private static final String CONTENT = "content";
+
+    @InjectMockComponents
+    private R1260000AttachmentDeduplicationDataMigration migration;
+
+    @MockComponent
+    private FilesystemStoreTools fstools;
+
+    @MockComponent
+    private Environment environment;
+
+    @MockComponent
+    private Execution execution;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        XWikiContext xcontext = mock(XWikiContext.class);
+        when(xcontext.getWikiId()).thenReturn("wiki");
+
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.setProperty("xwikicontext", xcontext);
+        when(this.execution.getContext()).thenReturn(executionContext);
+    }
+
+    private File createFile(File directory, String path) throws Exception
+    {
+        File file = new File(directory, path);
+        FileUtils.write(file, CONTENT, StandardCharsets.UTF_8);
+
+        return file;
+    }
+
+    @Test
+    public void hibernateMigrate(@XWikiTempDir File storeDirectory) throws Exception
+    {
+        File blobsDirectory = new File(storeDirectory, FilesystemStoreTools.BLOBS_DIR_NAME);
+        assumeTrue(FilesystemBlobStore.isSupported(blobsDirectory));
+
+        FilesystemBlobStore blobStore = new FilesystemBlobStore(blobsDirectory);
+        when(this.fstools.getBlobStore()).thenReturn(blobStore);
+
+        File wikiDirectory = new File(storeDirectory, "wiki");
+        when(this.fstools.getWikiDir("wiki")).thenReturn(wikiDirectory);
+
+        File attachment1 = createFile(wikiDirectory, "s/p/attachments/file1.txt/f.txt");
+        File attachment2 = createFile(wikiDirectory, "s/p/attachments/file2.txt/f.txt");
+        File archivedAttachment = createFile(wikiDirectory, "s/p/attachments/file2.txt/fv1.1.txt");
+        File attachmentMetadata = createFile(wikiDirectory, "s/p/attachments/file2.txt/~METADATA.xml");
+        File deletedAttachment = createFile(wikiDirectory, "s/p/deleted-attachments/file3.txt/1/f.txt");
+        File document = createFile(wikiDirectory, "s/p/~this/content.xml");
+
+        // Already shared
+        File sharedAttachment = createFile(wikiDirectory, "s/p/attachments/file4.txt/f.txt");
+        File sharedAttachmentLink = new File(wikiDirectory, "s/p/attachments/file5.txt/f.txt");
+        sharedAttachmentLink.getParentFile().mkdirs();
+        Files.createLink(sharedAttachmentLink.toPath(), sharedAttachment.toPath());
+
+        this.migration.hibernateMigrate();
+
+        assertTrue(Files.isSameFile(attachment1.toPath(), attachment2.toPath()));
+        assertTrue(Files.isSameFile(attachment1.toPath(), archivedAttachment.toPath()));
+        assertTrue(Files.isSameFile(attachment1.toPath(), deletedAttachment.toPath()));
+        // The 4 attachment contents and the blob
+        assertEquals(5, blobStore.getLinkCount(attachment1));
+
+        // The files which are not attachment contents are left alone
+        assertEquals(1, blobStore.getLinkCount(attachmentMetadata));
+        assertEquals(1, blobStore.getLinkCount(document));
+        assertEquals(2, blobStore.getLinkCount(sharedAttachment));
+    }
+
+    @Test
+    public void hibernateMigrateWhenDisabled() throws Exception
+    {
+        this.migration.hibernateMigrate();
+
+        verify(this.fstools, never()).getWikiDir(any());
+    }
+}
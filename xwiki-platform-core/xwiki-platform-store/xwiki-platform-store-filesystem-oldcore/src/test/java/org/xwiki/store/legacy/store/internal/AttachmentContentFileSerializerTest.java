@@ -0,0 +1,150 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.xwiki.store.legacy.store.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.xwiki.store.filesystem.internal.FilesystemBlobStore;
+import org.xwiki.store.filesystem.internal.FilesystemStoreTools;
+import org.xwiki.store.legacy.doc.internal.FilesystemAttachmentContent;
+import org.xwiki.test.junit5.XWikiTempDir;
+import org.xwiki.test.junit5.XWikiTempDirExtension;
+
+import com.xpn.xwiki.XWikiContext;
+import com.xpn.xwiki.doc.XWikiAttachment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validate {@link AttachmentContentFileSerializer}.
+ *
+ * @version $Id$
+ */
+@ExtendWith(XWikiTempDirExtension.class)
+public class AttachmentContentFileSerializerTest
+{
+    private static final String CONTENT = "content";
+
+    @XWikiTempDir
+    private File tmpDir;
+
+    private FilesystemBlobStore blobStore;
+
+    private XWikiContext context = mock(XWikiContext.class);
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        File blobsDirectory = new File(this.tmpDir, FilesystemStoreTools.BLOBS_DIR_NAME);
+
+        assumeTrue(FilesystemBlobStore.isSupported(blobsDirectory));
+
+        this.blobStore = new FilesystemBlobStore(blobsDirectory);
+    }
+
+    private XWikiAttachment mockAttachment(String content) throws Exception
+    {
+        XWikiAttachment attachment = mock(XWikiAttachment.class);
+        when(attachment.getContentInputStream(this.context))
+            .thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        return attachment;
+    }
+
+    private File serialize(XWikiAttachment attachment, FilesystemBlobStore blobStore, String name) throws Exception
+    {
+        File file = new File(this.tmpDir, name);
+        new AttachmentContentFileSerializer(attachment, blobStore, this.context).serialize(file);
+
+        return file;
+    }
+
+    @Test
+    public void serializeWithoutDeduplication() throws Exception
+    {
+        File file = serialize(mockAttachment(CONTENT), null, "file");
+
+        assertEquals(CONTENT, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        assertEquals(1, this.blobStore.getLinkCount(file));
+    }
+
+    @Test
+    public void serializeNewContent() throws Exception
+    {
+        File file1 = serialize(mockAttachment(CONTENT), this.blobStore, "file1");
+        File file2 = serialize(mockAttachment(CONTENT), this.blobStore, "file2");
+        File file3 = serialize(mockAttachment("other content"), this.blobStore, "file3");
+
+        assertEquals(CONTENT, FileUtils.readFileToString(file2, StandardCharsets.UTF_8));
+
+        // The digest computed while writing is the hash of the content
+        assertTrue(Files.isSameFile(file1.toPath(), file2.toPath()));
+        assertFalse(Files.isSameFile(file1.toPath(), file3.toPath()));
+        assertEquals(3, this.blobStore.getLinkCount(file1));
+        assertEquals(2, this.blobStore.getLinkCount(file3));
+        assertEquals(this.blobStore.hash(file1), this.blobStore.hash(file2));
+    }
+
+    @Test
+    public void serializeStoredContent() throws Exception
+    {
+        File storageFile = new File(this.tmpDir, "storage");
+        FileUtils.write(storageFile, CONTENT, StandardCharsets.UTF_8);
+
+        XWikiAttachment attachment = mock(XWikiAttachment.class);
+        when(attachment.getAttachment_content()).thenReturn(new FilesystemAttachmentContent(storageFile));
+
+        File file = serialize(attachment, this.blobStore, "file");
+
+        // The content is linked instead of being copied
+        assertTrue(Files.isSameFile(storageFile.toPath(), file.toPath()));
+        assertEquals(2, this.blobStore.getLinkCount(storageFile));
+        verify(attachment, never()).getContentInputStream(any());
+    }
+
+    @Test
+    public void serializeMissingStoredContent() throws Exception
+    {
+        XWikiAttachment attachment = mockAttachment(CONTENT);
+        when(attachment.getAttachment_content())
+            .thenReturn(new FilesystemAttachmentContent(new File(this.tmpDir, "missing")));
+
+        File file = serialize(attachment, this.blobStore, "file");
+
+        assertEquals(CONTENT, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        assertEquals(2, this.blobStore.getLinkCount(file));
+    }
+}
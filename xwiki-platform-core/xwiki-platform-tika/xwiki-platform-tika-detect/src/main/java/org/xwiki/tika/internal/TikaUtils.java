@@ -33,8 +33,12 @@
 import org.apache.tika.exception.TikaException;
 import org.apache.tika.exception.ZeroByteFileException;
 import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
 
 /**
  * Provide a pre-configured {@link Tika} instance.
@@ -157,6 +161,35 @@ public static String parseToString(InputStream stream, Metadata metadata) throws
         }
     }
 
+    /**
+     * Parse the passed document and stream the extracted content to the passed handler instead of accumulating it in
+     * memory.
+     * 
+     * @see Parser#parse(InputStream, ContentHandler, Metadata, ParseContext)
+     * @param stream the document to be parsed
+     * @param handler the handler receiving the extracted content
+     * @param metadata document metadata
+     * @throws IOException if the document can not be read
+     * @throws SAXException if the handler failed to process the content
+     * @throws TikaException if the document can not be parsed
+     * @since 12.6
+     */
+    public static void parse(InputStream stream, ContentHandler handler, Metadata metadata)
+        throws IOException, SAXException, TikaException
+    {
+        Parser parser = tika.getParser();
+
+        // Make sure embedded documents are parsed too, like Tika#parseToString does
+        ParseContext context = new ParseContext();
+        context.set(Parser.class, parser);
+
+        try {
+            parser.parse(safeInputStream(stream), handler, metadata, context);
+        } catch (ZeroByteFileException e) {
+            // How is empty file an issue ?
+        }
+    }
+
     /**
      * @see Tika#parseToString(InputStream)
      * @param stream the document to be parsed
@@ -20,10 +20,15 @@
 package org.xwiki.tika.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
 
 import org.apache.commons.io.input.AutoCloseInputStream;
 import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.sax.BodyContentHandler;
 import org.junit.jupiter.api.Test;
+import org.xml.sax.SAXException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -46,4 +51,15 @@ public void parseAutoclosable() throws IOException, TikaException
         assertEquals("\nPDF content\n\n\n",
             TikaUtils.parseToString(new AutoCloseInputStream(getClass().getResourceAsStream("/pdf.pdf"))));
     }
+
+    @Test
+    public void parseToHandler() throws IOException, SAXException, TikaException
+    {
+        StringWriter writer = new StringWriter();
+        try (InputStream stream = getClass().getResourceAsStream("/pdf.pdf")) {
+            TikaUtils.parse(stream, new BodyContentHandler(writer), new Metadata());
+        }
+
+        assertEquals("\nPDF content\n\n\n", writer.toString());
+    }
 }